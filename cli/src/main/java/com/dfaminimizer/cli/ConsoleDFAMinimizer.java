@@ -1,17 +1,31 @@
-package com.dfaminimizer;
+package com.dfaminimizer.cli;
 
 import com.dfaminimizer.model.DFA;
 import com.dfaminimizer.model.State;
 import com.dfaminimizer.algorithm.DFAMinimizer;
+import com.dfaminimizer.io.DFAJsonCodec;
+import com.dfaminimizer.io.DFATextFormat;
 
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Scanner;
 
 /**
- * Console-based DFA Minimization Tool (no JavaFX required)
+ * Console-based DFA Minimization Tool (no JavaFX required).
+ * <p>
+ * Without arguments the tool runs interactively. With a file argument it minimizes that DFA,
+ * prints the result to stdout and exits, which suits scripts and short-lived invocations:
+ * {@code .json} files use {@link DFAJsonCodec}, other files and {@code -} (stdin) the text form
+ * of {@link DFATextFormat}. Add {@code --json} to read stdin as JSON.
  */
 public class ConsoleDFAMinimizer {
     
     public static void main(String[] args) {
+        if (args.length > 0) {
+            System.exit(minimizeFile(args));
+        }
         Scanner scanner = new Scanner(System.in);
         
         System.out.println("DFA Minimization Tool - Console Version");
@@ -44,6 +58,32 @@ public class ConsoleDFAMinimizer {
         }
     }
     
+    /**
+     * Minimizes the DFA named by the arguments and writes it in the same format
+     * @return The exit status
+     */
+    private static int minimizeFile(String[] args) {
+        String file = args[args.length - 1];
+        boolean json = file.endsWith(".json") || (args.length > 1 && args[0].equals("--json"));
+        try (Reader in = file.equals("-")
+                ? new InputStreamReader(System.in, StandardCharsets.UTF_8)
+                : Files.newBufferedReader(Path.of(file), StandardCharsets.UTF_8)) {
+            Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+            if (json) {
+                DFAJsonCodec.write(new DFAMinimizer(false).minimize(DFAJsonCodec.read(in)), out);
+            } else {
+                StringWriter text = new StringWriter();
+                in.transferTo(text);
+                out.write(DFATextFormat.format(new DFAMinimizer(false).minimize(DFATextFormat.parse(text.toString()))));
+                out.flush();
+            }
+            return 0;
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            return 1;
+        }
+    }
+    
     private static void loadAndMinimizeExample() {
         System.out.println("\nLoading example DFA...");
         DFA dfa = createExampleDFA();
@@ -98,7 +138,7 @@ public class ConsoleDFAMinimizer {
             // Set start state
             State start = dfa.getStateByName(startState);
             if (start != null) {
-                start.setStart(true);
+                dfa.setStartState(start);
             }
             
             // Set final states
@@ -107,7 +147,7 @@ public class ConsoleDFAMinimizer {
                 if (!finalStateName.isEmpty()) {
                     State finalState = dfa.getStateByName(finalStateName);
                     if (finalState != null) {
-                        finalState.setFinal(true);
+                        dfa.addFinalState(finalState);
                     }
                 }
             }
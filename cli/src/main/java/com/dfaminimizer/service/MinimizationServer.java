@@ -0,0 +1,314 @@
+package com.dfaminimizer.service;
+
+import com.dfaminimizer.algorithm.DFAMinimizer;
+import com.dfaminimizer.algorithm.MinimizationEngine;
+import com.dfaminimizer.io.DFAJsonCodec;
+import com.dfaminimizer.io.DFATextFormat;
+import com.dfaminimizer.model.CompactDFA;
+import com.dfaminimizer.model.DFA;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Embedded HTTP endpoint that minimizes DFAs with the Java engines.
+ * <p>
+ * {@code POST /minimize} accepts either the text form of {@link DFATextFormat} ({@code text/plain})
+ * or the JSON document of {@link DFAJsonCodec} ({@code application/json}), which is what the web app
+ * exports. The response uses the same format as the request and carries the minimized DFA and its
+ * statistics: in {@code X-*} headers for text, and for JSON as an object with the members
+ * {@code dfa}, a codec document, and {@code stats}.
+ * <p>
+ * Requests are handled on virtual threads when the JVM supports them. Minimization runs on a fixed
+ * number of workers, and at most {@code workers + queueCapacity} requests are admitted at a time;
+ * further requests are answered immediately with 503 and a {@code Retry-After} header instead of
+ * queueing without bound. A request is only admitted once its body has been read, so a slow client
+ * cannot hold a slot while it sends; reading has its own limit of {@value #MAX_CONCURRENT_READS}
+ * bodies at a time, and a body announced larger than {@value #MAX_REQUEST_BYTES} bytes is refused
+ * before it is read. Results are cached by the normalized text of the input. The
+ * server binds to the loopback interface only, and sends an {@code Access-Control-Allow-Origin}
+ * header and answers {@code OPTIONS} preflight requests only if an origin was configured.
+ */
+public class MinimizationServer {
+    
+    /** Default number of minimization workers */
+    public static final int DEFAULT_WORKERS = Runtime.getRuntime().availableProcessors();
+    /** Default number of admitted requests waiting for a worker */
+    public static final int DEFAULT_QUEUE_CAPACITY = 64;
+    /** Default number of cached results */
+    public static final int DEFAULT_CACHE_SIZE = 1024;
+    /** Largest accepted request body */
+    public static final int MAX_REQUEST_BYTES = 4 * 1024 * 1024;
+    /** Largest number of request bodies read at a time */
+    public static final int MAX_CONCURRENT_READS = 16;
+    
+    private final MinimizationEngine engine;
+    private final HttpServer server;
+    private final ExecutorService requestExecutor;
+    private final ExecutorService workers;
+    private final Semaphore admitted;
+    private final Semaphore reading = new Semaphore(MAX_CONCURRENT_READS);
+    private final int maxCacheSize;
+    private final String allowedOrigin;
+    private final Map<String, Result> cache = new ConcurrentHashMap<>();
+    
+    /**
+     * Creates a server with the default engine and limits
+     * @param port Port on the loopback interface, or 0 to pick a free port
+     */
+    public MinimizationServer(int port) throws IOException {
+        this(port, new DFAMinimizer(false), DEFAULT_WORKERS, DEFAULT_QUEUE_CAPACITY, DEFAULT_CACHE_SIZE);
+    }
+    
+    /**
+     * @param port Port on the loopback interface, or 0 to pick a free port
+     * @param engine Engine used for minimization
+     * @param workers Number of requests minimized concurrently
+     * @param queueCapacity Number of admitted requests that may wait for a worker
+     * @param maxCacheSize Number of results kept before the cache is cleared
+     */
+    public MinimizationServer(int port, MinimizationEngine engine, int workers, int queueCapacity, int maxCacheSize)
+            throws IOException {
+        this(port, engine, workers, queueCapacity, maxCacheSize, null);
+    }
+    
+    /**
+     * @param port Port on the loopback interface, or 0 to pick a free port
+     * @param engine Engine used for minimization
+     * @param workers Number of requests minimized concurrently
+     * @param queueCapacity Number of admitted requests that may wait for a worker
+     * @param maxCacheSize Number of results kept before the cache is cleared
+     * @param allowedOrigin Origin allowed to call the server from a browser, such as
+     *        {@code http://localhost:8080}, or null to send no CORS header
+     */
+    public MinimizationServer(int port, MinimizationEngine engine, int workers, int queueCapacity, int maxCacheSize,
+                              String allowedOrigin) throws IOException {
+        if (workers < 1 || queueCapacity < 0) {
+            throw new IllegalArgumentException("Need at least one worker and a non-negative queue capacity");
+        }
+        this.engine = engine;
+        this.maxCacheSize = maxCacheSize;
+        this.allowedOrigin = allowedOrigin;
+        this.admitted = new Semaphore(workers + queueCapacity);
+        this.workers = Executors.newFixedThreadPool(workers, VirtualThreads.factory("minimizer-worker"));
+        this.requestExecutor = Executors.newCachedThreadPool(VirtualThreads.factory("minimizer-http"));
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.setExecutor(requestExecutor);
+        server.createContext("/minimize", this::handleMinimize);
+    }
+    
+    public void start() {
+        server.start();
+    }
+    
+    /**
+     * Stops accepting requests and shuts the worker pool down
+     * @param delaySeconds Time to let running exchanges finish
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        workers.shutdownNow();
+        requestExecutor.shutdownNow();
+    }
+    
+    /**
+     * The port the server is bound to
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+    
+    /**
+     * Number of cached results
+     */
+    public int getCacheSize() {
+        return cache.size();
+    }
+    
+    private void handleMinimize(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (exchange.getRequestMethod().equals("OPTIONS") && allowedOrigin != null) {
+                // CORS preflight, sent by browsers before a JSON POST from another origin
+                exchange.getResponseHeaders().set("Access-Control-Allow-Origin", allowedOrigin);
+                exchange.getResponseHeaders().set("Access-Control-Allow-Methods", "POST, OPTIONS");
+                exchange.getResponseHeaders().set("Access-Control-Allow-Headers", "Content-Type");
+                exchange.getResponseHeaders().set("Access-Control-Max-Age", "600");
+                exchange.sendResponseHeaders(204, -1);
+                return;
+            }
+            if (!exchange.getRequestMethod().equals("POST")) {
+                exchange.getResponseHeaders().set("Allow", allowedOrigin != null ? "POST, OPTIONS" : "POST");
+                send(exchange, 405, "text/plain", "Use POST");
+                return;
+            }
+            String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+            boolean json = contentType != null && contentType.startsWith("application/json");
+            if (contentType != null && !json && !contentType.startsWith("text/plain")) {
+                send(exchange, 415, "text/plain", "Expected application/json or text/plain");
+                return;
+            }
+            String contentLength = exchange.getRequestHeaders().getFirst("Content-Length");
+            if (contentLength != null && Long.parseLong(contentLength.trim()) > MAX_REQUEST_BYTES) {
+                send(exchange, 413, "text/plain", "Request body exceeds " + MAX_REQUEST_BYTES + " bytes");
+                return;
+            }
+            // Read before admission, so slots are only held by requests that are ready to run
+            if (!reading.tryAcquire()) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                send(exchange, 503, "text/plain", "Too many uploads in progress");
+                return;
+            }
+            String body;
+            try {
+                body = readBody(exchange.getRequestBody());
+            } finally {
+                reading.release();
+            }
+            if (body == null) {
+                send(exchange, 413, "text/plain", "Request body exceeds " + MAX_REQUEST_BYTES + " bytes");
+                return;
+            }
+            if (!admitted.tryAcquire()) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                send(exchange, 503, "text/plain", "Too many requests in progress");
+                return;
+            }
+            try {
+                DFA dfa = json ? DFAJsonCodec.read(new StringReader(body)) : DFATextFormat.parse(body);
+                Result result = workers.submit(() -> minimize(dfa)).get();
+                if (json) {
+                    send(exchange, 200, "application/json", toJson(result));
+                } else {
+                    setStatsHeaders(exchange, result);
+                    send(exchange, 200, "text/plain", result.text);
+                }
+            } catch (IllegalArgumentException e) {
+                send(exchange, 400, "text/plain", e.getMessage());
+            } catch (ExecutionException e) {
+                send(exchange, 500, "text/plain", "Minimization failed: " + e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                send(exchange, 503, "text/plain", "Server is shutting down");
+            } catch (RejectedExecutionException e) {
+                send(exchange, 503, "text/plain", "Server is shutting down");
+            } finally {
+                admitted.release();
+            }
+        }
+    }
+    
+    private Result minimize(DFA dfa) {
+        String key = DFATextFormat.format(dfa);
+        Result cached = cache.get(key);
+        if (cached != null) {
+            return cached.asCached();
+        }
+        long startTime = System.nanoTime();
+        CompactDFA compact = CompactDFA.of(dfa);
+        DFA minimized = engine.minimize(compact).toDFA();
+        long micros = (System.nanoTime() - startTime) / 1000;
+        Result result = new Result(minimized, DFATextFormat.format(minimized), dfa.getStates().size(),
+                compact.getAlphabetSize(), micros, false);
+        if (cache.size() >= maxCacheSize) {
+            cache.clear();
+        }
+        cache.putIfAbsent(key, result);
+        return result;
+    }
+    
+    private static String toJson(Result result) throws IOException {
+        StringWriter dfa = new StringWriter();
+        DFAJsonCodec.write(result.dfa, dfa);
+        return new StringBuilder("{\"dfa\": ").append(dfa.toString().strip())
+                .append(",\n\"stats\": {\"originalStates\": ").append(result.originalStates)
+                .append(", \"minimizedStates\": ").append(result.dfa.getStates().size())
+                .append(", \"symbolClasses\": ").append(result.symbolClasses)
+                .append(", \"micros\": ").append(result.micros)
+                .append(", \"cached\": ").append(result.cached)
+                .append("}}\n").toString();
+    }
+    
+    private static void setStatsHeaders(HttpExchange exchange, Result result) {
+        exchange.getResponseHeaders().set("X-Original-States", String.valueOf(result.originalStates));
+        exchange.getResponseHeaders().set("X-Minimized-States", String.valueOf(result.dfa.getStates().size()));
+        exchange.getResponseHeaders().set("X-Symbol-Classes", String.valueOf(result.symbolClasses));
+        exchange.getResponseHeaders().set("X-Micros", String.valueOf(result.micros));
+        exchange.getResponseHeaders().set("X-Cached", String.valueOf(result.cached));
+    }
+    
+    /**
+     * Reads the whole body, or returns null if it is larger than the limit
+     */
+    private static String readBody(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            if (out.size() + read > MAX_REQUEST_BYTES) {
+                return null;
+            }
+            out.write(buffer, 0, read);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+    
+    private void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType + "; charset=utf-8");
+        if (allowedOrigin != null) {
+            exchange.getResponseHeaders().set("Access-Control-Allow-Origin", allowedOrigin);
+        }
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+    
+    /**
+     * Minimized automaton together with its statistics
+     */
+    private static final class Result {
+        final DFA dfa;
+        final String text;
+        final int originalStates;
+        final int symbolClasses;
+        final long micros;
+        final boolean cached;
+        
+        Result(DFA dfa, String text, int originalStates, int symbolClasses, long micros, boolean cached) {
+            this.dfa = dfa;
+            this.text = text;
+            this.originalStates = originalStates;
+            this.symbolClasses = symbolClasses;
+            this.micros = micros;
+            this.cached = cached;
+        }
+        
+        Result asCached() {
+            return new Result(dfa, text, originalStates, symbolClasses, micros, true);
+        }
+    }
+    
+    /**
+     * Starts a server on the given port (default 8081) until the process is stopped. An optional
+     * second argument is the origin allowed to call the server from a browser.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8081;
+        MinimizationServer server = new MinimizationServer(port, new DFAMinimizer(false), DEFAULT_WORKERS,
+                DEFAULT_QUEUE_CAPACITY, DEFAULT_CACHE_SIZE, args.length > 1 ? args[1] : null);
+        server.start();
+        System.out.println("Minimization service listening on http://localhost:" + server.getPort() + "/minimize");
+    }
+}
@@ -0,0 +1,219 @@
+package com.dfaminimizer.service;
+
+import com.dfaminimizer.algorithm.DFAMinimizer;
+import com.dfaminimizer.algorithm.MinimizationEngine;
+import com.dfaminimizer.model.CompactDFA;
+import com.dfaminimizer.model.DFA;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
+
+/**
+ * Minimizes many independent DFAs concurrently.
+ * <p>
+ * Every submitted DFA becomes a job whose result is a {@link CompletableFuture}. Small jobs, with
+ * a transition table of at most {@code largeThreshold} entries, run on virtual threads when the
+ * JVM supports them, since there may be thousands of them at once; without virtual threads they
+ * run on a fixed pool of one platform thread per processor instead of a thread per job. Large jobs
+ * run on a fixed pool of platform threads, so they cannot occupy more cores than configured.
+ * <p>
+ * At most {@code maxInFlight} jobs are admitted at a time; {@link #submit} blocks until a running
+ * job finishes. Jobs that take longer than the timeout complete with a {@link TimeoutException},
+ * and their thread is interrupted, which {@link DFAMinimizer} checks between refinement rounds.
+ * A job keeps its slot until its thread has actually stopped. The engine should be quiet, as the
+ * default {@code new DFAMinimizer(false)} is.
+ */
+public class MinimizationService implements AutoCloseable {
+    
+    /** Default largest number of table entries (states times symbol classes) for a small job */
+    public static final int DEFAULT_LARGE_THRESHOLD = 64 * 1024;
+    /** Default number of platform threads for large jobs */
+    public static final int DEFAULT_PLATFORM_THREADS = Runtime.getRuntime().availableProcessors();
+    /** Default number of jobs admitted at a time */
+    public static final int DEFAULT_MAX_IN_FLIGHT = 1024;
+    /** Default time limit per job */
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
+    
+    private final MinimizationEngine engine;
+    private final int largeThreshold;
+    private final Duration timeout;
+    private final Semaphore inFlight;
+    private final int maxInFlight;
+    private final ExecutorService smallJobs;
+    private final ExecutorService largeJobs;
+    
+    /**
+     * Creates a service with the default engine and limits
+     */
+    public MinimizationService() {
+        this(new DFAMinimizer(false), DEFAULT_LARGE_THRESHOLD, DEFAULT_PLATFORM_THREADS, DEFAULT_MAX_IN_FLIGHT,
+                DEFAULT_TIMEOUT);
+    }
+    
+    /**
+     * @param engine Engine used for minimization; must be thread safe
+     * @param largeThreshold Largest number of table entries for a job to run on a virtual thread
+     * @param platformThreads Number of platform threads for large jobs
+     * @param maxInFlight Number of jobs admitted at a time
+     * @param timeout Time limit per job, measured from admission
+     */
+    public MinimizationService(MinimizationEngine engine, int largeThreshold, int platformThreads, int maxInFlight,
+            Duration timeout) {
+        if (platformThreads < 1 || maxInFlight < 1 || timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("Need at least one thread, one job in flight and a positive timeout");
+        }
+        this.engine = engine;
+        this.largeThreshold = largeThreshold;
+        this.timeout = timeout;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        // A thread per job is only cheap when the threads are virtual
+        this.smallJobs = VirtualThreads.isAvailable()
+                ? Executors.newCachedThreadPool(VirtualThreads.factory("minimizer-small"))
+                : Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+                        VirtualThreads.platformFactory("minimizer-small"));
+        this.largeJobs = Executors.newFixedThreadPool(platformThreads, VirtualThreads.platformFactory("minimizer-large"));
+    }
+    
+    /**
+     * Submits a DFA in table form, waiting for a free slot if {@code maxInFlight} jobs are running
+     * @return The minimized DFA, or a future that failed with the engine's exception, a
+     *         {@link TimeoutException}, or an {@link InterruptedException} if the caller was
+     *         interrupted while waiting for a slot
+     */
+    public CompletableFuture<CompactDFA> submit(CompactDFA dfa) {
+        CompletableFuture<CompactDFA> result = new CompletableFuture<>();
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.completeExceptionally(e);
+            return result;
+        }
+        Job job = new Job(dfa, result);
+        try {
+            (isLarge(dfa) ? largeJobs : smallJobs).execute(job);
+        } catch (RejectedExecutionException e) {
+            inFlight.release();
+            result.completeExceptionally(e);
+            return result;
+        }
+        result.orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        result.whenComplete((minimized, error) -> {
+            if (error != null) {
+                job.interrupt();
+            }
+        });
+        return result;
+    }
+    
+    /**
+     * Submits a DFA, waiting for a free slot if {@code maxInFlight} jobs are running
+     */
+    public CompletableFuture<DFA> submit(DFA dfa) {
+        return submit(CompactDFA.of(dfa)).thenApply(CompactDFA::toDFA);
+    }
+    
+    /**
+     * Submits every DFA of the stream in order. Because submission waits for free slots, at most
+     * {@code maxInFlight} automata are being minimized while the rest of the stream is consumed.
+     * @return One future per DFA, in stream order
+     */
+    public List<CompletableFuture<DFA>> submitAll(Stream<DFA> dfas) {
+        List<CompletableFuture<DFA>> results = new ArrayList<>();
+        dfas.forEachOrdered(dfa -> results.add(submit(dfa)));
+        return results;
+    }
+    
+    /**
+     * Returns true if a DFA is routed to the platform thread pool
+     */
+    public boolean isLarge(CompactDFA dfa) {
+        return (long) dfa.getStateCount() * dfa.getAlphabetSize() > largeThreshold;
+    }
+    
+    /**
+     * Number of jobs admitted and not yet finished
+     */
+    public int getInFlight() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+    
+    /**
+     * Stops accepting jobs, interrupts running ones and cancels the futures of jobs that have not
+     * started, freeing their slots
+     */
+    @Override
+    public void close() {
+        List<Runnable> queued = new ArrayList<>(smallJobs.shutdownNow());
+        queued.addAll(largeJobs.shutdownNow());
+        for (Runnable job : queued) {
+            ((Job) job).cancel();
+        }
+    }
+    
+    /**
+     * One minimization. The thread running it may only be interrupted while the job runs, so a
+     * late timeout cannot interrupt the next job on a pooled thread.
+     */
+    private final class Job implements Runnable {
+        private final CompactDFA dfa;
+        private final CompletableFuture<CompactDFA> result;
+        private Thread runner;
+        
+        Job(CompactDFA dfa, CompletableFuture<CompactDFA> result) {
+            this.dfa = dfa;
+            this.result = result;
+        }
+        
+        @Override
+        public void run() {
+            if (!start()) {
+                inFlight.release();
+                return;
+            }
+            try {
+                result.complete(engine.minimize(dfa));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            } finally {
+                finish();
+                inFlight.release();
+            }
+        }
+        
+        /**
+         * Registers the current thread, or returns false if the job already timed out
+         */
+        private synchronized boolean start() {
+            if (result.isDone()) {
+                return false;
+            }
+            runner = Thread.currentThread();
+            return true;
+        }
+        
+        private synchronized void finish() {
+            runner = null;
+            // Clear an interrupt that arrived after the engine returned
+            Thread.interrupted();
+        }
+        
+        /**
+         * Completes the future of a job that will never run with a {@link CancellationException}
+         */
+        void cancel() {
+            result.cancel(false);
+            inFlight.release();
+        }
+        
+        synchronized void interrupt() {
+            if (runner != null) {
+                runner.interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.dfaminimizer.service;
+
+import com.dfaminimizer.algorithm.Signatures;
+import com.dfaminimizer.model.MappedDFA;
+import com.dfaminimizer.model.MappedIntArray;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Worker process of a {@link ShardedMinimizer}, refining the blocks of one range of states.
+ * <p>
+ * The worker connects to the coordinator port given as its only argument and maps the transition
+ * table and the shared partition files named in the first message. Each round then takes three
+ * commands: {@link #SIGN} groups the states of the range by signature, stores the signature hash
+ * of each group's representative and answers with the representatives; {@link #MERGE} matches the
+ * representatives of all ranges whose hash falls into this worker's share of the hash space; and
+ * {@link #APPLY} copies the block ids the coordinator assigned to the representatives to all
+ * states of the range. Only the representatives and short commands go over the socket.
+ */
+public final class ShardWorker {
+    
+    static final byte STOP = 0;
+    static final byte SIGN = 1;
+    static final byte APPLY = 2;
+    static final byte MERGE = 3;
+    
+    /** Names of the shared partition files in the scratch directory */
+    static final String[] BLOCK_FILES = {"block-a.bin", "block-b.bin"};
+    static final String REPRESENTATIVE_BLOCKS_FILE = "representative-blocks.bin";
+    /** Representatives of all ranges in state order, written by the coordinator */
+    static final String REPRESENTATIVES_FILE = "representatives.bin";
+    /** Signature hash of every representative */
+    static final String HASHES_FILE = "hashes.bin";
+    
+    private final int alphabetSize;
+    private final int from;
+    private final int to;
+    /** This worker's share of the hash space, as an index among {@code shards} equal parts */
+    private final int shard;
+    private final int shards;
+    private final Signatures.Transitions next;
+    private final MappedIntArray transitions;
+    private final MappedIntArray[] blocks;
+    private final MappedIntArray representativeBlocks;
+    private final MappedIntArray representativeList;
+    private final MappedIntArray hashes;
+    /** Representative of every state in the range, relative to the range start */
+    private final int[] representatives;
+    
+    private ShardWorker(Path dfaDirectory, Path scratch, int alphabetSize, int from, int to, int shard, int shards)
+            throws IOException {
+        this.alphabetSize = alphabetSize;
+        this.from = from;
+        this.to = to;
+        this.shard = shard;
+        this.shards = shards;
+        this.transitions = MappedIntArray.open(dfaDirectory.resolve(MappedDFA.TRANSITIONS_FILE));
+        // Entries hold target + 1, so 0 is a missing transition
+        this.next = (state, symbol) -> transitions.get((long) state * alphabetSize + symbol) - 1;
+        this.blocks = new MappedIntArray[] {
+                MappedIntArray.open(scratch.resolve(BLOCK_FILES[0])),
+                MappedIntArray.open(scratch.resolve(BLOCK_FILES[1]))
+        };
+        this.representativeBlocks = MappedIntArray.open(scratch.resolve(REPRESENTATIVE_BLOCKS_FILE));
+        this.representativeList = MappedIntArray.open(scratch.resolve(REPRESENTATIVES_FILE));
+        this.hashes = MappedIntArray.open(scratch.resolve(HASHES_FILE));
+        this.representatives = new int[to - from];
+    }
+    
+    public static void main(String[] args) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), Integer.parseInt(args[0]));
+                DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            ShardWorker worker = new ShardWorker(Path.of(in.readUTF()), Path.of(in.readUTF()), in.readInt(),
+                    in.readInt(), in.readInt(), in.readInt(), in.readInt());
+            worker.serve(in, out);
+        }
+    }
+    
+    private void serve(DataInputStream in, DataOutputStream out) throws IOException {
+        while (true) {
+            byte command = in.readByte();
+            if (command == STOP) {
+                return;
+            }
+            MappedIntArray block = blocks[in.readInt()];
+            if (command == SIGN) {
+                int count = sign(block);
+                out.writeInt(count);
+                for (int i = 0; i < representatives.length; i++) {
+                    if (representatives[i] == i) {
+                        out.writeInt(from + i);
+                    }
+                }
+            } else if (command == MERGE) {
+                merge(block, in.readInt());
+                out.writeByte(MERGE);
+            } else if (command == APPLY) {
+                for (int i = 0; i < representatives.length; i++) {
+                    block.set(from + i, representativeBlocks.get(from + representatives[i]));
+                }
+                out.writeByte(APPLY);
+            } else {
+                throw new IOException("Unknown command " + command);
+            }
+            out.flush();
+        }
+    }
+    
+    /**
+     * Finds the first state of the range with the same signature as each state, and stores the
+     * signature hash of every representative for the merge
+     * @return The number of distinct signatures
+     */
+    private int sign(MappedIntArray block) {
+        int[] table = new int[Integer.highestOneBit(Math.max(1, to - from)) * 4];
+        Arrays.fill(table, -1);
+        int mask = table.length - 1;
+        Signatures.IntArray blockOf = block::get;
+        int count = 0;
+        for (int s = from; s < to; s++) {
+            int hash = Signatures.hash(next, alphabetSize, blockOf, s);
+            int slot = hash & mask;
+            while (true) {
+                int representative = table[slot];
+                if (representative == -1) {
+                    table[slot] = s;
+                    representatives[s - from] = s - from;
+                    hashes.set(s, hash);
+                    count++;
+                    break;
+                }
+                if (Signatures.same(next, alphabetSize, blockOf, s, representative)) {
+                    representatives[s - from] = representative - from;
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Finds, for every representative whose hash falls into this worker's share, the first
+     * representative in state order with the same signature, and stores it in the representative
+     * blocks for the coordinator to number
+     * @param total Number of representatives of all ranges
+     */
+    private void merge(MappedIntArray block, int total) {
+        int owned = 0;
+        for (int i = 0; i < total; i++) {
+            if (owns(hashes.get(representativeList.get(i)))) {
+                owned++;
+            }
+        }
+        int[] table = new int[Integer.highestOneBit(Math.max(1, owned)) * 4];
+        Arrays.fill(table, -1);
+        int mask = table.length - 1;
+        Signatures.IntArray blockOf = block::get;
+        for (int i = 0; i < total; i++) {
+            int s = representativeList.get(i);
+            int hash = hashes.get(s);
+            if (!owns(hash)) {
+                continue;
+            }
+            int slot = hash & mask;
+            while (true) {
+                int other = table[slot];
+                if (other == -1) {
+                    table[slot] = s;
+                    representativeBlocks.set(s, s);
+                    break;
+                }
+                if (Signatures.same(next, alphabetSize, blockOf, s, other)) {
+                    representativeBlocks.set(s, other);
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+    }
+    
+    /**
+     * Returns true if the hash is in this worker's share; shares are split by the high bits, which
+     * leaves the low bits for the table slots
+     */
+    private boolean owns(int hash) {
+        return (int) (((hash & 0xFFFFFFFFL) * shards) >>> 32) == shard;
+    }
+}
@@ -0,0 +1,319 @@
+package com.dfaminimizer.service;
+
+import com.dfaminimizer.algorithm.DFAMinimizer;
+import com.dfaminimizer.algorithm.MappedMinimizer;
+import com.dfaminimizer.algorithm.MinimizationEngine;
+import com.dfaminimizer.model.CompactDFA;
+import com.dfaminimizer.model.DFA;
+import com.dfaminimizer.model.MappedDFA;
+import com.dfaminimizer.model.MappedIntArray;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Minimizes a {@link MappedDFA} with several local worker processes.
+ * <p>
+ * The states are split into one contiguous range per worker. All processes map the same files:
+ * the transition table of the DFA, two partition arrays that alternate between rounds, and arrays
+ * for the representatives, their signature hashes and their block ids. A refinement round has
+ * three steps:
+ * <ol>
+ *     <li>Every {@link ShardWorker} groups the states of its range by signature, as in the
+ *     {@code minimize} loop of {@link MappedMinimizer}, and sends one representative per group.</li>
+ *     <li>The hash space is split into one share per worker, and every worker matches the
+ *     representatives of all ranges whose hash is in its share, linking each to the first one in
+ *     state order with the same signature.</li>
+ *     <li>The coordinator numbers the representatives in state order by following these links,
+ *     and the workers copy the new block ids to every state of their range.</li>
+ * </ol>
+ * Blocks are therefore numbered exactly as by the single process engines. Only representatives
+ * and short commands go over the loopback sockets; the coordinator's own work per round is one
+ * sequential pass over the representatives, without hashing or a table.
+ * <p>
+ * Workers are started with the {@code java} launcher of the running JVM and the same class or
+ * module path, and are stopped when the minimization ends or fails.
+ */
+public class ShardedMinimizer implements MinimizationEngine {
+    
+    /** How long to wait for started workers to connect */
+    private static final int CONNECT_TIMEOUT_MILLIS = 60_000;
+    private static final int ACCEPT_POLL_MILLIS = 200;
+    
+    private final int workers;
+    private final Path workDirectory;
+    
+    /**
+     * Creates a minimizer that keeps its scratch files in the default temporary directory
+     * @param workers Number of worker processes
+     */
+    public ShardedMinimizer(int workers) {
+        this(workers, Path.of(System.getProperty("java.io.tmpdir")));
+    }
+    
+    /**
+     * @param workers Number of worker processes
+     * @param workDirectory Directory for scratch files, with room for five ints per state
+     */
+    public ShardedMinimizer(int workers, Path workDirectory) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Need at least one worker: " + workers);
+        }
+        this.workers = workers;
+        this.workDirectory = workDirectory;
+    }
+    
+    @Override
+    public DFA minimize(DFA dfa) {
+        return minimize(CompactDFA.of(dfa)).toDFA();
+    }
+    
+    /**
+     * Minimizes a DFA in table form by copying it to mapped files, mainly for testing. Mapped files
+     * do not store output labels, so labelled automata are minimized in this process by {@link DFAMinimizer}.
+     */
+    @Override
+    public CompactDFA minimize(CompactDFA dfa) {
+        if (dfa.hasOutputs()) {
+            return new DFAMinimizer(false).minimize(dfa);
+        }
+        try {
+            Path scratch = Files.createTempDirectory(Files.createDirectories(workDirectory), "dfa-");
+            try (MappedDFA mapped = MappedDFA.of(dfa, scratch.resolve("input"));
+                    MappedDFA minimized = minimize(mapped, scratch.resolve("output"))) {
+                return minimized.toCompactDFA();
+            } finally {
+                MappedIntArray.deleteDirectory(scratch);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * Minimizes a DFA in mapped form
+     * @param dfa The DFA to minimize
+     * @param output Directory for the files of the minimized DFA
+     * @return The minimized DFA with the start state, if any, numbered 0
+     * @throws CancellationException If the thread is interrupted, checked once per refinement round
+     * @throws IOException If a file cannot be mapped, or a worker cannot be started or fails
+     */
+    public MappedDFA minimize(MappedDFA dfa, Path output) throws IOException {
+        int n = dfa.getStateCount();
+        int shards = Math.min(workers, n);
+        Path scratch = Files.createTempDirectory(Files.createDirectories(workDirectory), "shards-");
+        List<Process> processes = new ArrayList<>();
+        List<Connection> connections = new ArrayList<>();
+        try (MappedIntArray first = MappedIntArray.create(scratch.resolve(ShardWorker.BLOCK_FILES[0]), n);
+                MappedIntArray second = MappedIntArray.create(scratch.resolve(ShardWorker.BLOCK_FILES[1]), n);
+                MappedIntArray representativeBlocks = MappedIntArray.create(
+                        scratch.resolve(ShardWorker.REPRESENTATIVE_BLOCKS_FILE), n);
+                MappedIntArray representatives = MappedIntArray.create(
+                        scratch.resolve(ShardWorker.REPRESENTATIVES_FILE), n);
+                MappedIntArray hashes = MappedIntArray.create(scratch.resolve(ShardWorker.HASHES_FILE), n);
+                ServerSocket server = new ServerSocket(0, shards + 1, InetAddress.getLoopbackAddress())) {
+            
+            // Step 1: Initial partition - separate final and non-final states
+            MappedIntArray[] blocks = {first, second};
+            int current = 0;
+            int blockCount = MappedMinimizer.initialPartition(dfa, first);
+            
+            // Step 2: Start the workers and hand out the state ranges
+            for (int i = 0; i < shards; i++) {
+                processes.add(new ProcessBuilder(workerCommand(server.getLocalPort()))
+                        .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                        .redirectError(ProcessBuilder.Redirect.INHERIT)
+                        .start());
+            }
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(CONNECT_TIMEOUT_MILLIS);
+            for (int i = 0; i < shards; i++) {
+                Connection connection = accept(server, processes, deadline);
+                connections.add(connection);
+                connection.out.writeUTF(dfa.getDirectory().toAbsolutePath().toString());
+                connection.out.writeUTF(scratch.toAbsolutePath().toString());
+                connection.out.writeInt(dfa.getAlphabetSize());
+                connection.out.writeInt((int) ((long) n * i / shards));
+                connection.out.writeInt((int) ((long) n * (i + 1) / shards));
+                connection.out.writeInt(i);
+                connection.out.writeInt(shards);
+            }
+            
+            // Step 3: Refine partition until no more changes
+            int iteration = 0;
+            boolean changed = shards > 0;
+            while (changed) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new CancellationException("Minimization interrupted after " + iteration + " iterations");
+                }
+                iteration++;
+                for (Connection connection : connections) {
+                    connection.send(ShardWorker.SIGN, current);
+                }
+                int total = 0;
+                for (Connection connection : connections) {
+                    total = connection.readInts(representatives, total);
+                }
+                for (Connection connection : connections) {
+                    connection.send(ShardWorker.MERGE, current);
+                    connection.out.writeInt(total);
+                    connection.out.flush();
+                }
+                for (Connection connection : connections) {
+                    connection.in.readByte();
+                }
+                int newBlockCount = assignBlocks(representatives, total, representativeBlocks);
+                for (Connection connection : connections) {
+                    connection.send(ShardWorker.APPLY, 1 - current);
+                }
+                for (Connection connection : connections) {
+                    connection.in.readByte();
+                }
+                current = 1 - current;
+                
+                // Blocks only ever split, so an unchanged count means the partition is stable
+                changed = newBlockCount != blockCount;
+                blockCount = newBlockCount;
+            }
+            for (Connection connection : connections) {
+                connection.out.writeByte(ShardWorker.STOP);
+                connection.out.flush();
+            }
+            
+            // Step 4: Create minimized DFA
+            return MappedMinimizer.quotient(dfa, blocks[current], blockCount, blocks[1 - current], output);
+        } finally {
+            for (Connection connection : connections) {
+                connection.socket.close();
+            }
+            stop(processes);
+            MappedIntArray.deleteDirectory(scratch);
+        }
+    }
+    
+    /**
+     * Waits for the next worker to connect, failing early if a worker process has exited
+     */
+    private static Connection accept(ServerSocket server, List<Process> processes, long deadline) throws IOException {
+        server.setSoTimeout(ACCEPT_POLL_MILLIS);
+        while (true) {
+            try {
+                return new Connection(server.accept());
+            } catch (SocketTimeoutException e) {
+                for (Process process : processes) {
+                    if (!process.isAlive()) {
+                        throw new IOException("Worker exited with status " + process.exitValue() + " before connecting");
+                    }
+                }
+                if (System.nanoTime() > deadline) {
+                    throw new IOException("Workers did not connect within " + CONNECT_TIMEOUT_MILLIS + " ms");
+                }
+            }
+        }
+    }
+    
+    /**
+     * Numbers the groups of all ranges in state order. The workers have linked every representative
+     * to the first representative with the same signature, which is itself or an earlier one that
+     * already has its block id.
+     * @return The number of blocks
+     */
+    private static int assignBlocks(MappedIntArray representatives, int total, MappedIntArray representativeBlocks) {
+        int count = 0;
+        for (int i = 0; i < total; i++) {
+            int s = representatives.get(i);
+            int first = representativeBlocks.get(s);
+            representativeBlocks.set(s, first == s ? count++ : representativeBlocks.get(first));
+        }
+        return count;
+    }
+    
+    /**
+     * Command line that starts a worker with the class or module path of this JVM
+     */
+    static List<String> workerCommand(int port) {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        Module module = ShardWorker.class.getModule();
+        if (module.isNamed()) {
+            String modulePath = System.getProperty("jdk.module.path");
+            if (modulePath != null) {
+                command.add("--module-path");
+                command.add(modulePath);
+            }
+            command.add("-m");
+            command.add(module.getName() + "/" + ShardWorker.class.getName());
+        } else {
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.add(ShardWorker.class.getName());
+        }
+        command.add(Integer.toString(port));
+        return command;
+    }
+    
+    private static void stop(List<Process> processes) {
+        for (Process process : processes) {
+            try {
+                // Workers exit on STOP or when their socket closes
+                if (!process.waitFor(5, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    @Override
+    public String getName() {
+        return "ShardedMinimizer (" + workers + " workers)";
+    }
+    
+    /**
+     * Socket of one worker with buffered streams
+     */
+    private static final class Connection {
+        final Socket socket;
+        final DataInputStream in;
+        final DataOutputStream out;
+        
+        Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        }
+        
+        void send(byte command, int blockFile) throws IOException {
+            out.writeByte(command);
+            out.writeInt(blockFile);
+            out.flush();
+        }
+        
+        /**
+         * Reads a list of ints into the array, starting at the offset
+         * @return The offset after the last value
+         */
+        int readInts(MappedIntArray values, int offset) throws IOException {
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                values.set(offset + i, in.readInt());
+            }
+            return offset + count;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.dfaminimizer.service;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Access to virtual threads without requiring a Java 21 compiler.
+ * The factory is looked up reflectively; on runtimes without virtual threads a daemon platform
+ * thread factory is used instead.
+ */
+final class VirtualThreads {
+    
+    private static final ThreadFactory FACTORY = lookupFactory();
+    
+    private VirtualThreads() {
+    }
+    
+    /**
+     * Returns true if the running JVM supports virtual threads
+     */
+    static boolean isAvailable() {
+        return FACTORY != null;
+    }
+    
+    /**
+     * Returns a factory for virtual threads, or for daemon platform threads with the given name prefix
+     * if virtual threads are not available
+     */
+    static ThreadFactory factory(String namePrefix) {
+        return FACTORY != null ? FACTORY : platformFactory(namePrefix);
+    }
+    
+    /**
+     * Returns a factory for daemon platform threads named with the prefix and a counter
+     */
+    static ThreadFactory platformFactory(String namePrefix) {
+        ThreadFactory platform = Executors.defaultThreadFactory();
+        AtomicInteger counter = new AtomicInteger();
+        return task -> {
+            Thread thread = platform.newThread(task);
+            thread.setName(namePrefix + "-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+    
+    private static ThreadFactory lookupFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            return (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Not available, or a preview feature that is not enabled
+            return null;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+/**
+ * Console tool and minimization services, without the JavaFX user interface
+ */
+module dfaminimizer.cli {
+    requires transitive dfaminimizer.core;
+    requires jdk.httpserver;
+    
+    exports com.dfaminimizer.service;
+}
@@ -0,0 +1,225 @@
+package com.dfaminimizer.service;
+
+import com.dfaminimizer.algorithm.DFAMinimizer;
+import com.dfaminimizer.algorithm.MinimizationEngine;
+import com.dfaminimizer.io.DFAJsonCodec;
+import com.dfaminimizer.io.DFATextFormat;
+import com.dfaminimizer.model.DFA;
+import com.dfaminimizer.testing.DFAOracle;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the HTTP minimization service, against a server on localhost
+ */
+public class MinimizationServerTest {
+    
+    private static final String EXAMPLE = "states: q0,q1,q2,q3\n"
+            + "alphabet: a,b\n"
+            + "startState: q0\n"
+            + "finalStates: q2,q3\n"
+            + "transitions:\n"
+            + "q0,a,q1\nq0,b,q1\nq1,a,q2\nq1,b,q3\nq2,a,q2\nq2,b,q3\nq3,a,q2\nq3,b,q3\n";
+    
+    private MinimizationServer server;
+    
+    @AfterEach
+    void stopServer() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+    
+    @Test
+    void minimizesTextAndCachesResult() throws IOException {
+        server = new MinimizationServer(0);
+        server.start();
+        
+        Response first = post("text/plain", EXAMPLE);
+        assertEquals(200, first.status);
+        DFA minimized = DFATextFormat.parse(first.body);
+        assertEquals(3, minimized.getStates().size());
+        assertNull(DFAOracle.distinguishingWord(DFATextFormat.parse(EXAMPLE), minimized));
+        assertEquals("4", first.connection.getHeaderField("X-Original-States"));
+        assertEquals("false", first.connection.getHeaderField("X-Cached"));
+        
+        assertNull(first.connection.getHeaderField("Access-Control-Allow-Origin"));
+        
+        Response second = post("text/plain", EXAMPLE);
+        assertEquals(first.body, second.body);
+        assertEquals("true", second.connection.getHeaderField("X-Cached"));
+        assertEquals(1, server.getCacheSize());
+    }
+    
+    @Test
+    void answersJsonWithCodecDocument() throws IOException {
+        server = new MinimizationServer(0);
+        server.start();
+        
+        StringWriter request = new StringWriter();
+        DFAJsonCodec.write(DFATextFormat.parse(EXAMPLE), request);
+        Response response = post("application/json", request.toString());
+        assertEquals(200, response.status);
+        assertTrue(response.body.contains("\"minimizedStates\": 3"), response.body);
+        assertTrue(response.body.contains("\"originalStates\": 4"), response.body);
+        
+        String body = response.body;
+        String document = body.substring(body.indexOf('{', 1), body.lastIndexOf(",\n\"stats\""));
+        DFA minimized = DFAJsonCodec.read(new StringReader(document));
+        assertEquals(3, minimized.getStates().size());
+        assertNull(DFAOracle.distinguishingWord(DFATextFormat.parse(EXAMPLE), minimized));
+    }
+    
+    @Test
+    void allowsConfiguredOrigin() throws IOException {
+        server = new MinimizationServer(0, new DFAMinimizer(false), 1, 1, 16, "http://localhost:8080");
+        server.start();
+        
+        Response response = post("text/plain", EXAMPLE);
+        assertEquals(200, response.status);
+        assertEquals("http://localhost:8080", response.connection.getHeaderField("Access-Control-Allow-Origin"));
+    }
+    
+    @Test
+    void answersPreflightForConfiguredOrigin() throws IOException {
+        server = new MinimizationServer(0, new DFAMinimizer(false), 1, 1, 16, "http://localhost:8080");
+        server.start();
+        
+        HttpURLConnection connection = (HttpURLConnection)
+                new URL("http://localhost:" + server.getPort() + "/minimize").openConnection();
+        connection.setRequestMethod("OPTIONS");
+        connection.setRequestProperty("Origin", "http://localhost:8080");
+        connection.setRequestProperty("Access-Control-Request-Method", "POST");
+        assertEquals(204, connection.getResponseCode());
+        assertEquals("http://localhost:8080", connection.getHeaderField("Access-Control-Allow-Origin"));
+        assertTrue(connection.getHeaderField("Access-Control-Allow-Methods").contains("POST"));
+        assertEquals("Content-Type", connection.getHeaderField("Access-Control-Allow-Headers"));
+    }
+    
+    @Test
+    void rejectsMalformedInput() throws IOException {
+        server = new MinimizationServer(0);
+        server.start();
+        
+        assertEquals(400, post("text/plain", "states: q0\ntransitions:\nq0,a,q9\n").status);
+        assertEquals(400, post("application/json", "{\"states\": [1]}").status);
+        assertEquals(415, post("application/xml", "<dfa/>").status);
+    }
+    
+    @Test
+    void refusesRequestsBeyondCapacity() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        MinimizationEngine blocking = new MinimizationEngine() {
+            @Override
+            public DFA minimize(DFA dfa) {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return new DFAMinimizer(false).minimize(dfa);
+            }
+        };
+        server = new MinimizationServer(0, blocking, 1, 0, 16);
+        server.start();
+        
+        ExecutorService client = Executors.newSingleThreadExecutor();
+        try {
+            Future<Response> slow = client.submit(() -> post("text/plain", EXAMPLE));
+            assertTrue(entered.await(10, TimeUnit.SECONDS));
+            
+            Response refused = post("text/plain", EXAMPLE);
+            assertEquals(503, refused.status);
+            assertEquals("1", refused.connection.getHeaderField("Retry-After"));
+            
+            release.countDown();
+            assertEquals(200, slow.get(10, TimeUnit.SECONDS).status);
+        } finally {
+            release.countDown();
+            client.shutdownNow();
+        }
+    }
+    
+    @Test
+    void slowUploadsDoNotHoldSlots() throws Exception {
+        server = new MinimizationServer(0, new DFAMinimizer(false), 1, 0, 16);
+        server.start();
+        
+        // A client that announces a body but never sends it
+        try (Socket slow = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+            slow.getOutputStream().write(("POST /minimize HTTP/1.1\r\nHost: localhost\r\n"
+                    + "Content-Type: text/plain\r\nContent-Length: 1000\r\n\r\nstates: q0\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            slow.getOutputStream().flush();
+            // Give the server time to start handling the slow request
+            Thread.sleep(300);
+            
+            assertEquals(200, post("text/plain", EXAMPLE).status);
+        }
+    }
+    
+    @Test
+    void refusesOversizedBodyBeforeReadingIt() throws IOException {
+        server = new MinimizationServer(0);
+        server.start();
+        
+        // Announce a body over the limit and send none of it
+        try (Socket client = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+            client.setSoTimeout(10_000);
+            client.getOutputStream().write(("POST /minimize HTTP/1.1\r\nHost: localhost\r\n"
+                    + "Content-Type: text/plain\r\nContent-Length: " + (MinimizationServer.MAX_REQUEST_BYTES + 1)
+                    + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            client.getOutputStream().flush();
+            
+            byte[] statusLine = client.getInputStream().readNBytes("HTTP/1.1 413".length());
+            assertEquals("HTTP/1.1 413", new String(statusLine, StandardCharsets.US_ASCII));
+        }
+    }
+    
+    private Response post(String contentType, String body) throws IOException {
+        URL url = new URL("http://localhost:" + server.getPort() + "/minimize");
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", contentType);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        int status = connection.getResponseCode();
+        InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+        String text = in == null ? "" : new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        return new Response(status, text, connection);
+    }
+    
+    private static final class Response {
+        final int status;
+        final String body;
+        final HttpURLConnection connection;
+        
+        Response(int status, String body, HttpURLConnection connection) {
+            this.status = status;
+            this.body = body;
+            this.connection = connection;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.dfaminimizer.service;
+
+import com.dfaminimizer.algorithm.DFAMinimizer;
+import com.dfaminimizer.algorithm.MinimizationEngine;
+import com.dfaminimizer.model.CompactDFA;
+import com.dfaminimizer.model.DFA;
+import com.dfaminimizer.testing.DFAOracle;
+import com.dfaminimizer.testing.RandomDFAs;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for concurrent minimization of many DFAs
+ */
+public class MinimizationServiceTest {
+    
+    @Test
+    void minimizesStreamOfAutomata() throws Exception {
+        Random random = new Random(5);
+        List<DFA> dfas = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            dfas.add(RandomDFAs.complete(random, 12, 1 + random.nextInt(3)));
+        }
+        try (MinimizationService service = new MinimizationService(new DFAMinimizer(false), 16, 2, 32,
+                Duration.ofSeconds(30))) {
+            List<CompletableFuture<DFA>> results = service.submitAll(dfas.stream());
+            assertEquals(dfas.size(), results.size());
+            for (int i = 0; i < dfas.size(); i++) {
+                DFA minimized = results.get(i).get(30, TimeUnit.SECONDS);
+                assertNull(DFAOracle.distinguishingWord(dfas.get(i), minimized));
+                assertEquals(DFAOracle.nerodeClassCount(dfas.get(i)), minimized.getStates().size());
+            }
+            assertEquals(0, service.getInFlight());
+        }
+    }
+    
+    @Test
+    void routesBySize() {
+        try (MinimizationService service = new MinimizationService(new DFAMinimizer(false), 100, 1, 8,
+                Duration.ofSeconds(30))) {
+            assertFalse(service.isLarge(table(50)));
+            assertTrue(service.isLarge(table(51)));
+        }
+    }
+    
+    @Test
+    void limitsJobsInFlight() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        MinimizationEngine blocking = blockingEngine(release, new AtomicBoolean());
+        ExecutorService client = Executors.newSingleThreadExecutor();
+        try (MinimizationService service = new MinimizationService(blocking, 1000, 1, 2, Duration.ofSeconds(30))) {
+            CompactDFA dfa = CompactDFA.of(RandomDFAs.complete(new Random(1), 4, 2));
+            CompletableFuture<CompactDFA> first = service.submit(dfa);
+            CompletableFuture<CompactDFA> second = service.submit(dfa);
+            Future<CompletableFuture<CompactDFA>> third = client.submit(() -> service.submit(dfa));
+            
+            assertThrows(TimeoutException.class, () -> third.get(200, TimeUnit.MILLISECONDS));
+            assertEquals(2, service.getInFlight());
+            
+            release.countDown();
+            assertNotNull(first.get(10, TimeUnit.SECONDS));
+            assertNotNull(second.get(10, TimeUnit.SECONDS));
+            assertNotNull(third.get(10, TimeUnit.SECONDS).get(10, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            client.shutdownNow();
+        }
+    }
+    
+    @Test
+    void timesOutAndInterruptsSlowJobs() throws Exception {
+        AtomicBoolean interrupted = new AtomicBoolean();
+        MinimizationEngine blocking = blockingEngine(new CountDownLatch(1), interrupted);
+        try (MinimizationService service = new MinimizationService(blocking, 1000, 1, 1, Duration.ofMillis(100))) {
+            CompactDFA dfa = CompactDFA.of(RandomDFAs.complete(new Random(2), 4, 2));
+            CompletableFuture<CompactDFA> result = service.submit(dfa);
+            ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+            assertInstanceOf(TimeoutException.class, e.getCause());
+            
+            // The slot is freed once the interrupted job has stopped
+            CompletableFuture<CompactDFA> next = CompletableFuture.supplyAsync(() -> {
+                service.submit(dfa);
+                return dfa;
+            });
+            next.get(10, TimeUnit.SECONDS);
+            assertTrue(interrupted.get());
+        }
+    }
+    
+    @Test
+    void closeCancelsQueuedJobs() throws Exception {
+        AtomicBoolean interrupted = new AtomicBoolean();
+        MinimizationEngine blocking = blockingEngine(new CountDownLatch(1), interrupted);
+        MinimizationService service = new MinimizationService(blocking, 0, 1, 4, Duration.ofSeconds(30));
+        CompactDFA dfa = CompactDFA.of(RandomDFAs.complete(new Random(4), 4, 2));
+        CompletableFuture<CompactDFA> running = service.submit(dfa);
+        CompletableFuture<CompactDFA> queued = service.submit(dfa);
+        
+        service.close();
+        assertTrue(queued.isCancelled());
+        assertThrows(Exception.class, () -> running.get(10, TimeUnit.SECONDS));
+        // Every slot is freed, the running job's once its thread has stopped
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (service.getInFlight() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, service.getInFlight());
+    }
+    
+    @Test
+    void refinementStopsWhenInterrupted() {
+        CompactDFA dfa = CompactDFA.of(RandomDFAs.complete(new Random(3), 50, 2));
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(CancellationException.class, () -> new DFAMinimizer(false).minimize(dfa));
+        } finally {
+            Thread.interrupted();
+        }
+        // The flag is only checked, so a later call on the same thread runs normally
+        assertTrue(new DFAMinimizer(false).minimize(dfa).getStateCount() > 0);
+    }
+    
+    /**
+     * DFA over two symbols with the given number of states, all looping back to state 0
+     */
+    private static CompactDFA table(int states) {
+        return new CompactDFA(new char[]{'a', 'b'}, new int[states * 2], new boolean[states], 0);
+    }
+    
+    /**
+     * Engine that waits for the latch, recording whether it was interrupted instead
+     */
+    private static MinimizationEngine blockingEngine(CountDownLatch release, AtomicBoolean interrupted) {
+        return new MinimizationEngine() {
+            @Override
+            public DFA minimize(DFA dfa) {
+                return dfa;
+            }
+            
+            @Override
+            public CompactDFA minimize(CompactDFA dfa) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    interrupted.set(true);
+                    throw new CancellationException("Interrupted");
+                }
+                return dfa;
+            }
+        };
+    }
+}
@@ -0,0 +1,89 @@
+package com.dfaminimizer.service;
+
+import com.dfaminimizer.algorithm.DFAMinimizer;
+import com.dfaminimizer.algorithm.MappedMinimizer;
+import com.dfaminimizer.model.CharClassMap;
+import com.dfaminimizer.model.CompactDFA;
+import com.dfaminimizer.model.DFA;
+import com.dfaminimizer.model.MappedDFA;
+import com.dfaminimizer.testing.DFAOracle;
+import com.dfaminimizer.testing.RandomDFAs;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for minimization with worker processes; every test starts real JVMs
+ */
+public class ShardedMinimizerTest {
+    
+    @Test
+    void agreesWithSingleProcessEngine() {
+        ShardedMinimizer sharded = new ShardedMinimizer(3);
+        Random random = new Random(1);
+        for (int i = 0; i < 4; i++) {
+            DFA dfa = RandomDFAs.mixed(random, i, 40, 3);
+            DFA expected = new DFAMinimizer(false).minimize(dfa);
+            DFA minimized = sharded.minimize(dfa);
+            assertNull(DFAOracle.distinguishingWord(dfa, minimized), dfa::toString);
+            assertTrue(DFAOracle.isomorphic(expected, minimized), dfa::toString);
+        }
+    }
+    
+    @Test
+    void numbersBlocksLikeMappedMinimizer(@TempDir Path dir) throws IOException {
+        // Binary numbers modulo 30000, accepted if the remainder modulo 1000 is 7, which is all that matters
+        int n = 30_000;
+        int[] transitions = new int[n * 2];
+        boolean[] accepting = new boolean[n];
+        for (int s = 0; s < n; s++) {
+            transitions[s * 2] = (2 * s) % n;
+            transitions[s * 2 + 1] = (2 * s + 1) % n;
+            accepting[s] = s % 1000 == 7;
+        }
+        CompactDFA dfa = new CompactDFA(new char[] {'0', '1'}, transitions, accepting, 0);
+        
+        try (MappedDFA input = MappedDFA.of(dfa, dir.resolve("input"));
+                MappedDFA sharded = new ShardedMinimizer(2, dir).minimize(input, dir.resolve("sharded"));
+                MappedDFA single = new MappedMinimizer(dir).minimize(input, dir.resolve("single"))) {
+            assertEquals(single.getStateCount(), sharded.getStateCount());
+            assertTrue(sharded.getStateCount() <= 1000);
+            CompactDFA expected = single.toCompactDFA();
+            CompactDFA actual = sharded.toCompactDFA();
+            for (int s = 0; s < expected.getStateCount(); s++) {
+                assertEquals(expected.isAccepting(s), actual.isAccepting(s));
+                for (int a = 0; a < 2; a++) {
+                    assertEquals(expected.next(s, a), actual.next(s, a));
+                }
+            }
+        }
+        // Scratch files of the workers are removed
+        assertEquals(0, Arrays.stream(dir.toFile().list()).filter(name -> name.startsWith("shards-")).count());
+    }
+    
+    @Test
+    void handlesMoreWorkersThanStates() {
+        CompactDFA single = new CompactDFA(new char[] {'a'}, new int[] {0}, new boolean[] {true}, 0);
+        CompactDFA minimized = new ShardedMinimizer(4).minimize(single);
+        assertEquals(1, minimized.getStateCount());
+        assertTrue(minimized.accepts("aaa"));
+        
+        assertThrows(IllegalArgumentException.class, () -> new ShardedMinimizer(0));
+    }
+    
+    @Test
+    void minimizesLabelledAutomataWithoutWorkers() {
+        // Two accepting states that differ only in their label
+        CompactDFA labelled = new CompactDFA(CharClassMap.ofSymbols(new char[] {'a'}), new int[] {1, 2, 2},
+                new boolean[] {false, true, true}, new int[] {0, 4, 5}, 0);
+        CompactDFA minimized = new ShardedMinimizer(2).minimize(labelled);
+        assertEquals(3, minimized.getStateCount());
+        assertEquals(5, minimized.getOutput(minimized.next(minimized.next(minimized.getStartState(), 0), 0)));
+    }
+}
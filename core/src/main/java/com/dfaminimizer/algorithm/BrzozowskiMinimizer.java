@@ -0,0 +1,118 @@
+package com.dfaminimizer.algorithm;
+
+import com.dfaminimizer.model.CompactDFA;
+import com.dfaminimizer.model.DFA;
+import com.dfaminimizer.model.NFA;
+
+/**
+ * Implements DFA minimization using Brzozowski's double reversal algorithm.
+ * <p>
+ * The automaton is reversed and determinized twice; the second subset construction yields the
+ * minimal DFA directly. Subset construction can blow up exponentially, so it runs under a memory
+ * budget and the fallback engine is used when the budget is exceeded.
+ */
+public class BrzozowskiMinimizer implements MinimizationEngine {
+    
+    /** Default budget for a single subset construction */
+    public static final long DEFAULT_MEMORY_BUDGET = 64L * 1024 * 1024;
+    
+    private final long memoryBudgetBytes;
+    private final MinimizationEngine fallback;
+    
+    public BrzozowskiMinimizer() {
+        this(DEFAULT_MEMORY_BUDGET, new DFAMinimizer(false));
+    }
+    
+    /**
+     * @param memoryBudgetBytes Memory budget for each subset construction
+     * @param fallback Engine used when the budget is exceeded
+     */
+    public BrzozowskiMinimizer(long memoryBudgetBytes, MinimizationEngine fallback) {
+        this.memoryBudgetBytes = memoryBudgetBytes;
+        this.fallback = fallback;
+    }
+    
+    /**
+     * Minimizes a DFA. Complete inputs produce a complete result, including the dead state if one
+     * is reachable; partial inputs produce a result without dead or unreachable states.
+     * @param dfa The DFA to minimize
+     * @return The minimized DFA
+     */
+    @Override
+    public DFA minimize(DFA dfa) {
+        if (dfa.getStartState() == null) {
+            return fallback.minimize(dfa);
+        }
+        try {
+            return minimizeWithinBudget(CompactDFA.of(dfa)).toDFA();
+        } catch (MemoryBudgetExceededException e) {
+            return fallback.minimize(dfa);
+        }
+    }
+    
+    /**
+     * Minimizes a DFA in table form. Reversal cannot carry output labels, so labelled automata are
+     * minimized by the fallback engine, as are automata whose subset construction exceeds the budget.
+     */
+    @Override
+    public CompactDFA minimize(CompactDFA dfa) {
+        if (dfa.hasOutputs()) {
+            return fallback.minimize(dfa);
+        }
+        try {
+            return minimizeWithinBudget(dfa);
+        } catch (MemoryBudgetExceededException e) {
+            return fallback.minimize(dfa);
+        }
+    }
+    
+    /**
+     * Variant of {@link #minimize(CompactDFA)} without fallback, for callers that handle a blow-up
+     * themselves
+     * @throws MemoryBudgetExceededException If a subset construction exceeds the budget
+     * @throws IllegalArgumentException If the DFA has output labels
+     */
+    public CompactDFA minimizeWithinBudget(CompactDFA dfa) {
+        if (dfa.hasOutputs()) {
+            throw new IllegalArgumentException("Double reversal cannot keep output labels");
+        }
+        CompactDFA reversed = SubsetConstruction.reverse(dfa, memoryBudgetBytes).determinize(false);
+        return SubsetConstruction.reverse(reversed, memoryBudgetBytes).determinize(dfa.isComplete());
+    }
+    
+    /**
+     * Builds the minimal DFA of an NFA without ever determinizing the NFA itself: the reversed
+     * NFA is determinized first, and determinizing the reverse of that DFA gives the minimal DFA.
+     * The intermediate DFA is built in full, since its reversal needs the predecessors of every
+     * state, and it can be exponentially larger than the NFA, which the budget guards against.
+     * The result has no dead state.
+     * <p>
+     * If the budget is exceeded, the NFA is determinized without a budget and minimized by the
+     * fallback engine; that determinization may itself run out of memory.
+     * @param nfa The NFA to determinize and minimize
+     * @return The minimized DFA
+     */
+    public DFA minimize(NFA nfa) {
+        try {
+            return minimizeToCompact(nfa).toDFA();
+        } catch (MemoryBudgetExceededException e) {
+            // The budget was just exceeded, so the fallback must not be bound by it
+            CompactDFA determinized = SubsetConstruction.of(nfa, Long.MAX_VALUE).determinize(false);
+            return fallback.minimize(determinized).toDFA();
+        }
+    }
+    
+    /**
+     * Table form variant of {@link #minimize(NFA)} without fallback
+     * @throws MemoryBudgetExceededException If a subset construction exceeds the budget
+     */
+    public CompactDFA minimizeToCompact(NFA nfa) {
+        CompactDFA reversed = SubsetConstruction.reverse(nfa, memoryBudgetBytes).determinize(false);
+        return SubsetConstruction.reverse(reversed, memoryBudgetBytes).determinize(false);
+    }
+    
+    @Override
+    public String getName() {
+        return "Brzozowski";
+    }
+}
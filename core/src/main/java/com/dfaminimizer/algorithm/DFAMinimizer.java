@@ -0,0 +1,484 @@
+package com.dfaminimizer.algorithm;
+
+import com.dfaminimizer.model.CompactDFA;
+import com.dfaminimizer.model.DFA;
+import com.dfaminimizer.model.State;
+
+import java.util.*;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Implements DFA minimization using partition refinement algorithm
+ */
+public class DFAMinimizer implements MinimizationEngine {
+    
+    private final boolean verbose;
+    private final RefinementCheckpoints checkpoints;
+    
+    public DFAMinimizer() {
+        this(true);
+    }
+    
+    /**
+     * @param verbose Whether to log every refinement step to stdout
+     */
+    public DFAMinimizer(boolean verbose) {
+        this(verbose, null);
+    }
+    
+    /**
+     * @param verbose Whether to log every refinement step to stdout
+     * @param checkpoints Where to save the partition during refinement of table-form DFAs, and to
+     *                    resume from when the same DFA is minimized again; null for none
+     */
+    public DFAMinimizer(boolean verbose, RefinementCheckpoints checkpoints) {
+        this.verbose = verbose;
+        this.checkpoints = checkpoints;
+    }
+    
+    /**
+     * Minimizes a DFA using partition refinement algorithm. Unless verbose, the DFA is converted to
+     * table form and minimized by {@link #minimize(CompactDFA)}; the verbose path refines sets of
+     * states by string signatures, so every split can be logged with the state names.
+     * @param dfa The DFA to minimize
+     * @return The minimized DFA, with states named q0, q1, ...
+     */
+    @Override
+    public DFA minimize(DFA dfa) {
+        if (!verbose) {
+            return minimize(CompactDFA.of(dfa)).toDFA();
+        }
+        log("Starting DFA minimization...");
+        System.out.println("Original DFA:");
+        dfa.printDFA();
+        
+        // Step 1: Initial partition - separate final and non-final states and different outputs
+        Set<Set<State>> partition = createInitialPartition(dfa);
+        System.out.println("Initial partition: " + partition);
+        
+        // Step 2: Refine partition until no more changes
+        boolean changed = true;
+        int iteration = 0;
+        
+        while (changed) {
+            iteration++;
+            log("Iteration " + iteration + ":");
+            
+            Set<Set<State>> newPartition = new HashSet<>();
+            changed = false;
+            
+            for (Set<State> group : partition) {
+                if (group.size() == 1) {
+                    // Single state groups remain unchanged
+                    newPartition.add(new HashSet<>(group));
+                    continue;
+                }
+                
+                // Try to split the group
+                Map<String, Set<State>> splitGroups = new HashMap<>();
+                
+                for (State state : group) {
+                    String signature = getStateSignature(state, partition, dfa);
+                    splitGroups.computeIfAbsent(signature, k -> new HashSet<>()).add(state);
+                }
+                
+                if (splitGroups.size() > 1) {
+                    // Group was split
+                    changed = true;
+                    newPartition.addAll(splitGroups.values());
+                    System.out.println("  Split group " + group + " into " + splitGroups.values());
+                } else {
+                    // Group remains unchanged
+                    newPartition.add(new HashSet<>(group));
+                }
+            }
+            
+            partition = newPartition;
+            System.out.println("  New partition: " + partition);
+        }
+        
+        log("Minimization completed after " + iteration + " iterations");
+        System.out.println("Final partition: " + partition);
+        
+        // Step 3: Create minimized DFA
+        return createMinimizedDFA(dfa, partition);
+    }
+    
+    /**
+     * Minimizes a DFA in table form using the same partition refinement, with int block ids
+     * instead of state sets. Signatures are compared in place through an open addressing table
+     * keyed by a representative state, so a refinement round allocates nothing per state.
+     * Works directly on symbol classes, so large character ranges cost a single column.
+     * <p>
+     * Refinement needs about as many rounds as the longest acyclic path, which makes it slow on
+     * dictionaries and other mostly acyclic automata. The strongly connected components are
+     * therefore computed first, and refinement only runs on the states that lie on a cycle or are
+     * reachable from one. All other states form a DAG above that region and are merged bottom up in
+     * a single pass, in linear time, by looking up their signature in a register of the classes
+     * found so far. When every state is in the cyclic region this is plain refinement.
+     * <p>
+     * The initial partition separates states by acceptance and by output label, so the result of a
+     * labelled automaton, such as a lexer with one label per token type, keeps every label.
+     * <p>
+     * With {@link RefinementCheckpoints} the partition of the cyclic region is saved between
+     * rounds, and a run on the same DFA continues from the latest checkpoint.
+     * @param dfa The DFA to minimize
+     * @return The minimized DFA, with the block of the start state as state 0
+     * @throws CancellationException If the thread is interrupted, checked once per refinement round
+     */
+    @Override
+    public CompactDFA minimize(CompactDFA dfa) {
+        int n = dfa.getStateCount();
+        int k = dfa.getAlphabetSize();
+        
+        // Step 1: Split the states into the cyclic region and the acyclic states above it
+        StronglyConnectedComponents components = new StronglyConnectedComponents(dfa);
+        boolean[] cyclicRegion = new boolean[n];
+        int cyclicCount = components.markCyclicRegion(dfa, cyclicRegion);
+        int[] states = new int[cyclicCount];
+        int count = 0;
+        for (int s = 0; s < n; s++) {
+            if (cyclicRegion[s]) {
+                states[count++] = s;
+            }
+        }
+        log(components.count() + " strongly connected components, " + (n - cyclicCount) + " acyclic states");
+        
+        // Step 2: Refine the cyclic region, which is closed under transitions
+        int[] block = new int[n];
+        RefinementCheckpoints.Session session = checkpoints == null ? null
+                : checkpoints.session("table-" + RefinementCheckpoints.contentHash(dfa), cyclicCount);
+        int blockCount = refine(dfa, states, block, session);
+        if (session != null) {
+            session.finish();
+        }
+        
+        // Step 3: Merge the acyclic states from the bottom up
+        if (cyclicCount < n) {
+            blockCount = mergeAcyclic(dfa, components.finishOrder(), cyclicRegion, block, blockCount);
+            log("Acyclic merge: " + blockCount + " blocks");
+        }
+        
+        // Step 4: Create minimized DFA, renumbering blocks so the start block comes first
+        int start = dfa.getStartState();
+        int[] order = new int[blockCount];
+        Arrays.fill(order, -1);
+        int next = 0;
+        if (start != CompactDFA.NO_STATE) {
+            order[block[start]] = next++;
+        }
+        for (int s = 0; s < n; s++) {
+            if (order[block[s]] == -1) {
+                order[block[s]] = next++;
+            }
+        }
+        int[] transitions = new int[blockCount * k];
+        boolean[] accepting = new boolean[blockCount];
+        int[] outputs = dfa.hasOutputs() ? new int[blockCount] : null;
+        for (int s = 0; s < n; s++) {
+            int b = order[block[s]];
+            accepting[b] = dfa.isAccepting(s);
+            if (outputs != null) {
+                outputs[b] = dfa.getOutput(s);
+            }
+            for (int a = 0; a < k; a++) {
+                int target = dfa.next(s, a);
+                transitions[b * k + a] = target == CompactDFA.NO_STATE ? CompactDFA.NO_STATE : order[block[target]];
+            }
+        }
+        return new CompactDFA(dfa.getClassMap(), transitions, accepting, outputs,
+                start == CompactDFA.NO_STATE ? CompactDFA.NO_STATE : 0);
+    }
+    
+    /**
+     * Runs partition refinement on the given states, whose successors must all be among them
+     * @param session Checkpoints to resume from and save to, or null
+     * @return The number of blocks, numbered from 0 in {@code block}
+     */
+    private int refine(CompactDFA dfa, int[] states, int[] block, RefinementCheckpoints.Session session) {
+        RefinementCheckpoints.Blocks blocks = new RefinementCheckpoints.Blocks() {
+            @Override
+            public int get(int index) {
+                return block[states[index]];
+            }
+            
+            @Override
+            public void set(int index, int value) {
+                block[states[index]] = value;
+            }
+        };
+        RefinementCheckpoints.Progress progress = session == null ? null : session.resume(blocks);
+        int[] table = new int[Integer.highestOneBit(Math.max(1, states.length)) * 4];
+        int blockCount;
+        int iteration;
+        if (progress != null) {
+            blockCount = progress.blockCount;
+            iteration = progress.iteration;
+            log("Resumed after iteration " + iteration + ": " + blockCount + " blocks");
+        } else {
+            // Initial partition - separate final and non-final states and different outputs
+            blockCount = createInitialPartition(dfa, states, block, table);
+            iteration = 0;
+            log("Initial partition: " + blockCount + " blocks");
+        }
+        
+        // Refine partition until no more changes
+        int[] newBlock = new int[block.length];
+        Signatures.Transitions next = dfa::next;
+        Signatures.IntArray blockOf = state -> block[state];
+        int k = dfa.getAlphabetSize();
+        boolean changed = true;
+        
+        while (changed) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("Minimization interrupted after " + iteration + " iterations");
+            }
+            iteration++;
+            Arrays.fill(table, -1);
+            int mask = table.length - 1;
+            int newBlockCount = 0;
+            
+            for (int s : states) {
+                int slot = Signatures.hash(next, k, blockOf, s) & mask;
+                while (true) {
+                    int representative = table[slot];
+                    if (representative == -1) {
+                        table[slot] = s;
+                        newBlock[s] = newBlockCount++;
+                        break;
+                    }
+                    if (Signatures.same(next, k, blockOf, s, representative)) {
+                        newBlock[s] = newBlock[representative];
+                        break;
+                    }
+                    slot = (slot + 1) & mask;
+                }
+            }
+            
+            // Blocks only ever split, so an unchanged count means the partition is stable
+            changed = newBlockCount != blockCount;
+            blockCount = newBlockCount;
+            for (int s : states) {
+                block[s] = newBlock[s];
+            }
+            log("Iteration " + iteration + ": " + blockCount + " blocks");
+            if (changed && session != null) {
+                session.roundCompleted(iteration, blockCount, blocks);
+            }
+        }
+        
+        log("Minimization completed after " + iteration + " iterations");
+        return blockCount;
+    }
+    
+    /**
+     * Assigns blocks to the states outside the cyclic region. Their successors are either in the
+     * region or come earlier in the finish order, so each state's signature is final when it is
+     * reached, and equal signatures mean equivalent states. The register is seeded with one
+     * representative of every block of the region, since an acyclic state may be equivalent to one.
+     * @return The total number of blocks
+     */
+    private int mergeAcyclic(CompactDFA dfa, int[] finishOrder, boolean[] cyclicRegion, int[] block, int blockCount) {
+        int[] table = new int[Integer.highestOneBit(Math.max(1, block.length)) * 4];
+        Arrays.fill(table, -1);
+        int mask = table.length - 1;
+        Signatures.IntArray blockOf = state -> block[state];
+        boolean[] seeded = new boolean[blockCount];
+        for (int s = 0; s < block.length; s++) {
+            if (cyclicRegion[s] && !seeded[block[s]]) {
+                seeded[block[s]] = true;
+                int slot = classHash(dfa, blockOf, s) & mask;
+                while (table[slot] != -1) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = s;
+            }
+        }
+        
+        for (int s : finishOrder) {
+            if (cyclicRegion[s]) {
+                continue;
+            }
+            int slot = classHash(dfa, blockOf, s) & mask;
+            while (true) {
+                int representative = table[slot];
+                if (representative == -1) {
+                    table[slot] = s;
+                    block[s] = blockCount++;
+                    break;
+                }
+                if (sameClass(dfa, blockOf, s, representative)) {
+                    block[s] = block[representative];
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+        return blockCount;
+    }
+    
+    /**
+     * Assigns one block to each combination of acceptance and output label among the given states,
+     * which without labels are the accepting and the rejecting block. The refinement table is
+     * borrowed to look up a representative state per combination.
+     * @return The number of non-empty blocks
+     */
+    private int createInitialPartition(CompactDFA dfa, int[] states, int[] block, int[] table) {
+        Arrays.fill(table, -1);
+        int mask = table.length - 1;
+        int count = 0;
+        for (int s : states) {
+            int slot = Signatures.mix(label(dfa, s)) & mask;
+            while (true) {
+                int representative = table[slot];
+                if (representative == -1) {
+                    table[slot] = s;
+                    block[s] = count++;
+                    break;
+                }
+                if (sameLabel(dfa, s, representative)) {
+                    block[s] = block[representative];
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Acceptance and output label of a state in one int, for hashing
+     */
+    private static int label(CompactDFA dfa, int state) {
+        return dfa.getOutput(state) * 2 + (dfa.isAccepting(state) ? 1 : 0);
+    }
+    
+    private static boolean sameLabel(CompactDFA dfa, int first, int second) {
+        return dfa.isAccepting(first) == dfa.isAccepting(second) && dfa.getOutput(first) == dfa.getOutput(second);
+    }
+    
+    /**
+     * Hash of a state's acceptance, output and the blocks of its successors, without its own block
+     */
+    private static int classHash(CompactDFA dfa, Signatures.IntArray block, int state) {
+        return Signatures.hash(label(dfa, state), dfa::next, dfa.getAlphabetSize(), block, state);
+    }
+    
+    private static boolean sameClass(CompactDFA dfa, Signatures.IntArray block, int first, int second) {
+        return sameLabel(dfa, first, second)
+                && Signatures.sameSuccessors(dfa::next, dfa.getAlphabetSize(), block, first, second);
+    }
+    
+    /**
+     * Creates initial partition separating final and non-final states, and states with different outputs
+     */
+    private Set<Set<State>> createInitialPartition(DFA dfa) {
+        Map<Long, Set<State>> groups = new HashMap<>();
+        for (State state : dfa.getStates()) {
+            long label = (long) state.getOutput() << 1 | (state.isFinal() ? 1 : 0);
+            groups.computeIfAbsent(label, k -> new HashSet<>()).add(state);
+        }
+        return new HashSet<>(groups.values());
+    }
+    
+    /**
+     * Gets the signature of a state for partition refinement
+     * The signature represents which group each symbol leads to
+     */
+    private String getStateSignature(State state, Set<Set<State>> partition, DFA dfa) {
+        StringBuilder signature = new StringBuilder();
+        
+        for (char symbol : dfa.getAlphabet()) {
+            State nextState = dfa.getNextState(state, symbol);
+            if (nextState == null) {
+                signature.append("null,");
+            } else {
+                // Find which group the next state belongs to
+                String groupName = findGroupName(nextState, partition);
+                signature.append(groupName).append(",");
+            }
+        }
+        
+        return signature.toString();
+    }
+    
+    /**
+     * Finds the name of the group containing the given state
+     */
+    private String findGroupName(State state, Set<Set<State>> partition) {
+        for (Set<State> group : partition) {
+            if (group.contains(state)) {
+                // Create a group name based on the states in the group
+                return group.toString();
+            }
+        }
+        return "unknown";
+    }
+    
+    /**
+     * Creates the minimized DFA from the final partition
+     */
+    private DFA createMinimizedDFA(DFA originalDFA, Set<Set<State>> finalPartition) {
+        DFA minimizedDFA = new DFA();
+        
+        // Create mapping from original states to new state names
+        Map<Set<State>, String> groupToName = new HashMap<>();
+        Map<State, String> stateToGroupName = new HashMap<>();
+        
+        int groupIndex = 0;
+        for (Set<State> group : finalPartition) {
+            String groupName = "q" + groupIndex;
+            groupToName.put(group, groupName);
+            
+            for (State state : group) {
+                stateToGroupName.put(state, groupName);
+            }
+            groupIndex++;
+        }
+        
+        // Create new states
+        for (Set<State> group : finalPartition) {
+            String groupName = groupToName.get(group);
+            
+            // Check if any state in the group is final
+            boolean isFinal = group.stream().anyMatch(State::isFinal);
+            
+            // Check if any state in the group is start
+            boolean isStart = group.stream().anyMatch(State::isStart);
+            
+            State newState = new State(groupName, isStart, isFinal);
+            // All states of a group have the same output
+            newState.setOutput(group.iterator().next().getOutput());
+            minimizedDFA.addState(newState);
+        }
+        
+        // Create transitions
+        for (Set<State> group : finalPartition) {
+            String groupName = groupToName.get(group);
+            State fromState = minimizedDFA.getStateByName(groupName);
+            
+            // Use any state from the group to determine transitions
+            State representativeState = group.iterator().next();
+            
+            for (char symbol : originalDFA.getAlphabet()) {
+                State nextState = originalDFA.getNextState(representativeState, symbol);
+                if (nextState != null) {
+                    String nextGroupName = stateToGroupName.get(nextState);
+                    State toState = minimizedDFA.getStateByName(nextGroupName);
+                    minimizedDFA.addTransition(fromState, toState, symbol);
+                }
+            }
+        }
+        
+        System.out.println("Minimized DFA:");
+        minimizedDFA.printDFA();
+        
+        return minimizedDFA;
+    }
+    
+    private void log(String message) {
+        if (verbose) {
+            System.out.println(message);
+        }
+    }
+}
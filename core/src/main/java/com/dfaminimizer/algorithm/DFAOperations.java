@@ -0,0 +1,308 @@
+package com.dfaminimizer.algorithm;
+
+import com.dfaminimizer.model.CharClassMap;
+import com.dfaminimizer.model.CharRange;
+import com.dfaminimizer.model.CompactDFA;
+import com.dfaminimizer.model.DFA;
+
+import java.util.*;
+
+/**
+ * Boolean operations on DFAs by product construction.
+ * <p>
+ * Only pairs reachable from the start pair are explored. Pairs are interned in a {@link PairTable}
+ * keyed by a packed long, so the product never allocates per-pair objects. The alphabets of the
+ * operands are aligned by intersecting their symbol classes; a character outside the alphabet of
+ * one operand sends that operand to its dead state.
+ * <p>
+ * When minimizing, the operands are minimized first, pairs that can no longer reach an accepting
+ * pair are cut off as soon as they are discovered, and the result is minimized with the configured
+ * engine. This keeps the explored product close to the size of the minimal result.
+ */
+public class DFAOperations {
+    
+    /**
+     * How the acceptance of a pair follows from the acceptance of its components
+     */
+    public enum Operation {
+        INTERSECTION,
+        UNION,
+        DIFFERENCE,
+        SYMMETRIC_DIFFERENCE;
+        
+        public boolean accepts(boolean first, boolean second) {
+            switch (this) {
+                case INTERSECTION:
+                    return first && second;
+                case UNION:
+                    return first || second;
+                case DIFFERENCE:
+                    return first && !second;
+                default:
+                    return first != second;
+            }
+        }
+        
+        /**
+         * Whether a pair may still reach acceptance given which components may still reach acceptance
+         */
+        boolean canAccept(boolean firstLive, boolean secondLive) {
+            return accepts(firstLive, secondLive) || accepts(firstLive, false)
+                    || accepts(false, secondLive) || accepts(false, false);
+        }
+    }
+    
+    private final MinimizationEngine engine;
+    private final boolean minimize;
+    
+    /**
+     * Creates operations that minimize their results with {@link DFAMinimizer}
+     */
+    public DFAOperations() {
+        this(new DFAMinimizer(false), true);
+    }
+    
+    /**
+     * @param engine Engine used to minimize operands and results
+     * @param minimize Whether to minimize; if false the reachable product is returned as built
+     */
+    public DFAOperations(MinimizationEngine engine, boolean minimize) {
+        this.engine = engine;
+        this.minimize = minimize;
+    }
+    
+    public CompactDFA intersection(CompactDFA first, CompactDFA second) {
+        return product(first, second, Operation.INTERSECTION);
+    }
+    
+    public CompactDFA union(CompactDFA first, CompactDFA second) {
+        return product(first, second, Operation.UNION);
+    }
+    
+    public CompactDFA difference(CompactDFA first, CompactDFA second) {
+        return product(first, second, Operation.DIFFERENCE);
+    }
+    
+    public CompactDFA symmetricDifference(CompactDFA first, CompactDFA second) {
+        return product(first, second, Operation.SYMMETRIC_DIFFERENCE);
+    }
+    
+    public DFA intersection(DFA first, DFA second) {
+        return product(CompactDFA.of(first), CompactDFA.of(second), Operation.INTERSECTION).toDFA();
+    }
+    
+    public DFA union(DFA first, DFA second) {
+        return product(CompactDFA.of(first), CompactDFA.of(second), Operation.UNION).toDFA();
+    }
+    
+    public DFA difference(DFA first, DFA second) {
+        return product(CompactDFA.of(first), CompactDFA.of(second), Operation.DIFFERENCE).toDFA();
+    }
+    
+    public DFA complement(DFA dfa) {
+        return complement(CompactDFA.of(dfa)).toDFA();
+    }
+    
+    /**
+     * Builds the product automaton over the union of both alphabets
+     * @return A DFA whose start state is 0; if minimizing and the language is empty, a single rejecting state
+     */
+    public CompactDFA product(CompactDFA first, CompactDFA second, Operation operation) {
+        if (minimize) {
+            first = engine.minimize(first);
+            second = engine.minimize(second);
+        }
+        CharClassMap classes = jointClasses(first.getClassMap(), second.getClassMap());
+        int k = classes.getClassCount();
+        int[] firstSymbols = symbolMapping(classes, first);
+        int[] secondSymbols = symbolMapping(classes, second);
+        boolean[] firstLive = liveStates(first);
+        boolean[] secondLive = liveStates(second);
+        
+        PairTable pairs = new PairTable();
+        int start = normalize(first.getStartState(), firstLive);
+        int secondStart = normalize(second.getStartState(), secondLive);
+        if (minimize && !operation.canAccept(start >= 0, secondStart >= 0)) {
+            return emptyLanguage(classes);
+        }
+        pairs.add(PairTable.key(start, secondStart));
+        
+        int[] transitions = new int[64 * k];
+        for (int current = 0; current < pairs.size(); current++) {
+            long key = pairs.key(current);
+            int p = PairTable.first(key);
+            int q = PairTable.second(key);
+            for (int a = 0; a < k; a++) {
+                int nextP = p < 0 || firstSymbols[a] < 0 ? -1 : normalize(first.next(p, firstSymbols[a]), firstLive);
+                int nextQ = q < 0 || secondSymbols[a] < 0 ? -1 : normalize(second.next(q, secondSymbols[a]), secondLive);
+                int target = CompactDFA.NO_STATE;
+                if (!minimize || operation.canAccept(nextP >= 0, nextQ >= 0)) {
+                    long nextKey = PairTable.key(nextP, nextQ);
+                    target = pairs.find(nextKey);
+                    if (target < 0) {
+                        target = pairs.add(nextKey);
+                        if (transitions.length < pairs.size() * k) {
+                            transitions = Arrays.copyOf(transitions, transitions.length * 2);
+                        }
+                    }
+                }
+                transitions[current * k + a] = target;
+            }
+        }
+        
+        boolean[] accepting = new boolean[pairs.size()];
+        for (int id = 0; id < accepting.length; id++) {
+            long key = pairs.key(id);
+            int p = PairTable.first(key);
+            int q = PairTable.second(key);
+            accepting[id] = operation.accepts(p >= 0 && first.isAccepting(p), q >= 0 && second.isAccepting(q));
+        }
+        CompactDFA product = new CompactDFA(classes, Arrays.copyOf(transitions, pairs.size() * k), accepting, 0);
+        return minimize ? engine.minimize(trim(product)).mergeEquivalentClasses() : product;
+    }
+    
+    /**
+     * Removes the states from which no accepting state is reachable.
+     * Pruning during the product only sees the components, so pairs of two live states may still be dead.
+     */
+    private static CompactDFA trim(CompactDFA dfa) {
+        boolean[] live = liveStates(dfa);
+        if (!live[dfa.getStartState()]) {
+            return emptyLanguage(dfa.getClassMap());
+        }
+        int n = dfa.getStateCount();
+        int k = dfa.getAlphabetSize();
+        int[] index = new int[n];
+        int count = 0;
+        for (int s = 0; s < n; s++) {
+            index[s] = live[s] ? count++ : CompactDFA.NO_STATE;
+        }
+        int[] transitions = new int[count * k];
+        boolean[] accepting = new boolean[count];
+        for (int s = 0; s < n; s++) {
+            if (!live[s]) {
+                continue;
+            }
+            accepting[index[s]] = dfa.isAccepting(s);
+            for (int a = 0; a < k; a++) {
+                int target = dfa.next(s, a);
+                transitions[index[s] * k + a] = target == CompactDFA.NO_STATE ? CompactDFA.NO_STATE : index[target];
+            }
+        }
+        return new CompactDFA(dfa.getClassMap(), transitions, accepting, index[dfa.getStartState()]);
+    }
+    
+    /**
+     * A single rejecting state without transitions
+     */
+    private static CompactDFA emptyLanguage(CharClassMap classes) {
+        int[] none = new int[classes.getClassCount()];
+        Arrays.fill(none, CompactDFA.NO_STATE);
+        return new CompactDFA(classes, none, new boolean[1], 0).mergeEquivalentClasses();
+    }
+    
+    /**
+     * Complements a DFA relative to its own alphabet. Missing transitions are sent to a new
+     * rejecting sink before acceptance is flipped.
+     */
+    public CompactDFA complement(CompactDFA dfa) {
+        int n = dfa.getStateCount();
+        int k = dfa.getAlphabetSize();
+        int sink = n;
+        int[] transitions = new int[(n + 1) * k];
+        boolean[] accepting = new boolean[n + 1];
+        for (int s = 0; s <= n; s++) {
+            accepting[s] = s == sink || !dfa.isAccepting(s);
+            for (int a = 0; a < k; a++) {
+                int target = s == sink ? CompactDFA.NO_STATE : dfa.next(s, a);
+                transitions[s * k + a] = target == CompactDFA.NO_STATE ? sink : target;
+            }
+        }
+        int start = dfa.getStartState() == CompactDFA.NO_STATE ? sink : dfa.getStartState();
+        CompactDFA complement = new CompactDFA(dfa.getClassMap(), transitions, accepting, start);
+        return minimize ? engine.minimize(complement) : complement;
+    }
+    
+    /**
+     * Coarsest classes that refine the classes of both maps
+     */
+    static CharClassMap jointClasses(CharClassMap first, CharClassMap second) {
+        List<List<CharRange>> labels = new ArrayList<>();
+        for (int c = 0; c < first.getClassCount(); c++) {
+            labels.add(first.getRanges(c));
+        }
+        for (int c = 0; c < second.getClassCount(); c++) {
+            labels.add(second.getRanges(c));
+        }
+        return CharClassMap.partition(labels);
+    }
+    
+    /**
+     * Class of the automaton for every joint class, or -1 if the joint class is outside its alphabet
+     */
+    static int[] symbolMapping(CharClassMap joint, CompactDFA dfa) {
+        int[] mapping = new int[joint.getClassCount()];
+        for (int a = 0; a < mapping.length; a++) {
+            mapping[a] = dfa.symbolIndex(joint.representative(a));
+        }
+        return mapping;
+    }
+    
+    /**
+     * Marks the states from which some accepting state is reachable, by backward search
+     */
+    static boolean[] liveStates(CompactDFA dfa) {
+        int n = dfa.getStateCount();
+        int k = dfa.getAlphabetSize();
+        int[] offsets = new int[n + 1];
+        for (int s = 0; s < n; s++) {
+            for (int a = 0; a < k; a++) {
+                int target = dfa.next(s, a);
+                if (target != CompactDFA.NO_STATE) {
+                    offsets[target + 1]++;
+                }
+            }
+        }
+        for (int s = 0; s < n; s++) {
+            offsets[s + 1] += offsets[s];
+        }
+        int[] fill = Arrays.copyOf(offsets, n);
+        int[] predecessors = new int[offsets[n]];
+        for (int s = 0; s < n; s++) {
+            for (int a = 0; a < k; a++) {
+                int target = dfa.next(s, a);
+                if (target != CompactDFA.NO_STATE) {
+                    predecessors[fill[target]++] = s;
+                }
+            }
+        }
+        
+        boolean[] live = new boolean[n];
+        int[] queue = new int[n];
+        int tail = 0;
+        for (int s = 0; s < n; s++) {
+            if (dfa.isAccepting(s)) {
+                live[s] = true;
+                queue[tail++] = s;
+            }
+        }
+        for (int head = 0; head < tail; head++) {
+            int s = queue[head];
+            for (int i = offsets[s]; i < offsets[s + 1]; i++) {
+                int p = predecessors[i];
+                if (!live[p]) {
+                    live[p] = true;
+                    queue[tail++] = p;
+                }
+            }
+        }
+        return live;
+    }
+    
+    /**
+     * Maps dead states to -1 so that all of them share one product component
+     */
+    private static int normalize(int state, boolean[] live) {
+        return state == CompactDFA.NO_STATE || !live[state] ? -1 : state;
+    }
+}
@@ -0,0 +1,275 @@
+package com.dfaminimizer.algorithm;
+
+import com.dfaminimizer.algorithm.DFAOperations.Operation;
+import com.dfaminimizer.model.CharClassMap;
+import com.dfaminimizer.model.CompactDFA;
+import com.dfaminimizer.model.DFA;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Decision queries on DFAs: emptiness, inclusion, equivalence and shortest witnesses.
+ * <p>
+ * All queries are breadth first searches that stop at the first accepting state, so a witness
+ * is always a shortest one and a query on a non-empty language usually visits only a small part of
+ * the automaton. Single automata are searched with a bitset of visited states. Inclusion and
+ * equivalence search the product on the fly, visiting pairs through a {@link PairTable} without
+ * building a product table, and treat states that cannot reach acceptance like missing ones, so
+ * the dead sinks of complete automata are pruned. Witnesses use the smallest character of every
+ * symbol class.
+ */
+public final class DFAQueries {
+    
+    private DFAQueries() {
+    }
+    
+    /**
+     * Returns true if the DFA accepts no word
+     */
+    public static boolean isEmpty(CompactDFA dfa) {
+        return shortestAccepted(dfa).isEmpty();
+    }
+    
+    public static boolean isEmpty(DFA dfa) {
+        return isEmpty(CompactDFA.of(dfa));
+    }
+    
+    /**
+     * Returns a shortest accepted word, or empty if the language is empty
+     */
+    public static Optional<String> shortestAccepted(CompactDFA dfa) {
+        int start = dfa.getStartState();
+        if (start == CompactDFA.NO_STATE) {
+            return Optional.empty();
+        }
+        int n = dfa.getStateCount();
+        int k = dfa.getAlphabetSize();
+        long[] visited = new long[(n + 63) >>> 6];
+        int[] queue = new int[n];
+        int[] parent = new int[n];
+        int[] symbol = new int[n];
+        visited[start >>> 6] |= 1L << start;
+        queue[0] = start;
+        parent[start] = -1;
+        int tail = 1;
+        for (int head = 0; head < tail; head++) {
+            int s = queue[head];
+            if (dfa.isAccepting(s)) {
+                return Optional.of(word(s, parent, symbol, dfa.getClassMap()));
+            }
+            for (int a = 0; a < k; a++) {
+                int t = dfa.next(s, a);
+                if (t != CompactDFA.NO_STATE && (visited[t >>> 6] & (1L << t)) == 0) {
+                    visited[t >>> 6] |= 1L << t;
+                    parent[t] = s;
+                    symbol[t] = a;
+                    queue[tail++] = t;
+                }
+            }
+        }
+        return Optional.empty();
+    }
+    
+    /**
+     * Returns true if every word accepted by the first DFA is accepted by the second
+     */
+    public static boolean isSubsetOf(CompactDFA first, CompactDFA second) {
+        return inclusionCounterexample(first, second).isEmpty();
+    }
+    
+    public static boolean isSubsetOf(DFA first, DFA second) {
+        return isSubsetOf(CompactDFA.of(first), CompactDFA.of(second));
+    }
+    
+    /**
+     * Returns a shortest word accepted by the first DFA but not by the second, or empty if there is none
+     */
+    public static Optional<String> inclusionCounterexample(CompactDFA first, CompactDFA second) {
+        return shortestWitness(first, second, Operation.DIFFERENCE);
+    }
+    
+    /**
+     * Returns true if both DFAs accept the same language
+     */
+    public static boolean isEquivalent(CompactDFA first, CompactDFA second) {
+        return distinguishingWord(first, second).isEmpty();
+    }
+    
+    public static boolean isEquivalent(DFA first, DFA second) {
+        return isEquivalent(CompactDFA.of(first), CompactDFA.of(second));
+    }
+    
+    /**
+     * Returns a shortest word accepted by exactly one of the DFAs, or empty if they are equivalent
+     */
+    public static Optional<String> distinguishingWord(CompactDFA first, CompactDFA second) {
+        return shortestWitness(first, second, Operation.SYMMETRIC_DIFFERENCE);
+    }
+    
+    /**
+     * Maps the states of a DFA to the states of an equivalent DFA, such as its minimized form, that
+     * the same words lead to. With a minimized DFA this is the block of every state, for example to
+     * draw the original automaton clustered by block. The classes of the DFA must each fall into one
+     * class of the equivalent DFA, which holds for the result of every minimizer.
+     * @return The corresponding state for every state of {@code dfa}, or -1 for states that are
+     *         unreachable or have no counterpart
+     */
+    public static int[] correspondingStates(CompactDFA dfa, CompactDFA equivalent) {
+        int n = dfa.getStateCount();
+        int k = dfa.getAlphabetSize();
+        int[] symbols = new int[k];
+        for (int a = 0; a < k; a++) {
+            symbols[a] = equivalent.symbolIndex(dfa.getClassMap().representative(a));
+        }
+        int[] corresponding = new int[n];
+        Arrays.fill(corresponding, -1);
+        int start = dfa.getStartState();
+        if (start == CompactDFA.NO_STATE) {
+            return corresponding;
+        }
+        long[] visited = new long[(n + 63) >>> 6];
+        int[] queue = new int[n];
+        visited[start >>> 6] |= 1L << start;
+        corresponding[start] = equivalent.getStartState();
+        queue[0] = start;
+        int tail = 1;
+        for (int head = 0; head < tail; head++) {
+            int s = queue[head];
+            int e = corresponding[s];
+            for (int a = 0; a < k; a++) {
+                int t = dfa.next(s, a);
+                if (t != CompactDFA.NO_STATE && (visited[t >>> 6] & (1L << t)) == 0) {
+                    visited[t >>> 6] |= 1L << t;
+                    corresponding[t] = e == CompactDFA.NO_STATE || symbols[a] < 0 ? -1 : equivalent.next(e, symbols[a]);
+                    queue[tail++] = t;
+                }
+            }
+        }
+        return corresponding;
+    }
+    
+    /**
+     * Searches the product of two DFAs for a shortest word whose acceptance by the components
+     * satisfies the operation. The product is never materialized; states that cannot reach an
+     * accepting state are replaced by -1, and pairs in which neither component could make the
+     * operation accept any more are not expanded.
+     */
+    public static Optional<String> shortestWitness(CompactDFA first, CompactDFA second, Operation operation) {
+        CharClassMap classes = DFAOperations.jointClasses(first.getClassMap(), second.getClassMap());
+        int k = classes.getClassCount();
+        int[] firstSymbols = DFAOperations.symbolMapping(classes, first);
+        int[] secondSymbols = DFAOperations.symbolMapping(classes, second);
+        long[] firstLive = liveStates(first);
+        long[] secondLive = liveStates(second);
+        
+        int start = live(firstLive, first.getStartState());
+        int secondStart = live(secondLive, second.getStartState());
+        if (!operation.canAccept(start >= 0, secondStart >= 0)) {
+            return Optional.empty();
+        }
+        PairTable pairs = new PairTable();
+        pairs.add(PairTable.key(start, secondStart));
+        int[] parent = new int[64];
+        int[] symbol = new int[64];
+        parent[0] = -1;
+        
+        for (int current = 0; current < pairs.size(); current++) {
+            long key = pairs.key(current);
+            int p = PairTable.first(key);
+            int q = PairTable.second(key);
+            if (operation.accepts(p >= 0 && first.isAccepting(p), q >= 0 && second.isAccepting(q))) {
+                return Optional.of(word(current, parent, symbol, classes));
+            }
+            for (int a = 0; a < k; a++) {
+                int nextP = p < 0 || firstSymbols[a] < 0 ? -1 : live(firstLive, first.next(p, firstSymbols[a]));
+                int nextQ = q < 0 || secondSymbols[a] < 0 ? -1 : live(secondLive, second.next(q, secondSymbols[a]));
+                if (!operation.canAccept(nextP >= 0, nextQ >= 0)) {
+                    continue;
+                }
+                long nextKey = PairTable.key(nextP, nextQ);
+                if (pairs.find(nextKey) < 0) {
+                    int id = pairs.add(nextKey);
+                    if (id == parent.length) {
+                        parent = Arrays.copyOf(parent, id * 2);
+                        symbol = Arrays.copyOf(symbol, id * 2);
+                    }
+                    parent[id] = current;
+                    symbol[id] = a;
+                }
+            }
+        }
+        return Optional.empty();
+    }
+    
+    /**
+     * Returns the bitset of states from which an accepting state can be reached, found by a
+     * breadth first search backwards from the accepting states
+     */
+    private static long[] liveStates(CompactDFA dfa) {
+        int n = dfa.getStateCount();
+        int k = dfa.getAlphabetSize();
+        // The predecessors of t are predecessors[offsets[t]] up to predecessors[offsets[t + 1] - 1]
+        int[] offsets = new int[n + 1];
+        for (int s = 0; s < n; s++) {
+            for (int a = 0; a < k; a++) {
+                int t = dfa.next(s, a);
+                if (t != CompactDFA.NO_STATE) {
+                    offsets[t + 1]++;
+                }
+            }
+        }
+        for (int t = 0; t < n; t++) {
+            offsets[t + 1] += offsets[t];
+        }
+        int[] predecessors = new int[offsets[n]];
+        int[] fill = Arrays.copyOf(offsets, n);
+        for (int s = 0; s < n; s++) {
+            for (int a = 0; a < k; a++) {
+                int t = dfa.next(s, a);
+                if (t != CompactDFA.NO_STATE) {
+                    predecessors[fill[t]++] = s;
+                }
+            }
+        }
+        
+        long[] live = new long[(n + 63) >>> 6];
+        int[] queue = new int[n];
+        int tail = 0;
+        for (int s = 0; s < n; s++) {
+            if (dfa.isAccepting(s)) {
+                live[s >>> 6] |= 1L << s;
+                queue[tail++] = s;
+            }
+        }
+        for (int head = 0; head < tail; head++) {
+            int t = queue[head];
+            for (int i = offsets[t]; i < offsets[t + 1]; i++) {
+                int s = predecessors[i];
+                if ((live[s >>> 6] & (1L << s)) == 0) {
+                    live[s >>> 6] |= 1L << s;
+                    queue[tail++] = s;
+                }
+            }
+        }
+        return live;
+    }
+    
+    /**
+     * Returns the state if it is live, otherwise -1
+     */
+    private static int live(long[] live, int state) {
+        return state >= 0 && (live[state >>> 6] & (1L << state)) != 0 ? state : -1;
+    }
+    
+    /**
+     * Follows parent links back to the root and spells the word using class representatives
+     */
+    private static String word(int node, int[] parent, int[] symbol, CharClassMap classes) {
+        StringBuilder sb = new StringBuilder();
+        for (int s = node; parent[s] != -1; s = parent[s]) {
+            sb.append(classes.representative(symbol[s]));
+        }
+        return sb.reverse().toString();
+    }
+}
@@ -0,0 +1,330 @@
+package com.dfaminimizer.algorithm;
+
+import com.dfaminimizer.model.CompactDFA;
+import com.dfaminimizer.model.DFA;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Builds the minimal acyclic DFA of a finite set of words, adding one word at a time in sorted
+ * order (Daciuk, Mihov, Watson and Watson, 2000).
+ * <p>
+ * Only the states on the path of the last added word are still editable. When the next word
+ * leaves that path, the states below the branching point can no longer change and are replaced by
+ * an equivalent state from the register of finished states, or added to it. The automaton
+ * therefore never holds more than the minimal automaton plus one path, unlike building the trie
+ * first and minimizing it afterwards.
+ * <p>
+ * Finished states live in shared append-only arrays and are found through an open addressing hash
+ * table, so no objects are created per state. Instances are not thread safe.
+ */
+public final class DictionaryBuilder {
+    
+    private static final int INITIAL_CAPACITY = 64;
+    
+    // Finished states in compressed rows: the edges of state s are at [edgeStart[s], edgeStart[s + 1])
+    private int[] edgeStart = new int[INITIAL_CAPACITY + 1];
+    private char[] edgeLabels = new char[INITIAL_CAPACITY];
+    private int[] edgeTargets = new int[INITIAL_CAPACITY];
+    private boolean[] finalStates = new boolean[INITIAL_CAPACITY];
+    private int stateCount;
+    private int edgeCount;
+    /** Register of finished states, holding state + 1 so that zero marks a free slot */
+    private int[] register = new int[INITIAL_CAPACITY * 2];
+    
+    // The path of the last word: depth d has pathEdges[d] edges, the last of which leads to depth d + 1
+    private char[][] pathLabels = new char[0][];
+    private int[][] pathTargets = new int[0][];
+    private int[] pathEdges = new int[0];
+    private boolean[] pathFinal = new boolean[0];
+    private final StringBuilder previous = new StringBuilder();
+    
+    private long wordCount;
+    private CompactDFA result;
+    
+    public DictionaryBuilder() {
+        ensurePathDepth(0);
+    }
+    
+    /**
+     * Adds a word. Words must be added in ascending order of {@link String#compareTo}; repeating
+     * the previous word has no effect.
+     * @throws IllegalArgumentException If the word sorts before the previous one
+     * @throws IllegalStateException If the automaton has already been built
+     */
+    public void add(CharSequence word) {
+        if (result != null) {
+            throw new IllegalStateException("The automaton has already been built");
+        }
+        int prefix = commonPrefix(word);
+        if (prefix == word.length() && prefix == previous.length() && wordCount > 0) {
+            return;
+        }
+        if (prefix < previous.length() && (prefix == word.length() || word.charAt(prefix) < previous.charAt(prefix))) {
+            throw new IllegalArgumentException("Words must be added in sorted order: \"" + word
+                    + "\" after \"" + previous + "\"");
+        }
+        
+        // The states below the common prefix are finished
+        replaceOrRegister(prefix);
+        ensurePathDepth(word.length());
+        for (int d = prefix; d < word.length(); d++) {
+            addPathEdge(d, word.charAt(d));
+            pathEdges[d + 1] = 0;
+            pathFinal[d + 1] = false;
+        }
+        pathFinal[word.length()] = true;
+        previous.setLength(prefix);
+        previous.append(word, prefix, word.length());
+        wordCount++;
+    }
+    
+    /**
+     * Adds all words, sorting a copy first if they are not in order
+     */
+    public void addAll(Collection<? extends CharSequence> words) {
+        List<String> sorted = new ArrayList<>(words.size());
+        boolean inOrder = true;
+        for (CharSequence word : words) {
+            String value = word.toString();
+            if (!sorted.isEmpty() && sorted.get(sorted.size() - 1).compareTo(value) > 0) {
+                inOrder = false;
+            }
+            sorted.add(value);
+        }
+        if (!inOrder || (wordCount > 0 && !sorted.isEmpty() && previous.toString().compareTo(sorted.get(0)) > 0)) {
+            if (wordCount > 0) {
+                throw new IllegalArgumentException("Unsorted words can only be added to an empty builder");
+            }
+            sorted.sort(null);
+        }
+        for (String word : sorted) {
+            add(word);
+        }
+    }
+    
+    /**
+     * Builds the minimal DFA of a collection of words in any order
+     */
+    public static CompactDFA build(Collection<? extends CharSequence> words) {
+        DictionaryBuilder builder = new DictionaryBuilder();
+        builder.addAll(words);
+        return builder.toCompactDFA();
+    }
+    
+    /**
+     * Finishes the automaton. The result has no dead state; the start state is state 0.
+     * Later calls return the same automaton.
+     */
+    public CompactDFA toCompactDFA() {
+        if (result == null) {
+            replaceOrRegister(0);
+            int root = append(0);
+            result = toTable(root);
+            // The construction arrays are no longer needed
+            edgeLabels = null;
+            edgeTargets = null;
+            edgeStart = null;
+            register = null;
+        }
+        return result;
+    }
+    
+    /**
+     * Finishes the automaton and converts it into the editable model
+     */
+    public DFA toDFA() {
+        return toCompactDFA().toDFA();
+    }
+    
+    /**
+     * Number of distinct words added so far
+     */
+    public long getWordCount() {
+        return wordCount;
+    }
+    
+    /**
+     * Number of finished states, excluding the path of the last word
+     */
+    public int getRegisteredStateCount() {
+        return stateCount;
+    }
+    
+    private int commonPrefix(CharSequence word) {
+        int limit = Math.min(word.length(), previous.length());
+        int i = 0;
+        while (i < limit && word.charAt(i) == previous.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+    
+    /**
+     * Finishes the path states deeper than the given depth, from the bottom up
+     */
+    private void replaceOrRegister(int depth) {
+        for (int d = previous.length(); d > depth; d--) {
+            int state = append(d);
+            int existing = find(state);
+            if (existing >= 0) {
+                // Drop the state just appended again
+                stateCount--;
+                edgeCount = edgeStart[stateCount];
+                state = existing;
+            } else {
+                if (stateCount * 2 > register.length) {
+                    rehash(register.length * 2);
+                } else {
+                    insert(state);
+                }
+            }
+            pathTargets[d - 1][pathEdges[d - 1] - 1] = state;
+        }
+    }
+    
+    /**
+     * Copies the path state at the given depth to the finished states
+     */
+    private int append(int depth) {
+        int edges = pathEdges[depth];
+        if (stateCount + 1 == finalStates.length) {
+            finalStates = Arrays.copyOf(finalStates, finalStates.length * 2);
+            edgeStart = Arrays.copyOf(edgeStart, finalStates.length + 1);
+        }
+        if (edgeCount + edges > edgeLabels.length) {
+            int capacity = Math.max(edgeLabels.length * 2, edgeCount + edges);
+            edgeLabels = Arrays.copyOf(edgeLabels, capacity);
+            edgeTargets = Arrays.copyOf(edgeTargets, capacity);
+        }
+        System.arraycopy(pathLabels[depth], 0, edgeLabels, edgeCount, edges);
+        System.arraycopy(pathTargets[depth], 0, edgeTargets, edgeCount, edges);
+        int state = stateCount++;
+        finalStates[state] = pathFinal[depth];
+        edgeCount += edges;
+        edgeStart[stateCount] = edgeCount;
+        return state;
+    }
+    
+    private void ensurePathDepth(int length) {
+        if (pathEdges.length > length) {
+            return;
+        }
+        int depth = Math.max(length + 1, pathEdges.length * 2);
+        int old = pathEdges.length;
+        pathLabels = Arrays.copyOf(pathLabels, depth);
+        pathTargets = Arrays.copyOf(pathTargets, depth);
+        pathEdges = Arrays.copyOf(pathEdges, depth);
+        pathFinal = Arrays.copyOf(pathFinal, depth);
+        for (int d = old; d < depth; d++) {
+            pathLabels[d] = new char[4];
+            pathTargets[d] = new int[4];
+        }
+    }
+    
+    private void addPathEdge(int depth, char label) {
+        int edges = pathEdges[depth];
+        if (edges == pathLabels[depth].length) {
+            pathLabels[depth] = Arrays.copyOf(pathLabels[depth], edges * 2);
+            pathTargets[depth] = Arrays.copyOf(pathTargets[depth], edges * 2);
+        }
+        pathLabels[depth][edges] = label;
+        pathTargets[depth][edges] = -1;
+        pathEdges[depth] = edges + 1;
+    }
+    
+    /**
+     * Returns a registered state equivalent to the given finished state, or -1. Since all targets
+     * are registered states, two states are equivalent exactly if they have the same flag and edges.
+     */
+    private int find(int state) {
+        int mask = register.length - 1;
+        int slot = hash(state) & mask;
+        while (register[slot] != 0) {
+            int other = register[slot] - 1;
+            if (sameState(state, other)) {
+                return other;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+    
+    private boolean sameState(int first, int second) {
+        return finalStates[first] == finalStates[second]
+                && Arrays.equals(edgeLabels, edgeStart[first], edgeStart[first + 1],
+                        edgeLabels, edgeStart[second], edgeStart[second + 1])
+                && Arrays.equals(edgeTargets, edgeStart[first], edgeStart[first + 1],
+                        edgeTargets, edgeStart[second], edgeStart[second + 1]);
+    }
+    
+    /**
+     * Rebuilds the register; every finished state is registered, since duplicates are dropped
+     */
+    private void rehash(int tableSize) {
+        register = new int[tableSize];
+        for (int state = 0; state < stateCount; state++) {
+            insert(state);
+        }
+    }
+    
+    private void insert(int state) {
+        int mask = register.length - 1;
+        int slot = hash(state) & mask;
+        while (register[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        register[slot] = state + 1;
+    }
+    
+    private int hash(int state) {
+        long h = finalStates[state] ? 0x9E3779B97F4A7C15L : 0x632BE59BD9B4E019L;
+        for (int e = edgeStart[state]; e < edgeStart[state + 1]; e++) {
+            h = (h ^ ((long) edgeLabels[e] << 32 | edgeTargets[e])) * 0xBF58476D1CE4E5B9L;
+            h ^= h >>> 31;
+        }
+        return (int) (h ^ (h >>> 32));
+    }
+    
+    /**
+     * Converts the finished states into a table, numbering the root 0
+     */
+    private CompactDFA toTable(int root) {
+        char[] alphabet = alphabet();
+        int k = alphabet.length;
+        int[] transitions = new int[stateCount * k];
+        boolean[] accepting = new boolean[stateCount];
+        Arrays.fill(transitions, CompactDFA.NO_STATE);
+        for (int state = 0; state < stateCount; state++) {
+            // The root is finished last, so reversing the numbering makes it state 0
+            int row = root - state;
+            accepting[row] = finalStates[state];
+            for (int e = edgeStart[state]; e < edgeStart[state + 1]; e++) {
+                transitions[row * k + Arrays.binarySearch(alphabet, edgeLabels[e])] = root - edgeTargets[e];
+            }
+        }
+        return new CompactDFA(alphabet, transitions, accepting, 0).mergeEquivalentClasses();
+    }
+    
+    private char[] alphabet() {
+        boolean[] used = new boolean[Character.MAX_VALUE + 1];
+        int count = 0;
+        for (int e = 0; e < edgeCount; e++) {
+            if (!used[edgeLabels[e]]) {
+                used[edgeLabels[e]] = true;
+                count++;
+            }
+        }
+        char[] alphabet = new char[count];
+        int i = 0;
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            if (used[c]) {
+                alphabet[i++] = (char) c;
+            }
+        }
+        return alphabet;
+    }
+}
@@ -0,0 +1,155 @@
+package com.dfaminimizer.algorithm;
+
+import com.dfaminimizer.model.CompactDFA;
+import com.dfaminimizer.model.NFA;
+
+import java.util.Arrays;
+
+/**
+ * DFA for an NFA whose states are built on demand while matching.
+ * <p>
+ * Only subsets that are actually visited by some input are materialized, and transitions are
+ * computed the first time they are taken. When the number of cached states reaches the cap the
+ * whole cache is flushed and matching continues from the current state, so memory stays bounded
+ * no matter how large the full subset automaton would be.
+ * <p>
+ * Instances are not thread safe; use one per matcher thread.
+ */
+public class LazyDFA {
+    
+    /** Default number of cached DFA states before the cache is flushed */
+    public static final int DEFAULT_MAX_CACHED_STATES = 10_000;
+    
+    private static final int UNKNOWN = -2;
+    
+    private final SubsetConstruction nfa;
+    private final int maxCachedStates;
+    private final int alphabetSize;
+    private final long[] acceptMask;
+    private final long[] scratch;
+    
+    private SubsetTable cache;
+    private int[] transitions;
+    private boolean[] accepting;
+    private int startState;
+    private int flushCount;
+    
+    public LazyDFA(NFA nfa) {
+        this(nfa, DEFAULT_MAX_CACHED_STATES);
+    }
+    
+    /**
+     * @param nfa The NFA to match with
+     * @param maxCachedStates Number of DFA states kept before the cache is flushed, at least 2
+     */
+    public LazyDFA(NFA nfa, int maxCachedStates) {
+        this(SubsetConstruction.of(nfa, Long.MAX_VALUE), maxCachedStates);
+    }
+    
+    public LazyDFA(SubsetConstruction nfa, int maxCachedStates) {
+        if (maxCachedStates < 2) {
+            throw new IllegalArgumentException("Cache must hold at least 2 states: " + maxCachedStates);
+        }
+        this.nfa = nfa;
+        this.maxCachedStates = maxCachedStates;
+        this.alphabetSize = nfa.getAlphabetSize();
+        this.cache = new SubsetTable(nfa.getStateCount());
+        this.acceptMask = nfa.acceptMask(cache.words());
+        this.scratch = new long[cache.words()];
+        flush();
+        flushCount = 0;
+    }
+    
+    /**
+     * Runs the input through the automaton, materializing states as needed
+     */
+    public boolean accepts(CharSequence input) {
+        int state = startState();
+        for (int i = 0; i < input.length(); i++) {
+            int symbol = nfa.symbolIndex(input.charAt(i));
+            if (symbol < 0) {
+                return false;
+            }
+            int next = transitions[state * alphabetSize + symbol];
+            if (next == UNKNOWN) {
+                next = computeTransition(state, symbol);
+            }
+            if (next == CompactDFA.NO_STATE) {
+                return false;
+            }
+            state = next;
+        }
+        return accepting[state];
+    }
+    
+    /**
+     * Number of DFA states currently materialized
+     */
+    public int getCachedStateCount() {
+        return cache.size();
+    }
+    
+    /**
+     * Number of times the cache was flushed because it reached its cap
+     */
+    public int getFlushCount() {
+        return flushCount;
+    }
+    
+    private int startState() {
+        if (startState < 0) {
+            long[] start = nfa.startSubset(cache.words());
+            startState = cache.find(start);
+            if (startState < 0) {
+                if (cache.size() >= maxCachedStates) {
+                    flush();
+                }
+                startState = intern(start);
+            }
+        }
+        return startState;
+    }
+    
+    private int computeTransition(int state, int symbol) {
+        if (nfa.step(cache, state, symbol, scratch)) {
+            transitions[state * alphabetSize + symbol] = CompactDFA.NO_STATE;
+            return CompactDFA.NO_STATE;
+        }
+        int next = cache.find(scratch);
+        if (next < 0) {
+            if (cache.size() >= maxCachedStates) {
+                // The successor is already in scratch, so the old states are no longer needed
+                flush();
+                next = intern(scratch);
+                if (Arrays.equals(scratch, nfa.startSubset(cache.words()))) {
+                    startState = next;
+                }
+                return next;
+            }
+            next = intern(scratch);
+        }
+        transitions[state * alphabetSize + symbol] = next;
+        return next;
+    }
+    
+    private int intern(long[] subset) {
+        int id = cache.add(subset);
+        if (transitions.length < cache.size() * alphabetSize) {
+            int oldLength = transitions.length;
+            transitions = Arrays.copyOf(transitions, cache.capacity() * alphabetSize);
+            Arrays.fill(transitions, oldLength, transitions.length, UNKNOWN);
+            accepting = Arrays.copyOf(accepting, cache.capacity());
+        }
+        accepting[id] = cache.intersects(id, acceptMask);
+        return id;
+    }
+    
+    private void flush() {
+        cache.clear();
+        transitions = new int[cache.capacity() * alphabetSize];
+        Arrays.fill(transitions, UNKNOWN);
+        accepting = new boolean[cache.capacity()];
+        startState = -1;
+        flushCount++;
+    }
+}
@@ -0,0 +1,255 @@
+package com.dfaminimizer.algorithm;
+
+import com.dfaminimizer.model.CompactDFA;
+import com.dfaminimizer.model.DFA;
+import com.dfaminimizer.model.MappedDFA;
+import com.dfaminimizer.model.MappedIntArray;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Minimizes DFAs whose transitions are stored in memory mapped files.
+ * <p>
+ * Runs the same signature refinement as {@link DFAMinimizer}, but the partition arrays and the
+ * signature hash table are memory mapped files as well, so the heap use does not depend on the
+ * size of the automaton. Each state is visited in order, which keeps the page faults on the
+ * transition file sequential; lookups of target blocks are random and are fast as long as the
+ * partition arrays fit into the page cache. Scratch files are written to a fresh directory below
+ * the work directory and deleted afterwards.
+ */
+public class MappedMinimizer implements MinimizationEngine {
+    
+    private final Path workDirectory;
+    private final RefinementCheckpoints checkpoints;
+    
+    /**
+     * Creates a minimizer that keeps its scratch files in the default temporary directory
+     */
+    public MappedMinimizer() {
+        this(Path.of(System.getProperty("java.io.tmpdir")));
+    }
+    
+    /**
+     * @param workDirectory Directory for scratch files, which should be on a local disk with room
+     *        for about three ints per state and one per transition of the result
+     */
+    public MappedMinimizer(Path workDirectory) {
+        this(workDirectory, null);
+    }
+    
+    /**
+     * @param workDirectory Directory for scratch files
+     * @param checkpoints Where to save the partition during refinement, and to resume from when the
+     *        same DFA is minimized again; null for none
+     */
+    public MappedMinimizer(Path workDirectory, RefinementCheckpoints checkpoints) {
+        this.workDirectory = workDirectory;
+        this.checkpoints = checkpoints;
+    }
+    
+    @Override
+    public DFA minimize(DFA dfa) {
+        return minimize(CompactDFA.of(dfa)).toDFA();
+    }
+    
+    /**
+     * Minimizes a DFA in table form by copying it to mapped files, mainly for testing. Mapped files
+     * do not store output labels, so labelled automata are minimized on the heap by {@link DFAMinimizer}.
+     */
+    @Override
+    public CompactDFA minimize(CompactDFA dfa) {
+        if (dfa.hasOutputs()) {
+            return new DFAMinimizer(false, checkpoints).minimize(dfa);
+        }
+        try {
+            Path scratch = Files.createTempDirectory(Files.createDirectories(workDirectory), "dfa-");
+            try (MappedDFA mapped = MappedDFA.of(dfa, scratch.resolve("input"));
+                    MappedDFA minimized = minimize(mapped, scratch.resolve("output"))) {
+                return minimized.toCompactDFA();
+            } finally {
+                MappedIntArray.deleteDirectory(scratch);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * Minimizes a DFA in mapped form. With {@link RefinementCheckpoints} the partition is saved
+     * between rounds, and a run on the same DFA continues from the latest checkpoint.
+     * @param dfa The DFA to minimize
+     * @param output Directory for the files of the minimized DFA
+     * @return The minimized DFA with the start state, if any, numbered 0
+     * @throws CancellationException If the thread is interrupted
+     * @throws IOException If a file cannot be created or mapped
+     */
+    public MappedDFA minimize(MappedDFA dfa, Path output) throws IOException {
+        int n = dfa.getStateCount();
+        Path scratch = Files.createTempDirectory(Files.createDirectories(workDirectory), "refine-");
+        try (MappedIntArray first = MappedIntArray.create(scratch.resolve("block-a.bin"), n);
+                MappedIntArray second = MappedIntArray.create(scratch.resolve("block-b.bin"), n);
+                MappedIntArray table = MappedIntArray.create(scratch.resolve("table.bin"),
+                        (long) Integer.highestOneBit(Math.max(1, n)) * 4)) {
+            
+            // Step 1: Initial partition - separate final and non-final states
+            MappedIntArray block = first;
+            MappedIntArray newBlock = second;
+            RefinementCheckpoints.Session session = checkpoints == null ? null
+                    : checkpoints.session("mapped-" + RefinementCheckpoints.contentHash(dfa), n);
+            RefinementCheckpoints.Progress progress = session == null ? null : session.resume(blocks(block));
+            int blockCount;
+            int iteration;
+            if (progress != null) {
+                blockCount = progress.blockCount;
+                iteration = progress.iteration;
+            } else {
+                blockCount = initialPartition(dfa, block);
+                iteration = 0;
+            }
+            
+            // Step 2: Refine partition until no more changes. The table holds representative + 1,
+            // so that zero marks a free slot. It has up to 2^32 slots, so the mask is a long and
+            // the hash is taken unsigned.
+            long mask = table.length() - 1;
+            Signatures.Transitions next = dfa::next;
+            int k = dfa.getAlphabetSize();
+            boolean changed = true;
+            boolean tableEmpty = true;
+            while (changed) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new CancellationException("Minimization interrupted after " + iteration + " iterations");
+                }
+                iteration++;
+                if (!tableEmpty) {
+                    table.fill(0);
+                }
+                tableEmpty = false;
+                int newBlockCount = 0;
+                
+                Signatures.IntArray blockOf = block::get;
+                for (int s = 0; s < n; s++) {
+                    long slot = (Signatures.hash(next, k, blockOf, s) & 0xFFFFFFFFL) & mask;
+                    while (true) {
+                        int representative = table.get(slot) - 1;
+                        if (representative == -1) {
+                            table.set(slot, s + 1);
+                            newBlock.set(s, newBlockCount++);
+                            break;
+                        }
+                        if (Signatures.same(next, k, blockOf, s, representative)) {
+                            newBlock.set(s, newBlock.get(representative));
+                            break;
+                        }
+                        slot = (slot + 1) & mask;
+                    }
+                }
+                
+                // Blocks only ever split, so an unchanged count means the partition is stable
+                changed = newBlockCount != blockCount;
+                blockCount = newBlockCount;
+                MappedIntArray swap = block;
+                block = newBlock;
+                newBlock = swap;
+                if (changed && session != null) {
+                    session.roundCompleted(iteration, blockCount, blocks(block));
+                }
+            }
+            if (session != null) {
+                session.finish();
+            }
+            
+            // Step 3: Create minimized DFA
+            return quotient(dfa, block, blockCount, newBlock, output);
+        } catch (ClosedByInterruptException e) {
+            // Interrupted while opening or mapping a file
+            throw new CancellationException("Minimization interrupted");
+        } finally {
+            MappedIntArray.deleteDirectory(scratch);
+        }
+    }
+    
+    /**
+     * Creates the automaton of a partition of the states of a DFA, renumbering blocks so the start
+     * block comes first
+     * @param block Block of every state, numbered from 0
+     * @param order Scratch array with at least one entry per block; overwritten
+     * @param output Directory for the files of the result
+     */
+    public static MappedDFA quotient(MappedDFA dfa, MappedIntArray block, int blockCount, MappedIntArray order,
+                                     Path output) throws IOException {
+        int n = dfa.getStateCount();
+        int k = dfa.getAlphabetSize();
+        // The order holds new number + 1
+        order.fill(0);
+        int start = dfa.getStartState();
+        int next = 0;
+        if (start != CompactDFA.NO_STATE) {
+            order.set(block.get(start), ++next);
+        }
+        for (int s = 0; s < n; s++) {
+            if (order.get(block.get(s)) == 0) {
+                order.set(block.get(s), ++next);
+            }
+        }
+        MappedDFA minimized = MappedDFA.create(output, dfa.getClassMap(), blockCount);
+        try {
+            for (int s = 0; s < n; s++) {
+                int b = order.get(block.get(s)) - 1;
+                minimized.setAccepting(b, dfa.isAccepting(s));
+                for (int a = 0; a < k; a++) {
+                    int target = dfa.next(s, a);
+                    minimized.setTransition(b, a,
+                            target == CompactDFA.NO_STATE ? CompactDFA.NO_STATE : order.get(block.get(target)) - 1);
+                }
+            }
+            minimized.setStartState(start == CompactDFA.NO_STATE ? CompactDFA.NO_STATE : 0);
+            return minimized;
+        } catch (RuntimeException e) {
+            minimized.close();
+            throw e;
+        }
+    }
+    
+    /**
+     * Assigns block 0 or 1 to every state depending on whether it is accepting
+     * @return The number of non-empty blocks
+     */
+    public static int initialPartition(MappedDFA dfa, MappedIntArray block) {
+        int acceptingBlock = -1;
+        int rejectingBlock = -1;
+        int count = 0;
+        for (int s = 0; s < dfa.getStateCount(); s++) {
+            if (dfa.isAccepting(s)) {
+                if (acceptingBlock < 0) {
+                    acceptingBlock = count++;
+                }
+                block.set(s, acceptingBlock);
+            } else {
+                if (rejectingBlock < 0) {
+                    rejectingBlock = count++;
+                }
+                block.set(s, rejectingBlock);
+            }
+        }
+        return count;
+    }
+    
+    private static RefinementCheckpoints.Blocks blocks(MappedIntArray block) {
+        return new RefinementCheckpoints.Blocks() {
+            @Override
+            public int get(int index) {
+                return block.get(index);
+            }
+            
+            @Override
+            public void set(int index, int value) {
+                block.set(index, value);
+            }
+        };
+    }
+}
@@ -0,0 +1,11 @@
+package com.dfaminimizer.algorithm;
+
+/**
+ * Thrown when an algorithm would need more memory than it was allowed to use
+ */
+public class MemoryBudgetExceededException extends RuntimeException {
+    
+    public MemoryBudgetExceededException(String message) {
+        super(message);
+    }
+}
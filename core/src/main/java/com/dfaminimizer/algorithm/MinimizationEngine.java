@@ -0,0 +1,39 @@
+package com.dfaminimizer.algorithm;
+
+import com.dfaminimizer.model.CompactDFA;
+import com.dfaminimizer.model.DFA;
+
+/**
+ * Common contract for DFA minimization algorithms.
+ * <p>
+ * Every engine keeps the {@link com.dfaminimizer.model.State#getOutput() output labels} of its
+ * input and never merges states with different labels. Engines whose representation cannot carry
+ * labels, such as reversal or mapped files, hand labelled automata to {@link DFAMinimizer}
+ * instead of failing.
+ */
+public interface MinimizationEngine {
+    
+    /**
+     * Minimizes a DFA
+     * @param dfa The DFA to minimize
+     * @return A new DFA accepting the same language
+     */
+    DFA minimize(DFA dfa);
+    
+    /**
+     * Minimizes a DFA in table form. Engines that work on symbol classes directly should override
+     * this; the default converts to the editable model, which expands every class to its characters.
+     * @param dfa The DFA to minimize
+     * @return A new DFA accepting the same language
+     */
+    default CompactDFA minimize(CompactDFA dfa) {
+        return CompactDFA.of(minimize(dfa.toDFA()));
+    }
+    
+    /**
+     * Short human readable name used in logs and benchmarks
+     */
+    default String getName() {
+        return getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,104 @@
+package com.dfaminimizer.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * Interning table for pairs of state ids.
+ * A pair is packed into one long key and found through an open addressing hash table, so
+ * interning a pair never allocates per-pair objects. Component values of -1 are allowed.
+ */
+class PairTable {
+    
+    private static final int INITIAL_CAPACITY = 64;
+    
+    private long[] keys;
+    private int[] table;
+    private int size;
+    
+    PairTable() {
+        keys = new long[INITIAL_CAPACITY];
+        table = new int[INITIAL_CAPACITY * 2];
+        Arrays.fill(table, -1);
+    }
+    
+    static long key(int first, int second) {
+        return ((long) first << 32) | (second & 0xFFFFFFFFL);
+    }
+    
+    static int first(long key) {
+        return (int) (key >> 32);
+    }
+    
+    static int second(long key) {
+        return (int) key;
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    /**
+     * Returns the key of the pair with the given id
+     */
+    long key(int id) {
+        return keys[id];
+    }
+    
+    /**
+     * Returns the id of the pair, or -1 if it has not been interned
+     */
+    int find(long key) {
+        int mask = table.length - 1;
+        int slot = hash(key) & mask;
+        while (table[slot] != -1) {
+            int id = table[slot];
+            if (keys[id] == key) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+    
+    /**
+     * Adds a pair that is not in the table yet and returns its id.
+     * Ids are assigned consecutively from 0.
+     */
+    int add(long key) {
+        int id = size;
+        if (id == keys.length) {
+            keys = Arrays.copyOf(keys, keys.length * 2);
+        }
+        keys[id] = key;
+        size++;
+        if (size * 2 > table.length) {
+            rehash(table.length * 2);
+        } else {
+            insert(table, id);
+        }
+        return id;
+    }
+    
+    private void rehash(int tableSize) {
+        table = new int[tableSize];
+        Arrays.fill(table, -1);
+        for (int id = 0; id < size; id++) {
+            insert(table, id);
+        }
+    }
+    
+    private void insert(int[] target, int id) {
+        int mask = target.length - 1;
+        int slot = hash(keys[id]) & mask;
+        while (target[slot] != -1) {
+            slot = (slot + 1) & mask;
+        }
+        target[slot] = id;
+    }
+    
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 31;
+        return (int) (h ^ (h >>> 32));
+    }
+}
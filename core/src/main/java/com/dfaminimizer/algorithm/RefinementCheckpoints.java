@@ -0,0 +1,317 @@
+package com.dfaminimizer.algorithm;
+
+import com.dfaminimizer.model.CharClassMap;
+import com.dfaminimizer.model.CharRange;
+import com.dfaminimizer.model.CompactDFA;
+import com.dfaminimizer.model.MappedDFA;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Stores the progress of partition refinement on disk, so that a minimization that was killed
+ * can continue where it stopped instead of starting from the initial partition.
+ * <p>
+ * Signature refinement keeps no worklist: the block of every state and the round counter are its
+ * whole state, and refining a saved partition gives the same result as refining without a break.
+ * A checkpoint is written after a round once the configured interval has passed since the last
+ * one, which bounds the overhead to one sequential write of the partition per interval. Block ids
+ * are stored with as few bytes as the block count needs, followed by a CRC-32; files are written
+ * under a temporary name, forced to disk and then renamed, so a crash while saving keeps the
+ * previous checkpoint.
+ * <p>
+ * Checkpoints are named after a SHA-256 hash of the automaton, see {@link #contentHash}, so a
+ * later run on the same input finds them and a run on a different input ignores them. The
+ * checkpoint of a minimization is deleted when it completes.
+ */
+public final class RefinementCheckpoints {
+    
+    /** Default minimum time between two checkpoints */
+    public static final Duration DEFAULT_INTERVAL = Duration.ofMinutes(1);
+    
+    private static final int MAGIC = 0x44464350;
+    private static final int VERSION = 1;
+    private static final String SUFFIX = ".ckpt";
+    
+    private final Path directory;
+    private final long intervalNanos;
+    
+    /**
+     * Creates a store that writes a checkpoint at most once per {@link #DEFAULT_INTERVAL}
+     */
+    public RefinementCheckpoints(Path directory) {
+        this(directory, DEFAULT_INTERVAL);
+    }
+    
+    /**
+     * @param directory Directory for the checkpoint files; created if missing
+     * @param interval Minimum time between two checkpoints of a minimization; zero saves every round
+     */
+    public RefinementCheckpoints(Path directory, Duration interval) {
+        if (interval.isNegative()) {
+            throw new IllegalArgumentException("Negative checkpoint interval: " + interval);
+        }
+        this.directory = directory;
+        this.intervalNanos = interval.toNanos();
+    }
+    
+    /**
+     * SHA-256 of the symbol classes, transitions, accepting states, output labels and start state, in hex
+     */
+    public static String contentHash(CompactDFA dfa) {
+        return contentHash(dfa.getStateCount(), dfa.getClassMap(), dfa.getStartState(), dfa::next, dfa::isAccepting,
+                dfa.hasOutputs() ? dfa::getOutput : null);
+    }
+    
+    /**
+     * SHA-256 of a mapped DFA, equal to the hash of the same DFA in table form
+     */
+    public static String contentHash(MappedDFA dfa) {
+        return contentHash(dfa.getStateCount(), dfa.getClassMap(), dfa.getStartState(), dfa::next, dfa::isAccepting,
+                null);
+    }
+    
+    /**
+     * @param outputs Output label of a state, or null if every label is 0
+     */
+    private static String contentHash(int n, CharClassMap classes, int startState, IntBinaryOperator next,
+                                      IntPredicate accepting, IntUnaryOperator outputs) {
+        int k = classes.getClassCount();
+        Digest digest = new Digest();
+        digest.add(n).add(k).add(startState);
+        for (int a = 0; a < k; a++) {
+            for (CharRange range : classes.getRanges(a)) {
+                digest.add(range.getLow() << 16 | range.getHigh());
+            }
+            digest.add(-1);
+        }
+        for (int s = 0; s < n; s++) {
+            digest.add(accepting.test(s) ? 1 : 0);
+            for (int a = 0; a < k; a++) {
+                digest.add(next.applyAsInt(s, a));
+            }
+        }
+        if (outputs != null) {
+            for (int s = 0; s < n; s++) {
+                digest.add(outputs.applyAsInt(s));
+            }
+        }
+        return digest.hex();
+    }
+    
+    /**
+     * Returns true if a checkpoint with the given name exists
+     */
+    public boolean contains(String key) {
+        return Files.exists(file(key));
+    }
+    
+    /**
+     * Deletes the checkpoint with the given name, if any
+     */
+    public void delete(String key) {
+        try {
+            Files.deleteIfExists(file(key));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private Path file(String key) {
+        return directory.resolve(key + SUFFIX);
+    }
+    
+    /**
+     * Starts tracking one minimization
+     * @param key Name of the checkpoint, usually a prefix for the engine plus the content hash
+     * @param length Number of block ids in the partition
+     */
+    Session session(String key, int length) {
+        return new Session(key, length);
+    }
+    
+    /**
+     * Block array of an engine, which may live on the heap or in a mapped file
+     */
+    interface Blocks {
+        int get(int index);
+        
+        void set(int index, int block);
+    }
+    
+    /**
+     * Round counter and block count of a restored partition
+     */
+    static final class Progress {
+        final int iteration;
+        final int blockCount;
+        
+        Progress(int iteration, int blockCount) {
+            this.iteration = iteration;
+            this.blockCount = blockCount;
+        }
+    }
+    
+    /**
+     * Checkpoints of one minimization
+     */
+    final class Session {
+        private final String key;
+        private final int length;
+        private long lastSave = System.nanoTime();
+        
+        private Session(String key, int length) {
+            this.key = key;
+            this.length = length;
+        }
+        
+        /**
+         * Loads the latest checkpoint into the block array
+         * @return The restored progress, or null if there is no usable checkpoint, in which case
+         *         the block array may have been partly overwritten and must be initialized
+         */
+        Progress resume(Blocks blocks) {
+            Path file = file(key);
+            try (InputStream raw = new BufferedInputStream(Files.newInputStream(file))) {
+                CRC32 crc = new CRC32();
+                DataInputStream in = new DataInputStream(new CheckedInputStream(raw, crc));
+                if (in.readInt() != MAGIC || in.readByte() != VERSION || in.readInt() != length) {
+                    return null;
+                }
+                int iteration = in.readInt();
+                int blockCount = in.readInt();
+                int width = in.readByte();
+                if (width < 1 || width > Integer.BYTES) {
+                    return null;
+                }
+                // Read straight into the blocks, as the partition need not fit on the heap
+                for (int i = 0; i < length; i++) {
+                    int block = 0;
+                    for (int b = 0; b < width; b++) {
+                        block |= in.readUnsignedByte() << (8 * b);
+                    }
+                    blocks.set(i, block);
+                }
+                long expected = crc.getValue();
+                if (new DataInputStream(raw).readLong() != expected) {
+                    return null;
+                }
+                return new Progress(iteration, blockCount);
+            } catch (NoSuchFileException | EOFException e) {
+                return null;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        
+        /**
+         * Saves the partition after a round if the interval has passed since the last checkpoint
+         */
+        void roundCompleted(int iteration, int blockCount, Blocks blocks) {
+            long now = System.nanoTime();
+            if (now - lastSave < intervalNanos) {
+                return;
+            }
+            save(iteration, blockCount, blocks);
+            lastSave = System.nanoTime();
+        }
+        
+        private void save(int iteration, int blockCount, Blocks blocks) {
+            int width = Math.max(1, (32 - Integer.numberOfLeadingZeros(Math.max(0, blockCount - 1)) + 7) / 8);
+            Path target = file(key);
+            Path temporary = directory.resolve(key + SUFFIX + ".tmp");
+            try {
+                Files.createDirectories(directory);
+                // A FileChannel would be closed by an interrupt, losing the round that just completed
+                try (FileOutputStream file = new FileOutputStream(temporary.toFile())) {
+                    OutputStream raw = new BufferedOutputStream(file);
+                    CRC32 crc = new CRC32();
+                    DataOutputStream out = new DataOutputStream(new CheckedOutputStream(raw, crc));
+                    out.writeInt(MAGIC);
+                    out.writeByte(VERSION);
+                    out.writeInt(length);
+                    out.writeInt(iteration);
+                    out.writeInt(blockCount);
+                    out.writeByte(width);
+                    for (int i = 0; i < length; i++) {
+                        int block = blocks.get(i);
+                        for (int b = 0; b < width; b++) {
+                            out.write(block >>> (8 * b));
+                        }
+                    }
+                    out.flush();
+                    new DataOutputStream(raw).writeLong(crc.getValue());
+                    raw.flush();
+                    // The contents must be on disk before the rename replaces the previous checkpoint
+                    file.getFD().sync();
+                }
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        
+        /**
+         * Removes the checkpoint once the minimization has completed
+         */
+        void finish() {
+            delete(key);
+        }
+    }
+    
+    /**
+     * SHA-256 fed with ints
+     */
+    private static final class Digest {
+        private final MessageDigest sha;
+        private final byte[] buffer = new byte[4096];
+        private int size;
+        
+        Digest() {
+            try {
+                sha = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        }
+        
+        Digest add(int value) {
+            if (size == buffer.length) {
+                sha.update(buffer, 0, size);
+                size = 0;
+            }
+            buffer[size++] = (byte) (value >>> 24);
+            buffer[size++] = (byte) (value >>> 16);
+            buffer[size++] = (byte) (value >>> 8);
+            buffer[size++] = (byte) value;
+            return this;
+        }
+        
+        String hex() {
+            sha.update(buffer, 0, size);
+            return HexFormat.of().formatHex(sha.digest());
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.dfaminimizer.algorithm;
+
+import com.dfaminimizer.model.CompactDFA;
+
+/**
+ * Signatures of partition refinement, shared by the heap, mapped and sharded engines.
+ * <p>
+ * The signature of a state is its own block followed by the blocks of its successors, with -1 for
+ * a missing transition; two states stay in one block exactly when their signatures are equal.
+ * Engines group states by looking the signature up in an open addressing table, so it is hashed
+ * and compared in place instead of being built as an object. Blocks and transitions are read
+ * through small interfaces, so the same code runs on heap arrays and on mapped files.
+ */
+public final class Signatures {
+    
+    /**
+     * Int array indexed by state, such as a block array on the heap or in a mapped file
+     */
+    public interface IntArray {
+        int get(int index);
+    }
+    
+    /**
+     * Transition function of a DFA
+     */
+    public interface Transitions {
+        /**
+         * Returns the target state, or {@link CompactDFA#NO_STATE} if the transition is missing
+         */
+        int next(int state, int symbol);
+    }
+    
+    private Signatures() {
+    }
+    
+    /**
+     * Hash of the signature of a state
+     * @param k Number of symbol classes
+     */
+    public static int hash(Transitions dfa, int k, IntArray block, int state) {
+        return hash(block.get(state), dfa, k, block, state);
+    }
+    
+    /**
+     * Hash of a seed followed by the blocks of the successors of a state. The seed takes the place
+     * of the state's own block where states are grouped by something else, such as their label.
+     */
+    public static int hash(int seed, Transitions dfa, int k, IntArray block, int state) {
+        int hash = seed;
+        for (int a = 0; a < k; a++) {
+            int target = dfa.next(state, a);
+            hash = hash * 31 + (target == CompactDFA.NO_STATE ? -1 : block.get(target));
+        }
+        return mix(hash);
+    }
+    
+    /**
+     * Returns true if two states have the same signature
+     */
+    public static boolean same(Transitions dfa, int k, IntArray block, int first, int second) {
+        return block.get(first) == block.get(second) && sameSuccessors(dfa, k, block, first, second);
+    }
+    
+    /**
+     * Returns true if the successors of two states are in the same blocks for every symbol
+     */
+    public static boolean sameSuccessors(Transitions dfa, int k, IntArray block, int first, int second) {
+        for (int a = 0; a < k; a++) {
+            int p = dfa.next(first, a);
+            int q = dfa.next(second, a);
+            if ((p == CompactDFA.NO_STATE ? -1 : block.get(p)) != (q == CompactDFA.NO_STATE ? -1 : block.get(q))) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Block ids are dense, so spread consecutive signatures before probing
+     */
+    static int mix(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
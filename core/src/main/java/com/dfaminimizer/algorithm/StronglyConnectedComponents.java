@@ -0,0 +1,152 @@
+package com.dfaminimizer.algorithm;
+
+import com.dfaminimizer.model.CompactDFA;
+
+import java.util.Arrays;
+
+/**
+ * Strongly connected components of the transition graph of a table DFA, found with Tarjan's
+ * algorithm. The depth first search keeps its own stack of (state, next symbol) frames instead of
+ * recursing, so long chains such as the states of a dictionary do not overflow the thread stack.
+ * <p>
+ * Components are numbered in the order they are completed, which is a reverse topological order:
+ * every transition leads to a component with the same or a smaller number.
+ */
+class StronglyConnectedComponents {
+    
+    private final int[] component;
+    private final int[] finishOrder;
+    private final boolean[] cyclic;
+    private final int count;
+    
+    StronglyConnectedComponents(CompactDFA dfa) {
+        int n = dfa.getStateCount();
+        int k = dfa.getAlphabetSize();
+        component = new int[n];
+        finishOrder = new int[n];
+        boolean[] cyclicComponents = new boolean[n];
+        Arrays.fill(component, -1);
+        
+        int[] index = new int[n];
+        int[] low = new int[n];
+        int[] stack = new int[n];
+        int[] frameState = new int[n];
+        int[] frameSymbol = new int[n];
+        Arrays.fill(index, -1);
+        int nextIndex = 0;
+        int stackSize = 0;
+        int finished = 0;
+        int components = 0;
+        
+        for (int root = 0; root < n; root++) {
+            if (index[root] != -1) {
+                continue;
+            }
+            index[root] = low[root] = nextIndex++;
+            stack[stackSize++] = root;
+            frameState[0] = root;
+            frameSymbol[0] = 0;
+            int depth = 1;
+            
+            while (depth > 0) {
+                int v = frameState[depth - 1];
+                int a = frameSymbol[depth - 1];
+                if (a < k) {
+                    frameSymbol[depth - 1] = a + 1;
+                    int w = dfa.next(v, a);
+                    if (w == CompactDFA.NO_STATE) {
+                        continue;
+                    }
+                    if (index[w] == -1) {
+                        index[w] = low[w] = nextIndex++;
+                        stack[stackSize++] = w;
+                        frameState[depth] = w;
+                        frameSymbol[depth] = 0;
+                        depth++;
+                    } else if (component[w] == -1) {
+                        // Still on the stack, so part of the component being built
+                        low[v] = Math.min(low[v], index[w]);
+                    }
+                    continue;
+                }
+                
+                // All successors of v are done
+                depth--;
+                if (low[v] == index[v]) {
+                    int size = 0;
+                    int w;
+                    do {
+                        w = stack[--stackSize];
+                        component[w] = components;
+                        finishOrder[finished++] = w;
+                        size++;
+                    } while (w != v);
+                    cyclicComponents[components] = size > 1 || hasSelfLoop(dfa, v);
+                    components++;
+                }
+                if (depth > 0) {
+                    int parent = frameState[depth - 1];
+                    low[parent] = Math.min(low[parent], low[v]);
+                }
+            }
+        }
+        this.count = components;
+        this.cyclic = Arrays.copyOf(cyclicComponents, components);
+    }
+    
+    private static boolean hasSelfLoop(CompactDFA dfa, int state) {
+        for (int a = 0; a < dfa.getAlphabetSize(); a++) {
+            if (dfa.next(state, a) == state) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    int count() {
+        return count;
+    }
+    
+    int component(int state) {
+        return component[state];
+    }
+    
+    /**
+     * Whether the component contains a cycle, that is more than one state or a self loop
+     */
+    boolean isCyclic(int component) {
+        return cyclic[component];
+    }
+    
+    /**
+     * States in the order their components were completed; successors of a state outside its own
+     * component always come earlier
+     */
+    int[] finishOrder() {
+        return finishOrder;
+    }
+    
+    /**
+     * Marks every state on a cycle or reachable from one
+     * @return The number of marked states
+     */
+    int markCyclicRegion(CompactDFA dfa, boolean[] marked) {
+        int size = 0;
+        // Reverse finish order visits predecessors before successors across components
+        for (int i = finishOrder.length - 1; i >= 0; i--) {
+            int s = finishOrder[i];
+            if (!marked[s] && !cyclic[component[s]]) {
+                continue;
+            }
+            marked[s] = true;
+            size++;
+            for (int a = 0; a < dfa.getAlphabetSize(); a++) {
+                int target = dfa.next(s, a);
+                if (target != CompactDFA.NO_STATE) {
+                    marked[target] = true;
+                }
+            }
+        }
+        return size;
+    }
+}
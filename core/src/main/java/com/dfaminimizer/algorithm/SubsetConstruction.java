@@ -0,0 +1,342 @@
+package com.dfaminimizer.algorithm;
+
+import com.dfaminimizer.model.CharClassMap;
+import com.dfaminimizer.model.CharRange;
+import com.dfaminimizer.model.CompactDFA;
+import com.dfaminimizer.model.NFA;
+import com.dfaminimizer.model.State;
+
+import java.util.*;
+
+/**
+ * Subset construction over an NFA given in compressed sparse row form.
+ * <p>
+ * Every discovered subset is stored as a fixed width bitset in a {@link SubsetTable}, so no
+ * per-subset objects are allocated. The estimated memory use is checked against a budget and
+ * construction stops with a {@link MemoryBudgetExceededException} once it is exceeded.
+ * <p>
+ * Epsilon transitions are folded into the successor lists when the construction is created
+ * from an {@link NFA}, so every subset produced here is already epsilon closed. Range labels of
+ * the NFA are partitioned into minimal symbol classes, and the construction works on class indexes.
+ */
+public class SubsetConstruction {
+    
+    private final int stateCount;
+    private final CharClassMap classes;
+    private final int alphabetSize;
+    private final int[] successorOffsets;
+    private final int[] successors;
+    private final int[] startStates;
+    private final int[] acceptingStates;
+    private final long memoryBudgetBytes;
+    
+    /**
+     * @param stateCount Number of NFA states
+     * @param classes Symbol classes of the NFA, indexed 0..k-1
+     * @param successorOffsets For NFA state s and symbol a, the successors of (s, a) are
+     *                         successors[successorOffsets[s * k + a] .. successorOffsets[s * k + a + 1]]
+     *                         where k is the alphabet size
+     * @param successors Concatenated successor lists
+     * @param startStates NFA states in the start subset
+     * @param acceptingStates A subset is accepting if it contains any of these NFA states
+     * @param memoryBudgetBytes Upper bound for the estimated size of the subset pool and tables
+     */
+    public SubsetConstruction(int stateCount, CharClassMap classes, int[] successorOffsets, int[] successors,
+                              int[] startStates, int[] acceptingStates, long memoryBudgetBytes) {
+        if (successorOffsets.length != stateCount * classes.getClassCount() + 1) {
+            throw new IllegalArgumentException("Successor offsets do not match states and alphabet");
+        }
+        this.stateCount = stateCount;
+        this.classes = classes;
+        this.alphabetSize = classes.getClassCount();
+        this.successorOffsets = successorOffsets;
+        this.successors = successors;
+        this.startStates = startStates;
+        this.acceptingStates = acceptingStates;
+        this.memoryBudgetBytes = memoryBudgetBytes;
+    }
+    
+    /**
+     * Builds the NFA that accepts the reverse language of a DFA.
+     * Its start states are the accepting states of the DFA and its single accepting state is the DFA start.
+     */
+    public static SubsetConstruction reverse(CompactDFA dfa, long memoryBudgetBytes) {
+        int n = dfa.getStateCount();
+        int k = dfa.getAlphabetSize();
+        int[] offsets = new int[n * k + 1];
+        int acceptingCount = 0;
+        for (int s = 0; s < n; s++) {
+            if (dfa.isAccepting(s)) {
+                acceptingCount++;
+            }
+            for (int a = 0; a < k; a++) {
+                int target = dfa.next(s, a);
+                if (target != CompactDFA.NO_STATE) {
+                    offsets[target * k + a + 1]++;
+                }
+            }
+        }
+        for (int i = 0; i < n * k; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        int[] fill = Arrays.copyOf(offsets, n * k);
+        int[] predecessors = new int[offsets[n * k]];
+        int[] accepting = new int[acceptingCount];
+        int acceptingIndex = 0;
+        for (int s = 0; s < n; s++) {
+            if (dfa.isAccepting(s)) {
+                accepting[acceptingIndex++] = s;
+            }
+            for (int a = 0; a < k; a++) {
+                int target = dfa.next(s, a);
+                if (target != CompactDFA.NO_STATE) {
+                    predecessors[fill[target * k + a]++] = s;
+                }
+            }
+        }
+        int[] start = dfa.getStartState() == CompactDFA.NO_STATE ? new int[0] : new int[] {dfa.getStartState()};
+        return new SubsetConstruction(n, dfa.getClassMap(), offsets, predecessors, accepting, start,
+                memoryBudgetBytes);
+    }
+    
+    /**
+     * Builds the construction for an NFA, with epsilon transitions folded into the successor lists
+     */
+    public static SubsetConstruction of(NFA nfa, long memoryBudgetBytes) {
+        return fromNFA(nfa, false, memoryBudgetBytes);
+    }
+    
+    /**
+     * Builds the construction for the reverse of an NFA
+     */
+    public static SubsetConstruction reverse(NFA nfa, long memoryBudgetBytes) {
+        return fromNFA(nfa, true, memoryBudgetBytes);
+    }
+    
+    private static SubsetConstruction fromNFA(NFA nfa, boolean reversed, long memoryBudgetBytes) {
+        List<State> states = new ArrayList<>(nfa.getStates());
+        Map<State, Integer> index = new HashMap<>();
+        for (int i = 0; i < states.size(); i++) {
+            index.put(states.get(i), i);
+        }
+        List<List<CharRange>> labels = new ArrayList<>();
+        for (CharRange label : nfa.getLabels()) {
+            labels.add(Collections.singletonList(label));
+        }
+        CharClassMap classes = CharClassMap.partition(labels);
+        
+        List<int[]> edges = new ArrayList<>();
+        List<List<Integer>> epsilon = new ArrayList<>();
+        for (int i = 0; i < states.size(); i++) {
+            epsilon.add(new ArrayList<>());
+        }
+        for (State from : states) {
+            int s = index.get(from);
+            for (Map.Entry<CharRange, Set<State>> entry : nfa.getTransitions(from).entrySet()) {
+                for (int a : classes.classesIn(entry.getKey())) {
+                    for (State to : entry.getValue()) {
+                        int t = index.get(to);
+                        edges.add(reversed ? new int[] {t, a, s} : new int[] {s, a, t});
+                    }
+                }
+            }
+            for (State to : nfa.getEpsilonTargets(from)) {
+                int t = index.get(to);
+                epsilon.get(reversed ? t : s).add(reversed ? s : t);
+            }
+        }
+        
+        int[] start = indexes(nfa.getStartStates(), index);
+        int[] accepting = indexes(nfa.getFinalStates(), index);
+        return reversed
+                ? build(states.size(), classes, edges, epsilon, accepting, start, memoryBudgetBytes)
+                : build(states.size(), classes, edges, epsilon, start, accepting, memoryBudgetBytes);
+    }
+    
+    /**
+     * Builds the CSR form from (from, symbol, to) edges, replacing every successor list and the
+     * start set by their epsilon closures.
+     */
+    private static SubsetConstruction build(int n, CharClassMap classes, List<int[]> edges,
+                                            List<List<Integer>> epsilon, int[] start, int[] accepting,
+                                            long memoryBudgetBytes) {
+        int k = classes.getClassCount();
+        List<Set<Integer>> rows = new ArrayList<>(n * k);
+        for (int i = 0; i < n * k; i++) {
+            rows.add(new LinkedHashSet<>());
+        }
+        int[][] closures = closures(n, epsilon);
+        for (int[] edge : edges) {
+            Set<Integer> row = rows.get(edge[0] * k + edge[1]);
+            for (int t : closures[edge[2]]) {
+                row.add(t);
+            }
+        }
+        
+        int[] offsets = new int[n * k + 1];
+        for (int i = 0; i < n * k; i++) {
+            offsets[i + 1] = offsets[i] + rows.get(i).size();
+        }
+        int[] successors = new int[offsets[n * k]];
+        int i = 0;
+        for (Set<Integer> row : rows) {
+            for (int t : row) {
+                successors[i++] = t;
+            }
+        }
+        
+        Set<Integer> startSet = new LinkedHashSet<>();
+        for (int s : start) {
+            for (int t : closures[s]) {
+                startSet.add(t);
+            }
+        }
+        return new SubsetConstruction(n, classes, offsets, successors, toArray(startSet), accepting,
+                memoryBudgetBytes);
+    }
+    
+    private static int[][] closures(int n, List<List<Integer>> epsilon) {
+        int[][] closures = new int[n][];
+        boolean[] seen = new boolean[n];
+        for (int s = 0; s < n; s++) {
+            List<Integer> closure = new ArrayList<>();
+            Deque<Integer> stack = new ArrayDeque<>();
+            seen[s] = true;
+            closure.add(s);
+            stack.push(s);
+            while (!stack.isEmpty()) {
+                for (int t : epsilon.get(stack.pop())) {
+                    if (!seen[t]) {
+                        seen[t] = true;
+                        closure.add(t);
+                        stack.push(t);
+                    }
+                }
+            }
+            for (int t : closure) {
+                seen[t] = false;
+            }
+            closures[s] = toArray(closure);
+        }
+        return closures;
+    }
+    
+    private static int[] indexes(Collection<State> states, Map<State, Integer> index) {
+        int[] result = new int[states.size()];
+        int i = 0;
+        for (State state : states) {
+            result[i++] = index.get(state);
+        }
+        return result;
+    }
+    
+    private static int[] toArray(Collection<Integer> values) {
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+    
+    /**
+     * Determinizes the NFA, exploring only subsets reachable from the start set.
+     * The start subset is always state 0 of the result, even when it is empty.
+     * @param keepEmptySubset Whether the empty subset becomes an explicit rejecting sink;
+     *                        otherwise transitions into it are left undefined
+     * @return The reachable part of the subset automaton
+     * @throws MemoryBudgetExceededException If the estimated memory use exceeds the budget
+     */
+    public CompactDFA determinize(boolean keepEmptySubset) {
+        int k = alphabetSize;
+        SubsetTable subsets = new SubsetTable(stateCount);
+        int words = subsets.words();
+        long[] acceptMask = acceptMask(words);
+        long bytesPerSubset = subsets.bytesPerSubset() + k * 4L + 1;
+        
+        int[] transitions = new int[subsets.capacity() * k];
+        long[] scratch = startSubset(words);
+        subsets.add(scratch);
+        
+        for (int current = 0; current < subsets.size(); current++) {
+            for (int a = 0; a < k; a++) {
+                boolean empty = step(subsets, current, a, scratch);
+                int target = CompactDFA.NO_STATE;
+                if (!empty || keepEmptySubset) {
+                    target = subsets.find(scratch);
+                    if (target < 0) {
+                        if ((subsets.size() + 1) * bytesPerSubset > memoryBudgetBytes) {
+                            throw new MemoryBudgetExceededException("Subset construction needs more than "
+                                    + memoryBudgetBytes + " bytes after " + subsets.size() + " subsets");
+                        }
+                        target = subsets.add(scratch);
+                        if (transitions.length < subsets.size() * k) {
+                            transitions = Arrays.copyOf(transitions, subsets.capacity() * k);
+                        }
+                    }
+                }
+                transitions[current * k + a] = target;
+            }
+        }
+        
+        boolean[] accepting = new boolean[subsets.size()];
+        for (int id = 0; id < accepting.length; id++) {
+            accepting[id] = subsets.intersects(id, acceptMask);
+        }
+        return new CompactDFA(classes, Arrays.copyOf(transitions, subsets.size() * k), accepting, 0);
+    }
+    
+    /**
+     * Computes the successor of a subset on a symbol into the scratch bitset
+     * @return true if the successor is empty
+     */
+    boolean step(SubsetTable subsets, int id, int symbol, long[] scratch) {
+        Arrays.fill(scratch, 0L);
+        boolean empty = true;
+        int k = alphabetSize;
+        for (int w = 0; w < scratch.length; w++) {
+            long bits = subsets.word(id, w);
+            while (bits != 0) {
+                int s = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                int row = s * k + symbol;
+                for (int i = successorOffsets[row]; i < successorOffsets[row + 1]; i++) {
+                    int t = successors[i];
+                    scratch[t >>> 6] |= 1L << t;
+                    empty = false;
+                }
+            }
+        }
+        return empty;
+    }
+    
+    long[] startSubset(int words) {
+        long[] subset = new long[words];
+        for (int s : startStates) {
+            subset[s >>> 6] |= 1L << s;
+        }
+        return subset;
+    }
+    
+    long[] acceptMask(int words) {
+        long[] mask = new long[words];
+        for (int s : acceptingStates) {
+            mask[s >>> 6] |= 1L << s;
+        }
+        return mask;
+    }
+    
+    /**
+     * Number of NFA states of the construction
+     */
+    public int getStateCount() {
+        return stateCount;
+    }
+    
+    public CharClassMap getClassMap() {
+        return classes;
+    }
+    
+    int symbolIndex(char symbol) {
+        return classes.classOf(symbol);
+    }
+    
+    int getAlphabetSize() {
+        return alphabetSize;
+    }
+}
@@ -0,0 +1,142 @@
+package com.dfaminimizer.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * Interning table for fixed width bitsets.
+ * All subsets live in one shared long[] pool and are found through an open addressing hash table,
+ * so interning a subset never allocates per-subset objects.
+ */
+class SubsetTable {
+    
+    private static final int INITIAL_CAPACITY = 64;
+    
+    private final int words;
+    private long[] pool;
+    private int[] table;
+    private int size;
+    
+    /**
+     * @param bits Number of bits in every subset
+     */
+    SubsetTable(int bits) {
+        this.words = Math.max(1, (bits + 63) >>> 6);
+        clear();
+    }
+    
+    /**
+     * Number of longs used for one subset
+     */
+    int words() {
+        return words;
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    /**
+     * Number of subsets that fit before the pool has to grow
+     */
+    int capacity() {
+        return pool.length / words;
+    }
+    
+    /**
+     * Estimated bytes used by one subset in the pool and hash table
+     */
+    long bytesPerSubset() {
+        return words * 8L + 8;
+    }
+    
+    /**
+     * Removes all subsets and shrinks back to the initial capacity
+     */
+    void clear() {
+        pool = new long[INITIAL_CAPACITY * words];
+        table = new int[INITIAL_CAPACITY * 2];
+        Arrays.fill(table, -1);
+        size = 0;
+    }
+    
+    /**
+     * Returns the id of the subset, or -1 if it has not been interned
+     */
+    int find(long[] subset) {
+        int mask = table.length - 1;
+        int slot = hash(subset, 0) & mask;
+        while (table[slot] != -1) {
+            int id = table[slot];
+            if (Arrays.equals(pool, id * words, (id + 1) * words, subset, 0, words)) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+    
+    /**
+     * Adds a subset that is not in the table yet and returns its id.
+     * Ids are assigned consecutively from 0.
+     */
+    int add(long[] subset) {
+        int id = size;
+        if (id == capacity()) {
+            pool = Arrays.copyOf(pool, pool.length * 2);
+        }
+        System.arraycopy(subset, 0, pool, id * words, words);
+        size++;
+        if (size * 2 > table.length) {
+            rehash(table.length * 2);
+        } else {
+            insert(table, id);
+        }
+        return id;
+    }
+    
+    /**
+     * Returns true if the subset with the given id shares a bit with the mask
+     */
+    boolean intersects(int id, long[] mask) {
+        int base = id * words;
+        for (int w = 0; w < words; w++) {
+            if ((pool[base + w] & mask[w]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Returns one word of the subset with the given id
+     */
+    long word(int id, int w) {
+        return pool[id * words + w];
+    }
+    
+    private void rehash(int tableSize) {
+        table = new int[tableSize];
+        Arrays.fill(table, -1);
+        for (int id = 0; id < size; id++) {
+            insert(table, id);
+        }
+    }
+    
+    private void insert(int[] target, int id) {
+        int mask = target.length - 1;
+        int slot = hash(pool, id * words) & mask;
+        while (target[slot] != -1) {
+            slot = (slot + 1) & mask;
+        }
+        target[slot] = id;
+    }
+    
+    private int hash(long[] bits, int offset) {
+        long h = 0x9E3779B97F4A7C15L;
+        for (int w = 0; w < words; w++) {
+            h = (h ^ bits[offset + w]) * 0xBF58476D1CE4E5B9L;
+            h ^= h >>> 31;
+        }
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,492 @@
+package com.dfaminimizer.io;
+
+import com.dfaminimizer.model.CharClassMap;
+import com.dfaminimizer.model.CharRange;
+import com.dfaminimizer.model.CompactDFA;
+import com.dfaminimizer.model.MappedDFA;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writes automata as Graphviz DOT or as standalone SVG, for automata too large for the scene of
+ * the desktop app.
+ * <p>
+ * Both formats are streamed: states and edges are written one at a time as they are read from the
+ * automaton, and besides the automaton only a few ints per state are kept, for the grouping into
+ * clusters and the layout of the SVG. Parallel edges between two states are merged into one edge
+ * labelled with the union of their characters as ranges, such as {@code 0-9,_}. Characters
+ * outside printable ASCII and the separators {@code , - \} are escaped as in Java.
+ * <p>
+ * States can optionally be grouped into clusters, typically the blocks of a minimization, to compare
+ * an automaton with its minimized form. In DOT every cluster becomes a {@code subgraph cluster_N}
+ * and Graphviz does the layout. The SVG is laid out here: states are placed in columns by their
+ * breadth first distance from the start state, and the members of a cluster are stacked in the
+ * column of the member closest to the start, inside a shaded box. States are named q0, q1, ...
+ * like in {@link CompactDFA#toDFA()}.
+ */
+public final class DFAGraphWriter {
+    
+    private static final int RADIUS = 18;
+    private static final int COLUMN_WIDTH = 160;
+    private static final int ROW_HEIGHT = 60;
+    private static final int CLUSTER_GAP = 24;
+    private static final int MARGIN = 60;
+    
+    private DFAGraphWriter() {
+    }
+    
+    /**
+     * Writes a DFA in DOT format
+     * @param clusters Cluster of every state, or -1 for none; null to write no clusters
+     * @throws IllegalArgumentException If there is not one cluster per state or one is below -1
+     */
+    public static void writeDot(CompactDFA dfa, int[] clusters, Writer out) throws IOException {
+        writeDot(new Graph(dfa), clusters, out);
+    }
+    
+    /**
+     * Writes a mapped DFA in DOT format
+     * @param clusters Cluster of every state, or -1 for none; null to write no clusters
+     * @throws IllegalArgumentException If there is not one cluster per state or one is below -1
+     */
+    public static void writeDot(MappedDFA dfa, int[] clusters, Writer out) throws IOException {
+        writeDot(new Graph(dfa), clusters, out);
+    }
+    
+    /**
+     * Writes a DFA as a standalone SVG document
+     * @param clusters Cluster of every state, or -1 for none; null to draw no clusters
+     * @throws IllegalArgumentException If there is not one cluster per state or one is below -1
+     */
+    public static void writeSvg(CompactDFA dfa, int[] clusters, Writer out) throws IOException {
+        writeSvg(new Graph(dfa), clusters, out);
+    }
+    
+    /**
+     * Writes a mapped DFA as a standalone SVG document
+     * @param clusters Cluster of every state, or -1 for none; null to draw no clusters
+     * @throws IllegalArgumentException If there is not one cluster per state or one is below -1
+     */
+    public static void writeSvg(MappedDFA dfa, int[] clusters, Writer out) throws IOException {
+        writeSvg(new Graph(dfa), clusters, out);
+    }
+    
+    private static void writeDot(Graph graph, int[] clusters, Writer out) throws IOException {
+        int n = graph.stateCount;
+        checkClusters(clusters, n);
+        out.write("digraph DFA {\n  rankdir=LR;\n  node [shape=circle];\n");
+        if (graph.startState != CompactDFA.NO_STATE) {
+            out.write("  start [shape=point];\n  start -> q" + graph.startState + ";\n");
+        }
+        if (clusters == null) {
+            for (int s = 0; s < n; s++) {
+                if (graph.isAccepting(s)) {
+                    out.write("  q" + s + " [shape=doublecircle];\n");
+                }
+            }
+        } else {
+            // Declare the states grouped by cluster, those without a cluster first
+            int[] order = sortByKey(identity(n), clusters, 1);
+            int open = -1;
+            for (int s : order) {
+                if (clusters[s] != open) {
+                    if (open != -1) {
+                        out.write("  }\n");
+                    }
+                    open = clusters[s];
+                    out.write("  subgraph cluster_" + open + " {\n    label=\"" + open + "\";\n");
+                }
+                out.write(open == -1 ? "  q" : "    q");
+                out.write(s + (graph.isAccepting(s) ? " [shape=doublecircle];\n" : ";\n"));
+            }
+            if (open != -1) {
+                out.write("  }\n");
+            }
+        }
+        
+        EdgeGroups edges = new EdgeGroups(graph);
+        for (int s = 0; s < n; s++) {
+            int count = edges.group(s);
+            for (int g = 0; g < count; g++) {
+                out.write("  q" + s + " -> q" + edges.target(g) + " [label=\"");
+                String label = edges.label(g);
+                for (int i = 0; i < label.length(); i++) {
+                    char c = label.charAt(i);
+                    if (c == '"' || c == '\\') {
+                        out.write('\\');
+                    }
+                    out.write(c);
+                }
+                out.write("\"];\n");
+            }
+        }
+        out.write("}\n");
+        out.flush();
+    }
+    
+    private static void writeSvg(Graph graph, int[] clusters, Writer out) throws IOException {
+        int n = graph.stateCount;
+        checkClusters(clusters, n);
+        
+        // Column of every state: the BFS distance, or that of the closest member of its cluster
+        int[] column = distances(graph);
+        if (clusters != null) {
+            int clusterCount = 0;
+            for (int c : clusters) {
+                clusterCount = Math.max(clusterCount, c + 1);
+            }
+            int[] clusterColumn = new int[clusterCount];
+            Arrays.fill(clusterColumn, Integer.MAX_VALUE);
+            for (int s = 0; s < n; s++) {
+                if (clusters[s] >= 0) {
+                    clusterColumn[clusters[s]] = Math.min(clusterColumn[clusters[s]], column[s]);
+                }
+            }
+            for (int s = 0; s < n; s++) {
+                if (clusters[s] >= 0) {
+                    column[s] = clusterColumn[clusters[s]];
+                }
+            }
+        }
+        
+        // Stack the states of each column, cluster by cluster
+        int[] order = identity(n);
+        if (clusters != null) {
+            order = sortByKey(order, clusters, 1);
+        }
+        order = sortByKey(order, column, 0);
+        int[] y = new int[n];
+        int columns = 0;
+        int height = 0;
+        int cursor = 0;
+        for (int i = 0; i < n; i++) {
+            int s = order[i];
+            if (i == 0 || column[s] != column[order[i - 1]]) {
+                cursor = MARGIN;
+            } else if (clusters != null && clusters[s] != clusters[order[i - 1]]) {
+                cursor += CLUSTER_GAP;
+            }
+            y[s] = cursor;
+            cursor += ROW_HEIGHT;
+            columns = Math.max(columns, column[s] + 1);
+            height = Math.max(height, cursor);
+        }
+        int width = 2 * MARGIN + Math.max(0, columns - 1) * COLUMN_WIDTH;
+        height = Math.max(height - ROW_HEIGHT + MARGIN, 2 * MARGIN);
+        
+        out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        out.write("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"" + width + "\" height=\"" + height
+                + "\" viewBox=\"0 0 " + width + " " + height + "\">\n");
+        out.write("<style>text{font:12px sans-serif;text-anchor:middle}"
+                + "path{fill:none;stroke:#333;marker-end:url(#arrow)}"
+                + "circle{fill:#fff;stroke:#000}rect{fill:#eef;stroke:#99b}</style>\n");
+        out.write("<defs><marker id=\"arrow\" viewBox=\"0 0 10 10\" refX=\"10\" refY=\"5\" markerWidth=\"8\" "
+                + "markerHeight=\"8\" orient=\"auto\"><path d=\"M0,0L10,5L0,10z\" style=\"fill:#333;stroke:none\"/>"
+                + "</marker></defs>\n");
+        
+        // Cluster boxes behind everything else
+        if (clusters != null) {
+            int first = 0;
+            for (int i = 1; i <= n; i++) {
+                if (i < n && column[order[i]] == column[order[first]] && clusters[order[i]] == clusters[order[first]]) {
+                    continue;
+                }
+                int s = order[first];
+                if (clusters[s] >= 0) {
+                    int x = MARGIN + column[s] * COLUMN_WIDTH;
+                    int top = y[s] - RADIUS - 8;
+                    int bottom = y[order[i - 1]] + RADIUS + 8;
+                    out.write("<rect x=\"" + (x - RADIUS - 16) + "\" y=\"" + top + "\" width=\"" + (2 * RADIUS + 32)
+                            + "\" height=\"" + (bottom - top) + "\" rx=\"6\"/><text x=\"" + x + "\" y=\"" + (top - 6)
+                            + "\">" + clusters[s] + "</text>\n");
+                }
+                first = i;
+            }
+        }
+        
+        EdgeGroups edges = new EdgeGroups(graph);
+        for (int s = 0; s < n; s++) {
+            int count = edges.group(s);
+            for (int g = 0; g < count; g++) {
+                int t = edges.target(g);
+                writeSvgEdge(out, MARGIN + column[s] * COLUMN_WIDTH, y[s], MARGIN + column[t] * COLUMN_WIDTH, y[t],
+                        s == t, edges.label(g));
+            }
+        }
+        
+        if (graph.startState != CompactDFA.NO_STATE) {
+            int x = MARGIN + column[graph.startState] * COLUMN_WIDTH - RADIUS;
+            int top = y[graph.startState];
+            out.write("<path d=\"M" + (x - 30) + "," + top + "L" + x + "," + top + "\"/>\n");
+        }
+        for (int s = 0; s < n; s++) {
+            int x = MARGIN + column[s] * COLUMN_WIDTH;
+            out.write("<circle cx=\"" + x + "\" cy=\"" + y[s] + "\" r=\"" + RADIUS + "\"/>");
+            if (graph.isAccepting(s)) {
+                out.write("<circle cx=\"" + x + "\" cy=\"" + y[s] + "\" r=\"" + (RADIUS - 4) + "\"/>");
+            }
+            out.write("<text x=\"" + x + "\" y=\"" + (y[s] + 4) + "\">q" + s + "</text>\n");
+        }
+        out.write("</svg>\n");
+        out.flush();
+    }
+    
+    /**
+     * Writes an edge as a curve bending to its left, so that edges in both directions stay apart,
+     * or as a loop above the state
+     */
+    private static void writeSvgEdge(Writer out, int x1, int y1, int x2, int y2, boolean loop, String label)
+            throws IOException {
+        long labelX;
+        long labelY;
+        if (loop) {
+            int top = y1 - RADIUS;
+            out.write("<path d=\"M" + (x1 - 8) + "," + (top + 2) + "C" + (x1 - 26) + "," + (top - 36) + " "
+                    + (x1 + 26) + "," + (top - 36) + " " + (x1 + 8) + "," + (top + 2) + "\"/>");
+            labelX = x1;
+            labelY = top - 30;
+        } else {
+            double dx = x2 - x1;
+            double dy = y2 - y1;
+            double length = Math.hypot(dx, dy);
+            double bend = Math.min(40, length * 0.2);
+            double cx = (x1 + x2) / 2.0 + dy / length * bend;
+            double cy = (y1 + y2) / 2.0 - dx / length * bend;
+            double startLength = Math.hypot(cx - x1, cy - y1);
+            double endLength = Math.hypot(x2 - cx, y2 - cy);
+            double sx = x1 + (cx - x1) / startLength * RADIUS;
+            double sy = y1 + (cy - y1) / startLength * RADIUS;
+            double ex = x2 - (x2 - cx) / endLength * RADIUS;
+            double ey = y2 - (y2 - cy) / endLength * RADIUS;
+            out.write("<path d=\"M" + Math.round(sx) + "," + Math.round(sy) + "Q" + Math.round(cx) + ","
+                    + Math.round(cy) + " " + Math.round(ex) + "," + Math.round(ey) + "\"/>");
+            labelX = Math.round((sx + 2 * cx + ex) / 4);
+            labelY = Math.round((sy + 2 * cy + ey) / 4) - 4;
+        }
+        out.write("<text x=\"" + labelX + "\" y=\"" + labelY + "\">");
+        for (int i = 0; i < label.length(); i++) {
+            char c = label.charAt(i);
+            switch (c) {
+                case '&':
+                    out.write("&amp;");
+                    break;
+                case '<':
+                    out.write("&lt;");
+                    break;
+                case '>':
+                    out.write("&gt;");
+                    break;
+                default:
+                    out.write(c);
+            }
+        }
+        out.write("</text>\n");
+    }
+    
+    private static void checkClusters(int[] clusters, int stateCount) {
+        if (clusters == null) {
+            return;
+        }
+        if (clusters.length != stateCount) {
+            throw new IllegalArgumentException("Expected " + stateCount + " clusters but got " + clusters.length);
+        }
+        for (int c : clusters) {
+            if (c < -1) {
+                throw new IllegalArgumentException("Invalid cluster: " + c);
+            }
+        }
+    }
+    
+    /**
+     * Breadth first distance of every state from the start state; unreachable states get the
+     * largest distance plus one
+     */
+    private static int[] distances(Graph graph) {
+        int n = graph.stateCount;
+        int[] distance = new int[n];
+        Arrays.fill(distance, -1);
+        int[] queue = new int[n];
+        int tail = 0;
+        int max = -1;
+        if (graph.startState != CompactDFA.NO_STATE) {
+            distance[graph.startState] = 0;
+            queue[tail++] = graph.startState;
+        }
+        for (int head = 0; head < tail; head++) {
+            int s = queue[head];
+            max = distance[s];
+            for (int a = 0; a < graph.alphabetSize; a++) {
+                int t = graph.next(s, a);
+                if (t != CompactDFA.NO_STATE && distance[t] == -1) {
+                    distance[t] = distance[s] + 1;
+                    queue[tail++] = t;
+                }
+            }
+        }
+        for (int s = 0; s < n; s++) {
+            if (distance[s] == -1) {
+                distance[s] = max + 1;
+            }
+        }
+        return distance;
+    }
+    
+    private static int[] identity(int n) {
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        return order;
+    }
+    
+    /**
+     * Stable counting sort of states by {@code key[state] + offset}
+     */
+    private static int[] sortByKey(int[] states, int[] key, int offset) {
+        int max = 0;
+        for (int s : states) {
+            max = Math.max(max, key[s] + offset);
+        }
+        int[] start = new int[max + 2];
+        for (int s : states) {
+            start[key[s] + offset + 1]++;
+        }
+        for (int i = 1; i < start.length; i++) {
+            start[i] += start[i - 1];
+        }
+        int[] sorted = new int[states.length];
+        for (int s : states) {
+            sorted[start[key[s] + offset]++] = s;
+        }
+        return sorted;
+    }
+    
+    /**
+     * Groups the symbol classes of a state by target, reusing its buffers from state to state
+     */
+    private static final class EdgeGroups {
+        private final Graph graph;
+        private final List<List<CharRange>> classRanges = new ArrayList<>();
+        /** Target in the high half, class in the low half */
+        private final long[] keys;
+        private final int[] groupStart;
+        private final List<CharRange> ranges = new ArrayList<>();
+        private final StringBuilder label = new StringBuilder();
+        
+        EdgeGroups(Graph graph) {
+            this.graph = graph;
+            for (int a = 0; a < graph.alphabetSize; a++) {
+                classRanges.add(graph.classes.getRanges(a));
+            }
+            this.keys = new long[graph.alphabetSize];
+            this.groupStart = new int[graph.alphabetSize + 1];
+        }
+        
+        /**
+         * @return The number of distinct targets of the state
+         */
+        int group(int state) {
+            int count = 0;
+            for (int a = 0; a < graph.alphabetSize; a++) {
+                int target = graph.next(state, a);
+                if (target != CompactDFA.NO_STATE) {
+                    keys[count++] = (long) target << 32 | a;
+                }
+            }
+            Arrays.sort(keys, 0, count);
+            int groups = 0;
+            for (int i = 0; i < count; i++) {
+                if (i == 0 || keys[i] >>> 32 != keys[i - 1] >>> 32) {
+                    groupStart[groups++] = i;
+                }
+            }
+            groupStart[groups] = count;
+            return groups;
+        }
+        
+        int target(int group) {
+            return (int) (keys[groupStart[group]] >>> 32);
+        }
+        
+        /**
+         * Union of the characters of the group's classes as sorted, merged ranges
+         */
+        String label(int group) {
+            ranges.clear();
+            for (int i = groupStart[group]; i < groupStart[group + 1]; i++) {
+                ranges.addAll(classRanges.get((int) keys[i]));
+            }
+            ranges.sort(null);
+            label.setLength(0);
+            int i = 0;
+            while (i < ranges.size()) {
+                char low = ranges.get(i).getLow();
+                char high = ranges.get(i).getHigh();
+                for (i++; i < ranges.size() && ranges.get(i).getLow() == high + 1; i++) {
+                    high = ranges.get(i).getHigh();
+                }
+                if (label.length() > 0) {
+                    label.append(',');
+                }
+                appendChar(label, low);
+                if (high != low) {
+                    label.append('-');
+                    appendChar(label, high);
+                }
+            }
+            return label.toString();
+        }
+        
+        private static void appendChar(StringBuilder sb, char c) {
+            if (c == ',' || c == '-' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c > ' ' && c < 0x7F) {
+                sb.append(c);
+            } else {
+                sb.append(String.format("\\u%04x", (int) c));
+            }
+        }
+    }
+    
+    /**
+     * Common view of table and mapped automata
+     */
+    private static final class Graph {
+        private final CompactDFA compact;
+        private final MappedDFA mapped;
+        final int stateCount;
+        final int alphabetSize;
+        final int startState;
+        final CharClassMap classes;
+        
+        Graph(CompactDFA dfa) {
+            this.compact = dfa;
+            this.mapped = null;
+            this.stateCount = dfa.getStateCount();
+            this.alphabetSize = dfa.getAlphabetSize();
+            this.startState = dfa.getStartState();
+            this.classes = dfa.getClassMap();
+        }
+        
+        Graph(MappedDFA dfa) {
+            this.compact = null;
+            this.mapped = dfa;
+            this.stateCount = dfa.getStateCount();
+            this.alphabetSize = dfa.getAlphabetSize();
+            this.startState = dfa.getStartState();
+            this.classes = dfa.getClassMap();
+        }
+        
+        int next(int state, int symbol) {
+            return compact != null ? compact.next(state, symbol) : mapped.next(state, symbol);
+        }
+        
+        boolean isAccepting(int state) {
+            return compact != null ? compact.isAccepting(state) : mapped.isAccepting(state);
+        }
+    }
+}
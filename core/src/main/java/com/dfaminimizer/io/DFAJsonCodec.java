@@ -0,0 +1,297 @@
+package com.dfaminimizer.io;
+
+import com.dfaminimizer.model.DFA;
+import com.dfaminimizer.model.State;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * Streaming JSON codec for DFAs, using the schema of {@code DFA.toJSON()} in the web app's {@code dfa-model.js}:
+ * <pre>
+ * {
+ *   "states": ["q0", "q1"],
+ *   "alphabet": ["a", "b"],
+ *   "startState": "q0",
+ *   "finalStates": ["q1"],
+ *   "transitions": [{"from": "q0", "symbol": "a", "to": "q1"}, ...],
+ *   "outputs": {"q1": 3}
+ * }
+ * </pre>
+ * Members may appear in any order and unknown members are skipped. {@code startState} may be null.
+ * The optional {@code outputs} member holds the {@link State#getOutput() output labels} other than
+ * 0; it is only written for labelled automata, so documents of the web app are unchanged.
+ * <p>
+ * Reading and writing never build a document tree: the reader reports every element to a
+ * {@link Handler} as soon as it is parsed, and the writer emits transitions state by state. Memory
+ * use of the codec itself is constant, so documents of any size can be processed with a handler.
+ */
+public final class DFAJsonCodec {
+    
+    /**
+     * Receives the elements of a document in the order they appear
+     */
+    public interface Handler {
+        void state(String name);
+        
+        void symbol(char symbol);
+        
+        void startState(String name);
+        
+        void finalState(String name);
+        
+        void transition(String from, char symbol, String to);
+        
+        default void output(String name, int output) {
+        }
+    }
+    
+    private DFAJsonCodec() {
+    }
+    
+    /**
+     * Reads a document into a DFA. States referred to by the start state, the final states or a
+     * transition are added even if they are missing from {@code states}.
+     * @throws IllegalArgumentException If the document is malformed
+     */
+    public static DFA read(Reader in) throws IOException {
+        DFA dfa = new DFA();
+        Map<String, State> byName = new HashMap<>();
+        read(in, new Handler() {
+            @Override
+            public void state(String name) {
+                stateNamed(name);
+            }
+            
+            @Override
+            public void symbol(char symbol) {
+                dfa.addSymbol(symbol);
+            }
+            
+            @Override
+            public void startState(String name) {
+                dfa.setStartState(stateNamed(name));
+            }
+            
+            @Override
+            public void finalState(String name) {
+                dfa.addFinalState(stateNamed(name));
+            }
+            
+            @Override
+            public void transition(String from, char symbol, String to) {
+                dfa.addTransition(stateNamed(from), stateNamed(to), symbol);
+            }
+            
+            @Override
+            public void output(String name, int output) {
+                stateNamed(name).setOutput(output);
+            }
+            
+            private State stateNamed(String name) {
+                return byName.computeIfAbsent(name, n -> {
+                    State state = new State(n);
+                    dfa.addState(state);
+                    return state;
+                });
+            }
+        });
+        return dfa;
+    }
+    
+    /**
+     * Reads a document and reports its elements to the handler without keeping them
+     * @throws IllegalArgumentException If the document is malformed
+     */
+    public static void read(Reader in, Handler handler) throws IOException {
+        JsonReader json = new JsonReader(in);
+        json.beginObject();
+        while (json.hasNext()) {
+            String name = json.nextName();
+            switch (name) {
+                case "states":
+                    json.beginArray();
+                    while (json.hasNext()) {
+                        handler.state(json.nextString());
+                    }
+                    json.endArray();
+                    break;
+                case "alphabet":
+                    json.beginArray();
+                    while (json.hasNext()) {
+                        handler.symbol(symbol(json, json.nextString()));
+                    }
+                    json.endArray();
+                    break;
+                case "startState":
+                    if (json.peek() == JsonReader.Token.STRING) {
+                        handler.startState(json.nextString());
+                    } else {
+                        json.skipValue();
+                    }
+                    break;
+                case "finalStates":
+                    json.beginArray();
+                    while (json.hasNext()) {
+                        handler.finalState(json.nextString());
+                    }
+                    json.endArray();
+                    break;
+                case "transitions":
+                    json.beginArray();
+                    while (json.hasNext()) {
+                        readTransition(json, handler);
+                    }
+                    json.endArray();
+                    break;
+                case "outputs":
+                    json.beginObject();
+                    while (json.hasNext()) {
+                        handler.output(json.nextName(), json.nextInt());
+                    }
+                    json.endObject();
+                    break;
+                default:
+                    json.skipValue();
+            }
+        }
+        json.endObject();
+        if (json.peek() != JsonReader.Token.END_DOCUMENT) {
+            throw json.error("Unexpected content after document");
+        }
+    }
+    
+    private static void readTransition(JsonReader json, Handler handler) throws IOException {
+        String from = null;
+        String symbol = null;
+        String to = null;
+        json.beginObject();
+        while (json.hasNext()) {
+            String name = json.nextName();
+            switch (name) {
+                case "from":
+                    from = json.nextString();
+                    break;
+                case "symbol":
+                    symbol = json.nextString();
+                    break;
+                case "to":
+                    to = json.nextString();
+                    break;
+                default:
+                    json.skipValue();
+            }
+        }
+        json.endObject();
+        if (from == null || symbol == null || to == null) {
+            throw json.error("Transition needs from, symbol and to");
+        }
+        handler.transition(from, symbol(json, symbol), to);
+    }
+    
+    private static char symbol(JsonReader json, String symbol) {
+        if (symbol.length() != 1) {
+            throw json.error("Symbols must be single characters: " + symbol);
+        }
+        return symbol.charAt(0);
+    }
+    
+    /**
+     * Writes a DFA. States and symbols are sorted, so equal automata produce equal documents.
+     */
+    public static void write(DFA dfa, Writer out) throws IOException {
+        List<State> states = new ArrayList<>(dfa.getStates());
+        states.sort(Comparator.comparing(State::getName));
+        List<Character> alphabet = new ArrayList<>(new TreeSet<>(dfa.getAlphabet()));
+        
+        out.write("{\n  \"states\": [");
+        for (int i = 0; i < states.size(); i++) {
+            out.write(i == 0 ? "" : ", ");
+            writeString(out, states.get(i).getName());
+        }
+        out.write("],\n  \"alphabet\": [");
+        for (int i = 0; i < alphabet.size(); i++) {
+            out.write(i == 0 ? "" : ", ");
+            writeString(out, String.valueOf(alphabet.get(i)));
+        }
+        out.write("],\n  \"startState\": ");
+        if (dfa.getStartState() == null) {
+            out.write("null");
+        } else {
+            writeString(out, dfa.getStartState().getName());
+        }
+        out.write(",\n  \"finalStates\": [");
+        Set<State> finalStates = dfa.getFinalStates();
+        boolean first = true;
+        for (State state : states) {
+            if (finalStates.contains(state)) {
+                out.write(first ? "" : ", ");
+                writeString(out, state.getName());
+                first = false;
+            }
+        }
+        out.write("],\n  \"transitions\": [");
+        first = true;
+        for (State from : states) {
+            for (char symbol : alphabet) {
+                State to = dfa.getNextState(from, symbol);
+                if (to == null) {
+                    continue;
+                }
+                out.write(first ? "\n    {\"from\": " : ",\n    {\"from\": ");
+                writeString(out, from.getName());
+                out.write(", \"symbol\": ");
+                writeString(out, String.valueOf(symbol));
+                out.write(", \"to\": ");
+                writeString(out, to.getName());
+                out.write('}');
+                first = false;
+            }
+        }
+        out.write(first ? "]" : "\n  ]");
+        first = true;
+        for (State state : states) {
+            if (state.getOutput() != 0) {
+                out.write(first ? ",\n  \"outputs\": {" : ", ");
+                writeString(out, state.getName());
+                out.write(": " + state.getOutput());
+                first = false;
+            }
+        }
+        out.write(first ? "\n}\n" : "}\n}\n");
+        out.flush();
+    }
+    
+    private static void writeString(Writer out, String value) throws IOException {
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.write("\\\"");
+                    break;
+                case '\\':
+                    out.write("\\\\");
+                    break;
+                case '\n':
+                    out.write("\\n");
+                    break;
+                case '\r':
+                    out.write("\\r");
+                    break;
+                case '\t':
+                    out.write("\\t");
+                    break;
+                default:
+                    if (c < 0x20 || c == 0x2028 || c == 0x2029) {
+                        out.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.write(c);
+                    }
+            }
+        }
+        out.write('"');
+    }
+}
@@ -0,0 +1,219 @@
+package com.dfaminimizer.io;
+
+import com.dfaminimizer.model.DFA;
+import com.dfaminimizer.model.State;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Plain text form of a DFA, using the same fields as the input panes of the desktop and web apps.
+ * <pre>
+ * states: q0,q1,q2
+ * alphabet: a,b
+ * startState: q0
+ * finalStates: q2
+ * outputs: q2=3
+ * transitions:
+ * q0,a,q1
+ * q1,b,q2
+ * </pre>
+ * Every line after {@code transitions:} is one transition. Symbols must be single characters. The
+ * {@code outputs} line lists the {@link State#getOutput() output labels} other than 0 and is left
+ * out for automata without labels.
+ */
+public final class DFATextFormat {
+    
+    public static final String STATES = "states";
+    public static final String ALPHABET = "alphabet";
+    public static final String START_STATE = "startState";
+    public static final String FINAL_STATES = "finalStates";
+    public static final String OUTPUTS = "outputs";
+    public static final String TRANSITIONS = "transitions";
+    
+    private DFATextFormat() {
+    }
+    
+    /**
+     * Parses the text form
+     * @throws IllegalArgumentException If a line is malformed or refers to an unknown state
+     */
+    public static DFA parse(String text) {
+        Map<String, String> fields = new HashMap<>();
+        StringBuilder transitions = new StringBuilder();
+        boolean inTransitions = false;
+        for (String line : text.split("\r?\n")) {
+            if (inTransitions) {
+                transitions.append(line).append('\n');
+                continue;
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+            int colon = line.indexOf(':');
+            if (colon < 0) {
+                throw new IllegalArgumentException("Expected 'field: value' but got: " + line);
+            }
+            String key = line.substring(0, colon).trim();
+            if (key.equals(TRANSITIONS)) {
+                inTransitions = true;
+                transitions.append(line.substring(colon + 1)).append('\n');
+            } else {
+                fields.put(key, line.substring(colon + 1).trim());
+            }
+        }
+        return fromFields(fields.getOrDefault(STATES, ""), fields.getOrDefault(ALPHABET, ""),
+                transitions.toString(), fields.getOrDefault(START_STATE, ""), fields.getOrDefault(FINAL_STATES, ""),
+                fields.getOrDefault(OUTPUTS, ""));
+    }
+    
+    /**
+     * Builds a DFA from the input pane fields
+     * @param states Comma separated state names
+     * @param alphabet Comma separated symbols; symbols used by transitions are added automatically
+     * @param transitions One "from,symbol,to" triple per line
+     * @param startState Name of the start state, may be empty
+     * @param finalStates Comma separated names of the final states
+     * @throws IllegalArgumentException If a field is malformed or refers to an unknown state
+     */
+    public static DFA fromFields(String states, String alphabet, String transitions, String startState,
+                                 String finalStates) {
+        return fromFields(states, alphabet, transitions, startState, finalStates, "");
+    }
+    
+    /**
+     * Builds a DFA from the input pane fields and output labels
+     * @param outputs Comma separated "state=label" pairs; unlisted states are labelled 0
+     * @throws IllegalArgumentException If a field is malformed or refers to an unknown state
+     */
+    public static DFA fromFields(String states, String alphabet, String transitions, String startState,
+                                 String finalStates, String outputs) {
+        Set<String> finalNames = new HashSet<>(split(finalStates, ","));
+        String start = startState.trim();
+        DFA dfa = new DFA();
+        Map<String, State> byName = new LinkedHashMap<>();
+        for (String name : split(states, ",")) {
+            State state = new State(name, name.equals(start), finalNames.contains(name));
+            if (byName.putIfAbsent(name, state) == null) {
+                dfa.addState(state);
+            }
+        }
+        checkKnown(start.isEmpty() ? Collections.emptySet() : Collections.singleton(start), byName, "start state");
+        checkKnown(finalNames, byName, "final state");
+        for (String symbol : split(alphabet, ",")) {
+            dfa.addSymbol(symbol(symbol));
+        }
+        for (String line : split(transitions, "\n")) {
+            String[] parts = line.split(",");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Expected 'from,symbol,to' but got: " + line);
+            }
+            State from = byName.get(parts[0].trim());
+            State to = byName.get(parts[2].trim());
+            if (from == null || to == null) {
+                throw new IllegalArgumentException("Unknown state in transition: " + line);
+            }
+            dfa.addTransition(from, to, symbol(parts[1].trim()));
+        }
+        for (String pair : split(outputs, ",")) {
+            int equals = pair.lastIndexOf('=');
+            State state = equals < 0 ? null : byName.get(pair.substring(0, equals).trim());
+            if (state == null) {
+                throw new IllegalArgumentException("Expected 'state=label' for a known state but got: " + pair);
+            }
+            try {
+                state.setOutput(Integer.parseInt(pair.substring(equals + 1).trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid output label: " + pair);
+            }
+        }
+        return dfa;
+    }
+    
+    /**
+     * Writes the text form. States, symbols and transitions are sorted, so equal automata with equal
+     * state names always produce the same text.
+     */
+    public static String format(DFA dfa) {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, String> field : fields(dfa).entrySet()) {
+            if (field.getKey().equals(TRANSITIONS)) {
+                sb.append(TRANSITIONS).append(":\n").append(field.getValue());
+            } else {
+                sb.append(field.getKey()).append(": ").append(field.getValue()).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+    
+    /**
+     * Returns the input pane fields of a DFA, in the order of the text form and sorted within each
+     * field. {@link #OUTPUTS} is only present if some state has an output label other than 0.
+     */
+    public static Map<String, String> fields(DFA dfa) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put(STATES, joinStates(dfa.getStates()));
+        fields.put(ALPHABET, dfa.getAlphabet().stream().sorted().map(String::valueOf).collect(Collectors.joining(",")));
+        fields.put(START_STATE, dfa.getStartState() == null ? "" : dfa.getStartState().getName());
+        fields.put(FINAL_STATES, joinStates(dfa.getFinalStates()));
+        String outputs = dfa.getStates().stream()
+                .filter(state -> state.getOutput() != 0)
+                .sorted(Comparator.comparing(State::getName))
+                .map(state -> state.getName() + "=" + state.getOutput())
+                .collect(Collectors.joining(","));
+        if (!outputs.isEmpty()) {
+            fields.put(OUTPUTS, outputs);
+        }
+        fields.put(TRANSITIONS, joinTransitions(dfa));
+        return fields;
+    }
+    
+    /**
+     * Lists the transitions sorted by source state and symbol, looking them up directly instead
+     * of creating a Transition per edge
+     */
+    private static String joinTransitions(DFA dfa) {
+        List<State> states = new ArrayList<>(dfa.getStates());
+        states.sort(Comparator.comparing(State::getName));
+        List<Character> alphabet = new ArrayList<>(new TreeSet<>(dfa.getAlphabet()));
+        StringBuilder sb = new StringBuilder();
+        for (State from : states) {
+            for (char symbol : alphabet) {
+                State to = dfa.getNextState(from, symbol);
+                if (to != null) {
+                    sb.append(from.getName()).append(',').append(symbol).append(',').append(to.getName()).append('\n');
+                }
+            }
+        }
+        return sb.toString();
+    }
+    
+    private static String joinStates(Collection<State> states) {
+        return states.stream().map(State::getName).sorted().collect(Collectors.joining(","));
+    }
+    
+    private static List<String> split(String value, String separator) {
+        List<String> parts = new ArrayList<>();
+        for (String part : value.split(separator)) {
+            if (!part.isBlank()) {
+                parts.add(part.trim());
+            }
+        }
+        return parts;
+    }
+    
+    private static char symbol(String symbol) {
+        if (symbol.length() != 1) {
+            throw new IllegalArgumentException("Symbols must be single characters: " + symbol);
+        }
+        return symbol.charAt(0);
+    }
+    
+    private static void checkKnown(Set<String> names, Map<String, State> byName, String role) {
+        for (String name : names) {
+            if (!byName.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown " + role + ": " + name);
+            }
+        }
+    }
+}
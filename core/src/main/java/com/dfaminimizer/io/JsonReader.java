@@ -0,0 +1,318 @@
+package com.dfaminimizer.io;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Minimal pull parser for JSON.
+ * <p>
+ * Tokens are read one at a time from a fixed size buffer, so memory use does not depend on the
+ * document size, only on the length of the longest string. Integers can be read with
+ * {@link #nextInt()}; other numbers, booleans and null are only supported by {@link #skipValue()}.
+ */
+class JsonReader {
+    
+    enum Token { BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, OTHER, END_DOCUMENT }
+    
+    private static final int BUFFER_SIZE = 8192;
+    
+    private final Reader in;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private long offset;
+    private final StringBuilder text = new StringBuilder();
+    
+    /** Whether the next string in the current object is a name */
+    private boolean expectName;
+    /** Nesting of objects (true) and arrays (false) */
+    private boolean[] stack = new boolean[16];
+    private int depth;
+    /** Whether a value has been read in the current container, so a comma is required before the next one */
+    private boolean needsComma;
+    
+    JsonReader(Reader in) {
+        this.in = in;
+    }
+    
+    /**
+     * Returns the type of the next token without consuming it
+     */
+    Token peek() throws IOException {
+        int c = nextNonWhitespace(false);
+        if (needsComma && c == ',') {
+            position++;
+            needsComma = false;
+            c = nextNonWhitespace(false);
+            if (c == '}' || c == ']' || c == -1) {
+                throw error("Expected a value after ','");
+            }
+        }
+        switch (c) {
+            case -1:
+                return Token.END_DOCUMENT;
+            case '{':
+                return Token.BEGIN_OBJECT;
+            case '}':
+                return Token.END_OBJECT;
+            case '[':
+                return Token.BEGIN_ARRAY;
+            case ']':
+                return Token.END_ARRAY;
+            case '"':
+                return expectName ? Token.NAME : Token.STRING;
+            default:
+                return Token.OTHER;
+        }
+    }
+    
+    void beginObject() throws IOException {
+        beforeValue('{');
+        push(true);
+        expectName = true;
+    }
+    
+    void endObject() throws IOException {
+        end('}', true);
+    }
+    
+    void beginArray() throws IOException {
+        beforeValue('[');
+        push(false);
+    }
+    
+    void endArray() throws IOException {
+        end(']', false);
+    }
+    
+    /**
+     * Returns true if the current object or array has another member
+     */
+    boolean hasNext() throws IOException {
+        Token token = peek();
+        return token != Token.END_OBJECT && token != Token.END_ARRAY && token != Token.END_DOCUMENT;
+    }
+    
+    String nextName() throws IOException {
+        if (!expectName || depth == 0 || !stack[depth - 1]) {
+            throw error("Expected a value, not a name");
+        }
+        beforeValue('"');
+        String name = readString();
+        if (nextNonWhitespace(true) != ':') {
+            throw error("Expected ':'");
+        }
+        expectName = false;
+        needsComma = false;
+        return name;
+    }
+    
+    String nextString() throws IOException {
+        if (expectName) {
+            throw error("Expected a name");
+        }
+        beforeValue('"');
+        String value = readString();
+        afterValue();
+        return value;
+    }
+    
+    int nextInt() throws IOException {
+        if (peek() != Token.OTHER) {
+            throw error("Expected a number");
+        }
+        String literal = nextLiteral();
+        try {
+            return Integer.parseInt(literal);
+        } catch (NumberFormatException e) {
+            throw error("Expected an integer but got " + literal);
+        }
+    }
+    
+    /**
+     * Skips the next value, including nested objects and arrays
+     */
+    void skipValue() throws IOException {
+        Token token = peek();
+        switch (token) {
+            case BEGIN_OBJECT:
+                beginObject();
+                while (hasNext()) {
+                    nextName();
+                    skipValue();
+                }
+                endObject();
+                break;
+            case BEGIN_ARRAY:
+                beginArray();
+                while (hasNext()) {
+                    skipValue();
+                }
+                endArray();
+                break;
+            case STRING:
+                nextString();
+                break;
+            case OTHER:
+                nextLiteral();
+                break;
+            default:
+                throw error("Expected a value");
+        }
+    }
+    
+    /**
+     * Reads a number, boolean or null up to the next separator
+     */
+    private String nextLiteral() throws IOException {
+        beforeValue(-1);
+        text.setLength(0);
+        while (true) {
+            int c = read(false);
+            if (c == -1 || c == ',' || c == '}' || c == ']' || Character.isWhitespace(c)) {
+                break;
+            }
+            text.append((char) c);
+            position++;
+        }
+        afterValue();
+        return text.toString();
+    }
+    
+    private void push(boolean object) {
+        if (depth == stack.length) {
+            boolean[] grown = new boolean[depth * 2];
+            System.arraycopy(stack, 0, grown, 0, depth);
+            stack = grown;
+        }
+        stack[depth++] = object;
+        needsComma = false;
+    }
+    
+    private void end(char expected, boolean object) throws IOException {
+        if (depth == 0 || stack[depth - 1] != object || (object && !expectName)) {
+            throw error("Unexpected '" + expected + "'");
+        }
+        if (nextNonWhitespace(true) != expected) {
+            throw error("Expected '" + expected + "'");
+        }
+        depth--;
+        afterValue();
+    }
+    
+    /**
+     * Consumes the separating comma if needed and checks that the next character starts the expected token
+     * @param first The expected first character, or -1 for a literal
+     */
+    private void beforeValue(int first) throws IOException {
+        if (needsComma) {
+            if (nextNonWhitespace(true) != ',') {
+                throw error("Expected ','");
+            }
+            needsComma = false;
+        }
+        int c = nextNonWhitespace(false);
+        if (first != -1 && c != first) {
+            throw error("Expected '" + (char) first + "'");
+        }
+        if (first != -1) {
+            position++;
+        }
+    }
+    
+    private void afterValue() {
+        needsComma = depth > 0;
+        expectName = depth > 0 && stack[depth - 1];
+    }
+    
+    private String readString() throws IOException {
+        text.setLength(0);
+        while (true) {
+            int c = read(true);
+            if (c == -1) {
+                throw error("Unterminated string");
+            }
+            if (c == '"') {
+                return text.toString();
+            }
+            if (c != '\\') {
+                text.append((char) c);
+                continue;
+            }
+            int escaped = read(true);
+            switch (escaped) {
+                case 'n':
+                    text.append('\n');
+                    break;
+                case 'r':
+                    text.append('\r');
+                    break;
+                case 't':
+                    text.append('\t');
+                    break;
+                case 'b':
+                    text.append('\b');
+                    break;
+                case 'f':
+                    text.append('\f');
+                    break;
+                case 'u': {
+                    int value = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = Character.digit(read(true), 16);
+                        if (digit < 0) {
+                            throw error("Invalid unicode escape");
+                        }
+                        value = value * 16 + digit;
+                    }
+                    text.append((char) value);
+                    break;
+                }
+                case '"':
+                case '\\':
+                case '/':
+                    text.append((char) escaped);
+                    break;
+                default:
+                    throw error("Invalid escape");
+            }
+        }
+    }
+    
+    private int nextNonWhitespace(boolean consume) throws IOException {
+        while (true) {
+            int c = read(false);
+            if (c == -1 || !Character.isWhitespace(c)) {
+                if (consume && c != -1) {
+                    position++;
+                }
+                return c;
+            }
+            position++;
+        }
+    }
+    
+    /**
+     * Returns the next character, or -1 at the end of input
+     */
+    private int read(boolean consume) throws IOException {
+        if (position == limit) {
+            offset += limit;
+            limit = in.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        char c = buffer[position];
+        if (consume) {
+            position++;
+        }
+        return c;
+    }
+    
+    IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at offset " + (offset + position));
+    }
+}
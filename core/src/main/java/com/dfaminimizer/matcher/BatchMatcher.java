@@ -0,0 +1,155 @@
+package com.dfaminimizer.matcher;
+
+import com.dfaminimizer.model.CharClassMap;
+import com.dfaminimizer.model.CompactDFA;
+
+/**
+ * Matches many inputs against one DFA at a time.
+ * <p>
+ * The transition table is padded with a dead state, a column for characters outside the alphabet
+ * and a column that keeps the current state, so every step is a plain table load without checks
+ * for missing transitions. When the JVM runs with {@code --add-modules jdk.incubator.vector}, the
+ * inputs are advanced in lockstep, one vector lane per input, and the next states of all lanes are
+ * fetched with a single gather load (see {@link VectorBatchKernel}). Otherwise, and for
+ * {@link #scalar}, the inputs are matched one after the other. Both kernels give the same results
+ * as {@link TableMatcher}.
+ * <p>
+ * This matcher is experimental. Vector lanes run until their longest input ends, so batches of
+ * inputs with similar lengths work best; long inputs are always matched one at a time. Instances
+ * are immutable and may be shared between threads.
+ */
+public final class BatchMatcher {
+    
+    private static final boolean VECTOR_AVAILABLE =
+            ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+    
+    /**
+     * Matches the inputs in [from, to) and stores the results at the same indexes
+     */
+    interface Kernel {
+        void matches(CharSequence[] inputs, int from, int to, boolean[] results);
+    }
+    
+    private final Kernel kernel;
+    private final boolean vectorized;
+    
+    private BatchMatcher(Kernel kernel, boolean vectorized) {
+        this.kernel = kernel;
+        this.vectorized = vectorized;
+    }
+    
+    /**
+     * Creates a matcher that uses the Vector API if it is available
+     */
+    public static BatchMatcher of(CompactDFA dfa) {
+        if (VECTOR_AVAILABLE) {
+            PaddedTable table = new PaddedTable(dfa);
+            return new BatchMatcher(new VectorBatchKernel(table, new ScalarKernel(table)), true);
+        }
+        return scalar(dfa);
+    }
+    
+    /**
+     * Creates a matcher that never uses the Vector API, e.g. as a baseline
+     */
+    public static BatchMatcher scalar(CompactDFA dfa) {
+        return new BatchMatcher(new ScalarKernel(new PaddedTable(dfa)), false);
+    }
+    
+    /**
+     * Returns true if the Vector API is available to this JVM
+     */
+    public static boolean isVectorAvailable() {
+        return VECTOR_AVAILABLE;
+    }
+    
+    /**
+     * Returns for each input whether the whole input is accepted
+     */
+    public boolean[] matches(CharSequence[] inputs) {
+        boolean[] results = new boolean[inputs.length];
+        kernel.matches(inputs, 0, inputs.length, results);
+        return results;
+    }
+    
+    /**
+     * Returns true if this matcher advances inputs with vector gathers
+     */
+    public boolean isVectorized() {
+        return vectorized;
+    }
+    
+    /**
+     * Transition table with an extra dead state, an extra column for characters outside the
+     * alphabet and a column that loops on every state, so that missing transitions and inputs
+     * that have ended need no special case
+     */
+    static final class PaddedTable {
+        final CharClassMap classes;
+        /** Number of columns, including the column for characters outside the alphabet and the loop column */
+        final int width;
+        /** Column whose transitions keep the current state */
+        final int loopColumn;
+        final int deadState;
+        final int startState;
+        /** Row major transitions, (state * width + column) */
+        final int[] table;
+        /** 1 for accepting states, 0 otherwise */
+        final int[] accepting;
+        
+        PaddedTable(CompactDFA dfa) {
+            int n = dfa.getStateCount();
+            int k = dfa.getAlphabetSize();
+            this.classes = dfa.getClassMap();
+            this.width = k + 2;
+            this.loopColumn = k + 1;
+            this.deadState = n;
+            // Without a start state every input is rejected, like from the dead state
+            this.startState = dfa.getStartState() == CompactDFA.NO_STATE ? deadState : dfa.getStartState();
+            this.table = new int[(n + 1) * width];
+            this.accepting = new int[n + 1];
+            for (int s = 0; s <= n; s++) {
+                for (int a = 0; a < width; a++) {
+                    int target = s < n && a < k ? dfa.next(s, a) : CompactDFA.NO_STATE;
+                    table[s * width + a] = a == loopColumn ? s : target == CompactDFA.NO_STATE ? deadState : target;
+                }
+                accepting[s] = s < n && dfa.isAccepting(s) ? 1 : 0;
+            }
+        }
+        
+        /**
+         * Column of a character
+         */
+        int column(char c) {
+            int cls = classes.classOf(c);
+            return cls < 0 ? loopColumn - 1 : cls;
+        }
+    }
+    
+    /**
+     * Matches one input after the other
+     */
+    private static final class ScalarKernel implements Kernel {
+        private final PaddedTable table;
+        
+        ScalarKernel(PaddedTable table) {
+            this.table = table;
+        }
+        
+        @Override
+        public void matches(CharSequence[] inputs, int from, int to, boolean[] results) {
+            int[] transitions = table.table;
+            int width = table.width;
+            int dead = table.deadState;
+            for (int i = from; i < to; i++) {
+                CharSequence input = inputs[i];
+                int state = table.startState;
+                int length = input.length();
+                for (int position = 0; position < length && state != dead; position++) {
+                    state = transitions[state * width + table.column(input.charAt(position))];
+                }
+                results[i] = table.accepting[state] != 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.dfaminimizer.matcher;
+
+import com.dfaminimizer.model.CompactDFA;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Matches input with a class generated for one DFA.
+ * <p>
+ * Where {@link TableMatcher} looks up the symbol class and the next state in arrays for every
+ * character, the generated code has the transitions inlined as comparisons against constants and
+ * jumps straight to the code of the next state (see {@link MatcherClassWriter}), which the JIT can
+ * compile like a hand written matcher. The class is defined as a hidden class, so it is unloaded
+ * once the matcher is no longer referenced.
+ * <p>
+ * Generation only pays off for small automata: {@link #canCompile} accepts DFAs with at most
+ * {@link #MAX_STATES} states. Instances are immutable and may be shared between threads.
+ */
+public final class CompiledMatcher {
+    
+    /** Largest number of states compiled to bytecode */
+    public static final int MAX_STATES = 64;
+    
+    /**
+     * Implemented by the generated classes
+     */
+    interface Program {
+        boolean matches(CharSequence input);
+    }
+    
+    private final Program program;
+    private final int stateCount;
+    
+    private CompiledMatcher(Program program, int stateCount) {
+        this.program = program;
+        this.stateCount = stateCount;
+    }
+    
+    /**
+     * Returns true if the DFA is small enough to be compiled
+     */
+    public static boolean canCompile(CompactDFA dfa) {
+        return dfa.getStateCount() <= MAX_STATES && MatcherClassWriter.rangeCount(dfa) <= MatcherClassWriter.MAX_RANGES;
+    }
+    
+    /**
+     * Generates and loads a matcher class for the DFA
+     * @throws IllegalArgumentException If the DFA cannot be compiled, see {@link #canCompile}
+     */
+    public static CompiledMatcher of(CompactDFA dfa) {
+        if (!canCompile(dfa)) {
+            throw new IllegalArgumentException("DFA too large to compile: " + dfa.getStateCount() + " states");
+        }
+        byte[] classFile = MatcherClassWriter.write(dfa);
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(classFile, true);
+            Program program = (Program) lookup.findConstructor(lookup.lookupClass(),
+                    MethodType.methodType(void.class)).invoke();
+            return new CompiledMatcher(program, dfa.getStateCount());
+        } catch (Throwable e) {
+            throw new IllegalStateException("Could not load generated matcher", e);
+        }
+    }
+    
+    /**
+     * Returns true if the whole input is accepted
+     */
+    public boolean matches(CharSequence input) {
+        return program.matches(input);
+    }
+    
+    public int getStateCount() {
+        return stateCount;
+    }
+}
@@ -0,0 +1,270 @@
+package com.dfaminimizer.matcher;
+
+import com.dfaminimizer.algorithm.BrzozowskiMinimizer;
+import com.dfaminimizer.algorithm.DFAMinimizer;
+import com.dfaminimizer.algorithm.MemoryBudgetExceededException;
+import com.dfaminimizer.algorithm.SubsetConstruction;
+import com.dfaminimizer.model.CharClassMap;
+import com.dfaminimizer.model.CompactDFA;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Finds the substrings of a text that are accepted by a DFA.
+ * <p>
+ * The searcher determinizes and minimizes the automaton for &Sigma;*L, which is in an accepting
+ * state exactly after the end of a match, so the text is scanned once without backtracking. While
+ * that automaton is in its start state, characters that keep it there are skipped with a tight
+ * loop that does no transition lookups; for patterns that start with a rare character most of the
+ * text is passed over this way.
+ * <p>
+ * The scan reports where matches end. {@link #matchStart} finds the leftmost start of a match
+ * ending at a given offset by running the minimized reverse automaton backwards from there.
+ * <p>
+ * Files are memory mapped and read as bytes, each byte being the character with the same code
+ * (ISO-8859-1). Patterns over ASCII therefore work on UTF-8 logs unchanged. Instances are
+ * immutable and may be shared between threads.
+ */
+public final class DFASearcher {
+    
+    /** Size of the file regions mapped at a time */
+    private static final int MAP_CHUNK = 1 << 30;
+    
+    private final CharClassMap classes;
+    /** Number of columns: the symbol classes plus one for characters outside the alphabet */
+    private final int width;
+    /** Row major transitions of the &Sigma;*L automaton; the start state is 0 */
+    private final int[] table;
+    private final boolean[] accepting;
+    /** Column of every byte value, for scanning files */
+    private final int[] byteColumns;
+    /** Whether a column leaves the start state */
+    private final boolean[] leavesStart;
+    /** Whether a byte value leaves the start state */
+    private final boolean[] byteLeavesStart;
+    private final CompactDFA reverse;
+    
+    private DFASearcher(CompactDFA search, CompactDFA reverse) {
+        this.classes = search.getClassMap();
+        int n = search.getStateCount();
+        int k = search.getAlphabetSize();
+        this.width = k + 1;
+        this.table = new int[n * width];
+        this.accepting = new boolean[n];
+        for (int s = 0; s < n; s++) {
+            accepting[s] = search.isAccepting(s);
+            for (int a = 0; a < k; a++) {
+                table[s * width + a] = search.next(s, a);
+            }
+            // Only the &Sigma;* loop survives a character outside the alphabet
+            table[s * width + k] = 0;
+        }
+        
+        // With the empty word in the language every offset is a match, so nothing can be skipped
+        this.leavesStart = new boolean[width];
+        for (int a = 0; a < width; a++) {
+            leavesStart[a] = accepting[0] || table[a] != 0;
+        }
+        this.byteColumns = new int[256];
+        this.byteLeavesStart = new boolean[256];
+        for (int b = 0; b < 256; b++) {
+            byteColumns[b] = column((char) b);
+            byteLeavesStart[b] = leavesStart[byteColumns[b]];
+        }
+        this.reverse = reverse;
+    }
+    
+    /**
+     * Creates a searcher with the default memory budget of the subset constructions
+     * @throws MemoryBudgetExceededException If determinizing &Sigma;*L needs more than the budget
+     */
+    public static DFASearcher of(CompactDFA dfa) {
+        return of(dfa, BrzozowskiMinimizer.DEFAULT_MEMORY_BUDGET);
+    }
+    
+    /**
+     * Creates a searcher. &Sigma;*L can have exponentially more states than the DFA, e.g. for
+     * patterns that look a fixed distance back, so its construction is bounded by a budget.
+     * @param memoryBudgetBytes Upper bound for each of the two subset constructions
+     * @throws MemoryBudgetExceededException If a construction needs more than the budget
+     */
+    public static DFASearcher of(CompactDFA dfa, long memoryBudgetBytes) {
+        DFAMinimizer minimizer = new DFAMinimizer(false);
+        CompactDFA search = minimizer.minimize(unanchored(dfa, memoryBudgetBytes));
+        CompactDFA reverse = minimizer.minimize(SubsetConstruction.reverse(dfa, memoryBudgetBytes).determinize(false));
+        return new DFASearcher(search, reverse);
+    }
+    
+    /**
+     * Determinizes &Sigma;*L. The NFA has the states of the DFA plus a loop state that stays on
+     * every symbol and also moves like the DFA start state, so every subset contains the loop state
+     * and the result has no missing transitions.
+     */
+    private static CompactDFA unanchored(CompactDFA dfa, long memoryBudgetBytes) {
+        int n = dfa.getStateCount();
+        int k = dfa.getAlphabetSize();
+        int start = dfa.getStartState();
+        int loop = n;
+        int[] offsets = new int[(n + 1) * k + 1];
+        int[] successors = new int[(n + 2) * k];
+        int count = 0;
+        for (int s = 0; s <= n; s++) {
+            for (int a = 0; a < k; a++) {
+                if (s == loop) {
+                    successors[count++] = loop;
+                }
+                int from = s == loop ? start : s;
+                int target = from == CompactDFA.NO_STATE ? CompactDFA.NO_STATE : dfa.next(from, a);
+                if (target != CompactDFA.NO_STATE) {
+                    successors[count++] = target;
+                }
+                offsets[s * k + a + 1] = count;
+            }
+        }
+        
+        int acceptingCount = 0;
+        int[] acceptingStates = new int[n + 1];
+        for (int s = 0; s < n; s++) {
+            if (dfa.isAccepting(s)) {
+                acceptingStates[acceptingCount++] = s;
+            }
+        }
+        if (start != CompactDFA.NO_STATE && dfa.isAccepting(start)) {
+            acceptingStates[acceptingCount++] = loop;
+        }
+        return new SubsetConstruction(n + 1, dfa.getClassMap(), offsets, successors, new int[] {loop},
+                Arrays.copyOf(acceptingStates, acceptingCount), memoryBudgetBytes).determinize(false);
+    }
+    
+    private int column(char c) {
+        int cls = classes.classOf(c);
+        return cls < 0 ? width - 1 : cls;
+    }
+    
+    /**
+     * Reports the end of every match in the text, including empty matches if the language
+     * contains the empty word
+     */
+    public void search(CharSequence text, MatchVisitor visitor) {
+        int length = text.length();
+        int state = 0;
+        if (accepting[0] && !visitor.visit(0)) {
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            if (state == 0) {
+                while (i < length && !leavesStart[column(text.charAt(i))]) {
+                    i++;
+                }
+                if (i == length) {
+                    return;
+                }
+            }
+            state = table[state * width + column(text.charAt(i))];
+            if (accepting[state] && !visitor.visit(i + 1)) {
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Reports the end of every match in a file, as byte offsets. The file is mapped read only in
+     * regions of up to 1 GB, and the scan carries its state across region boundaries.
+     */
+    public void search(Path file, MatchVisitor visitor) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            int state = 0;
+            if (accepting[0] && !visitor.visit(0)) {
+                return;
+            }
+            for (long base = 0; base < size; base += MAP_CHUNK) {
+                int limit = (int) Math.min(MAP_CHUNK, size - base);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, base, limit);
+                for (int i = 0; i < limit; i++) {
+                    if (state == 0) {
+                        while (i < limit && !byteLeavesStart[buffer.get(i) & 0xFF]) {
+                            i++;
+                        }
+                        if (i == limit) {
+                            break;
+                        }
+                    }
+                    state = table[state * width + byteColumns[buffer.get(i) & 0xFF]];
+                    if (accepting[state] && !visitor.visit(base + i + 1)) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Returns the end of the first match, or -1 if there is none
+     */
+    public int find(CharSequence text) {
+        long[] end = {-1};
+        search(text, e -> {
+            end[0] = e;
+            return false;
+        });
+        return (int) end[0];
+    }
+    
+    /**
+     * Counts the offsets at which a match ends
+     */
+    public long count(CharSequence text) {
+        long[] count = {0};
+        search(text, end -> {
+            count[0]++;
+            return true;
+        });
+        return count[0];
+    }
+    
+    /**
+     * Counts the byte offsets at which a match ends in a file
+     */
+    public long count(Path file) throws IOException {
+        long[] count = {0};
+        search(file, end -> {
+            count[0]++;
+            return true;
+        });
+        return count[0];
+    }
+    
+    /**
+     * Returns the leftmost start of a match that ends at the given offset, which makes
+     * [start, end) the longest such match. This scans backwards at most to the start of the text.
+     * @return The start offset, or -1 if no match ends there
+     */
+    public int matchStart(CharSequence text, int end) {
+        int state = reverse.getStartState();
+        int start = -1;
+        for (int i = end; state != CompactDFA.NO_STATE; i--) {
+            if (reverse.isAccepting(state)) {
+                start = i;
+            }
+            if (i == 0) {
+                break;
+            }
+            int cls = reverse.symbolIndex(text.charAt(i - 1));
+            state = cls < 0 ? CompactDFA.NO_STATE : reverse.next(state, cls);
+        }
+        return start;
+    }
+    
+    /**
+     * Number of states of the minimized &Sigma;*L automaton
+     */
+    public int getStateCount() {
+        return accepting.length;
+    }
+}
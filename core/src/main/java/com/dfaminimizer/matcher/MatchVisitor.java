@@ -0,0 +1,14 @@
+package com.dfaminimizer.matcher;
+
+/**
+ * Receives the end offsets of the matches found by a {@link DFASearcher}, in ascending order
+ */
+@FunctionalInterface
+public interface MatchVisitor {
+    
+    /**
+     * @param end Offset just after the last character of a match
+     * @return false to stop the search
+     */
+    boolean visit(long end);
+}
@@ -0,0 +1,517 @@
+package com.dfaminimizer.matcher;
+
+import com.dfaminimizer.model.CharClassMap;
+import com.dfaminimizer.model.CharRange;
+import com.dfaminimizer.model.CompactDFA;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+
+/**
+ * Emits the class file of a {@link CompiledMatcher.Program} for one DFA.
+ * <p>
+ * The generated {@code matches} method is a single loop that reads a character and switches on
+ * the current state. Each case finds the transition with a binary search over the state's
+ * character ranges, written out as comparisons against constants, so there is no transition
+ * table and no symbol class lookup:
+ * <pre>
+ * while (i &lt; length) {
+ *     char c = input.charAt(i++);
+ *     switch (state) {
+ *         case k: if (c &lt; 'm') { ... } if (c &gt; 'z') return false; state = j; continue;
+ *         ...
+ *     }
+ * }
+ * return accepting(state);
+ * </pre>
+ * A single reducible loop keeps the method easy for the JIT to compile; jumping directly between
+ * per-state blocks would create irreducible loops, which HotSpot optimizes poorly. Every jump
+ * target has the same locals, so the stack map frames are written directly.
+ */
+final class MatcherClassWriter {
+    
+    /** Largest number of ranges over all states whose code fits the 16 bit jump offsets */
+    static final int MAX_RANGES = 768;
+    
+    private static final int MAX_CODE_LENGTH = Short.MAX_VALUE;
+    
+    private static final String CLASS_NAME = "com/dfaminimizer/matcher/CompiledMatcher$Generated";
+    private static final String PROGRAM_NAME = "com/dfaminimizer/matcher/CompiledMatcher$Program";
+    
+    // Local variables of matches(CharSequence) besides this (0), input (1) and length (2)
+    private static final int INDEX = 3;
+    private static final int STATE = 4;
+    private static final int CHAR = 5;
+    
+    private static final int ICONST_0 = 0x03;
+    private static final int BIPUSH = 0x10;
+    private static final int SIPUSH = 0x11;
+    private static final int LDC_W = 0x13;
+    private static final int ILOAD = 0x15;
+    private static final int ILOAD_2 = 0x1c;
+    private static final int ILOAD_3 = 0x1d;
+    private static final int ALOAD_0 = 0x2a;
+    private static final int ALOAD_1 = 0x2b;
+    private static final int ISTORE = 0x36;
+    private static final int ISTORE_2 = 0x3d;
+    private static final int ISTORE_3 = 0x3e;
+    private static final int IINC = 0x84;
+    private static final int IF_ICMPNE = 0xa0;
+    private static final int IF_ICMPLT = 0xa1;
+    private static final int IF_ICMPGE = 0xa2;
+    private static final int IF_ICMPGT = 0xa3;
+    private static final int GOTO = 0xa7;
+    private static final int TABLESWITCH = 0xaa;
+    private static final int IRETURN = 0xac;
+    private static final int RETURN = 0xb1;
+    private static final int INVOKESPECIAL = 0xb7;
+    private static final int INVOKEINTERFACE = 0xb9;
+    
+    private final ConstantPool pool = new ConstantPool();
+    private final ByteArrayOutputStream code = new ByteArrayOutputStream();
+    /** Offset of each bound label, or -1 */
+    private final List<Integer> labels = new ArrayList<>();
+    /** Labels whose frame includes the current character */
+    private final BitSet charLabels = new BitSet();
+    /** Jumps to patch as (instruction offset, offset to patch, label, width in bytes) */
+    private final List<int[]> jumps = new ArrayList<>();
+    
+    private MatcherClassWriter() {
+    }
+    
+    /**
+     * Number of ranges {@link #write} needs for a DFA, after merging adjacent ranges with the same target
+     */
+    static int rangeCount(CompactDFA dfa) {
+        int count = 0;
+        for (int s = 0; s < dfa.getStateCount(); s++) {
+            count += transitionRanges(dfa, s).length / 3;
+        }
+        return count;
+    }
+    
+    /**
+     * Generates the class file for a DFA with at most {@link #MAX_RANGES} ranges
+     */
+    static byte[] write(CompactDFA dfa) {
+        return new MatcherClassWriter().classFile(dfa);
+    }
+    
+    /**
+     * The transitions of a state as sorted (low, high, target) triples
+     */
+    private static int[] transitionRanges(CompactDFA dfa, int state) {
+        CharClassMap classes = dfa.getClassMap();
+        List<int[]> ranges = new ArrayList<>();
+        for (int a = 0; a < dfa.getAlphabetSize(); a++) {
+            int target = dfa.next(state, a);
+            if (target != CompactDFA.NO_STATE) {
+                for (CharRange range : classes.getRanges(a)) {
+                    ranges.add(new int[]{range.getLow(), range.getHigh(), target});
+                }
+            }
+        }
+        ranges.sort(Comparator.comparingInt(r -> r[0]));
+        int[] merged = new int[ranges.size() * 3];
+        int count = 0;
+        for (int[] range : ranges) {
+            if (count > 0 && merged[count - 1] == range[2] && merged[count - 2] + 1 == range[0]) {
+                merged[count - 2] = range[1];
+            } else {
+                merged[count++] = range[0];
+                merged[count++] = range[1];
+                merged[count++] = range[2];
+            }
+        }
+        return Arrays.copyOf(merged, count);
+    }
+    
+    private byte[] classFile(CompactDFA dfa) {
+        int thisClass = pool.classRef(CLASS_NAME);
+        int superClass = pool.classRef("java/lang/Object");
+        int program = pool.classRef(PROGRAM_NAME);
+        int objectInit = pool.memberRef(10, "java/lang/Object", "<init>", "()V");
+        int init = pool.utf8("<init>");
+        int voidDescriptor = pool.utf8("()V");
+        int matches = pool.utf8("matches");
+        int matchesDescriptor = pool.utf8("(Ljava/lang/CharSequence;)Z");
+        int codeAttribute = pool.utf8("Code");
+        int stackMapAttribute = pool.utf8("StackMapTable");
+        int charSequence = pool.classRef("java/lang/CharSequence");
+        
+        byte[] matchesCode = matchesCode(dfa);
+        byte[] frames = stackMapTable(thisClass, charSequence);
+        
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(61);
+            pool.writeTo(out);
+            out.writeShort(0x0010 | 0x0020); // ACC_FINAL | ACC_SUPER
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(1);
+            out.writeShort(program);
+            out.writeShort(0);
+            out.writeShort(2);
+            
+            // public <init>() { super(); }
+            out.writeShort(0x0001);
+            out.writeShort(init);
+            out.writeShort(voidDescriptor);
+            out.writeShort(1);
+            byte[] initCode = {(byte) ALOAD_0, (byte) INVOKESPECIAL, (byte) (objectInit >> 8), (byte) objectInit,
+                    (byte) RETURN};
+            out.writeShort(codeAttribute);
+            out.writeInt(12 + initCode.length);
+            out.writeShort(1);
+            out.writeShort(1);
+            out.writeInt(initCode.length);
+            out.write(initCode);
+            out.writeShort(0);
+            out.writeShort(0);
+            
+            // public boolean matches(CharSequence input)
+            out.writeShort(0x0001);
+            out.writeShort(matches);
+            out.writeShort(matchesDescriptor);
+            out.writeShort(1);
+            out.writeShort(codeAttribute);
+            out.writeInt(12 + matchesCode.length + 6 + frames.length);
+            out.writeShort(2);
+            out.writeShort(CHAR + 1);
+            out.writeInt(matchesCode.length);
+            out.write(matchesCode);
+            out.writeShort(0);
+            out.writeShort(1);
+            out.writeShort(stackMapAttribute);
+            out.writeInt(frames.length);
+            out.write(frames);
+            
+            out.writeShort(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+    
+    private byte[] matchesCode(CompactDFA dfa) {
+        int length = pool.memberRef(11, "java/lang/CharSequence", "length", "()I");
+        int charAt = pool.memberRef(11, "java/lang/CharSequence", "charAt", "(I)C");
+        int n = dfa.getStateCount();
+        if (n == 0 || dfa.getStartState() == CompactDFA.NO_STATE) {
+            // Without a start state nothing is accepted
+            code.write(ICONST_0);
+            code.write(IRETURN);
+            return code.toByteArray();
+        }
+        int loop = newLabel(false);
+        int end = newLabel(false);
+        int accept = newLabel(false);
+        int reject = newLabel(false);
+        int[] stateLabels = new int[n];
+        int[] finalLabels = new int[n];
+        for (int s = 0; s < n; s++) {
+            stateLabels[s] = newLabel(true);
+            finalLabels[s] = dfa.isAccepting(s) ? accept : reject;
+        }
+        
+        // int length = input.length(); int i = 0; int state = start;
+        code.write(ALOAD_1);
+        invokeInterface(length, 1);
+        code.write(ISTORE_2);
+        code.write(ICONST_0);
+        code.write(ISTORE_3);
+        pushInt(dfa.getStartState());
+        code.write(ISTORE);
+        code.write(STATE);
+        
+        // while (i < length) { char c = input.charAt(i++); switch (state) { ... } }
+        bind(loop);
+        code.write(ILOAD_3);
+        code.write(ILOAD_2);
+        jump(IF_ICMPGE, end);
+        code.write(ALOAD_1);
+        code.write(ILOAD_3);
+        invokeInterface(charAt, 2);
+        code.write(ISTORE);
+        code.write(CHAR);
+        code.write(IINC);
+        code.write(INDEX);
+        code.write(1);
+        code.write(ILOAD);
+        code.write(STATE);
+        tableSwitch(stateLabels, reject);
+        for (int s = 0; s < n; s++) {
+            bind(stateLabels[s]);
+            int[] ranges = transitionRanges(dfa, s);
+            search(ranges, 0, ranges.length / 3, Character.MIN_VALUE, Character.MAX_VALUE, loop, reject);
+        }
+        
+        // return accepting(state);
+        bind(end);
+        code.write(ILOAD);
+        code.write(STATE);
+        tableSwitch(finalLabels, reject);
+        bind(accept);
+        code.write(ICONST_0 + 1);
+        code.write(IRETURN);
+        bind(reject);
+        code.write(ICONST_0);
+        code.write(IRETURN);
+        
+        byte[] bytes = code.toByteArray();
+        if (bytes.length > MAX_CODE_LENGTH) {
+            throw new IllegalStateException("Generated code too large: " + bytes.length + " bytes");
+        }
+        for (int[] jump : jumps) {
+            int offset = labels.get(jump[2]) - jump[0];
+            for (int b = jump[3] - 1, position = jump[1]; b >= 0; b--, position++) {
+                bytes[position] = (byte) (offset >> (8 * b));
+            }
+        }
+        return bytes;
+    }
+    
+    /**
+     * Emits a binary search over the ranges [from, to) that sets the state and continues the
+     * loop, knowing that the character is in [min, max]
+     */
+    private void search(int[] ranges, int from, int to, int min, int max, int loop, int reject) {
+        if (from == to) {
+            jump(GOTO, reject);
+            return;
+        }
+        if (to - from == 1) {
+            int low = ranges[from * 3];
+            int high = ranges[from * 3 + 1];
+            if (low == high && (low > min || high < max)) {
+                loadChar(low);
+                jump(IF_ICMPNE, reject);
+            } else {
+                if (low > min) {
+                    loadChar(low);
+                    jump(IF_ICMPLT, reject);
+                }
+                if (high < max) {
+                    loadChar(high);
+                    jump(IF_ICMPGT, reject);
+                }
+            }
+            pushInt(ranges[from * 3 + 2]);
+            code.write(ISTORE);
+            code.write(STATE);
+            jump(GOTO, loop);
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        int pivot = ranges[mid * 3];
+        int left = newLabel(true);
+        loadChar(pivot);
+        jump(IF_ICMPLT, left);
+        search(ranges, mid, to, pivot, max, loop, reject);
+        bind(left);
+        search(ranges, from, mid, min, pivot - 1, loop, reject);
+    }
+    
+    /**
+     * Pushes the current character and a constant
+     */
+    private void loadChar(int constant) {
+        code.write(ILOAD);
+        code.write(CHAR);
+        pushInt(constant);
+    }
+    
+    /**
+     * Pushes a constant between 0 and 0xFFFF
+     */
+    private void pushInt(int constant) {
+        if (constant <= 5) {
+            code.write(ICONST_0 + constant);
+        } else if (constant <= Byte.MAX_VALUE) {
+            code.write(BIPUSH);
+            code.write(constant);
+        } else if (constant <= Short.MAX_VALUE) {
+            code.write(SIPUSH);
+            code.write(constant >> 8);
+            code.write(constant);
+        } else {
+            int index = pool.integer(constant);
+            code.write(LDC_W);
+            code.write(index >> 8);
+            code.write(index);
+        }
+    }
+    
+    private void invokeInterface(int method, int argumentSlots) {
+        code.write(INVOKEINTERFACE);
+        code.write(method >> 8);
+        code.write(method);
+        code.write(argumentSlots);
+        code.write(0);
+    }
+    
+    private int newLabel(boolean withChar) {
+        labels.add(-1);
+        charLabels.set(labels.size() - 1, withChar);
+        return labels.size() - 1;
+    }
+    
+    private void bind(int label) {
+        labels.set(label, code.size());
+    }
+    
+    private void jump(int opcode, int label) {
+        jumps.add(new int[]{code.size(), code.size() + 1, label, 2});
+        code.write(opcode);
+        code.write(0);
+        code.write(0);
+    }
+    
+    /**
+     * Emits a tableswitch over 0..targets.length - 1
+     */
+    private void tableSwitch(int[] targets, int defaultLabel) {
+        int instruction = code.size();
+        code.write(TABLESWITCH);
+        while (code.size() % 4 != 0) {
+            code.write(0);
+        }
+        wideJump(instruction, defaultLabel);
+        writeInt(0);
+        writeInt(targets.length - 1);
+        for (int target : targets) {
+            wideJump(instruction, target);
+        }
+    }
+    
+    private void wideJump(int instruction, int label) {
+        jumps.add(new int[]{instruction, code.size(), label, 4});
+        writeInt(0);
+    }
+    
+    private void writeInt(int value) {
+        code.write(value >> 24);
+        code.write(value >> 16);
+        code.write(value >> 8);
+        code.write(value);
+    }
+    
+    /**
+     * Writes one full frame per jump target: locals (this, input, length, i, state) and, inside
+     * the switch over the states, the current character
+     */
+    private byte[] stackMapTable(int thisClass, int charSequence) {
+        TreeMap<Integer, Boolean> frames = new TreeMap<>();
+        for (int label = 0; label < labels.size(); label++) {
+            if (labels.get(label) >= 0) {
+                frames.merge(labels.get(label), charLabels.get(label), Boolean::logicalAnd);
+            }
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeShort(frames.size());
+            int previous = -1;
+            for (Map.Entry<Integer, Boolean> frame : frames.entrySet()) {
+                int offset = frame.getKey();
+                out.writeByte(255);
+                out.writeShort(previous < 0 ? offset : offset - previous - 1);
+                out.writeShort(frame.getValue() ? CHAR + 1 : CHAR);
+                out.writeByte(7);
+                out.writeShort(thisClass);
+                out.writeByte(7);
+                out.writeShort(charSequence);
+                out.writeByte(1);
+                out.writeByte(1);
+                out.writeByte(1);
+                if (frame.getValue()) {
+                    out.writeByte(1);
+                }
+                out.writeShort(0);
+                previous = offset;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+    
+    /**
+     * Constant pool with deduplicated entries
+     */
+    private static final class ConstantPool {
+        private final ByteArrayOutputStream entries = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(entries);
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private int count = 1;
+        
+        int utf8(String value) {
+            return entry("U" + value, () -> {
+                out.writeByte(1);
+                out.writeUTF(value);
+            });
+        }
+        
+        int integer(int value) {
+            return entry("I" + value, () -> {
+                out.writeByte(3);
+                out.writeInt(value);
+            });
+        }
+        
+        int classRef(String name) {
+            int nameIndex = utf8(name);
+            return entry("C" + name, () -> {
+                out.writeByte(7);
+                out.writeShort(nameIndex);
+            });
+        }
+        
+        /**
+         * @param tag 10 for a class method, 11 for an interface method
+         */
+        int memberRef(int tag, String owner, String name, String descriptor) {
+            int ownerIndex = classRef(owner);
+            int nameIndex = utf8(name);
+            int descriptorIndex = utf8(descriptor);
+            int nameAndType = entry("N" + name + ":" + descriptor, () -> {
+                out.writeByte(12);
+                out.writeShort(nameIndex);
+                out.writeShort(descriptorIndex);
+            });
+            return entry("M" + owner + "." + name + ":" + descriptor, () -> {
+                out.writeByte(tag);
+                out.writeShort(ownerIndex);
+                out.writeShort(nameAndType);
+            });
+        }
+        
+        private int entry(String key, Entry writer) {
+            Integer index = indexes.get(key);
+            if (index != null) {
+                return index;
+            }
+            try {
+                writer.write();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            indexes.put(key, count);
+            return count++;
+        }
+        
+        void writeTo(DataOutputStream target) throws IOException {
+            target.writeShort(count);
+            entries.writeTo(target);
+        }
+        
+        private interface Entry {
+            void write() throws IOException;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.dfaminimizer.matcher;
+
+import com.dfaminimizer.model.CharClassMap;
+import com.dfaminimizer.model.CompactDFA;
+
+/**
+ * Matches input against a DFA using a flat transition table.
+ * <p>
+ * Characters are mapped to symbol classes through the {@link CharClassMap} of the DFA, which uses a
+ * direct lookup table below 256, so each such input character costs two array loads.
+ * Instances are immutable and may be shared between threads.
+ */
+public final class TableMatcher {
+    
+    private final CharClassMap classes;
+    private final int alphabetSize;
+    private final int[] table;
+    private final boolean[] accepting;
+    private final int startState;
+    
+    private TableMatcher(CharClassMap classes, int alphabetSize, int[] table, boolean[] accepting, int startState) {
+        this.classes = classes;
+        this.alphabetSize = alphabetSize;
+        this.table = table;
+        this.accepting = accepting;
+        this.startState = startState;
+    }
+    
+    public static TableMatcher of(CompactDFA dfa) {
+        int k = dfa.getAlphabetSize();
+        int n = dfa.getStateCount();
+        int[] table = new int[n * k];
+        boolean[] accepting = new boolean[n];
+        for (int s = 0; s < n; s++) {
+            accepting[s] = dfa.isAccepting(s);
+            for (int a = 0; a < k; a++) {
+                table[s * k + a] = dfa.next(s, a);
+            }
+        }
+        return new TableMatcher(dfa.getClassMap(), k, table, accepting, dfa.getStartState());
+    }
+    
+    /**
+     * Returns true if the whole input is accepted
+     */
+    public boolean matches(CharSequence input) {
+        int state = startState;
+        int length = input.length();
+        for (int i = 0; i < length && state >= 0; i++) {
+            int symbol = classes.classOf(input.charAt(i));
+            state = symbol < 0 ? CompactDFA.NO_STATE : table[state * alphabetSize + symbol];
+        }
+        return state >= 0 && accepting[state];
+    }
+    
+    public int getStateCount() {
+        return accepting.length;
+    }
+}
@@ -0,0 +1,92 @@
+package com.dfaminimizer.matcher;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Advances one input per vector lane through the padded transition table.
+ * <p>
+ * The columns of a block of inputs are computed first, one input at a time. Each step then
+ * computes the table indexes of all lanes with vector arithmetic and loads the next states with
+ * one gather. Lanes whose input has ended read the loop column, which keeps their state, so
+ * the loop needs no masks. Every lane steps until the longest input of its block ends, so inputs
+ * longer than {@value #MAX_LANE_LENGTH} characters are left out of the blocks and matched by a
+ * scalar kernel instead; this also bounds the columns buffer.
+ * <p>
+ * This class refers to {@code jdk.incubator.vector} and is only loaded when that module is
+ * present, see {@link BatchMatcher#of}.
+ */
+final class VectorBatchKernel implements BatchMatcher.Kernel {
+    
+    /** Longest input advanced in a vector lane */
+    static final int MAX_LANE_LENGTH = 1024;
+    
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+    
+    private final BatchMatcher.PaddedTable table;
+    private final BatchMatcher.Kernel longInputs;
+    
+    /**
+     * @param longInputs Kernel for inputs longer than {@link #MAX_LANE_LENGTH}
+     */
+    VectorBatchKernel(BatchMatcher.PaddedTable table, BatchMatcher.Kernel longInputs) {
+        this.table = table;
+        this.longInputs = longInputs;
+    }
+    
+    @Override
+    public void matches(CharSequence[] inputs, int from, int to, boolean[] results) {
+        int lanes = SPECIES.length();
+        int[] block = new int[lanes];
+        int[] lengths = new int[lanes];
+        int[] indexes = new int[lanes];
+        int[] states = new int[lanes];
+        int[] accepted = new int[lanes];
+        int[] columns = new int[0];
+        IntVector width = IntVector.broadcast(SPECIES, table.width);
+        
+        int next = from;
+        while (next < to) {
+            // Fill the lanes with the next inputs, matching long inputs on the way
+            int count = 0;
+            for (; next < to && count < lanes; next++) {
+                if (inputs[next].length() > MAX_LANE_LENGTH) {
+                    longInputs.matches(inputs, next, next + 1, results);
+                } else {
+                    block[count++] = next;
+                }
+            }
+            if (count == 0) {
+                break;
+            }
+            int maxLength = 0;
+            for (int lane = 0; lane < lanes; lane++) {
+                lengths[lane] = lane < count ? inputs[block[lane]].length() : 0;
+                maxLength = Math.max(maxLength, lengths[lane]);
+            }
+            // Columns of the block in position major order, one input at a time
+            if (columns.length < maxLength * lanes) {
+                columns = new int[maxLength * lanes];
+            }
+            for (int lane = 0; lane < lanes; lane++) {
+                CharSequence input = lane < count ? inputs[block[lane]] : "";
+                for (int position = 0; position < maxLength; position++) {
+                    columns[position * lanes + lane] = position < lengths[lane]
+                            ? table.column(input.charAt(position)) : table.loopColumn;
+                }
+            }
+            IntVector state = IntVector.broadcast(SPECIES, table.startState);
+            
+            for (int position = 0; position < maxLength; position++) {
+                state.mul(width).add(IntVector.fromArray(SPECIES, columns, position * lanes)).intoArray(indexes, 0);
+                state = IntVector.fromArray(SPECIES, table.table, 0, indexes, 0);
+            }
+            
+            state.intoArray(states, 0);
+            IntVector.fromArray(SPECIES, table.accepting, 0, states, 0).intoArray(accepted, 0);
+            for (int lane = 0; lane < count; lane++) {
+                results[block[lane]] = accepted[lane] != 0;
+            }
+        }
+    }
+}
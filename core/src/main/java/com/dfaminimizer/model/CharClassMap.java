@@ -0,0 +1,244 @@
+package com.dfaminimizer.model;
+
+import java.util.*;
+
+/**
+ * Partition of the character space into symbol classes.
+ * <p>
+ * Characters in the same class behave identically in every transition of an automaton, so
+ * automata only need one column per class instead of one per character. The map is stored as
+ * sorted intervals with a class per interval; characters below 256 use a direct lookup table.
+ * Classes are numbered in order of their smallest character. Characters outside every class
+ * map to -1. Instances are immutable.
+ */
+public final class CharClassMap {
+    
+    private static final int DIRECT_SIZE = 256;
+    
+    private final char[] starts;
+    private final int[] intervalClasses;
+    private final int classCount;
+    private final char[] representatives;
+    private final int[] direct;
+    
+    /**
+     * @param starts Sorted interval starts, beginning with 0; each interval ends before the next start
+     * @param intervalClasses Class of each interval, or -1 if its characters are not in the alphabet
+     * @param classCount Number of classes
+     */
+    private CharClassMap(char[] starts, int[] intervalClasses, int classCount) {
+        // Merge adjacent intervals of the same class
+        int count = 0;
+        for (int i = 0; i < starts.length; i++) {
+            if (count == 0 || intervalClasses[count - 1] != intervalClasses[i]) {
+                starts[count] = starts[i];
+                intervalClasses[count] = intervalClasses[i];
+                count++;
+            }
+        }
+        this.starts = Arrays.copyOf(starts, count);
+        this.intervalClasses = Arrays.copyOf(intervalClasses, count);
+        this.classCount = classCount;
+        
+        this.representatives = new char[classCount];
+        boolean[] seen = new boolean[classCount];
+        for (int i = 0; i < count; i++) {
+            int cls = this.intervalClasses[i];
+            if (cls >= 0 && !seen[cls]) {
+                seen[cls] = true;
+                representatives[cls] = this.starts[i];
+            }
+        }
+        
+        this.direct = new int[DIRECT_SIZE];
+        for (int c = 0; c < DIRECT_SIZE; c++) {
+            direct[c] = lookup((char) c);
+        }
+    }
+    
+    /**
+     * Creates a map where every symbol is its own class, numbered in sorted order
+     */
+    public static CharClassMap ofSymbols(char[] symbols) {
+        char[] sorted = symbols.clone();
+        Arrays.sort(sorted);
+        int[] classOfSymbol = new int[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            classOfSymbol[i] = i;
+        }
+        return ofSymbolClasses(sorted, classOfSymbol, sorted.length);
+    }
+    
+    /**
+     * Creates a map from single symbols with a class assigned to each
+     * @param symbols Sorted, duplicate free symbols
+     * @param classOfSymbol Class per symbol; classes must be numbered in order of first occurrence
+     */
+    public static CharClassMap ofSymbolClasses(char[] symbols, int[] classOfSymbol, int classCount) {
+        List<Character> starts = new ArrayList<>();
+        List<Integer> classes = new ArrayList<>();
+        starts.add((char) 0);
+        classes.add(-1);
+        for (int i = 0; i < symbols.length; i++) {
+            char c = symbols[i];
+            if (c == 0) {
+                classes.set(0, classOfSymbol[i]);
+            } else {
+                starts.add(c);
+                classes.add(classOfSymbol[i]);
+            }
+            if (c < Character.MAX_VALUE && (i + 1 == symbols.length || symbols[i + 1] != c + 1)) {
+                starts.add((char) (c + 1));
+                classes.add(-1);
+            }
+        }
+        return fromLists(starts, classes, classCount);
+    }
+    
+    /**
+     * Computes the coarsest partition in which every label is a union of classes.
+     * Two characters end up in the same class exactly when they are contained in the same labels.
+     * @param labels Transition labels, each a set of ranges
+     */
+    public static CharClassMap partition(Collection<? extends Collection<CharRange>> labels) {
+        TreeSet<Character> boundaries = new TreeSet<>();
+        boundaries.add((char) 0);
+        for (Collection<CharRange> label : labels) {
+            for (CharRange range : label) {
+                boundaries.add(range.getLow());
+                if (range.getHigh() < Character.MAX_VALUE) {
+                    boundaries.add((char) (range.getHigh() + 1));
+                }
+            }
+        }
+        char[] starts = new char[boundaries.size()];
+        int n = 0;
+        for (char boundary : boundaries) {
+            starts[n++] = boundary;
+        }
+        
+        // Membership signature of every elementary interval
+        BitSet[] signatures = new BitSet[n];
+        for (int i = 0; i < n; i++) {
+            signatures[i] = new BitSet();
+        }
+        int labelId = 0;
+        for (Collection<CharRange> label : labels) {
+            for (CharRange range : label) {
+                for (int i = Arrays.binarySearch(starts, range.getLow()); i < n && starts[i] <= range.getHigh(); i++) {
+                    signatures[i].set(labelId);
+                }
+            }
+            labelId++;
+        }
+        
+        Map<BitSet, Integer> classOfSignature = new HashMap<>();
+        List<Character> startList = new ArrayList<>(n);
+        List<Integer> classes = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            startList.add(starts[i]);
+            classes.add(signatures[i].isEmpty()
+                    ? -1
+                    : classOfSignature.computeIfAbsent(signatures[i], k -> classOfSignature.size()));
+        }
+        return fromLists(startList, classes, classOfSignature.size());
+    }
+    
+    /**
+     * Returns a coarser map in which old class c becomes class mapping[c]
+     * @param mapping New class per old class, numbered in order of first occurrence
+     */
+    public CharClassMap remap(int[] mapping, int newClassCount) {
+        int[] remapped = new int[intervalClasses.length];
+        for (int i = 0; i < remapped.length; i++) {
+            remapped[i] = intervalClasses[i] < 0 ? -1 : mapping[intervalClasses[i]];
+        }
+        return new CharClassMap(starts.clone(), remapped, newClassCount);
+    }
+    
+    private static CharClassMap fromLists(List<Character> starts, List<Integer> classes, int classCount) {
+        char[] startArray = new char[starts.size()];
+        int[] classArray = new int[classes.size()];
+        for (int i = 0; i < startArray.length; i++) {
+            startArray[i] = starts.get(i);
+            classArray[i] = classes.get(i);
+        }
+        return new CharClassMap(startArray, classArray, classCount);
+    }
+    
+    /**
+     * Returns the class of a character, or -1 if it is outside the alphabet
+     */
+    public int classOf(char c) {
+        return c < DIRECT_SIZE ? direct[c] : lookup(c);
+    }
+    
+    private int lookup(char c) {
+        int i = Arrays.binarySearch(starts, c);
+        return intervalClasses[i >= 0 ? i : -i - 2];
+    }
+    
+    public int getClassCount() {
+        return classCount;
+    }
+    
+    /**
+     * Smallest character of a class
+     */
+    public char representative(int cls) {
+        return representatives[cls];
+    }
+    
+    /**
+     * The maximal ranges making up a class, in ascending order
+     */
+    public List<CharRange> getRanges(int cls) {
+        List<CharRange> ranges = new ArrayList<>();
+        for (int i = 0; i < starts.length; i++) {
+            if (intervalClasses[i] == cls) {
+                ranges.add(new CharRange(starts[i], intervalEnd(i)));
+            }
+        }
+        return ranges;
+    }
+    
+    /**
+     * Classes that contain at least one character of the range, in ascending order
+     */
+    public int[] classesIn(CharRange range) {
+        BitSet classes = new BitSet(classCount);
+        int i = Arrays.binarySearch(starts, range.getLow());
+        for (i = i >= 0 ? i : -i - 2; i < starts.length && starts[i] <= range.getHigh(); i++) {
+            if (intervalClasses[i] >= 0) {
+                classes.set(intervalClasses[i]);
+            }
+        }
+        return classes.stream().toArray();
+    }
+    
+    /**
+     * Number of characters that belong to some class
+     */
+    public int getAlphabetSize() {
+        int size = 0;
+        for (int i = 0; i < starts.length; i++) {
+            if (intervalClasses[i] >= 0) {
+                size += intervalEnd(i) - starts[i] + 1;
+            }
+        }
+        return size;
+    }
+    
+    private char intervalEnd(int i) {
+        return i + 1 < starts.length ? (char) (starts[i + 1] - 1) : Character.MAX_VALUE;
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("CharClassMap{");
+        for (int cls = 0; cls < classCount; cls++) {
+            sb.append(cls == 0 ? "" : ", ").append(cls).append('=').append(getRanges(cls));
+        }
+        return sb.append('}').toString();
+    }
+}
@@ -0,0 +1,71 @@
+package com.dfaminimizer.model;
+
+/**
+ * An inclusive range of characters used as a transition label
+ */
+public final class CharRange implements Comparable<CharRange> {
+    
+    /** Every UTF-16 code unit */
+    public static final CharRange ALL = new CharRange(Character.MIN_VALUE, Character.MAX_VALUE);
+    
+    private final char low;
+    private final char high;
+    
+    public CharRange(char low, char high) {
+        if (high < low) {
+            throw new IllegalArgumentException("Empty character range: " + (int) low + "-" + (int) high);
+        }
+        this.low = low;
+        this.high = high;
+    }
+    
+    public static CharRange of(char symbol) {
+        return new CharRange(symbol, symbol);
+    }
+    
+    public char getLow() {
+        return low;
+    }
+    
+    public char getHigh() {
+        return high;
+    }
+    
+    public boolean contains(char c) {
+        return c >= low && c <= high;
+    }
+    
+    /**
+     * Number of characters in the range
+     */
+    public int size() {
+        return high - low + 1;
+    }
+    
+    @Override
+    public int compareTo(CharRange other) {
+        return low != other.low ? Character.compare(low, other.low) : Character.compare(high, other.high);
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CharRange that = (CharRange) o;
+        return low == that.low && high == that.high;
+    }
+    
+    @Override
+    public int hashCode() {
+        return low * 31 + high;
+    }
+    
+    @Override
+    public String toString() {
+        return low == high ? format(low) : format(low) + "-" + format(high);
+    }
+    
+    private static String format(char c) {
+        return c >= 0x20 && c < 0x7F ? String.valueOf(c) : String.format("\\u%04X", (int) c);
+    }
+}
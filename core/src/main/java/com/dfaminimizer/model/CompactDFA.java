@@ -0,0 +1,267 @@
+package com.dfaminimizer.model;
+
+import java.nio.IntBuffer;
+import java.util.*;
+
+/**
+ * Immutable, int-indexed table form of a DFA.
+ * States are numbered 0..stateCount-1 and symbols are the classes of a {@link CharClassMap}, so a
+ * transition over a large character range is a single table entry.
+ * Missing transitions are stored as {@link #NO_STATE}.
+ * States may carry an int output label, as in a Moore machine; see {@link #getOutput}.
+ */
+public final class CompactDFA {
+    
+    public static final int NO_STATE = -1;
+    
+    private final CharClassMap classes;
+    private final int alphabetSize;
+    private final int[] transitions;
+    private final boolean[] accepting;
+    /** Output label per state, or null if every label is 0 */
+    private final int[] outputs;
+    private final int startState;
+    
+    /**
+     * @param alphabet Symbols, each of which becomes its own class in sorted order
+     * @param transitions Row-major table of stateCount * alphabet.length target states
+     * @param accepting Accepting flag per state
+     * @param startState Start state index, or NO_STATE if the automaton has none
+     */
+    public CompactDFA(char[] alphabet, int[] transitions, boolean[] accepting, int startState) {
+        this(CharClassMap.ofSymbols(alphabet), transitions, accepting, startState);
+    }
+    
+    /**
+     * @param classes Symbol classes labelling the table columns
+     * @param transitions Row-major table of stateCount * classCount target states
+     * @param accepting Accepting flag per state
+     * @param startState Start state index, or NO_STATE if the automaton has none
+     */
+    public CompactDFA(CharClassMap classes, int[] transitions, boolean[] accepting, int startState) {
+        this(classes, transitions, accepting, null, startState);
+    }
+    
+    /**
+     * @param classes Symbol classes labelling the table columns
+     * @param transitions Row-major table of stateCount * classCount target states
+     * @param accepting Accepting flag per state
+     * @param outputs Output label per state, or null to label every state 0
+     * @param startState Start state index, or NO_STATE if the automaton has none
+     */
+    public CompactDFA(CharClassMap classes, int[] transitions, boolean[] accepting, int[] outputs, int startState) {
+        if (transitions.length != accepting.length * classes.getClassCount()) {
+            throw new IllegalArgumentException("Transition table size does not match states and alphabet");
+        }
+        if (outputs != null && outputs.length != accepting.length) {
+            throw new IllegalArgumentException("Expected " + accepting.length + " outputs but got " + outputs.length);
+        }
+        if (startState < NO_STATE || startState >= accepting.length) {
+            throw new IllegalArgumentException("Start state out of range: " + startState);
+        }
+        this.classes = classes;
+        this.alphabetSize = classes.getClassCount();
+        this.transitions = transitions.clone();
+        this.accepting = accepting.clone();
+        this.outputs = outputs == null || Arrays.stream(outputs).allMatch(output -> output == 0) ? null : outputs.clone();
+        this.startState = startState;
+    }
+    
+    /**
+     * Converts a DFA into table form. The start state, if any, becomes state 0.
+     * Symbols whose transitions are identical in every state share one class.
+     */
+    public static CompactDFA of(DFA dfa) {
+        char[] alphabet = sortedAlphabet(dfa);
+        List<State> states = new ArrayList<>(dfa.getStates());
+        State start = dfa.getStartState();
+        if (start != null) {
+            states.remove(start);
+            states.add(0, start);
+        }
+        Map<State, Integer> index = new HashMap<>();
+        for (int i = 0; i < states.size(); i++) {
+            index.put(states.get(i), i);
+        }
+        
+        int n = states.size();
+        int k = alphabet.length;
+        int[] transitions = new int[n * k];
+        boolean[] accepting = new boolean[n];
+        int[] outputs = new int[n];
+        Set<State> finalStates = dfa.getFinalStates();
+        for (int s = 0; s < n; s++) {
+            State state = states.get(s);
+            accepting[s] = finalStates.contains(state);
+            outputs[s] = state.getOutput();
+            for (int a = 0; a < k; a++) {
+                State next = dfa.getNextState(state, alphabet[a]);
+                transitions[s * k + a] = next == null ? NO_STATE : index.get(next);
+            }
+        }
+        return new CompactDFA(CharClassMap.ofSymbols(alphabet), transitions, accepting, outputs,
+                start == null ? NO_STATE : 0).mergeEquivalentClasses();
+    }
+    
+    /**
+     * Returns an equivalent automaton in which symbol classes with identical columns are merged,
+     * so the alphabet has the fewest classes this transition table allows
+     */
+    public CompactDFA mergeEquivalentClasses() {
+        int n = accepting.length;
+        Map<IntBuffer, Integer> classOfColumn = new HashMap<>();
+        int[] mapping = new int[alphabetSize];
+        List<int[]> columns = new ArrayList<>();
+        for (int a = 0; a < alphabetSize; a++) {
+            int[] column = new int[n];
+            for (int s = 0; s < n; s++) {
+                column[s] = transitions[s * alphabetSize + a];
+            }
+            Integer cls = classOfColumn.get(IntBuffer.wrap(column));
+            if (cls == null) {
+                cls = columns.size();
+                classOfColumn.put(IntBuffer.wrap(column), cls);
+                columns.add(column);
+            }
+            mapping[a] = cls;
+        }
+        if (columns.size() == alphabetSize) {
+            return this;
+        }
+        
+        int k = columns.size();
+        int[] merged = new int[n * k];
+        for (int cls = 0; cls < k; cls++) {
+            int[] column = columns.get(cls);
+            for (int s = 0; s < n; s++) {
+                merged[s * k + cls] = column[s];
+            }
+        }
+        return new CompactDFA(classes.remap(mapping, k), merged, accepting, outputs, startState);
+    }
+    
+    private static char[] sortedAlphabet(DFA dfa) {
+        Set<Character> symbols = new TreeSet<>(dfa.getAlphabet());
+        char[] alphabet = new char[symbols.size()];
+        int i = 0;
+        for (char symbol : symbols) {
+            alphabet[i++] = symbol;
+        }
+        return alphabet;
+    }
+    
+    /**
+     * Converts back into the editable DFA model, naming states prefix0, prefix1, ...
+     * Every character of a class gets its own transition, so this is only suitable for small alphabets.
+     */
+    public DFA toDFA(String prefix) {
+        DFA dfa = new DFA();
+        State[] states = new State[accepting.length];
+        for (int s = 0; s < states.length; s++) {
+            states[s] = new State(prefix + s, s == startState, accepting[s]);
+            states[s].setOutput(getOutput(s));
+            dfa.addState(states[s]);
+        }
+        for (int a = 0; a < alphabetSize; a++) {
+            List<CharRange> ranges = classes.getRanges(a);
+            for (int s = 0; s < states.length; s++) {
+                int target = transitions[s * alphabetSize + a];
+                if (target == NO_STATE) {
+                    continue;
+                }
+                for (CharRange range : ranges) {
+                    for (int c = range.getLow(); c <= range.getHigh(); c++) {
+                        dfa.addTransition(states[s], states[target], (char) c);
+                    }
+                }
+            }
+        }
+        return dfa;
+    }
+    
+    public DFA toDFA() {
+        return toDFA("q");
+    }
+    
+    public int getStateCount() {
+        return accepting.length;
+    }
+    
+    /**
+     * Number of symbol classes, i.e. table columns
+     */
+    public int getAlphabetSize() {
+        return alphabetSize;
+    }
+    
+    /**
+     * Smallest character of a symbol class
+     */
+    public char getSymbol(int symbolIndex) {
+        return classes.representative(symbolIndex);
+    }
+    
+    /**
+     * Returns the symbol class of a character, or a negative value if it is not part of the alphabet
+     */
+    public int symbolIndex(char symbol) {
+        return classes.classOf(symbol);
+    }
+    
+    public CharClassMap getClassMap() {
+        return classes;
+    }
+    
+    public int getStartState() {
+        return startState;
+    }
+    
+    public boolean isAccepting(int state) {
+        return accepting[state];
+    }
+    
+    /**
+     * Output label of a state, 0 unless the automaton was created with labels
+     */
+    public int getOutput(int state) {
+        return outputs == null ? 0 : outputs[state];
+    }
+    
+    /**
+     * Returns true if some state has an output label other than 0
+     */
+    public boolean hasOutputs() {
+        return outputs != null;
+    }
+    
+    public int next(int state, int symbolIndex) {
+        return transitions[state * alphabetSize + symbolIndex];
+    }
+    
+    /**
+     * Returns true if every state has a transition on every symbol
+     */
+    public boolean isComplete() {
+        for (int target : transitions) {
+            if (target == NO_STATE) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    public boolean accepts(CharSequence input) {
+        int state = startState;
+        for (int i = 0; i < input.length() && state != NO_STATE; i++) {
+            int symbol = classes.classOf(input.charAt(i));
+            state = symbol < 0 ? NO_STATE : transitions[state * alphabetSize + symbol];
+        }
+        return state != NO_STATE && accepting[state];
+    }
+    
+    @Override
+    public String toString() {
+        return "CompactDFA{states=" + accepting.length + ", classes=" + alphabetSize
+                + ", start=" + startState + "}";
+    }
+}
@@ -0,0 +1,230 @@
+package com.dfaminimizer.model;
+
+import java.util.*;
+
+/**
+ * Represents a Deterministic Finite Automaton.
+ * <p>
+ * This is the editable model; it is not thread safe and its getters return copies. Use
+ * {@link #freeze()} to obtain an immutable snapshot that can be shared between threads.
+ */
+public class DFA {
+    private final Set<State> states;
+    private final Set<Character> alphabet;
+    private final Map<String, Map<Character, State>> transitionFunction;
+    private State startState;
+    private final Set<State> finalStates;
+    
+    public DFA() {
+        this.states = new HashSet<>();
+        this.alphabet = new HashSet<>();
+        this.transitionFunction = new HashMap<>();
+        this.finalStates = new HashSet<>();
+    }
+    
+    public void addState(State state) {
+        states.add(state);
+        transitionFunction.put(state.getName(), new HashMap<>());
+        if (state.isStart()) {
+            startState = state;
+        }
+        if (state.isFinal()) {
+            finalStates.add(state);
+        }
+    }
+    
+    public void addTransition(State from, State to, char symbol) {
+        if (!states.contains(from) || !states.contains(to)) {
+            throw new IllegalArgumentException("States must be added to DFA before adding transitions");
+        }
+        
+        alphabet.add(symbol);
+        transitionFunction.get(from.getName()).put(symbol, to);
+    }
+    
+    public void addTransition(String fromName, String toName, char symbol) {
+        State from = getStateByName(fromName);
+        State to = getStateByName(toName);
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("State not found: " + fromName + " or " + toName);
+        }
+        addTransition(from, to, symbol);
+    }
+    
+    /**
+     * Adds a symbol to the alphabet without adding a transition
+     */
+    public void addSymbol(char symbol) {
+        alphabet.add(symbol);
+    }
+    
+    /**
+     * Makes a state that was already added the start state, replacing the previous one
+     */
+    public void setStartState(State state) {
+        if (!states.contains(state)) {
+            throw new IllegalArgumentException("State must be added to DFA before it can be the start state");
+        }
+        if (startState != null) {
+            startState.setStart(false);
+        }
+        state.setStart(true);
+        startState = state;
+    }
+    
+    /**
+     * Marks a state that was already added as final
+     */
+    public void addFinalState(State state) {
+        if (!states.contains(state)) {
+            throw new IllegalArgumentException("State must be added to DFA before it can be final");
+        }
+        state.setFinal(true);
+        finalStates.add(state);
+    }
+    
+    public State getStateByName(String name) {
+        return states.stream()
+                .filter(s -> s.getName().equals(name))
+                .findFirst()
+                .orElse(null);
+    }
+    
+    public State getNextState(State currentState, char symbol) {
+        Map<Character, State> transitions = transitionFunction.get(currentState.getName());
+        return transitions.get(symbol);
+    }
+    
+    public boolean accepts(String input) {
+        State currentState = startState;
+        for (char symbol : input.toCharArray()) {
+            currentState = getNextState(currentState, symbol);
+            if (currentState == null) {
+                return false; // No transition defined for this symbol
+            }
+        }
+        return finalStates.contains(currentState);
+    }
+    
+    public Set<State> getStates() {
+        return new HashSet<>(states);
+    }
+    
+    public Set<Character> getAlphabet() {
+        return new HashSet<>(alphabet);
+    }
+    
+    public State getStartState() {
+        return startState;
+    }
+    
+    public Set<State> getFinalStates() {
+        return new HashSet<>(finalStates);
+    }
+    
+    /**
+     * Returns a new set with one {@link Transition} per edge. To enumerate large automata prefer
+     * {@link #forEachTransition}, which creates no objects.
+     */
+    public Set<Transition> getTransitions() {
+        Set<Transition> transitions = new HashSet<>();
+        for (State from : states) {
+            Map<Character, State> stateTransitions = transitionFunction.get(from.getName());
+            for (Map.Entry<Character, State> entry : stateTransitions.entrySet()) {
+                transitions.add(new Transition(from, entry.getValue(), entry.getKey()));
+            }
+        }
+        return transitions;
+    }
+    
+    /**
+     * Calls the visitor for every transition, reading the transition function directly.
+     * The DFA must not be modified during the call.
+     */
+    public void forEachTransition(TransitionVisitor visitor) {
+        for (State from : states) {
+            for (Map.Entry<Character, State> entry : transitionFunction.get(from.getName()).entrySet()) {
+                visitor.visit(from, entry.getKey(), entry.getValue());
+            }
+        }
+    }
+    
+    /**
+     * Number of transitions, without enumerating them
+     */
+    public int getTransitionCount() {
+        int count = 0;
+        for (Map<Character, State> stateTransitions : transitionFunction.values()) {
+            count += stateTransitions.size();
+        }
+        return count;
+    }
+    
+    /**
+     * Creates an immutable snapshot of the current states, final states and transitions.
+     * The start state, if any, becomes state 0 and the other states follow in name order.
+     */
+    public FrozenDFA freeze() {
+        List<State> ordered = new ArrayList<>(states);
+        ordered.sort(Comparator.comparing(State::getName));
+        if (startState != null) {
+            ordered.remove(startState);
+            ordered.add(0, startState);
+        }
+        Map<State, Integer> index = new HashMap<>();
+        String[] names = new String[ordered.size()];
+        for (int s = 0; s < names.length; s++) {
+            names[s] = ordered.get(s).getName();
+            index.put(ordered.get(s), s);
+        }
+        
+        char[] symbols = new char[alphabet.size()];
+        int i = 0;
+        for (char symbol : new TreeSet<>(alphabet)) {
+            symbols[i++] = symbol;
+        }
+        int k = symbols.length;
+        int[] transitions = new int[names.length * k];
+        boolean[] accepting = new boolean[names.length];
+        int[] outputs = new int[names.length];
+        boolean labelled = false;
+        for (int s = 0; s < names.length; s++) {
+            State state = ordered.get(s);
+            accepting[s] = finalStates.contains(state);
+            outputs[s] = state.getOutput();
+            labelled |= outputs[s] != 0;
+            Map<Character, State> stateTransitions = transitionFunction.get(state.getName());
+            for (int a = 0; a < k; a++) {
+                State target = stateTransitions.get(symbols[a]);
+                transitions[s * k + a] = target == null ? CompactDFA.NO_STATE : index.get(target);
+            }
+        }
+        return new FrozenDFA(names, symbols, transitions, accepting, labelled ? outputs : null,
+                startState == null ? CompactDFA.NO_STATE : 0);
+    }
+    
+    public void printDFA() {
+        System.out.println("DFA States: " + states);
+        System.out.println("Alphabet: " + alphabet);
+        System.out.println("Start State: " + startState);
+        System.out.println("Final States: " + finalStates);
+        System.out.println("Transitions:");
+        forEachTransition((from, symbol, to) ->
+                System.out.println("  " + from.getName() + " --" + symbol + "--> " + to.getName()));
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("DFA{\n");
+        sb.append("  States: ").append(states).append("\n");
+        sb.append("  Alphabet: ").append(alphabet).append("\n");
+        sb.append("  Start State: ").append(startState).append("\n");
+        sb.append("  Final States: ").append(finalStates).append("\n");
+        sb.append("  Transitions:\n");
+        forEachTransition((from, symbol, to) -> sb.append("    ").append(from.getName()).append(" --").append(symbol)
+                .append("--> ").append(to.getName()).append("\n"));
+        sb.append("}");
+        return sb.toString();
+    }
+}
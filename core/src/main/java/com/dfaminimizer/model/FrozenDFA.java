@@ -0,0 +1,165 @@
+package com.dfaminimizer.model;
+
+import java.util.*;
+
+/**
+ * Deeply immutable snapshot of a {@link DFA}, created with {@link DFA#freeze()}.
+ * <p>
+ * States are numbered 0..stateCount-1, with the start state, if any, first and the others in name
+ * order. The snapshot holds no {@link State} objects, so later changes to the DFA or its states do
+ * not affect it. All fields are final and the arrays never escape, so a snapshot may be published
+ * to other threads without locks. The collection views are created once and returned without
+ * copying.
+ */
+public final class FrozenDFA {
+    
+    private final String[] names;
+    /** Sorted symbols, the columns of the transition table */
+    private final char[] alphabet;
+    /** Row-major table of stateCount * alphabet.length targets, or NO_STATE */
+    private final int[] transitions;
+    private final boolean[] accepting;
+    /** Output label per state, or null if every label is 0 */
+    private final int[] outputs;
+    private final int startState;
+    private final List<String> stateNames;
+    private final Set<Character> alphabetView;
+    
+    FrozenDFA(String[] names, char[] alphabet, int[] transitions, boolean[] accepting, int[] outputs, int startState) {
+        this.names = names;
+        this.alphabet = alphabet;
+        this.transitions = transitions;
+        this.accepting = accepting;
+        this.outputs = outputs;
+        this.startState = startState;
+        this.stateNames = Collections.unmodifiableList(Arrays.asList(names));
+        Set<Character> symbols = new LinkedHashSet<>();
+        for (char symbol : alphabet) {
+            symbols.add(symbol);
+        }
+        this.alphabetView = Collections.unmodifiableSet(symbols);
+    }
+    
+    public int getStateCount() {
+        return names.length;
+    }
+    
+    public String getStateName(int state) {
+        return names[state];
+    }
+    
+    /**
+     * Returns the state names indexed by state number
+     */
+    public List<String> getStateNames() {
+        return stateNames;
+    }
+    
+    /**
+     * Returns the number of the named state, or {@link CompactDFA#NO_STATE} if there is none
+     */
+    public int indexOf(String name) {
+        for (int s = 0; s < names.length; s++) {
+            if (names[s].equals(name)) {
+                return s;
+            }
+        }
+        return CompactDFA.NO_STATE;
+    }
+    
+    /**
+     * Returns the alphabet in ascending order
+     */
+    public Set<Character> getAlphabet() {
+        return alphabetView;
+    }
+    
+    /**
+     * Returns the start state, or {@link CompactDFA#NO_STATE} if the automaton has none
+     */
+    public int getStartState() {
+        return startState;
+    }
+    
+    public boolean isFinal(int state) {
+        return accepting[state];
+    }
+    
+    /**
+     * Output label of a state, 0 unless one was set on the state before freezing
+     */
+    public int getOutput(int state) {
+        return outputs == null ? 0 : outputs[state];
+    }
+    
+    /**
+     * Returns the target state, or {@link CompactDFA#NO_STATE} if the transition is missing or
+     * the symbol is not in the alphabet
+     */
+    public int next(int state, char symbol) {
+        int a = Arrays.binarySearch(alphabet, symbol);
+        return a < 0 ? CompactDFA.NO_STATE : transitions[state * alphabet.length + a];
+    }
+    
+    /**
+     * Calls the visitor for every transition, in order of source state and symbol
+     */
+    public void forEachTransition(IndexedTransitionVisitor visitor) {
+        int k = alphabet.length;
+        for (int s = 0; s < names.length; s++) {
+            for (int a = 0; a < k; a++) {
+                int target = transitions[s * k + a];
+                if (target != CompactDFA.NO_STATE) {
+                    visitor.visit(s, alphabet[a], target);
+                }
+            }
+        }
+    }
+    
+    public boolean accepts(CharSequence input) {
+        int state = startState;
+        for (int i = 0; i < input.length() && state != CompactDFA.NO_STATE; i++) {
+            state = next(state, input.charAt(i));
+        }
+        return state != CompactDFA.NO_STATE && accepting[state];
+    }
+    
+    /**
+     * Converts into table form, keeping the state numbers
+     */
+    public CompactDFA toCompactDFA() {
+        return new CompactDFA(CharClassMap.ofSymbols(alphabet), transitions, accepting, outputs, startState);
+    }
+    
+    /**
+     * Returns a new editable copy with the same state names
+     */
+    public DFA toDFA() {
+        DFA dfa = new DFA();
+        State[] states = new State[names.length];
+        for (int s = 0; s < states.length; s++) {
+            states[s] = new State(names[s], s == startState, accepting[s]);
+            states[s].setOutput(getOutput(s));
+            dfa.addState(states[s]);
+        }
+        for (char symbol : alphabet) {
+            dfa.addSymbol(symbol);
+        }
+        forEachTransition((from, symbol, to) -> dfa.addTransition(states[from], states[to], symbol));
+        return dfa;
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("FrozenDFA{\n");
+        sb.append("  States: ").append(stateNames).append("\n");
+        sb.append("  Alphabet: ").append(alphabetView).append("\n");
+        sb.append("  Start State: ").append(startState == CompactDFA.NO_STATE ? null : names[startState]).append("\n");
+        sb.append("  Transitions:\n");
+        forEachTransition((from, symbol, to) -> sb.append("    ").append(names[from]).append(" --").append(symbol)
+                .append("--> ").append(names[to]).append("\n"));
+        sb.append("}");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,11 @@
+package com.dfaminimizer.model;
+
+/**
+ * Receives the transitions of a {@link FrozenDFA} as state numbers, see
+ * {@link FrozenDFA#forEachTransition}
+ */
+@FunctionalInterface
+public interface IndexedTransitionVisitor {
+    
+    void visit(int from, char symbol, int to);
+}
@@ -0,0 +1,187 @@
+package com.dfaminimizer.model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Table form of a DFA whose transitions live in memory mapped files instead of the heap, for
+ * automata too large for {@link CompactDFA}.
+ * <p>
+ * The table uses the same layout as {@link CompactDFA}: states are numbered 0..stateCount-1,
+ * symbols are the classes of a {@link CharClassMap} and the transitions are stored row major,
+ * indexed by {@code (long) state * alphabetSize + symbol}. The files are written to the given
+ * directory, which serves as scratch space for the lifetime of the automaton. A new automaton has
+ * no transitions and no accepting states. Instances are mutable and not thread safe.
+ */
+public final class MappedDFA implements AutoCloseable {
+    
+    /** File of the transition table: target + 1 per (state, symbol), row major, 0 for no transition */
+    public static final String TRANSITIONS_FILE = "transitions.bin";
+    /** File of the accepting flags: bit (state % 32) of int (state / 32) */
+    public static final String ACCEPTING_FILE = "accepting.bin";
+    
+    private final Path directory;
+    private final CharClassMap classes;
+    private final int alphabetSize;
+    private final int stateCount;
+    /** Target state + 1 per entry, so that the zeros of a new file mean NO_STATE */
+    private final MappedIntArray transitions;
+    /** Accepting flags, 32 states per int */
+    private final MappedIntArray accepting;
+    private int startState = CompactDFA.NO_STATE;
+    
+    private MappedDFA(Path directory, CharClassMap classes, int stateCount, MappedIntArray transitions,
+                      MappedIntArray accepting) {
+        this.directory = directory;
+        this.classes = classes;
+        this.alphabetSize = classes.getClassCount();
+        this.stateCount = stateCount;
+        this.transitions = transitions;
+        this.accepting = accepting;
+    }
+    
+    /**
+     * Creates an automaton without transitions, replacing earlier files in the directory
+     * @param directory Directory for the table files; created if missing
+     */
+    public static MappedDFA create(Path directory, CharClassMap classes, int stateCount) throws IOException {
+        if (stateCount < 0) {
+            throw new IllegalArgumentException("Negative state count: " + stateCount);
+        }
+        Files.createDirectories(directory);
+        MappedIntArray transitions = MappedIntArray.create(directory.resolve(TRANSITIONS_FILE),
+                (long) stateCount * classes.getClassCount());
+        try {
+            MappedIntArray accepting = MappedIntArray.create(directory.resolve(ACCEPTING_FILE), (stateCount + 31L) / 32);
+            return new MappedDFA(directory, classes, stateCount, transitions, accepting);
+        } catch (IOException | RuntimeException e) {
+            transitions.close();
+            throw e;
+        }
+    }
+    
+    /**
+     * Copies a DFA in table form to files in the directory
+     * @throws IllegalArgumentException If the DFA has output labels, which mapped DFAs do not store
+     */
+    public static MappedDFA of(CompactDFA dfa, Path directory) throws IOException {
+        if (dfa.hasOutputs()) {
+            throw new IllegalArgumentException("Mapped DFAs cannot store output labels");
+        }
+        MappedDFA mapped = create(directory, dfa.getClassMap(), dfa.getStateCount());
+        for (int s = 0; s < dfa.getStateCount(); s++) {
+            for (int a = 0; a < dfa.getAlphabetSize(); a++) {
+                mapped.setTransition(s, a, dfa.next(s, a));
+            }
+            mapped.setAccepting(s, dfa.isAccepting(s));
+        }
+        mapped.setStartState(dfa.getStartState());
+        return mapped;
+    }
+    
+    /**
+     * Directory holding the table files, which other processes may map as well
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+    
+    public int getStateCount() {
+        return stateCount;
+    }
+    
+    public int getAlphabetSize() {
+        return alphabetSize;
+    }
+    
+    public CharClassMap getClassMap() {
+        return classes;
+    }
+    
+    public int getStartState() {
+        return startState;
+    }
+    
+    public void setStartState(int state) {
+        if (state < CompactDFA.NO_STATE || state >= stateCount) {
+            throw new IllegalArgumentException("Start state out of range: " + state);
+        }
+        this.startState = state;
+    }
+    
+    /**
+     * Returns the target state, or {@link CompactDFA#NO_STATE} if the transition is missing
+     */
+    public int next(int state, int symbol) {
+        return transitions.get((long) state * alphabetSize + symbol) - 1;
+    }
+    
+    /**
+     * Sets a transition; {@link CompactDFA#NO_STATE} removes it
+     */
+    public void setTransition(int state, int symbol, int target) {
+        if (target < CompactDFA.NO_STATE || target >= stateCount) {
+            throw new IllegalArgumentException("Target state out of range: " + target);
+        }
+        transitions.set((long) state * alphabetSize + symbol, target + 1);
+    }
+    
+    public boolean isAccepting(int state) {
+        return (accepting.get(state >>> 5) & (1 << state)) != 0;
+    }
+    
+    public void setAccepting(int state, boolean value) {
+        int word = accepting.get(state >>> 5);
+        accepting.set(state >>> 5, value ? word | (1 << state) : word & ~(1 << state));
+    }
+    
+    /**
+     * Returns true if the automaton accepts the whole input
+     */
+    public boolean accepts(CharSequence input) {
+        int state = startState;
+        for (int i = 0; i < input.length() && state != CompactDFA.NO_STATE; i++) {
+            int symbol = classes.classOf(input.charAt(i));
+            state = symbol < 0 ? CompactDFA.NO_STATE : next(state, symbol);
+        }
+        return state != CompactDFA.NO_STATE && isAccepting(state);
+    }
+    
+    /**
+     * Copies the automaton to the heap
+     * @throws IllegalArgumentException If the table does not fit into an array
+     */
+    public CompactDFA toCompactDFA() {
+        long entries = (long) stateCount * alphabetSize;
+        if (entries > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many transitions for a CompactDFA: " + entries);
+        }
+        int[] table = new int[(int) entries];
+        for (int i = 0; i < table.length; i++) {
+            table[i] = transitions.get(i) - 1;
+        }
+        boolean[] flags = new boolean[stateCount];
+        for (int s = 0; s < stateCount; s++) {
+            flags[s] = isAccepting(s);
+        }
+        return new CompactDFA(classes, table, flags, startState);
+    }
+    
+    /**
+     * Writes pending changes to the files
+     */
+    public void force() {
+        transitions.force();
+        accepting.force();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        try {
+            transitions.close();
+        } finally {
+            accepting.close();
+        }
+    }
+}
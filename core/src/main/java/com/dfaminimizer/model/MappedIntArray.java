@@ -0,0 +1,153 @@
+package com.dfaminimizer.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * An int array stored in a memory mapped file, so its size is limited by disk space instead of
+ * the heap. The operating system pages the contents in and out as needed.
+ * <p>
+ * A single mapping can cover at most 2 GB, so the file is mapped in chunks of
+ * {@value #CHUNK_INTS} ints. New arrays are backed by sparse files and read as zero until written.
+ * Instances are not thread safe.
+ */
+public final class MappedIntArray implements AutoCloseable {
+    
+    /** Number of ints per mapped chunk */
+    static final int CHUNK_INTS = 1 << 27;
+    private static final int CHUNK_SHIFT = 27;
+    private static final long CHUNK_MASK = CHUNK_INTS - 1;
+    
+    private final FileChannel channel;
+    private final MappedByteBuffer[] mappings;
+    private final IntBuffer[] chunks;
+    private final long length;
+    
+    private MappedIntArray(FileChannel channel, long length) throws IOException {
+        this.channel = channel;
+        this.length = length;
+        int chunkCount = (int) ((length + CHUNK_INTS - 1) >>> CHUNK_SHIFT);
+        this.mappings = new MappedByteBuffer[chunkCount];
+        this.chunks = new IntBuffer[chunkCount];
+        for (int c = 0; c < chunkCount; c++) {
+            long first = (long) c << CHUNK_SHIFT;
+            long ints = Math.min(CHUNK_INTS, length - first);
+            mappings[c] = channel.map(FileChannel.MapMode.READ_WRITE, first * Integer.BYTES, ints * Integer.BYTES);
+            chunks[c] = mappings[c].order(ByteOrder.nativeOrder()).asIntBuffer();
+        }
+    }
+    
+    /**
+     * Creates a zero filled array, replacing the file if it exists
+     */
+    public static MappedIntArray create(Path file, long length) throws IOException {
+        if (length < 0) {
+            throw new IllegalArgumentException("Negative length: " + length);
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.SPARSE);
+        try {
+            if (length > 0) {
+                // Extend the file without writing the contents
+                channel.write(ByteBuffer.allocate(1), length * Integer.BYTES - 1);
+            }
+            return new MappedIntArray(channel, length);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+    
+    /**
+     * Maps an existing file written by an earlier array
+     */
+    public static MappedIntArray open(Path file) throws IOException {
+        long size = Files.size(file);
+        if (size % Integer.BYTES != 0) {
+            throw new IllegalArgumentException("File size is not a multiple of 4: " + file);
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            return new MappedIntArray(channel, size / Integer.BYTES);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+    
+    public int get(long index) {
+        return chunks[(int) (index >>> CHUNK_SHIFT)].get((int) (index & CHUNK_MASK));
+    }
+    
+    public void set(long index, int value) {
+        chunks[(int) (index >>> CHUNK_SHIFT)].put((int) (index & CHUNK_MASK), value);
+    }
+    
+    public void fill(int value) {
+        for (IntBuffer chunk : chunks) {
+            for (int i = 0; i < chunk.limit(); i++) {
+                chunk.put(i, value);
+            }
+        }
+    }
+    
+    public long length() {
+        return length;
+    }
+    
+    /**
+     * Writes changes back to the file
+     */
+    public void force() {
+        for (MappedByteBuffer mapping : mappings) {
+            mapping.force();
+        }
+    }
+    
+    /**
+     * Closes the file. The mapping itself is released when the array is garbage collected, so the
+     * array must not be used afterwards.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+    
+    /**
+     * Deletes a directory of scratch files on a best effort basis. A mapped file cannot be deleted
+     * on some platforms, such as Windows, until its mapping is garbage collected, so whatever
+     * cannot be deleted now is left to be deleted when the JVM exits.
+     */
+    public static void deleteDirectory(Path directory) {
+        List<Path> paths;
+        try (Stream<Path> walk = Files.walk(directory)) {
+            paths = walk.sorted(Comparator.reverseOrder()).toList();
+        } catch (IOException | RuntimeException e) {
+            directory.toFile().deleteOnExit();
+            return;
+        }
+        List<Path> remaining = new ArrayList<>();
+        for (Path path : paths) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                remaining.add(path);
+            }
+        }
+        // Files registered last are deleted first, so register directories before their contents
+        for (int i = remaining.size() - 1; i >= 0; i--) {
+            remaining.get(i).toFile().deleteOnExit();
+        }
+    }
+}
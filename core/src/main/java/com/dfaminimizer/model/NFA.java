@@ -0,0 +1,191 @@
+package com.dfaminimizer.model;
+
+import java.util.*;
+
+/**
+ * Represents a Nondeterministic Finite Automaton with epsilon transitions.
+ * Every state flagged as start is an initial state. Transitions are labelled with character
+ * ranges, so a transition over a large character class is a single edge.
+ */
+public class NFA {
+    private final Set<State> states;
+    private final Set<CharRange> labels;
+    private final Map<String, Map<CharRange, Set<State>>> transitionFunction;
+    private final Map<String, Set<State>> epsilonTransitions;
+    private final Set<State> startStates;
+    private final Set<State> finalStates;
+    
+    public NFA() {
+        this.states = new LinkedHashSet<>();
+        this.labels = new TreeSet<>();
+        this.transitionFunction = new HashMap<>();
+        this.epsilonTransitions = new HashMap<>();
+        this.startStates = new LinkedHashSet<>();
+        this.finalStates = new HashSet<>();
+    }
+    
+    public void addState(State state) {
+        states.add(state);
+        transitionFunction.put(state.getName(), new HashMap<>());
+        epsilonTransitions.put(state.getName(), new LinkedHashSet<>());
+        if (state.isStart()) {
+            startStates.add(state);
+        }
+        if (state.isFinal()) {
+            finalStates.add(state);
+        }
+    }
+    
+    public void addTransition(State from, State to, char symbol) {
+        addTransition(from, to, CharRange.of(symbol));
+    }
+    
+    public void addTransition(State from, State to, CharRange range) {
+        checkStates(from, to);
+        labels.add(range);
+        transitionFunction.get(from.getName()).computeIfAbsent(range, k -> new LinkedHashSet<>()).add(to);
+    }
+    
+    public void addEpsilonTransition(State from, State to) {
+        checkStates(from, to);
+        epsilonTransitions.get(from.getName()).add(to);
+    }
+    
+    private void checkStates(State from, State to) {
+        if (!states.contains(from) || !states.contains(to)) {
+            throw new IllegalArgumentException("States must be added to NFA before adding transitions");
+        }
+    }
+    
+    public State getStateByName(String name) {
+        return states.stream()
+                .filter(s -> s.getName().equals(name))
+                .findFirst()
+                .orElse(null);
+    }
+    
+    public Set<State> getNextStates(State currentState, char symbol) {
+        Set<State> targets = new LinkedHashSet<>();
+        for (Map.Entry<CharRange, Set<State>> entry : transitionFunction.get(currentState.getName()).entrySet()) {
+            if (entry.getKey().contains(symbol)) {
+                targets.addAll(entry.getValue());
+            }
+        }
+        return targets;
+    }
+    
+    /**
+     * Returns the outgoing transitions of a state, keyed by label
+     */
+    public Map<CharRange, Set<State>> getTransitions(State currentState) {
+        return Collections.unmodifiableMap(transitionFunction.get(currentState.getName()));
+    }
+    
+    public Set<State> getEpsilonTargets(State currentState) {
+        return Collections.unmodifiableSet(epsilonTransitions.get(currentState.getName()));
+    }
+    
+    /**
+     * Returns the given states together with everything reachable from them by epsilon transitions
+     */
+    public Set<State> epsilonClosure(Collection<State> from) {
+        Set<State> closure = new HashSet<>(from);
+        Deque<State> stack = new ArrayDeque<>(from);
+        while (!stack.isEmpty()) {
+            for (State next : epsilonTransitions.get(stack.pop().getName())) {
+                if (closure.add(next)) {
+                    stack.push(next);
+                }
+            }
+        }
+        return closure;
+    }
+    
+    /**
+     * Simulates the NFA on the input by tracking the set of active states
+     */
+    public boolean accepts(String input) {
+        Set<State> current = epsilonClosure(startStates);
+        for (char symbol : input.toCharArray()) {
+            Set<State> next = new HashSet<>();
+            for (State state : current) {
+                next.addAll(getNextStates(state, symbol));
+            }
+            current = epsilonClosure(next);
+            if (current.isEmpty()) {
+                return false;
+            }
+        }
+        return current.stream().anyMatch(finalStates::contains);
+    }
+    
+    /**
+     * Views a DFA as an NFA without epsilon transitions
+     */
+    public static NFA of(DFA dfa) {
+        NFA nfa = new NFA();
+        Set<State> finalStates = dfa.getFinalStates();
+        for (State state : dfa.getStates()) {
+            nfa.addState(new State(state.getName(), state.equals(dfa.getStartState()), finalStates.contains(state)));
+        }
+        dfa.forEachTransition((from, symbol, to) -> nfa.addTransition(from, to, symbol));
+        return nfa;
+    }
+    
+    public Set<State> getStates() {
+        return new LinkedHashSet<>(states);
+    }
+    
+    /**
+     * Returns every character that appears in some transition label.
+     * For automata over large ranges prefer {@link #getLabels()}.
+     */
+    public Set<Character> getAlphabet() {
+        Set<Character> alphabet = new HashSet<>();
+        for (CharRange range : labels) {
+            for (int c = range.getLow(); c <= range.getHigh(); c++) {
+                alphabet.add((char) c);
+            }
+        }
+        return alphabet;
+    }
+    
+    /**
+     * Returns all distinct transition labels in ascending order
+     */
+    public Set<CharRange> getLabels() {
+        return new TreeSet<>(labels);
+    }
+    
+    public Set<State> getStartStates() {
+        return new LinkedHashSet<>(startStates);
+    }
+    
+    public Set<State> getFinalStates() {
+        return new HashSet<>(finalStates);
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("NFA{\n");
+        sb.append("  States: ").append(states).append("\n");
+        sb.append("  Labels: ").append(labels).append("\n");
+        sb.append("  Start States: ").append(startStates).append("\n");
+        sb.append("  Final States: ").append(finalStates).append("\n");
+        sb.append("  Transitions:\n");
+        for (State from : states) {
+            for (Map.Entry<CharRange, Set<State>> entry : transitionFunction.get(from.getName()).entrySet()) {
+                for (State to : entry.getValue()) {
+                    sb.append("    ").append(from.getName()).append(" --").append(entry.getKey())
+                            .append("--> ").append(to.getName()).append("\n");
+                }
+            }
+            for (State to : epsilonTransitions.get(from.getName())) {
+                sb.append("    ").append(from.getName()).append(" --ε--> ").append(to.getName()).append("\n");
+            }
+        }
+        sb.append("}");
+        return sb.toString();
+    }
+}
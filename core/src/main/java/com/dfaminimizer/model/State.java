@@ -9,6 +9,7 @@ public class State {
     private final String name;
     private boolean isStart;
     private boolean isFinal;
+    private int output;
     
     public State(String name) {
         this.name = name;
@@ -42,6 +43,18 @@ public class State {
         isFinal = fin;
     }
     
+    /**
+     * Output label of the state when the DFA is used as a Moore machine, such as a token type; 0 by default.
+     * Minimization never merges states with different labels.
+     */
+    public int getOutput() {
+        return output;
+    }
+    
+    public void setOutput(int output) {
+        this.output = output;
+    }
+    
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
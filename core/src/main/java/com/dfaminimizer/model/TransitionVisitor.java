@@ -0,0 +1,11 @@
+package com.dfaminimizer.model;
+
+/**
+ * Receives the transitions of a {@link DFA} one at a time, see {@link DFA#forEachTransition}.
+ * Unlike {@link DFA#getTransitions()}, no {@link Transition} object is created per edge.
+ */
+@FunctionalInterface
+public interface TransitionVisitor {
+    
+    void visit(State from, char symbol, State to);
+}
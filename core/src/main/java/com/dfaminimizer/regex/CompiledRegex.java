@@ -0,0 +1,76 @@
+package com.dfaminimizer.regex;
+
+import com.dfaminimizer.matcher.CompiledMatcher;
+import com.dfaminimizer.matcher.DFASearcher;
+import com.dfaminimizer.matcher.TableMatcher;
+import com.dfaminimizer.model.CompactDFA;
+import com.dfaminimizer.model.DFA;
+
+/**
+ * A regular expression compiled to a minimized DFA and a table matcher, plus a generated
+ * {@link CompiledMatcher} if bytecode compilation was requested and the DFA is small enough.
+ * Instances are immutable and may be shared between threads.
+ */
+public final class CompiledRegex {
+    
+    private final String pattern;
+    private final CompactDFA dfa;
+    private final TableMatcher matcher;
+    private final CompiledMatcher compiledMatcher;
+    
+    CompiledRegex(String pattern, CompactDFA dfa, boolean bytecode) {
+        this.pattern = pattern;
+        this.dfa = dfa;
+        this.matcher = TableMatcher.of(dfa);
+        this.compiledMatcher = bytecode && CompiledMatcher.canCompile(dfa) ? CompiledMatcher.of(dfa) : null;
+    }
+    
+    /**
+     * Returns true if the whole input matches the pattern
+     */
+    public boolean matches(CharSequence input) {
+        return compiledMatcher != null ? compiledMatcher.matches(input) : matcher.matches(input);
+    }
+    
+    public String getPattern() {
+        return pattern;
+    }
+    
+    /**
+     * The minimized automaton in table form
+     */
+    public CompactDFA getCompactDFA() {
+        return dfa;
+    }
+    
+    /**
+     * The minimized automaton as an editable DFA, e.g. for {@code DFAVisualizationPane}
+     */
+    public DFA toDFA() {
+        return dfa.toDFA();
+    }
+    
+    public TableMatcher getMatcher() {
+        return matcher;
+    }
+    
+    /**
+     * Creates a searcher for the substrings of a text that match the pattern. This determinizes
+     * the unanchored automaton, so callers should keep the searcher rather than ask again per text.
+     */
+    public DFASearcher searcher() {
+        return DFASearcher.of(dfa);
+    }
+    
+    /**
+     * Returns true if matching uses a generated {@link CompiledMatcher}
+     */
+    public boolean isBytecodeCompiled() {
+        return compiledMatcher != null;
+    }
+    
+    @Override
+    public String toString() {
+        return pattern;
+    }
+}
@@ -0,0 +1,98 @@
+package com.dfaminimizer.regex;
+
+import com.dfaminimizer.algorithm.BrzozowskiMinimizer;
+import com.dfaminimizer.algorithm.DFAMinimizer;
+import com.dfaminimizer.algorithm.MemoryBudgetExceededException;
+import com.dfaminimizer.algorithm.MinimizationEngine;
+import com.dfaminimizer.algorithm.SubsetConstruction;
+import com.dfaminimizer.model.CompactDFA;
+import com.dfaminimizer.model.NFA;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiles regular expressions into minimized table DFAs.
+ * <p>
+ * The pattern is parsed into a Thompson NFA, determinized by subset construction and minimized
+ * with the configured engine. All steps work on character classes, so large ranges such as
+ * {@code [^a]} stay a handful of table columns. Compiled patterns are cached by pattern string, so compiling the same
+ * pattern again returns the cached instance. When the cache reaches its size limit it is cleared.
+ * Optionally, small patterns are also compiled to bytecode with {@link com.dfaminimizer.matcher.CompiledMatcher}.
+ * This class is thread safe.
+ */
+public class RegexCompiler {
+    
+    /** Default number of cached patterns */
+    public static final int DEFAULT_CACHE_SIZE = 1024;
+    
+    private final MinimizationEngine engine;
+    private final int maxCacheSize;
+    private final boolean bytecode;
+    private final Map<String, CompiledRegex> cache = new ConcurrentHashMap<>();
+    
+    public RegexCompiler() {
+        this(new DFAMinimizer(false), DEFAULT_CACHE_SIZE);
+    }
+    
+    /**
+     * @param engine Engine used to minimize the determinized pattern
+     * @param maxCacheSize Number of compiled patterns kept before the cache is cleared
+     */
+    public RegexCompiler(MinimizationEngine engine, int maxCacheSize) {
+        this(engine, maxCacheSize, false);
+    }
+    
+    /**
+     * @param engine Engine used to minimize the determinized pattern
+     * @param maxCacheSize Number of compiled patterns kept before the cache is cleared
+     * @param bytecode Whether to generate a matcher class for patterns whose DFA is small enough
+     */
+    public RegexCompiler(MinimizationEngine engine, int maxCacheSize, boolean bytecode) {
+        this.engine = engine;
+        this.maxCacheSize = maxCacheSize;
+        this.bytecode = bytecode;
+    }
+    
+    /**
+     * Compiles a pattern, returning the cached result if it was compiled before
+     * @throws java.util.regex.PatternSyntaxException If the pattern is malformed
+     * @throws MemoryBudgetExceededException If determinizing the pattern would need more than
+     *         {@link BrzozowskiMinimizer#DEFAULT_MEMORY_BUDGET} bytes
+     */
+    public CompiledRegex compile(String pattern) {
+        CompiledRegex compiled = cache.get(pattern);
+        if (compiled != null) {
+            return compiled;
+        }
+        compiled = compileUncached(pattern);
+        if (cache.size() >= maxCacheSize) {
+            cache.clear();
+        }
+        CompiledRegex previous = cache.putIfAbsent(pattern, compiled);
+        return previous != null ? previous : compiled;
+    }
+    
+    private CompiledRegex compileUncached(String pattern) {
+        NFA nfa = toNFA(pattern);
+        CompactDFA determinized = SubsetConstruction.of(nfa, BrzozowskiMinimizer.DEFAULT_MEMORY_BUDGET)
+                .determinize(false);
+        return new CompiledRegex(pattern, engine.minimize(determinized).mergeEquivalentClasses(),
+                bytecode);
+    }
+    
+    /**
+     * Parses a pattern into its Thompson NFA without determinizing it
+     * @throws java.util.regex.PatternSyntaxException If the pattern is malformed
+     */
+    public static NFA toNFA(String pattern) {
+        return new RegexParser(pattern).parse();
+    }
+    
+    /**
+     * Number of compiled patterns currently cached
+     */
+    public int getCacheSize() {
+        return cache.size();
+    }
+}
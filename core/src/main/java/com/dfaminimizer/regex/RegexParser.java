@@ -0,0 +1,265 @@
+package com.dfaminimizer.regex;
+
+import com.dfaminimizer.model.CharRange;
+import com.dfaminimizer.model.NFA;
+import com.dfaminimizer.model.State;
+
+import java.util.*;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Recursive descent parser that turns a regular expression into a Thompson NFA.
+ * <p>
+ * Supported syntax: literals, concatenation, alternation {@code |}, grouping {@code ( )},
+ * the postfix operators {@code * + ?}, character classes with ranges such as {@code [a-z0-9_]},
+ * negated classes such as {@code [^"]}, the wildcard {@code .} (any character except line terminators),
+ * the shorthand classes {@code \d \w \s} and backslash escapes for metacharacters.
+ * <p>
+ * Character sets are kept as ranges, so a class such as {@code [^a]} becomes a couple of edges
+ * rather than one edge per character.
+ */
+class RegexParser {
+    
+    private final String pattern;
+    private int position;
+    private int stateCount;
+    /** Edges as {from, low, high, to} */
+    private final List<int[]> edges = new ArrayList<>();
+    private final List<int[]> epsilonEdges = new ArrayList<>();
+    
+    RegexParser(String pattern) {
+        this.pattern = pattern;
+    }
+    
+    /**
+     * Parses the whole pattern
+     * @throws PatternSyntaxException If the pattern is malformed or uses unsupported syntax
+     */
+    NFA parse() {
+        int[] fragment = parseAlternation();
+        if (position < pattern.length()) {
+            throw error(pattern.charAt(position) == ')' ? "Unmatched closing ')'" : "Unexpected character");
+        }
+        return toNFA(fragment[0], fragment[1]);
+    }
+    
+    /**
+     * Each fragment is a pair {start, accept} of NFA state ids
+     */
+    private int[] parseAlternation() {
+        int[] left = parseConcatenation();
+        while (peek('|')) {
+            position++;
+            int[] right = parseConcatenation();
+            int start = newState();
+            int accept = newState();
+            epsilon(start, left[0]);
+            epsilon(start, right[0]);
+            epsilon(left[1], accept);
+            epsilon(right[1], accept);
+            left = new int[] {start, accept};
+        }
+        return left;
+    }
+    
+    private int[] parseConcatenation() {
+        int start = newState();
+        int[] result = {start, start};
+        while (position < pattern.length() && !peek('|') && !peek(')')) {
+            int[] next = parseRepetition();
+            epsilon(result[1], next[0]);
+            result[1] = next[1];
+        }
+        return result;
+    }
+    
+    private int[] parseRepetition() {
+        int[] fragment = parseAtom();
+        while (position < pattern.length()) {
+            char op = pattern.charAt(position);
+            if (op != '*' && op != '+' && op != '?') {
+                break;
+            }
+            position++;
+            int start = newState();
+            int accept = newState();
+            epsilon(start, fragment[0]);
+            epsilon(fragment[1], accept);
+            if (op != '+') {
+                epsilon(start, accept);
+            }
+            if (op != '?') {
+                epsilon(fragment[1], fragment[0]);
+            }
+            fragment = new int[] {start, accept};
+        }
+        return fragment;
+    }
+    
+    private int[] parseAtom() {
+        char c = pattern.charAt(position);
+        switch (c) {
+            case '(': {
+                position++;
+                int[] inner = parseAlternation();
+                if (!peek(')')) {
+                    throw error("Unclosed group");
+                }
+                position++;
+                return inner;
+            }
+            case '[':
+                position++;
+                return symbols(parseClass());
+            case '\\':
+                position++;
+                return symbols(parseEscape());
+            case '*':
+            case '+':
+            case '?':
+                throw error("Dangling meta character '" + c + "'");
+            case '.':
+                position++;
+                return symbols(complement(Arrays.asList(new CharRange('\n', '\n'), new CharRange('\r', '\r'),
+                        new CharRange('\u0085', '\u0085'), new CharRange('\u2028', '\u2029'))));
+            default:
+                position++;
+                return symbols(Collections.singletonList(CharRange.of(c)));
+        }
+    }
+    
+    private List<CharRange> parseClass() {
+        List<CharRange> symbols = new ArrayList<>();
+        boolean negated = peek('^');
+        if (negated) {
+            position++;
+        }
+        boolean first = true;
+        while (position < pattern.length() && (first || !peek(']'))) {
+            first = false;
+            int low = classCharacter(symbols);
+            if (low < 0) {
+                continue;
+            }
+            if (peek('-') && position + 1 < pattern.length() && pattern.charAt(position + 1) != ']') {
+                position++;
+                int high = classCharacter(symbols);
+                if (high < low) {
+                    throw error("Illegal character range");
+                }
+                symbols.add(new CharRange((char) low, (char) high));
+            } else {
+                symbols.add(CharRange.of((char) low));
+            }
+        }
+        if (!peek(']')) {
+            throw error("Unclosed character class");
+        }
+        position++;
+        return negated ? complement(symbols) : symbols;
+    }
+    
+    /**
+     * Reads one character of a class. Shorthand escapes are added to the set directly and -1 is returned.
+     */
+    private int classCharacter(List<CharRange> symbols) {
+        char c = pattern.charAt(position++);
+        if (c != '\\') {
+            return c;
+        }
+        List<CharRange> escaped = parseEscape();
+        if (escaped.size() == 1 && escaped.get(0).size() == 1) {
+            return escaped.get(0).getLow();
+        }
+        symbols.addAll(escaped);
+        return -1;
+    }
+    
+    private List<CharRange> parseEscape() {
+        if (position >= pattern.length()) {
+            throw error("Trailing backslash");
+        }
+        char c = pattern.charAt(position++);
+        switch (c) {
+            case 'd':
+                return Collections.singletonList(new CharRange('0', '9'));
+            case 'w':
+                return Arrays.asList(new CharRange('0', '9'), new CharRange('A', 'Z'), CharRange.of('_'),
+                        new CharRange('a', 'z'));
+            case 's':
+                return Arrays.asList(new CharRange('\t', '\r'), CharRange.of(' '));
+            case 'n':
+                return Collections.singletonList(CharRange.of('\n'));
+            case 't':
+                return Collections.singletonList(CharRange.of('\t'));
+            case 'r':
+                return Collections.singletonList(CharRange.of('\r'));
+            default:
+                if (Character.isLetterOrDigit(c)) {
+                    throw error("Unsupported escape sequence");
+                }
+                return Collections.singletonList(CharRange.of(c));
+        }
+    }
+    
+    /**
+     * Returns the characters not covered by any of the ranges, as sorted disjoint ranges
+     */
+    private static List<CharRange> complement(List<CharRange> ranges) {
+        List<CharRange> sorted = new ArrayList<>(ranges);
+        Collections.sort(sorted);
+        List<CharRange> result = new ArrayList<>();
+        int next = Character.MIN_VALUE;
+        for (CharRange range : sorted) {
+            if (range.getLow() > next) {
+                result.add(new CharRange((char) next, (char) (range.getLow() - 1)));
+            }
+            next = Math.max(next, range.getHigh() + 1);
+        }
+        if (next <= Character.MAX_VALUE) {
+            result.add(new CharRange((char) next, Character.MAX_VALUE));
+        }
+        return result;
+    }
+    
+    private int[] symbols(List<CharRange> symbols) {
+        int start = newState();
+        int accept = newState();
+        for (CharRange range : symbols) {
+            edges.add(new int[] {start, range.getLow(), range.getHigh(), accept});
+        }
+        return new int[] {start, accept};
+    }
+    
+    private boolean peek(char c) {
+        return position < pattern.length() && pattern.charAt(position) == c;
+    }
+    
+    private int newState() {
+        return stateCount++;
+    }
+    
+    private void epsilon(int from, int to) {
+        epsilonEdges.add(new int[] {from, to});
+    }
+    
+    private NFA toNFA(int start, int accept) {
+        NFA nfa = new NFA();
+        State[] states = new State[stateCount];
+        for (int i = 0; i < stateCount; i++) {
+            states[i] = new State("t" + i, i == start, i == accept);
+            nfa.addState(states[i]);
+        }
+        for (int[] edge : edges) {
+            nfa.addTransition(states[edge[0]], states[edge[3]], new CharRange((char) edge[1], (char) edge[2]));
+        }
+        for (int[] edge : epsilonEdges) {
+            nfa.addEpsilonTransition(states[edge[0]], states[edge[1]]);
+        }
+        return nfa;
+    }
+    
+    private PatternSyntaxException error(String description) {
+        return new PatternSyntaxException(description, pattern, position);
+    }
+}
@@ -0,0 +1,13 @@
+/**
+ * Automata model, minimization algorithms, matchers, regular expressions and file formats.
+ * Depends on nothing but java.base, so it can be linked into a small runtime image.
+ */
+module dfaminimizer.core {
+    requires static jdk.incubator.vector;
+    
+    exports com.dfaminimizer.model;
+    exports com.dfaminimizer.algorithm;
+    exports com.dfaminimizer.matcher;
+    exports com.dfaminimizer.regex;
+    exports com.dfaminimizer.io;
+}
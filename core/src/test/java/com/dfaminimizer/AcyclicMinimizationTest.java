@@ -0,0 +1,128 @@
+package com.dfaminimizer;
+
+import com.dfaminimizer.algorithm.DFAMinimizer;
+import com.dfaminimizer.algorithm.DictionaryBuilder;
+import com.dfaminimizer.model.CompactDFA;
+import com.dfaminimizer.testing.DFAOracle;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the acyclic path of table minimization, which merges states outside cycles in one
+ * pass instead of refining them
+ */
+public class AcyclicMinimizationTest {
+    
+    private static final char[] AB = {'a', 'b'};
+    
+    @Test
+    @Timeout(20)
+    void minimizesLongChainsInLinearTime() {
+        // Two parallel chains spelling a^n and b^n; refinement would need n rounds over 2n states
+        int n = 200_000;
+        int states = 2 * n + 1;
+        int[] transitions = new int[states * 2];
+        Arrays.fill(transitions, CompactDFA.NO_STATE);
+        boolean[] accepting = new boolean[states];
+        transitions[0] = 1;
+        transitions[1] = n + 1;
+        for (int i = 1; i < n; i++) {
+            transitions[i * 2] = i + 1;
+            transitions[(n + i) * 2 + 1] = n + i + 1;
+        }
+        accepting[n] = true;
+        accepting[2 * n] = true;
+        
+        CompactDFA minimized = new DFAMinimizer(false).minimize(new CompactDFA(AB, transitions, accepting, 0));
+        // Only the two accepting ends are equivalent
+        assertEquals(2 * n, minimized.getStateCount());
+        assertTrue(minimized.accepts("a".repeat(n)));
+        assertTrue(minimized.accepts("b".repeat(n)));
+        assertFalse(minimized.accepts("a".repeat(n - 1)));
+        assertFalse(minimized.accepts("a" + "b".repeat(n - 1)));
+    }
+    
+    @Test
+    void agreesWithDictionaryBuilder() {
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            words.add(Integer.toString(i * 7, 5));
+        }
+        CompactDFA dictionary = DictionaryBuilder.build(words);
+        CompactDFA minimized = new DFAMinimizer(false).minimize(trie(words));
+        assertEquals(dictionary.getStateCount(), minimized.getStateCount());
+        assertTrue(DFAOracle.isomorphic(dictionary.toDFA(), minimized.toDFA()));
+    }
+    
+    @Test
+    void mergesAcyclicStatesIntoCyclicRegion() {
+        // 0 -a-> 1 -a-> 2 and 2 loops on a; 1 and 2 both accept a*, 0 only a+
+        int[] transitions = {
+                1, CompactDFA.NO_STATE,
+                2, CompactDFA.NO_STATE,
+                2, CompactDFA.NO_STATE
+        };
+        boolean[] accepting = {false, true, true};
+        CompactDFA minimized = new DFAMinimizer(false).minimize(new CompactDFA(AB, transitions, accepting, 0));
+        assertEquals(2, minimized.getStateCount());
+        assertFalse(minimized.accepts(""));
+        assertTrue(minimized.accepts("aaaa"));
+        assertFalse(minimized.accepts("ab"));
+    }
+    
+    @Test
+    void keepsCyclesAboveAcyclicStatesApart() {
+        // 0 loops on a and reads b into a chain 1 -b-> 2; 3 is an unreachable copy of 1
+        int[] transitions = {
+                0, 1,
+                CompactDFA.NO_STATE, 2,
+                CompactDFA.NO_STATE, CompactDFA.NO_STATE,
+                CompactDFA.NO_STATE, 2
+        };
+        boolean[] accepting = {false, false, true, false};
+        CompactDFA minimized = new DFAMinimizer(false).minimize(new CompactDFA(AB, transitions, accepting, 0));
+        assertEquals(3, minimized.getStateCount());
+        assertTrue(minimized.accepts("aaabb"));
+        assertFalse(minimized.accepts("aba"));
+    }
+    
+    private static CompactDFA trie(List<String> words) {
+        char[] alphabet = "01234".toCharArray();
+        List<int[]> rows = new ArrayList<>();
+        List<Boolean> accepting = new ArrayList<>();
+        rows.add(emptyRow(alphabet.length));
+        accepting.add(false);
+        for (String word : words) {
+            int state = 0;
+            for (char c : word.toCharArray()) {
+                int symbol = c - '0';
+                if (rows.get(state)[symbol] == CompactDFA.NO_STATE) {
+                    rows.get(state)[symbol] = rows.size();
+                    rows.add(emptyRow(alphabet.length));
+                    accepting.add(false);
+                }
+                state = rows.get(state)[symbol];
+            }
+            accepting.set(state, true);
+        }
+        int[] transitions = new int[rows.size() * alphabet.length];
+        boolean[] finals = new boolean[rows.size()];
+        for (int s = 0; s < rows.size(); s++) {
+            System.arraycopy(rows.get(s), 0, transitions, s * alphabet.length, alphabet.length);
+            finals[s] = accepting.get(s);
+        }
+        return new CompactDFA(alphabet, transitions, finals, 0);
+    }
+    
+    private static int[] emptyRow(int size) {
+        int[] row = new int[size];
+        Arrays.fill(row, CompactDFA.NO_STATE);
+        return row;
+    }
+}
@@ -0,0 +1,82 @@
+package com.dfaminimizer;
+
+import com.dfaminimizer.matcher.BatchMatcher;
+import com.dfaminimizer.model.CompactDFA;
+import com.dfaminimizer.regex.RegexCompiler;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH comparison of vectorized batch matching with the scalar paths, on large batches of short strings.
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.openjdk.jmh.Main -Dexec.args=BatchMatcherBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class BatchMatcherBenchmark {
+    
+    @Param({"(a|b)*abb", "[a-z0-9._]+@[a-z0-9]+\\.(com|org|net)"})
+    public String pattern;
+    
+    /** Length of the inputs */
+    @Param({"8", "32"})
+    public int length;
+    
+    private static final int BATCH = 16384;
+    
+    private CompactDFA dfa;
+    private BatchMatcher vector;
+    private BatchMatcher scalar;
+    private CharSequence[] inputs;
+    
+    @Setup
+    public void setUp() {
+        dfa = new RegexCompiler().compile(pattern).getCompactDFA();
+        vector = BatchMatcher.of(dfa);
+        scalar = BatchMatcher.scalar(dfa);
+        if (!vector.isVectorized()) {
+            throw new IllegalStateException("Vector API not available");
+        }
+        Random random = new Random(42);
+        inputs = new CharSequence[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            // Random walks keep most inputs alive to the end, so no path can stop early
+            StringBuilder sb = new StringBuilder(length);
+            int state = dfa.getStartState();
+            while (sb.length() < length && state >= 0) {
+                int symbol = random.nextInt(dfa.getAlphabetSize());
+                if (dfa.next(state, symbol) >= 0) {
+                    sb.append(dfa.getClassMap().representative(symbol));
+                    state = dfa.next(state, symbol);
+                } else if (random.nextInt(8) == 0) {
+                    break;
+                }
+            }
+            inputs[i] = sb.toString();
+        }
+    }
+    
+    @Benchmark
+    public int accepts() {
+        int accepted = 0;
+        for (CharSequence input : inputs) {
+            accepted += dfa.accepts(input) ? 1 : 0;
+        }
+        return accepted;
+    }
+    
+    @Benchmark
+    public boolean[] scalarBatch() {
+        return scalar.matches(inputs);
+    }
+    
+    @Benchmark
+    public boolean[] vectorBatch() {
+        return vector.matches(inputs);
+    }
+}
@@ -0,0 +1,80 @@
+package com.dfaminimizer;
+
+import com.dfaminimizer.matcher.BatchMatcher;
+import com.dfaminimizer.matcher.TableMatcher;
+import com.dfaminimizer.model.CompactDFA;
+import com.dfaminimizer.regex.RegexCompiler;
+import com.dfaminimizer.testing.RandomDFAs;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for batch matching, using the table matcher as reference
+ */
+public class BatchMatcherTest {
+    
+    private static final int SAMPLES = 200;
+    
+    @Test
+    void agreesWithTableMatcherOnRandomAutomata() {
+        Random random = new Random(1);
+        for (int i = 0; i < SAMPLES; i++) {
+            int alphabetSize = 1 + random.nextInt(4);
+            CompactDFA dfa = CompactDFA.of(RandomDFAs.mixed(random, i, 20, alphabetSize));
+            // Batch sizes that are not multiples of the vector length, and one symbol outside the alphabet
+            CharSequence[] inputs = new CharSequence[random.nextInt(40)];
+            for (int j = 0; j < inputs.length; j++) {
+                inputs[j] = RandomDFAs.word(random, alphabetSize + 1, 12);
+            }
+            assertAgrees(dfa, inputs);
+        }
+    }
+    
+    @Test
+    void agreesWithTableMatcherOnCompiledPatterns() {
+        CompactDFA dfa = new RegexCompiler().compile("[a-z0-9._]+@[a-z0-9]+\\.(com|org)").getCompactDFA();
+        CharSequence[] inputs = {"", "a@b.com", "first.last@example.org", "a@b.co", "@b.com", "A@b.com",
+                new StringBuilder("x@y.org"), "a@b.com\u4e00", "very.long.name.with.many.parts@host.com"};
+        assertAgrees(dfa, inputs);
+    }
+    
+    @Test
+    void matchesLongInputsBesideShortOnes() {
+        CompactDFA dfa = new RegexCompiler().compile("(a|b)*abb").getCompactDFA();
+        String longAccepted = "ab".repeat(5000) + "abb";
+        String longRejected = "ab".repeat(5000) + "aba";
+        CharSequence[] inputs = {"abb", longAccepted, "ba", longRejected, "aabb", "", longAccepted, "b", "abb",
+                "babb", longRejected};
+        assertAgrees(dfa, inputs);
+    }
+    
+    @Test
+    void usesVectorKernelWhenAvailable() {
+        CompactDFA dfa = new RegexCompiler().compile("(a|b)*abb").getCompactDFA();
+        assertEquals(BatchMatcher.isVectorAvailable(), BatchMatcher.of(dfa).isVectorized());
+        assertFalse(BatchMatcher.scalar(dfa).isVectorized());
+    }
+    
+    @Test
+    void rejectsEverythingWithoutStartState() {
+        CompactDFA dfa = new CompactDFA(new char[] {'a'}, new int[] {0}, new boolean[] {true}, CompactDFA.NO_STATE);
+        CharSequence[] inputs = {"a", "", "aaa", "b"};
+        assertArrayEquals(new boolean[4], BatchMatcher.scalar(dfa).matches(inputs));
+        assertArrayEquals(new boolean[4], BatchMatcher.of(dfa).matches(inputs));
+        assertAgrees(dfa, inputs);
+    }
+    
+    private static void assertAgrees(CompactDFA dfa, CharSequence[] inputs) {
+        TableMatcher table = TableMatcher.of(dfa);
+        boolean[] vector = BatchMatcher.of(dfa).matches(inputs);
+        boolean[] scalar = BatchMatcher.scalar(dfa).matches(inputs);
+        for (int j = 0; j < inputs.length; j++) {
+            boolean expected = table.matches(inputs[j]);
+            assertEquals(expected, vector[j], inputs[j].toString());
+            assertEquals(expected, scalar[j], inputs[j].toString());
+        }
+    }
+}
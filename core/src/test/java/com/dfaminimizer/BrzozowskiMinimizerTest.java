@@ -0,0 +1,80 @@
+package com.dfaminimizer;
+
+import com.dfaminimizer.algorithm.BrzozowskiMinimizer;
+import com.dfaminimizer.algorithm.DFAMinimizer;
+import com.dfaminimizer.algorithm.MemoryBudgetExceededException;
+import com.dfaminimizer.algorithm.MinimizationEngine;
+import com.dfaminimizer.model.CompactDFA;
+import com.dfaminimizer.model.DFA;
+import com.dfaminimizer.model.State;
+import com.dfaminimizer.testing.DFAOracle;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the Brzozowski engine beyond the shared minimization properties
+ */
+public class BrzozowskiMinimizerTest {
+    
+    @Test
+    void dropsUnreachableAndDeadStatesOfPartialDFA() {
+        DFA dfa = new DFA();
+        State q0 = new State("q0", true, false);
+        State q1 = new State("q1", false, true);
+        State dead = new State("dead", false, false);
+        State unreachable = new State("unreachable", false, true);
+        dfa.addState(q0);
+        dfa.addState(q1);
+        dfa.addState(dead);
+        dfa.addState(unreachable);
+        dfa.addTransition(q0, q1, 'a');
+        dfa.addTransition(q0, dead, 'b');
+        dfa.addTransition(dead, dead, 'a');
+        dfa.addTransition(unreachable, q0, 'a');
+        
+        DFA minimized = new BrzozowskiMinimizer().minimize(dfa);
+        
+        assertEquals(2, minimized.getStates().size());
+        assertTrue(minimized.accepts("a"));
+        assertFalse(minimized.accepts("b"));
+        assertFalse(minimized.accepts("ba"));
+    }
+    
+    @Test
+    void fallsBackWhenBudgetIsExceeded() {
+        // A counter modulo 100 needs 100 subsets, more than the initial pool capacity
+        DFA dfa = new DFA();
+        State[] states = new State[100];
+        for (int i = 0; i < states.length; i++) {
+            states[i] = new State("c" + i, i == 0, i == 0);
+            dfa.addState(states[i]);
+        }
+        for (int i = 0; i < states.length; i++) {
+            dfa.addTransition(states[i], states[(i + 1) % states.length], 'a');
+        }
+        
+        AtomicInteger fallbackCalls = new AtomicInteger();
+        MinimizationEngine fallback = input -> {
+            fallbackCalls.incrementAndGet();
+            return new DFAMinimizer(false).minimize(input);
+        };
+        
+        DFA minimized = new BrzozowskiMinimizer(1024, fallback).minimize(dfa);
+        assertEquals(1, fallbackCalls.get());
+        assertEquals(100, minimized.getStates().size());
+        
+        DFA unbounded = new BrzozowskiMinimizer(Long.MAX_VALUE, fallback).minimize(dfa);
+        assertEquals(1, fallbackCalls.get());
+        assertEquals(100, unbounded.getStates().size());
+        assertNull(DFAOracle.distinguishingWord(minimized, unbounded));
+        
+        // The table form falls back the same way, while the budgeted variant reports the blow-up
+        BrzozowskiMinimizer small = new BrzozowskiMinimizer(1024, new DFAMinimizer(false));
+        CompactDFA compact = CompactDFA.of(dfa);
+        assertEquals(100, small.minimize(compact).getStateCount());
+        assertThrows(MemoryBudgetExceededException.class, () -> small.minimizeWithinBudget(compact));
+    }
+}
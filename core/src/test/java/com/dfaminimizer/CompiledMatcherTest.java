@@ -0,0 +1,78 @@
+package com.dfaminimizer;
+
+import com.dfaminimizer.algorithm.DFAMinimizer;
+import com.dfaminimizer.matcher.CompiledMatcher;
+import com.dfaminimizer.matcher.TableMatcher;
+import com.dfaminimizer.model.CompactDFA;
+import com.dfaminimizer.regex.RegexCompiler;
+import com.dfaminimizer.testing.RandomDFAs;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the generated bytecode matcher, using the table matcher as reference
+ */
+public class CompiledMatcherTest {
+    
+    private static final int SAMPLES = 300;
+    
+    @Test
+    void agreesWithTableMatcherOnRandomAutomata() {
+        Random random = new Random(1);
+        for (int i = 0; i < SAMPLES; i++) {
+            int alphabetSize = 1 + random.nextInt(4);
+            CompactDFA dfa = CompactDFA.of(RandomDFAs.mixed(random, i, 20, alphabetSize));
+            assertAgrees(dfa, random, alphabetSize);
+        }
+    }
+    
+    @Test
+    void handlesRangesAcrossTheCharacterSpace() {
+        CompactDFA dfa = new RegexCompiler().compile("[^\\d]*[\u00e9\u4e00-\u9fff\uffff]+\\d?").getCompactDFA();
+        CompiledMatcher matcher = CompiledMatcher.of(dfa);
+        TableMatcher table = TableMatcher.of(dfa);
+        String[] inputs = {"", "x", "\u00e9", "ab\u4e00", "\u9fff\uffff7", "\u0000\u4e00", "\u4e00\u4e00\u4dff",
+                "12", "a\u00e97", "\ua000", "\uffff\u0000"};
+        for (String input : inputs) {
+            assertEquals(table.matches(input), matcher.matches(input), input);
+        }
+    }
+    
+    @Test
+    void rejectsEverythingWithoutStartState() {
+        CompactDFA dfa = new CompactDFA(new char[] {'a'}, new int[] {0}, new boolean[] {true},
+                CompactDFA.NO_STATE);
+        CompiledMatcher matcher = CompiledMatcher.of(dfa);
+        for (String input : new String[] {"", "a", "aa", "b"}) {
+            assertFalse(matcher.matches(input), input);
+            assertEquals(TableMatcher.of(dfa).matches(input), matcher.matches(input), input);
+        }
+    }
+    
+    @Test
+    void rejectsLargeAutomata() {
+        CompactDFA large = CompactDFA.of(MinimizationBenchmark.nthSymbolFromEnd(7));
+        CompactDFA minimized = new DFAMinimizer(false).minimize(large);
+        assertEquals(128, minimized.getStateCount());
+        assertFalse(CompiledMatcher.canCompile(minimized));
+        assertThrows(IllegalArgumentException.class, () -> CompiledMatcher.of(minimized));
+        
+        CompactDFA small = new DFAMinimizer(false).minimize(CompactDFA.of(MinimizationBenchmark.nthSymbolFromEnd(6)));
+        assertTrue(CompiledMatcher.canCompile(small));
+        assertAgrees(small, new Random(64), 2);
+    }
+    
+    private static void assertAgrees(CompactDFA dfa, Random random, int alphabetSize) {
+        CompiledMatcher matcher = CompiledMatcher.of(dfa);
+        TableMatcher table = TableMatcher.of(dfa);
+        assertEquals(dfa.getStateCount(), matcher.getStateCount());
+        for (int w = 0; w < 100; w++) {
+            // One symbol beyond the alphabet exercises the missing transitions
+            String input = RandomDFAs.word(random, alphabetSize + 1, 12);
+            assertEquals(table.matches(input), matcher.matches(input), input);
+        }
+    }
+}
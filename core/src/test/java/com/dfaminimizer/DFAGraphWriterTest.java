@@ -0,0 +1,145 @@
+package com.dfaminimizer;
+
+import com.dfaminimizer.algorithm.DFAMinimizer;
+import com.dfaminimizer.algorithm.DFAQueries;
+import com.dfaminimizer.io.DFAGraphWriter;
+import com.dfaminimizer.model.CharClassMap;
+import com.dfaminimizer.model.CharRange;
+import com.dfaminimizer.model.CompactDFA;
+import com.dfaminimizer.model.MappedDFA;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the DOT and SVG export
+ */
+public class DFAGraphWriterTest {
+    
+    /**
+     * Identifiers: a letter followed by letters, digits, '-' or '"'
+     */
+    private static CompactDFA identifiers() {
+        CharClassMap classes = CharClassMap.partition(List.of(
+                List.of(new CharRange('a', 'z')),
+                List.of(new CharRange('0', '9')),
+                List.of(CharRange.of('-'), CharRange.of('"'))));
+        int k = classes.getClassCount();
+        int[] transitions = new int[2 * k];
+        for (int a = 0; a < k; a++) {
+            transitions[a] = classes.classOf('a') == a ? 1 : CompactDFA.NO_STATE;
+            transitions[k + a] = 1;
+        }
+        return new CompactDFA(classes, transitions, new boolean[] {false, true}, 0);
+    }
+    
+    private static int occurrences(String text, String part) {
+        int count = 0;
+        for (int i = text.indexOf(part); i >= 0; i = text.indexOf(part, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+    
+    @Test
+    void mergesParallelEdgesIntoRanges() throws IOException {
+        StringWriter out = new StringWriter();
+        DFAGraphWriter.writeDot(identifiers(), null, out);
+        String dot = out.toString();
+        
+        assertTrue(dot.startsWith("digraph DFA {"), dot);
+        assertTrue(dot.contains("start -> q0;"), dot);
+        assertTrue(dot.contains("q1 [shape=doublecircle];"), dot);
+        assertTrue(dot.contains("q0 -> q1 [label=\"a-z\"];"), dot);
+        // All classes of q1 lead back to q1, so they become a single edge
+        assertTrue(dot.contains("q1 -> q1 [label=\"\\\",\\\\-,0-9,a-z\"];"), dot);
+        assertEquals(2, occurrences(dot, "[label="));
+    }
+    
+    @Test
+    void clustersStatesByBlock() throws IOException {
+        // Two copies of a one-symbol cycle of length two, which minimize to the cycle
+        CompactDFA dfa = new CompactDFA(new char[] {'x'}, new int[] {1, 2, 3, 0}, new boolean[] {true, false, true, false}, 0);
+        CompactDFA minimized = new DFAMinimizer(false).minimize(dfa);
+        int[] blocks = DFAQueries.correspondingStates(dfa, minimized);
+        assertArrayEquals(new int[] {0, 1, 0, 1}, blocks);
+        
+        StringWriter dot = new StringWriter();
+        DFAGraphWriter.writeDot(dfa, blocks, dot);
+        assertTrue(dot.toString().contains("subgraph cluster_0 {\n    label=\"0\";\n    q0 [shape=doublecircle];\n"
+                + "    q2 [shape=doublecircle];\n  }"), dot.toString());
+        assertTrue(dot.toString().contains("subgraph cluster_1"));
+        
+        StringWriter svg = new StringWriter();
+        DFAGraphWriter.writeSvg(dfa, blocks, svg);
+        String text = svg.toString();
+        assertTrue(text.startsWith("<?xml"));
+        assertTrue(text.endsWith("</svg>\n"));
+        assertEquals(2, occurrences(text, "<rect "));
+        assertEquals(4 + 2, occurrences(text, "<circle "));
+        // Four edges, the start arrow and the arrow head
+        assertEquals(4 + 1 + 1, occurrences(text, "<path d=\"M"));
+        
+        assertThrows(IllegalArgumentException.class, () -> DFAGraphWriter.writeDot(dfa, new int[3], new StringWriter()));
+        assertThrows(IllegalArgumentException.class,
+                () -> DFAGraphWriter.writeSvg(dfa, new int[] {0, 0, -2, 0}, new StringWriter()));
+    }
+    
+    @Test
+    void escapesLabelsForXml() throws IOException {
+        CompactDFA dfa = new CompactDFA(new char[] {'<', '&', '\u00e9'}, new int[] {0, 0, CompactDFA.NO_STATE},
+                new boolean[] {true}, 0);
+        StringWriter out = new StringWriter();
+        DFAGraphWriter.writeSvg(dfa, null, out);
+        assertTrue(out.toString().contains(">&amp;,&lt;</text>"), out.toString());
+        
+        StringWriter dot = new StringWriter();
+        DFAGraphWriter.writeDot(new CompactDFA(new char[] {'\u00e9'}, new int[] {0}, new boolean[] {false}, 0), null, dot);
+        assertTrue(dot.toString().contains("[label=\"\\\\u00e9\"]"), dot.toString());
+    }
+    
+    @Test
+    @Timeout(30)
+    void streamsLargeMappedAutomata(@TempDir Path dir) throws IOException {
+        // Binary numbers modulo n; nothing but the writer's own arrays may grow with n
+        int n = 200_000;
+        int[] transitions = new int[n * 2];
+        boolean[] accepting = new boolean[n];
+        for (int s = 0; s < n; s++) {
+            transitions[s * 2] = (int) ((2L * s) % n);
+            transitions[s * 2 + 1] = (int) ((2L * s + 1) % n);
+            accepting[s] = s % 7 == 0;
+        }
+        long[] written = new long[1];
+        Writer counter = new Writer() {
+            @Override
+            public void write(char[] buffer, int offset, int length) {
+                written[0] += length;
+            }
+            
+            @Override
+            public void flush() {
+            }
+            
+            @Override
+            public void close() {
+            }
+        };
+        try (MappedDFA dfa = MappedDFA.of(new CompactDFA(new char[] {'0', '1'}, transitions, accepting, 0),
+                dir.resolve("dfa"))) {
+            DFAGraphWriter.writeSvg(dfa, null, counter);
+            long svg = written[0];
+            assertTrue(svg > 100L * n);
+            DFAGraphWriter.writeDot(dfa, null, counter);
+            assertTrue(written[0] - svg > 20L * n);
+        }
+    }
+}
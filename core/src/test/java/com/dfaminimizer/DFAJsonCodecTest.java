@@ -0,0 +1,182 @@
+package com.dfaminimizer;
+
+import com.dfaminimizer.io.DFAJsonCodec;
+import com.dfaminimizer.model.DFA;
+import com.dfaminimizer.model.State;
+import com.dfaminimizer.testing.DFAOracle;
+import com.dfaminimizer.testing.RandomDFAs;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the streaming JSON codec
+ */
+public class DFAJsonCodecTest {
+    
+    private static final int SAMPLES = 300;
+    
+    @Test
+    void roundTripsRandomAutomata() throws IOException {
+        Random random = new Random(1);
+        for (int i = 0; i < SAMPLES; i++) {
+            int alphabetSize = 1 + random.nextInt(3);
+            DFA dfa = RandomDFAs.mixed(random, i, 10, alphabetSize);
+            String json = write(dfa);
+            DFA read = DFAJsonCodec.read(new StringReader(json));
+            
+            assertNull(DFAOracle.distinguishingWord(dfa, read), json);
+            assertEquals(names(dfa.getStates()), names(read.getStates()));
+            assertEquals(names(dfa.getFinalStates()), names(read.getFinalStates()));
+            assertEquals(new TreeSet<>(dfa.getAlphabet()), new TreeSet<>(read.getAlphabet()));
+            assertEquals(json, write(read));
+        }
+    }
+    
+    @Test
+    void escapesNamesAndSymbols() throws IOException {
+        DFA dfa = new DFA();
+        State start = new State("say \"hi\"\\");
+        State end = new State("line\nbreak" + (char) 0x2028);
+        dfa.addState(start);
+        dfa.addState(end);
+        dfa.setStartState(start);
+        dfa.addFinalState(end);
+        dfa.addTransition(start, end, '"');
+        dfa.addTransition(end, start, '\n');
+        
+        String json = write(dfa);
+        assertFalse(json.contains(String.valueOf((char) 0x2028)), json);
+        assertTrue(json.contains("\\u2028"), json);
+        DFA read = DFAJsonCodec.read(new StringReader(json));
+        assertEquals(start.getName(), read.getStartState().getName());
+        assertTrue(read.accepts("\""));
+        assertTrue(read.accepts("\"\n\""));
+        assertFalse(read.accepts("\"\n"));
+    }
+    
+    @Test
+    void acceptsMembersInAnyOrder() throws IOException {
+        String json = "{\"version\": {\"major\": [1, 2.5e3, true]}, \"transitions\": [{\"to\": \"q1\","
+                + " \"symbol\": \"a\", \"from\": \"q0\", \"label\": null}], \"finalStates\": [\"q1\"],"
+                + " \"startState\": \"q0\", \"alphabet\": [\"a\"]}";
+        DFA dfa = DFAJsonCodec.read(new StringReader(json));
+        assertEquals(2, dfa.getStates().size());
+        assertTrue(dfa.accepts("a"));
+        assertFalse(dfa.accepts(""));
+        
+        DFA noStart = DFAJsonCodec.read(new StringReader("{\"states\": [\"q0\"], \"startState\": null}"));
+        assertNull(noStart.getStartState());
+        assertEquals(1, noStart.getStates().size());
+    }
+    
+    @Test
+    void rejectsMalformedDocuments() {
+        String[] documents = {
+                "",
+                "[]",
+                "{\"states\": [\"q0\"]",
+                "{\"states\": [\"q0\" \"q1\"]}",
+                "{\"states\": [\"q0\",]}",
+                "{\"alphabet\": [\"ab\"]}",
+                "{\"transitions\": [{\"from\": \"q0\", \"symbol\": \"a\"}]}",
+                "{\"states\": [\"q0\\x\"]}",
+                "{\"states\": []} {}",
+                "{\"states\" [\"q0\"]}"
+        };
+        for (String document : documents) {
+            assertThrows(IllegalArgumentException.class, () -> DFAJsonCodec.read(new StringReader(document)),
+                    document);
+        }
+    }
+    
+    @Test
+    void streamsLargeDocumentsToHandler() throws IOException {
+        int transitions = 200_000;
+        int[] counts = new int[2];
+        DFAJsonCodec.read(new GeneratedDocument(transitions), new DFAJsonCodec.Handler() {
+            @Override
+            public void state(String name) {
+            }
+            
+            @Override
+            public void symbol(char symbol) {
+                counts[0]++;
+            }
+            
+            @Override
+            public void startState(String name) {
+            }
+            
+            @Override
+            public void finalState(String name) {
+            }
+            
+            @Override
+            public void transition(String from, char symbol, String to) {
+                assertEquals('a', symbol);
+                counts[1]++;
+            }
+        });
+        assertEquals(1, counts[0]);
+        assertEquals(transitions, counts[1]);
+    }
+    
+    private static String write(DFA dfa) throws IOException {
+        StringWriter out = new StringWriter();
+        DFAJsonCodec.write(dfa, out);
+        return out.toString();
+    }
+    
+    private static Set<String> names(Set<State> states) {
+        return states.stream().map(State::getName).collect(Collectors.toCollection(TreeSet::new));
+    }
+    
+    /**
+     * Produces a document with many transitions on demand, without holding it in memory
+     */
+    private static final class GeneratedDocument extends Reader {
+        private final int transitions;
+        private int written;
+        private String chunk = "{\"alphabet\": [\"a\"], \"transitions\": [";
+        private int position;
+        
+        GeneratedDocument(int transitions) {
+            this.transitions = transitions;
+        }
+        
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            if (position == chunk.length()) {
+                if (written > transitions) {
+                    return -1;
+                }
+                if (written == transitions) {
+                    chunk = "]}";
+                } else {
+                    chunk = (written == 0 ? "" : ",") + "{\"from\": \"q" + written + "\", \"symbol\": \"a\", \"to\": \"q"
+                            + (written + 1) + "\"}";
+                }
+                written++;
+                position = 0;
+            }
+            int count = Math.min(length, chunk.length() - position);
+            chunk.getChars(position, position + count, buffer, offset);
+            position += count;
+            return count;
+        }
+        
+        @Override
+        public void close() {
+        }
+    }
+}
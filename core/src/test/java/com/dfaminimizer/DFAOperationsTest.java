@@ -0,0 +1,89 @@
+package com.dfaminimizer;
+
+import com.dfaminimizer.algorithm.BrzozowskiMinimizer;
+import com.dfaminimizer.algorithm.DFAMinimizer;
+import com.dfaminimizer.algorithm.DFAOperations;
+import com.dfaminimizer.algorithm.DFAOperations.Operation;
+import com.dfaminimizer.model.CompactDFA;
+import com.dfaminimizer.model.DFA;
+import com.dfaminimizer.regex.RegexCompiler;
+import com.dfaminimizer.testing.DFAOracle;
+import com.dfaminimizer.testing.RandomDFAs;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for product construction and complement
+ */
+public class DFAOperationsTest {
+    
+    private static final int SAMPLES = 500;
+    
+    private final DFAOperations minimizing = new DFAOperations();
+    private final DFAOperations plain = new DFAOperations(new DFAMinimizer(false), false);
+    
+    @ParameterizedTest
+    @EnumSource(Operation.class)
+    void combinesLanguages(Operation operation) {
+        Random random = new Random(31 + operation.ordinal());
+        for (int i = 0; i < SAMPLES; i++) {
+            // Different alphabets, so characters outside one operand must count as rejected there
+            CompactDFA first = CompactDFA.of(RandomDFAs.partial(random, 8, 2));
+            CompactDFA second = CompactDFA.of(RandomDFAs.complete(random, 8, 3));
+            CompactDFA minimized = minimizing.product(first, second, operation);
+            CompactDFA product = plain.product(first, second, operation);
+            
+            for (int w = 0; w < 40; w++) {
+                String word = RandomDFAs.word(random, 3, 8);
+                boolean expected = operation.accepts(first.accepts(word), second.accepts(word));
+                assertEquals(expected, product.accepts(word), () -> operation + " product on '" + word + "'");
+                assertEquals(expected, minimized.accepts(word), () -> operation + " minimized on '" + word + "'");
+            }
+            DFA result = minimized.toDFA();
+            assertNull(DFAOracle.distinguishingWord(product.toDFA(), result));
+            assertEquals(DFAOracle.nerodeClassCount(result), minimized.getStateCount());
+            assertTrue(minimized.getStateCount() <= new BrzozowskiMinimizer().minimize(product).getStateCount());
+        }
+    }
+    
+    @Test
+    void complementsRelativeToAlphabet() {
+        Random random = new Random(1);
+        for (int i = 0; i < SAMPLES; i++) {
+            CompactDFA dfa = CompactDFA.of(RandomDFAs.partial(random, 8, 3));
+            CompactDFA complement = minimizing.complement(dfa);
+            assertTrue(complement.isComplete());
+            for (int w = 0; w < 40; w++) {
+                String word = RandomDFAs.word(random, 3, 8);
+                if (word.chars().allMatch(c -> dfa.symbolIndex((char) c) >= 0)) {
+                    assertNotEquals(dfa.accepts(word), complement.accepts(word), word);
+                } else {
+                    assertFalse(complement.accepts(word), word);
+                }
+            }
+        }
+    }
+    
+    @Test
+    void combinesRegexLanguagesOverRanges() {
+        RegexCompiler compiler = new RegexCompiler();
+        CompactDFA identifiers = compiler.compile("[a-zA-Z_]\\w*").getCompactDFA();
+        CompactDFA keywords = compiler.compile("if|else|while").getCompactDFA();
+        
+        CompactDFA nonKeywords = minimizing.difference(identifiers, keywords);
+        assertTrue(nonKeywords.accepts("iff"));
+        assertTrue(nonKeywords.accepts("_x1"));
+        assertFalse(nonKeywords.accepts("while"));
+        assertFalse(nonKeywords.accepts("1x"));
+        
+        CompactDFA empty = minimizing.intersection(keywords, compiler.compile("\\d+").getCompactDFA());
+        assertEquals(1, empty.getStateCount());
+        assertFalse(empty.accepts(""));
+        assertEquals(keywords.getStateCount(), minimizing.intersection(identifiers, keywords).getStateCount());
+    }
+}
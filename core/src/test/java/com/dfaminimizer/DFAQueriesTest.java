@@ -0,0 +1,148 @@
+package com.dfaminimizer;
+
+import com.dfaminimizer.algorithm.DFAMinimizer;
+import com.dfaminimizer.algorithm.DFAOperations;
+import com.dfaminimizer.algorithm.DFAQueries;
+import com.dfaminimizer.model.CompactDFA;
+import com.dfaminimizer.model.DFA;
+import com.dfaminimizer.regex.RegexCompiler;
+import com.dfaminimizer.testing.DFAOracle;
+import com.dfaminimizer.testing.RandomDFAs;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for emptiness, inclusion and witness queries
+ */
+public class DFAQueriesTest {
+    
+    private static final int SAMPLES = 1000;
+    
+    @Test
+    void findsShortestAcceptedWord() {
+        Random random = new Random(1);
+        for (int i = 0; i < SAMPLES; i++) {
+            int alphabetSize = 1 + random.nextInt(3);
+            CompactDFA dfa = CompactDFA.of(RandomDFAs.partial(random, 10, alphabetSize));
+            Optional<String> witness = DFAQueries.shortestAccepted(dfa);
+            
+            assertEquals(witness.isEmpty(), DFAQueries.isEmpty(dfa));
+            if (witness.isPresent()) {
+                assertTrue(dfa.accepts(witness.get()));
+                assertFalse(acceptsShorter(dfa, "", witness.get().length(), alphabetSize), witness.get());
+            } else {
+                for (int w = 0; w < 50; w++) {
+                    assertFalse(dfa.accepts(RandomDFAs.word(random, alphabetSize, 10)));
+                }
+            }
+        }
+    }
+    
+    @Test
+    void decidesInclusionOnTheFly() {
+        DFAOperations operations = new DFAOperations(new DFAMinimizer(false), false);
+        Random random = new Random(2);
+        for (int i = 0; i < SAMPLES; i++) {
+            CompactDFA first = CompactDFA.of(RandomDFAs.partial(random, 6, 2));
+            CompactDFA other = CompactDFA.of(RandomDFAs.partial(random, 6, 2));
+            // Make inclusion hold in about half of the samples
+            CompactDFA second = random.nextBoolean() ? operations.union(first, other) : other;
+            
+            Optional<String> counterexample = DFAQueries.inclusionCounterexample(first, second);
+            assertEquals(DFAQueries.isEmpty(operations.difference(first, second)), counterexample.isEmpty());
+            counterexample.ifPresent(word -> {
+                assertTrue(first.accepts(word));
+                assertFalse(second.accepts(word));
+            });
+        }
+    }
+    
+    @Test
+    void agreesWithOracleOnEquivalence() {
+        Random random = new Random(3);
+        for (int i = 0; i < SAMPLES; i++) {
+            DFA first = RandomDFAs.complete(random, 6, 2);
+            DFA second = random.nextBoolean() ? new DFAMinimizer(false).minimize(first) : RandomDFAs.complete(random, 6, 2);
+            
+            String expected = DFAOracle.distinguishingWord(first, second);
+            Optional<String> word = DFAQueries.distinguishingWord(CompactDFA.of(first), CompactDFA.of(second));
+            assertEquals(expected == null, word.isEmpty());
+            assertEquals(expected == null, DFAQueries.isEquivalent(first, second));
+            word.ifPresent(w -> assertEquals(expected.length(), w.length()));
+        }
+    }
+    
+    @Test
+    void answersQueriesOverRanges() {
+        RegexCompiler compiler = new RegexCompiler();
+        CompactDFA digits = compiler.compile("\\d+").getCompactDFA();
+        CompactDFA words = compiler.compile("\\w+").getCompactDFA();
+        CompactDFA anything = compiler.compile("(.|\\n)*").getCompactDFA();
+        
+        assertTrue(DFAQueries.isSubsetOf(digits, words));
+        assertEquals(Optional.of("A"), DFAQueries.inclusionCounterexample(words, digits));
+        assertTrue(DFAQueries.isSubsetOf(words, anything));
+        assertEquals(Optional.of(""), DFAQueries.inclusionCounterexample(anything, words));
+        assertEquals(Optional.of("0"), DFAQueries.shortestAccepted(digits));
+        assertTrue(DFAQueries.isEmpty(new DFAOperations().intersection(digits, compiler.compile("[a-z]+").getCompactDFA())));
+    }
+    
+    @Test
+    void ignoresDeadSinksOfCompleteAutomata() {
+        RegexCompiler compiler = new RegexCompiler();
+        DFAOperations operations = new DFAOperations();
+        CompactDFA partial = compiler.compile("ab|abc").getCompactDFA();
+        // Complementing twice adds a rejecting sink that every missing transition leads to
+        CompactDFA complete = operations.complement(operations.complement(partial));
+        assertTrue(DFAQueries.isEquivalent(partial, complete));
+        assertTrue(DFAQueries.isSubsetOf(complete, partial));
+        assertEquals(Optional.of("abc"), DFAQueries.inclusionCounterexample(complete,
+                compiler.compile("ab").getCompactDFA()));
+        assertEquals(Optional.of(""), DFAQueries.distinguishingWord(complete, operations.complement(complete)));
+    }
+    
+    @Test
+    void mapsStatesToTheirBlocks() {
+        Random random = new Random(4);
+        for (int i = 0; i < 200; i++) {
+            CompactDFA dfa = CompactDFA.of(RandomDFAs.partial(random, 12, 2));
+            CompactDFA minimized = new DFAMinimizer(false).minimize(dfa);
+            int[] blocks = DFAQueries.correspondingStates(dfa, minimized);
+            assertEquals(dfa.getStateCount(), blocks.length);
+            for (int w = 0; w < 30; w++) {
+                int s = dfa.getStartState();
+                int m = minimized.getStartState();
+                for (char c : RandomDFAs.word(random, 2, 8).toCharArray()) {
+                    if (s == CompactDFA.NO_STATE || dfa.symbolIndex(c) < 0) {
+                        break;
+                    }
+                    assertEquals(m, blocks[s]);
+                    s = dfa.next(s, dfa.symbolIndex(c));
+                    m = m == CompactDFA.NO_STATE ? m : minimized.next(m, minimized.symbolIndex(c));
+                }
+            }
+        }
+    }
+    
+    /**
+     * Checks whether some word of length below the limit with the given prefix is accepted
+     */
+    private static boolean acceptsShorter(CompactDFA dfa, String prefix, int limit, int alphabetSize) {
+        if (prefix.length() >= limit) {
+            return false;
+        }
+        if (dfa.accepts(prefix)) {
+            return true;
+        }
+        for (int a = 0; a < alphabetSize; a++) {
+            if (acceptsShorter(dfa, prefix + RandomDFAs.symbol(a), limit, alphabetSize)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,135 @@
+package com.dfaminimizer;
+
+import com.dfaminimizer.matcher.DFASearcher;
+import com.dfaminimizer.model.CompactDFA;
+import com.dfaminimizer.model.DFA;
+import com.dfaminimizer.regex.CompiledRegex;
+import com.dfaminimizer.regex.RegexCompiler;
+import com.dfaminimizer.testing.RandomDFAs;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for unanchored search, checked against testing every substring
+ */
+public class DFASearcherTest {
+    
+    private final RegexCompiler compiler = new RegexCompiler();
+    
+    @ParameterizedTest
+    @ValueSource(strings = {"a", "abb", "(a|b)*abb", "ERROR [0-9]+", "x?", "[^a]b", "a*", "(ab)+c"})
+    void findsEveryMatchEnd(String pattern) {
+        CompactDFA dfa = compiler.compile(pattern).getCompactDFA();
+        DFASearcher searcher = DFASearcher.of(dfa);
+        Random random = new Random(pattern.hashCode());
+        String symbols = "abcx ERO0123\n\u00e9";
+        for (int i = 0; i < 300; i++) {
+            String text = randomText(random, symbols, 30);
+            assertEquals(expectedEnds(dfa, text), ends(searcher, text), () -> pattern + " in '" + text + "'");
+        }
+    }
+    
+    @Test
+    void agreesWithSubstringsOnRandomDFAs() {
+        Random random = new Random(1);
+        for (int i = 0; i < 300; i++) {
+            DFA dfa = RandomDFAs.mixed(random, i, 6, 2);
+            CompactDFA compact = CompactDFA.of(dfa);
+            DFASearcher searcher = DFASearcher.of(compact);
+            for (int t = 0; t < 10; t++) {
+                String text = RandomDFAs.word(random, 3, 20);
+                List<Long> ends = ends(searcher, text);
+                assertEquals(expectedEnds(compact, text), ends, () -> dfa + " in '" + text + "'");
+                for (long end : ends) {
+                    assertEquals(expectedStart(compact, text, (int) end), searcher.matchStart(text, (int) end));
+                }
+            }
+        }
+    }
+    
+    @Test
+    void reportsFirstMatchAndCounts() {
+        DFASearcher searcher = compiler.compile("ERROR [0-9]+").searcher();
+        String log = "INFO ok\nERROR 42 disk\nWARN x\nERROR 7\n";
+        // "ERROR 42" ends a match after the 4 and after the 2
+        int end = searcher.find(log);
+        assertEquals(log.indexOf("ERROR 42") + 7, end);
+        assertEquals(log.indexOf("ERROR 42"), searcher.matchStart(log, end + 1));
+        assertEquals(3, searcher.count(log));
+        assertEquals(-1, searcher.find("INFO only"));
+        assertEquals(-1, searcher.matchStart(log, 3));
+    }
+    
+    @Test
+    void searchesMappedFiles(@TempDir Path dir) throws IOException {
+        CompiledRegex regex = compiler.compile("timeout after [0-9]+ms");
+        DFASearcher searcher = regex.searcher();
+        StringBuilder text = new StringBuilder();
+        Random random = new Random(7);
+        for (int line = 0; line < 20000; line++) {
+            text.append(line % 97 == 0 ? "request timeout after " + random.nextInt(1000) + "ms\n" : "request ok\n");
+        }
+        Path file = dir.resolve("app.log");
+        Files.writeString(file, text, StandardCharsets.ISO_8859_1);
+        
+        List<Long> fromFile = new ArrayList<>();
+        searcher.search(file, end -> fromFile.add(end));
+        assertEquals(ends(searcher, text), fromFile);
+        assertEquals(fromFile.size(), searcher.count(file));
+        assertTrue(fromFile.size() >= 20000 / 97);
+    }
+    
+    @Test
+    void stopsWhenVisitorReturnsFalse() {
+        DFASearcher searcher = compiler.compile("a").searcher();
+        List<Long> ends = new ArrayList<>();
+        searcher.search("banana", end -> ends.add(end) && ends.size() < 2);
+        assertEquals(List.of(2L, 4L), ends);
+    }
+    
+    private static List<Long> ends(DFASearcher searcher, CharSequence text) {
+        List<Long> ends = new ArrayList<>();
+        searcher.search(text, end -> ends.add(end));
+        return ends;
+    }
+    
+    private static List<Long> expectedEnds(CompactDFA dfa, String text) {
+        List<Long> ends = new ArrayList<>();
+        for (int end = 0; end <= text.length(); end++) {
+            if (expectedStart(dfa, text, end) >= 0) {
+                ends.add((long) end);
+            }
+        }
+        return ends;
+    }
+    
+    private static int expectedStart(CompactDFA dfa, String text, int end) {
+        for (int start = 0; start <= end; start++) {
+            if (dfa.accepts(text.substring(start, end))) {
+                return start;
+            }
+        }
+        return -1;
+    }
+    
+    private static String randomText(Random random, String symbols, int maxLength) {
+        int length = random.nextInt(maxLength + 1);
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(symbols.charAt(random.nextInt(symbols.length())));
+        }
+        return sb.toString();
+    }
+}
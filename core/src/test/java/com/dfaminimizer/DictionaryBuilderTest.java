@@ -0,0 +1,148 @@
+package com.dfaminimizer;
+
+import com.dfaminimizer.algorithm.DFAMinimizer;
+import com.dfaminimizer.algorithm.DictionaryBuilder;
+import com.dfaminimizer.model.CompactDFA;
+import com.dfaminimizer.model.DFA;
+import com.dfaminimizer.testing.RandomDFAs;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for incremental construction of minimal dictionary automata
+ */
+public class DictionaryBuilderTest {
+    
+    @Test
+    void acceptsExactlyTheWords() {
+        List<String> words = List.of("tap", "taps", "top", "tops", "stop", "stops", "a", "");
+        CompactDFA dfa = DictionaryBuilder.build(words);
+        for (String word : words) {
+            assertTrue(dfa.accepts(word), word);
+        }
+        for (String word : List.of("t", "ta", "tapss", "sto", "b", "aa")) {
+            assertFalse(dfa.accepts(word), word);
+        }
+        assertEquals(0, dfa.getStartState());
+    }
+    
+    @Test
+    void matchesMinimizedTrie() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100; i++) {
+            Set<String> words = new HashSet<>();
+            int count = random.nextInt(60);
+            for (int w = 0; w < count; w++) {
+                words.add(RandomDFAs.word(random, 3, 7));
+            }
+            CompactDFA built = DictionaryBuilder.build(words);
+            CompactDFA minimized = new DFAMinimizer(false).minimize(trie(words));
+            assertEquals(minimized.getStateCount(), built.getStateCount(), words.toString());
+            for (int w = 0; w < 50; w++) {
+                String word = RandomDFAs.word(random, 3, 7);
+                assertEquals(words.contains(word), built.accepts(word), word);
+            }
+        }
+    }
+    
+    @Test
+    void sharesSuffixesWhileAdding() {
+        DictionaryBuilder builder = new DictionaryBuilder();
+        for (String word : List.of("bakes", "cakes", "fakes", "makes", "takes")) {
+            builder.add(word);
+        }
+        assertEquals(5, builder.getWordCount());
+        // Only the suffix "akes" of the first words is finished and shared so far
+        assertTrue(builder.getRegisteredStateCount() <= 5);
+        CompactDFA dfa = builder.toCompactDFA();
+        assertEquals(6, dfa.getStateCount());
+        assertSame(dfa, builder.toCompactDFA());
+    }
+    
+    @Test
+    void rejectsOutOfOrderWords() {
+        DictionaryBuilder builder = new DictionaryBuilder();
+        builder.add("b");
+        builder.add("b");
+        assertThrows(IllegalArgumentException.class, () -> builder.add("a"));
+        assertThrows(IllegalArgumentException.class, () -> builder.add(""));
+        assertThrows(IllegalArgumentException.class, () -> builder.addAll(List.of("d", "c")));
+        assertEquals(1, builder.getWordCount());
+        builder.toDFA();
+        assertThrows(IllegalStateException.class, () -> builder.add("c"));
+    }
+    
+    @Test
+    void sortsUnsortedWordsForEmptyBuilder() {
+        CompactDFA dfa = DictionaryBuilder.build(List.of("pear", "apple", "peach", "apple"));
+        assertTrue(dfa.accepts("apple"));
+        assertTrue(dfa.accepts("peach"));
+        assertTrue(dfa.accepts("pear"));
+        assertFalse(dfa.accepts("pea"));
+    }
+    
+    @Test
+    void buildsEmptyDictionaries() {
+        CompactDFA empty = DictionaryBuilder.build(List.of());
+        assertEquals(1, empty.getStateCount());
+        assertFalse(empty.accepts(""));
+        
+        CompactDFA emptyWord = DictionaryBuilder.build(List.of(""));
+        assertEquals(1, emptyWord.getStateCount());
+        assertTrue(emptyWord.accepts(""));
+        assertFalse(emptyWord.accepts("a"));
+        
+        DFA dfa = new DictionaryBuilder().toDFA();
+        assertFalse(dfa.accepts(""));
+    }
+    
+    @Test
+    void buildsLargeDictionary() {
+        // All numbers below 100000 written in decimal, plus the same with a sign
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 100000; i++) {
+            words.add(Integer.toString(i));
+            words.add("-" + i);
+        }
+        DictionaryBuilder builder = new DictionaryBuilder();
+        builder.addAll(words);
+        CompactDFA dfa = builder.toCompactDFA();
+        assertEquals(200000, builder.getWordCount());
+        assertTrue(dfa.getStateCount() < 20, "States: " + dfa.getStateCount());
+        assertTrue(dfa.accepts("99999"));
+        assertTrue(dfa.accepts("-0"));
+        assertFalse(dfa.accepts("100000"));
+        assertFalse(dfa.accepts("007"));
+    }
+    
+    private static CompactDFA trie(Set<String> words) {
+        List<int[]> rows = new ArrayList<>();
+        List<Boolean> accepting = new ArrayList<>();
+        char[] alphabet = {'a', 'b', 'c'};
+        rows.add(new int[]{-1, -1, -1});
+        accepting.add(false);
+        for (String word : words) {
+            int state = 0;
+            for (char c : word.toCharArray()) {
+                int symbol = c - 'a';
+                if (rows.get(state)[symbol] == -1) {
+                    rows.get(state)[symbol] = rows.size();
+                    rows.add(new int[]{-1, -1, -1});
+                    accepting.add(false);
+                }
+                state = rows.get(state)[symbol];
+            }
+            accepting.set(state, true);
+        }
+        int[] transitions = new int[rows.size() * alphabet.length];
+        boolean[] finals = new boolean[rows.size()];
+        for (int s = 0; s < rows.size(); s++) {
+            System.arraycopy(rows.get(s), 0, transitions, s * alphabet.length, alphabet.length);
+            finals[s] = accepting.get(s);
+        }
+        return new CompactDFA(alphabet, transitions, finals, 0);
+    }
+}
@@ -0,0 +1,114 @@
+package com.dfaminimizer;
+
+import com.dfaminimizer.model.CompactDFA;
+import com.dfaminimizer.model.DFA;
+import com.dfaminimizer.model.FrozenDFA;
+import com.dfaminimizer.model.State;
+import com.dfaminimizer.testing.DFAOracle;
+import com.dfaminimizer.testing.RandomDFAs;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for immutable DFA snapshots
+ */
+public class FrozenDFATest {
+    
+    @Test
+    void snapshotAcceptsSameLanguage() {
+        Random random = new Random(3);
+        for (int i = 0; i < 200; i++) {
+            DFA dfa = RandomDFAs.mixed(random, i, 10, 3);
+            FrozenDFA frozen = dfa.freeze();
+            assertEquals(dfa.getStates().size(), frozen.getStateCount());
+            for (int w = 0; w < 30; w++) {
+                String word = RandomDFAs.word(random, 4, 8);
+                assertEquals(dfa.accepts(word), frozen.accepts(word), word);
+                assertEquals(dfa.accepts(word), frozen.toCompactDFA().accepts(word), word);
+            }
+            assertTrue(DFAOracle.isomorphic(dfa, frozen.toDFA()));
+        }
+    }
+    
+    @Test
+    void laterEditsDoNotChangeSnapshot() {
+        DFA dfa = new DFA();
+        State q0 = new State("q0", true, false);
+        State q1 = new State("q1", false, true);
+        dfa.addState(q0);
+        dfa.addState(q1);
+        dfa.addTransition(q0, q1, 'a');
+        FrozenDFA frozen = dfa.freeze();
+        
+        q0.setFinal(true);
+        q1.setFinal(false);
+        dfa.addFinalState(q0);
+        dfa.addTransition(q1, q0, 'b');
+        dfa.addState(new State("q2"));
+        
+        assertEquals(List.of("q0", "q1"), frozen.getStateNames());
+        assertTrue(frozen.accepts("a"));
+        assertFalse(frozen.accepts(""));
+        assertFalse(frozen.accepts("ab"));
+        assertEquals(CompactDFA.NO_STATE, frozen.next(1, 'b'));
+        assertFalse(frozen.getAlphabet().contains('b'));
+    }
+    
+    @Test
+    void viewsAreSharedAndUnmodifiable() {
+        FrozenDFA frozen = RandomDFAs.complete(new Random(1), 5, 2).freeze();
+        assertSame(frozen.getStateNames(), frozen.getStateNames());
+        assertSame(frozen.getAlphabet(), frozen.getAlphabet());
+        assertThrows(UnsupportedOperationException.class, () -> frozen.getStateNames().set(0, "x"));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.getAlphabet().add('z'));
+        assertEquals(0, frozen.getStartState());
+        assertEquals(0, frozen.indexOf(frozen.getStateName(0)));
+        assertEquals(CompactDFA.NO_STATE, frozen.indexOf("missing"));
+    }
+    
+    @Test
+    void withoutStartStateAcceptsNothing() {
+        DFA dfa = new DFA();
+        dfa.addState(new State("q0", false, true));
+        FrozenDFA frozen = dfa.freeze();
+        assertEquals(CompactDFA.NO_STATE, frozen.getStartState());
+        assertFalse(frozen.accepts(""));
+        assertNull(frozen.toDFA().getStartState());
+    }
+    
+    @Test
+    void sharedBetweenThreadsWithoutCopying() throws Exception {
+        Random random = new Random(2);
+        DFA dfa = RandomDFAs.complete(random, 20, 3);
+        FrozenDFA frozen = dfa.freeze();
+        String[] words = new String[1000];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = RandomDFAs.word(random, 3, 12);
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                results.add(pool.submit(() -> {
+                    for (String word : words) {
+                        if (frozen.accepts(word) != dfa.accepts(word)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
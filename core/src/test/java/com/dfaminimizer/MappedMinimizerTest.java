@@ -0,0 +1,127 @@
+package com.dfaminimizer;
+
+import com.dfaminimizer.algorithm.DFAMinimizer;
+import com.dfaminimizer.algorithm.MappedMinimizer;
+import com.dfaminimizer.model.CompactDFA;
+import com.dfaminimizer.model.MappedDFA;
+import com.dfaminimizer.model.MappedIntArray;
+import com.dfaminimizer.testing.DFAOracle;
+import com.dfaminimizer.testing.RandomDFAs;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for minimization over memory mapped transition tables
+ */
+public class MappedMinimizerTest {
+    
+    @TempDir
+    Path directory;
+    
+    @Test
+    void matchesHeapMinimizer() throws Exception {
+        Random random = new Random(2);
+        MappedMinimizer minimizer = new MappedMinimizer(directory.resolve("work"));
+        for (int i = 0; i < 100; i++) {
+            CompactDFA dfa = CompactDFA.of(RandomDFAs.mixed(random, i, 30, 3));
+            Path input = directory.resolve("input-" + i);
+            Path output = directory.resolve("output-" + i);
+            try (MappedDFA mapped = MappedDFA.of(dfa, input);
+                    MappedDFA minimized = minimizer.minimize(mapped, output)) {
+                CompactDFA expected = new DFAMinimizer(false).minimize(dfa);
+                CompactDFA actual = minimized.toCompactDFA();
+                assertEquals(expected.getStateCount(), actual.getStateCount());
+                assertTrue(DFAOracle.isomorphic(expected.toDFA(), actual.toDFA()));
+                for (int w = 0; w < 20; w++) {
+                    String word = RandomDFAs.word(random, 3, 8);
+                    assertEquals(dfa.accepts(word), minimized.accepts(word), word);
+                }
+            }
+        }
+        // Scratch files are removed, only the result directories remain
+        try (Stream<Path> work = Files.list(directory.resolve("work"))) {
+            assertEquals(0, work.count());
+        }
+    }
+    
+    @Test
+    void minimizesLargeDFAWithoutHeapTable() throws Exception {
+        CompactDFA dfa = CompactDFA.of(MinimizationBenchmark.nthSymbolFromEnd(14));
+        try (MappedDFA mapped = MappedDFA.of(dfa, directory.resolve("input"));
+                MappedDFA minimized = new MappedMinimizer(directory).minimize(mapped, directory.resolve("output"))) {
+            assertEquals(1 << 14, minimized.getStateCount());
+            assertEquals(0, minimized.getStartState());
+        }
+    }
+    
+    @Test
+    void newTableHasNoTransitions() throws Exception {
+        CompactDFA template = CompactDFA.of(RandomDFAs.complete(new Random(1), 4, 2));
+        try (MappedDFA dfa = MappedDFA.create(directory, template.getClassMap(), 40)) {
+            assertEquals(CompactDFA.NO_STATE, dfa.getStartState());
+            for (int s = 0; s < 40; s++) {
+                assertFalse(dfa.isAccepting(s));
+                assertEquals(CompactDFA.NO_STATE, dfa.next(s, 1));
+            }
+            dfa.setAccepting(33, true);
+            dfa.setTransition(39, 1, 0);
+            assertTrue(dfa.isAccepting(33));
+            assertFalse(dfa.isAccepting(1));
+            assertEquals(0, dfa.next(39, 1));
+            assertThrows(IllegalArgumentException.class, () -> dfa.setTransition(0, 0, 40));
+        }
+    }
+    
+    @Test
+    void arraySpansSeveralMappings() throws Exception {
+        // Sparse file, so only the touched pages use disk space
+        long length = (1L << 27) + 10;
+        try (MappedIntArray array = MappedIntArray.create(directory.resolve("large.bin"), length)) {
+            assertEquals(length, array.length());
+            array.set((1L << 27) - 1, 7);
+            array.set(1L << 27, 8);
+            array.set(length - 1, 9);
+            assertEquals(7, array.get((1L << 27) - 1));
+            assertEquals(8, array.get(1L << 27));
+            assertEquals(9, array.get(length - 1));
+            assertEquals(0, array.get(12345));
+            array.force();
+        }
+        try (MappedIntArray array = MappedIntArray.open(directory.resolve("large.bin"))) {
+            assertEquals(9, array.get(length - 1));
+        }
+    }
+    
+    @Test
+    void scratchCleanupNeverThrows() throws Exception {
+        Path scratch = Files.createDirectories(directory.resolve("scratch/nested"));
+        try (MappedIntArray array = MappedIntArray.create(scratch.resolve("block.bin"), 16)) {
+            array.set(3, 1);
+            MappedIntArray.deleteDirectory(directory.resolve("scratch"));
+        }
+        assertFalse(Files.exists(directory.resolve("scratch")));
+        MappedIntArray.deleteDirectory(directory.resolve("missing"));
+    }
+    
+    @Test
+    void stopsWhenInterrupted() throws Exception {
+        CompactDFA dfa = CompactDFA.of(RandomDFAs.complete(new Random(3), 50, 2));
+        try (MappedDFA mapped = MappedDFA.of(dfa, directory.resolve("input"))) {
+            Thread.currentThread().interrupt();
+            try {
+                assertThrows(CancellationException.class,
+                        () -> new MappedMinimizer(directory).minimize(mapped, directory.resolve("output")));
+            } finally {
+                Thread.interrupted();
+            }
+        }
+    }
+}
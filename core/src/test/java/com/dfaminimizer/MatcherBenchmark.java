@@ -0,0 +1,92 @@
+package com.dfaminimizer;
+
+import com.dfaminimizer.matcher.CompiledMatcher;
+import com.dfaminimizer.matcher.TableMatcher;
+import com.dfaminimizer.model.CompactDFA;
+import com.dfaminimizer.regex.RegexCompiler;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH comparison of the table driven and the generated bytecode matcher.
+ * The generated matcher replaces array loads by compares and branches, so it gains most when the
+ * branches predict well; on uniformly random input the table matcher can be faster.
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.openjdk.jmh.Main -Dexec.args=MatcherBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatcherBenchmark {
+    
+    @Param({"(a|b)*abb", "[a-z0-9._]+@[a-z0-9]+\\.(com|org|net)", "[^\\s]*(\\d\\d)+"})
+    public String pattern;
+    
+    /** Length of each input */
+    @Param({"16", "1024"})
+    public int length;
+    
+    /**
+     * uniform: every step picks a random transition, so the state sequence is unpredictable.
+     * skewed: most steps take the same transition, as in typical text, so branches predict well.
+     */
+    @Param({"uniform", "skewed"})
+    public String input;
+    
+    private TableMatcher table;
+    private CompiledMatcher compiled;
+    private String[] inputs;
+    private int next;
+    
+    @Setup
+    public void setUp() {
+        CompactDFA dfa = new RegexCompiler().compile(pattern).getCompactDFA();
+        table = TableMatcher.of(dfa);
+        compiled = CompiledMatcher.of(dfa);
+        Random random = new Random(42);
+        inputs = new String[64];
+        for (int i = 0; i < inputs.length; i++) {
+            inputs[i] = randomWalk(dfa, random);
+        }
+    }
+    
+    /**
+     * Follows random transitions from the start state, so the input is not rejected early
+     */
+    private String randomWalk(CompactDFA dfa, Random random) {
+        StringBuilder sb = new StringBuilder(length);
+        int state = dfa.getStartState();
+        while (sb.length() < length) {
+            boolean skewed = input.equals("skewed") && random.nextInt(16) != 0;
+            int symbol = skewed ? 0 : random.nextInt(dfa.getAlphabetSize());
+            for (int tries = 0; tries < dfa.getAlphabetSize() && dfa.next(state, symbol) < 0; tries++) {
+                symbol = (symbol + 1) % dfa.getAlphabetSize();
+            }
+            if (dfa.next(state, symbol) < 0) {
+                break;
+            }
+            sb.append(dfa.getClassMap().representative(symbol));
+            state = dfa.next(state, symbol);
+        }
+        return sb.toString();
+    }
+    
+    private String nextInput() {
+        next = (next + 1) & (inputs.length - 1);
+        return inputs[next];
+    }
+    
+    @Benchmark
+    public boolean table() {
+        return table.matches(nextInput());
+    }
+    
+    @Benchmark
+    public boolean bytecode() {
+        return compiled.matches(nextInput());
+    }
+}
@@ -0,0 +1,73 @@
+package com.dfaminimizer;
+
+import com.dfaminimizer.algorithm.BrzozowskiMinimizer;
+import com.dfaminimizer.algorithm.DFAMinimizer;
+import com.dfaminimizer.model.DFA;
+import com.dfaminimizer.model.State;
+import com.dfaminimizer.testing.RandomDFAs;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH comparison of the minimization engines.
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.openjdk.jmh.Main -Dexec.args=MinimizationBenchmark
+ */
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MinimizationBenchmark {
+    
+    /**
+     * random: random complete DFA, where the reversed automaton usually blows up.
+     * suffix: DFA for "the n-th symbol from the end is a", whose reverse is tiny.
+     */
+    @Param({"random", "suffix"})
+    public String shape;
+    
+    @Param({"16", "64", "256"})
+    public int states;
+    
+    private DFA dfa;
+    private final DFAMinimizer refinement = new DFAMinimizer(false);
+    private final BrzozowskiMinimizer brzozowski = new BrzozowskiMinimizer();
+    
+    @Setup
+    public void setUp() {
+        dfa = shape.equals("suffix")
+                ? nthSymbolFromEnd(Integer.numberOfTrailingZeros(states))
+                : RandomDFAs.complete(new Random(42), states, 2);
+    }
+    
+    @Benchmark
+    public DFA partitionRefinement() {
+        return refinement.minimize(dfa);
+    }
+    
+    @Benchmark
+    public DFA brzozowski() {
+        return brzozowski.minimize(dfa);
+    }
+    
+    /**
+     * Builds the minimal 2^n state DFA that remembers the last n symbols
+     */
+    static DFA nthSymbolFromEnd(int n) {
+        int size = 1 << n;
+        DFA dfa = new DFA();
+        State[] states = new State[size];
+        for (int window = 0; window < size; window++) {
+            states[window] = new State("w" + window, window == 0, (window >>> (n - 1)) == 1);
+            dfa.addState(states[window]);
+        }
+        for (int window = 0; window < size; window++) {
+            dfa.addTransition(states[window], states[((window << 1) | 1) & (size - 1)], 'a');
+            dfa.addTransition(states[window], states[(window << 1) & (size - 1)], 'b');
+        }
+        return dfa;
+    }
+}
@@ -0,0 +1,134 @@
+package com.dfaminimizer;
+
+import com.dfaminimizer.algorithm.BrzozowskiMinimizer;
+import com.dfaminimizer.algorithm.DFAMinimizer;
+import com.dfaminimizer.algorithm.MappedMinimizer;
+import com.dfaminimizer.algorithm.MinimizationEngine;
+import com.dfaminimizer.model.DFA;
+import com.dfaminimizer.testing.DFAOracle;
+import com.dfaminimizer.testing.RandomDFAs;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Property based checks that every minimization engine must satisfy on generated DFAs.
+ * New engines only need to be added to {@link #engines()}.
+ */
+public class MinimizationPropertiesTest {
+    
+    private static final int SAMPLES = 2000;
+    private static final int MAX_STATES = 12;
+    private static final int MAX_ALPHABET = 3;
+    private static final int WORDS_PER_DFA = 20;
+    
+    static Stream<MinimizationEngine> engines() {
+        return Stream.of(new DFAMinimizer(false), setPath(), new BrzozowskiMinimizer(), new MappedMinimizer());
+    }
+    
+    /**
+     * Runs the set-based refinement of {@link DFAMinimizer}, which is only taken when verbose, with
+     * its log discarded
+     */
+    private static MinimizationEngine setPath() {
+        DFAMinimizer engine = new DFAMinimizer(true);
+        return new MinimizationEngine() {
+            @Override
+            public DFA minimize(DFA dfa) {
+                PrintStream out = System.out;
+                System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+                try {
+                    return engine.minimize(dfa);
+                } finally {
+                    System.setOut(out);
+                }
+            }
+            
+            @Override
+            public String getName() {
+                return engine.getName() + " (sets)";
+            }
+        };
+    }
+    
+    @ParameterizedTest
+    @MethodSource("engines")
+    void preservesLanguage(MinimizationEngine engine) {
+        Random random = new Random(1);
+        for (int i = 0; i < SAMPLES; i++) {
+            int alphabetSize = 1 + random.nextInt(MAX_ALPHABET);
+            DFA dfa = RandomDFAs.mixed(random, i, MAX_STATES, alphabetSize);
+            DFA minimized = engine.minimize(dfa);
+            
+            String witness = DFAOracle.distinguishingWord(dfa, minimized);
+            assertNull(witness, () -> engine.getName() + " changed the language of " + dfa
+                    + " on word '" + witness + "'");
+            
+            for (int w = 0; w < WORDS_PER_DFA; w++) {
+                // One extra symbol outside the alphabet exercises rejection of unknown input
+                String word = RandomDFAs.word(random, alphabetSize + 1, 8);
+                assertEquals(dfa.accepts(word), minimized.accepts(word),
+                        () -> engine.getName() + " disagrees with accepts on '" + word + "' for " + dfa);
+            }
+        }
+    }
+    
+    @ParameterizedTest
+    @MethodSource("engines")
+    void isIdempotent(MinimizationEngine engine) {
+        Random random = new Random(2);
+        for (int i = 0; i < SAMPLES; i++) {
+            int alphabetSize = 1 + random.nextInt(MAX_ALPHABET);
+            DFA dfa = RandomDFAs.mixed(random, i, MAX_STATES, alphabetSize);
+            DFA once = engine.minimize(dfa);
+            DFA twice = engine.minimize(once);
+            
+            assertEquals(once.getStates().size(), twice.getStates().size(),
+                    () -> engine.getName() + " is not idempotent on " + dfa);
+            assertTrue(DFAOracle.isomorphic(once, twice),
+                    () -> engine.getName() + " produced a different automaton on second run for " + dfa);
+        }
+    }
+    
+    @ParameterizedTest
+    @MethodSource("engines")
+    void producesMinimalStateCount(MinimizationEngine engine) {
+        Random random = new Random(3);
+        for (int i = 0; i < SAMPLES; i++) {
+            DFA dfa = RandomDFAs.complete(random, MAX_STATES, 1 + random.nextInt(MAX_ALPHABET));
+            DFA minimized = engine.minimize(dfa);
+            
+            assertEquals(DFAOracle.nerodeClassCount(dfa), minimized.getStates().size(),
+                    () -> engine.getName() + " is not minimal for " + dfa);
+        }
+    }
+    
+    @Test
+    void enginesAgree() {
+        List<MinimizationEngine> all = engines().toList();
+        Random random = new Random(4);
+        for (int i = 0; i < SAMPLES; i++) {
+            int alphabetSize = 1 + random.nextInt(MAX_ALPHABET);
+            DFA dfa = RandomDFAs.mixed(random, i, MAX_STATES, alphabetSize);
+            DFA reference = all.get(0).minimize(dfa);
+            for (MinimizationEngine engine : all.subList(1, all.size())) {
+                DFA candidate = engine.minimize(dfa);
+                assertNull(DFAOracle.distinguishingWord(reference, candidate),
+                        () -> engine.getName() + " disagrees with " + all.get(0).getName() + " on " + dfa);
+                // Even samples are complete, so their minimal DFAs are unique up to renaming
+                if (i % 2 == 0) {
+                    assertTrue(DFAOracle.isomorphic(reference, candidate),
+                            () -> engine.getName() + " is not isomorphic to " + all.get(0).getName() + " on " + dfa);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.dfaminimizer;
+
+import com.dfaminimizer.algorithm.BrzozowskiMinimizer;
+import com.dfaminimizer.algorithm.DFAMinimizer;
+import com.dfaminimizer.algorithm.LazyDFA;
+import com.dfaminimizer.algorithm.SubsetConstruction;
+import com.dfaminimizer.model.DFA;
+import com.dfaminimizer.model.NFA;
+import com.dfaminimizer.model.State;
+import com.dfaminimizer.testing.DFAOracle;
+import com.dfaminimizer.testing.RandomDFAs;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the NFA model, lazy determinization and NFA minimization
+ */
+public class NFATest {
+    
+    private static final int SAMPLES = 1000;
+    
+    @Test
+    void followsEpsilonTransitions() {
+        // (ab)* | c
+        NFA nfa = new NFA();
+        State start = new State("s", true, false);
+        State loop = new State("l", false, true);
+        State afterA = new State("a", false, false);
+        State c = new State("c", false, true);
+        nfa.addState(start);
+        nfa.addState(loop);
+        nfa.addState(afterA);
+        nfa.addState(c);
+        nfa.addEpsilonTransition(start, loop);
+        nfa.addTransition(loop, afterA, 'a');
+        nfa.addTransition(afterA, loop, 'b');
+        nfa.addTransition(start, c, 'c');
+        
+        LazyDFA lazy = new LazyDFA(nfa);
+        for (String accepted : new String[] {"", "ab", "abab", "c"}) {
+            assertTrue(nfa.accepts(accepted), accepted);
+            assertTrue(lazy.accepts(accepted), accepted);
+        }
+        for (String rejected : new String[] {"a", "abc", "cc", "ba", "x"}) {
+            assertFalse(nfa.accepts(rejected), rejected);
+            assertFalse(lazy.accepts(rejected), rejected);
+        }
+        
+        DFA minimized = new BrzozowskiMinimizer().minimize(nfa);
+        // start, after a, after ab, after c
+        assertEquals(4, minimized.getStates().size());
+    }
+    
+    @Test
+    void lazyMatchingAgreesWithSimulationUnderEviction() {
+        Random random = new Random(1);
+        for (int i = 0; i < SAMPLES; i++) {
+            int alphabetSize = 1 + random.nextInt(3);
+            NFA nfa = randomNFA(random, 10, alphabetSize);
+            LazyDFA unbounded = new LazyDFA(nfa);
+            LazyDFA tiny = new LazyDFA(nfa, 2);
+            for (int w = 0; w < 20; w++) {
+                String word = RandomDFAs.word(random, alphabetSize + 1, 10);
+                boolean expected = nfa.accepts(word);
+                assertEquals(expected, unbounded.accepts(word), () -> "'" + word + "' on " + nfa);
+                assertEquals(expected, tiny.accepts(word), () -> "'" + word + "' with eviction on " + nfa);
+            }
+            assertTrue(tiny.getCachedStateCount() <= 2);
+        }
+    }
+    
+    @Test
+    void minimizesWithoutDeterminizingFirst() {
+        Random random = new Random(2);
+        BrzozowskiMinimizer brzozowski = new BrzozowskiMinimizer();
+        for (int i = 0; i < SAMPLES; i++) {
+            NFA nfa = randomNFA(random, 8, 1 + random.nextInt(3));
+            DFA determinized = SubsetConstruction.of(nfa, Long.MAX_VALUE).determinize(false).toDFA();
+            DFA minimized = brzozowski.minimize(nfa);
+            
+            assertNull(DFAOracle.distinguishingWord(determinized, minimized), () -> "language changed for " + nfa);
+            assertTrue(DFAOracle.isomorphic(brzozowski.minimize(NFA.of(determinized)), minimized),
+                    () -> "not minimal for " + nfa);
+            assertTrue(minimized.getStates().size() <= new DFAMinimizer(false).minimize(determinized).getStates().size());
+            // Over budget, the fallback determinizes without the budget that was just exceeded
+            DFA fallback = new BrzozowskiMinimizer(1, new DFAMinimizer(false)).minimize(nfa);
+            assertNull(DFAOracle.distinguishingWord(determinized, fallback), () -> "fallback changed " + nfa);
+        }
+    }
+    
+    static NFA randomNFA(Random random, int maxStates, int alphabetSize) {
+        int stateCount = 1 + random.nextInt(maxStates);
+        NFA nfa = new NFA();
+        State[] states = new State[stateCount];
+        for (int i = 0; i < stateCount; i++) {
+            states[i] = new State("n" + i, i == 0 || random.nextInt(8) == 0, random.nextInt(3) == 0);
+            nfa.addState(states[i]);
+        }
+        int edges = random.nextInt(stateCount * alphabetSize * 2 + 1);
+        for (int e = 0; e < edges; e++) {
+            State from = states[random.nextInt(stateCount)];
+            State to = states[random.nextInt(stateCount)];
+            if (random.nextInt(5) == 0) {
+                nfa.addEpsilonTransition(from, to);
+            } else {
+                nfa.addTransition(from, to, RandomDFAs.symbol(random.nextInt(alphabetSize)));
+            }
+        }
+        return nfa;
+    }
+}
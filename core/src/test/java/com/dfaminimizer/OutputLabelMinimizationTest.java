@@ -0,0 +1,148 @@
+package com.dfaminimizer;
+
+import com.dfaminimizer.algorithm.BrzozowskiMinimizer;
+import com.dfaminimizer.algorithm.DFAMinimizer;
+import com.dfaminimizer.algorithm.MappedMinimizer;
+import com.dfaminimizer.io.DFAJsonCodec;
+import com.dfaminimizer.io.DFATextFormat;
+import com.dfaminimizer.model.CharClassMap;
+import com.dfaminimizer.model.CompactDFA;
+import com.dfaminimizer.model.DFA;
+import com.dfaminimizer.model.FrozenDFA;
+import com.dfaminimizer.model.MappedDFA;
+import com.dfaminimizer.model.State;
+import com.dfaminimizer.testing.RandomDFAs;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for minimizing automata whose states carry output labels
+ */
+public class OutputLabelMinimizationTest {
+    
+    /**
+     * Output of the state reached by a word, or -1 if the word leaves the automaton
+     */
+    private static int outputAfter(CompactDFA dfa, String word) {
+        int state = dfa.getStartState();
+        for (int i = 0; i < word.length() && state != CompactDFA.NO_STATE; i++) {
+            int symbol = dfa.symbolIndex(word.charAt(i));
+            state = symbol < 0 ? CompactDFA.NO_STATE : dfa.next(state, symbol);
+        }
+        return state == CompactDFA.NO_STATE ? -1 : dfa.getOutput(state);
+    }
+    
+    @Test
+    void keepsOutputsOfRandomMooreMachines() {
+        Random random = new Random(1);
+        for (int i = 0; i < 300; i++) {
+            DFA dfa = RandomDFAs.mixed(random, i, 12, 2);
+            for (State state : dfa.getStates()) {
+                state.setOutput(random.nextInt(3));
+            }
+            CompactDFA compact = CompactDFA.of(dfa);
+            CompactDFA minimized = new DFAMinimizer(false).minimize(compact);
+            DFA minimizedModel = new DFAMinimizer(false).minimize(dfa);
+            
+            // Both implementations find the same number of classes
+            assertEquals(minimizedModel.getStates().size(), minimized.getStateCount(), dfa::toString);
+            CompactDFA fromModel = CompactDFA.of(minimizedModel);
+            for (int w = 0; w < 50; w++) {
+                String word = RandomDFAs.word(random, 2, 10);
+                assertEquals(compact.accepts(word), minimized.accepts(word));
+                assertEquals(outputAfter(compact, word), outputAfter(minimized, word), word);
+                assertEquals(outputAfter(compact, word), outputAfter(fromModel, word), word);
+            }
+        }
+    }
+    
+    @Test
+    void separatesHundredsOfTokenClassesInOneRun() {
+        // Keywords k0 ... k399 as a trie, each accepted with its own token type
+        int keywords = 400;
+        CharClassMap classes = CharClassMap.ofSymbols("0123456789k".toCharArray());
+        int k = classes.getClassCount();
+        int[] transitions = new int[keywords * 4 * k];
+        Arrays.fill(transitions, CompactDFA.NO_STATE);
+        int[] tokens = new int[keywords * 4];
+        int stateCount = 1;
+        for (int token = 0; token < keywords; token++) {
+            int state = 0;
+            for (char c : ("k" + token).toCharArray()) {
+                int a = classes.classOf(c);
+                if (transitions[state * k + a] == CompactDFA.NO_STATE) {
+                    transitions[state * k + a] = stateCount++;
+                }
+                state = transitions[state * k + a];
+            }
+            tokens[state] = token + 1;
+        }
+        transitions = Arrays.copyOf(transitions, stateCount * k);
+        boolean[] accepting = new boolean[stateCount];
+        for (int s = 0; s < stateCount; s++) {
+            accepting[s] = tokens[s] > 0;
+        }
+        CompactDFA labelled = new CompactDFA(classes, transitions, accepting, Arrays.copyOf(tokens, stateCount), 0);
+        
+        CompactDFA minimized = new DFAMinimizer(false).minimize(labelled);
+        assertTrue(minimized.hasOutputs());
+        for (int token = 0; token < keywords; token++) {
+            assertEquals(token + 1, outputAfter(minimized, "k" + token));
+        }
+        // Every subtree holds different token types, so the trie is already minimal; without labels
+        // the common suffixes are shared
+        assertEquals(stateCount, minimized.getStateCount());
+        CompactDFA plain = new CompactDFA(classes, transitions, accepting, 0);
+        assertTrue(new DFAMinimizer(false).minimize(plain).getStateCount() < stateCount / 10);
+    }
+    
+    @Test
+    void keepsOutputsThroughConversions(@TempDir Path dir) throws IOException {
+        CompactDFA dfa = new CompactDFA(CharClassMap.ofSymbols(new char[] {'a'}), new int[] {1, 1},
+                new boolean[] {false, true}, new int[] {0, 7}, 0);
+        CompactDFA roundTrip = CompactDFA.of(dfa.toDFA());
+        assertEquals(7, outputAfter(roundTrip, "a"));
+        FrozenDFA frozen = dfa.toDFA().freeze();
+        assertEquals(7, frozen.getOutput(frozen.next(frozen.getStartState(), 'a')));
+        assertEquals(7, outputAfter(frozen.toCompactDFA(), "a"));
+        assertEquals(7, outputAfter(CompactDFA.of(frozen.toDFA()), "a"));
+        
+        StringWriter json = new StringWriter();
+        DFAJsonCodec.write(dfa.toDFA(), json);
+        assertTrue(json.toString().contains("\"outputs\": {\"q1\": 7}"), json.toString());
+        assertEquals(7, outputAfter(CompactDFA.of(DFAJsonCodec.read(new StringReader(json.toString()))), "a"));
+        String text = DFATextFormat.format(dfa.toDFA());
+        assertTrue(text.contains("outputs: q1=7\n"), text);
+        assertEquals(7, outputAfter(CompactDFA.of(DFATextFormat.parse(text)), "a"));
+        assertFalse(DFATextFormat.format(new DFAMinimizer(false).minimize(DFATextFormat.parse(text.replace("=7", "=0"))))
+                .contains("outputs"));
+        assertThrows(IllegalArgumentException.class, () -> DFATextFormat.parse(text.replace("=7", "=x")));
+        assertThrows(IllegalArgumentException.class,
+                () -> DFAJsonCodec.read(new StringReader("{\"outputs\": {\"q1\": 1.5}}")));
+        assertFalse(new CompactDFA(new char[] {'a'}, new int[] {0}, new boolean[] {true}, 0).hasOutputs());
+        assertFalse(new CompactDFA(CharClassMap.ofSymbols(new char[] {'a'}), new int[] {0}, new boolean[] {true},
+                new int[] {0}, 0).hasOutputs());
+        assertThrows(IllegalArgumentException.class, () -> new CompactDFA(CharClassMap.ofSymbols(new char[] {'a'}),
+                new int[] {0}, new boolean[] {true}, new int[] {1, 2}, 0));
+        
+        // Double reversal cannot keep labels, so it hands labelled automata to its fallback
+        CompactDFA brzozowski = new BrzozowskiMinimizer().minimize(dfa);
+        assertEquals(7, outputAfter(brzozowski, "aaa"));
+        assertThrows(IllegalArgumentException.class, () -> MappedDFA.of(dfa, dir.resolve("mapped")));
+        // Mapped files cannot hold labels either, so the mapped engine minimizes them on the heap
+        CompactDFA mapped = new MappedMinimizer(dir).minimize(dfa);
+        assertEquals(2, mapped.getStateCount());
+        assertEquals(7, outputAfter(mapped, "aaa"));
+        DFA mappedModel = new MappedMinimizer(dir).minimize(dfa.toDFA());
+        assertEquals(7, outputAfter(CompactDFA.of(mappedModel), "a"));
+    }
+}
@@ -0,0 +1,162 @@
+package com.dfaminimizer;
+
+import com.dfaminimizer.algorithm.DFAMinimizer;
+import com.dfaminimizer.algorithm.MappedMinimizer;
+import com.dfaminimizer.algorithm.RefinementCheckpoints;
+import com.dfaminimizer.model.CompactDFA;
+import com.dfaminimizer.model.MappedDFA;
+import com.dfaminimizer.testing.DFAOracle;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for saving and resuming partition refinement
+ */
+public class RefinementCheckpointTest {
+    
+    @TempDir
+    Path directory;
+    
+    /**
+     * A cycle of n states with one accepting state, which is minimal and needs about n rounds
+     */
+    private static CompactDFA cycle(int n) {
+        int[] transitions = new int[n * 2];
+        boolean[] accepting = new boolean[n];
+        for (int s = 0; s < n; s++) {
+            transitions[s * 2] = (s + 1) % n;
+            transitions[s * 2 + 1] = s;
+        }
+        accepting[n - 1] = true;
+        return new CompactDFA(new char[] {'a', 'b'}, transitions, accepting, 0);
+    }
+    
+    /**
+     * Runs a verbose minimization that interrupts itself once the given round has been logged
+     * @return Everything the minimizer printed
+     */
+    private static String minimizeInterrupted(DFAMinimizer minimizer, CompactDFA dfa, int round) {
+        String marker = "Iteration " + round + ":";
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream() {
+            @Override
+            public synchronized void write(byte[] bytes, int offset, int length) {
+                super.write(bytes, offset, length);
+                if (toString(StandardCharsets.UTF_8).contains(marker)) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(buffer, true, StandardCharsets.UTF_8));
+        try {
+            assertThrows(CancellationException.class, () -> minimizer.minimize(dfa));
+        } finally {
+            System.setOut(out);
+            Thread.interrupted();
+        }
+        return buffer.toString(StandardCharsets.UTF_8);
+    }
+    
+    private static String minimizeLogged(DFAMinimizer minimizer, CompactDFA dfa, CompactDFA expected) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(buffer, true, StandardCharsets.UTF_8));
+        try {
+            CompactDFA minimized = minimizer.minimize(dfa);
+            assertTrue(DFAOracle.isomorphic(expected.toDFA(), minimized.toDFA()));
+        } finally {
+            System.setOut(out);
+        }
+        return buffer.toString(StandardCharsets.UTF_8);
+    }
+    
+    private List<Path> checkpointFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.collect(Collectors.toList());
+        }
+    }
+    
+    @Test
+    void resumesFromLatestCheckpoint() throws IOException {
+        CompactDFA dfa = cycle(300);
+        CompactDFA expected = new DFAMinimizer(false).minimize(dfa);
+        assertEquals(300, expected.getStateCount());
+        
+        RefinementCheckpoints checkpoints = new RefinementCheckpoints(directory, Duration.ZERO);
+        DFAMinimizer minimizer = new DFAMinimizer(true, checkpoints);
+        minimizeInterrupted(minimizer, dfa, 40);
+        assertEquals(1, checkpointFiles().size());
+        
+        String log = minimizeLogged(minimizer, dfa, expected);
+        assertTrue(log.contains("Resumed after iteration 40"), log);
+        assertFalse(log.contains("Iteration 40:"), log);
+        // The checkpoint is removed once the minimization completes
+        assertEquals(List.of(), checkpointFiles());
+    }
+    
+    @Test
+    void ignoresCorruptAndForeignCheckpoints() throws IOException {
+        CompactDFA dfa = cycle(100);
+        CompactDFA expected = new DFAMinimizer(false).minimize(dfa);
+        RefinementCheckpoints checkpoints = new RefinementCheckpoints(directory, Duration.ZERO);
+        DFAMinimizer minimizer = new DFAMinimizer(true, checkpoints);
+        
+        minimizeInterrupted(minimizer, dfa, 10);
+        Path file = checkpointFiles().get(0);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(file, bytes);
+        String log = minimizeLogged(minimizer, dfa, expected);
+        assertFalse(log.contains("Resumed"), log);
+        
+        // A checkpoint of another automaton is not used and stays in place
+        minimizeInterrupted(minimizer, dfa, 10);
+        CompactDFA other = cycle(101);
+        log = minimizeLogged(minimizer, other, new DFAMinimizer(false).minimize(other));
+        assertFalse(log.contains("Resumed"), log);
+        assertEquals(1, checkpointFiles().size());
+    }
+    
+    @Test
+    void savesOnlyAfterInterval() throws IOException {
+        CompactDFA dfa = cycle(100);
+        DFAMinimizer minimizer = new DFAMinimizer(true, new RefinementCheckpoints(directory, Duration.ofHours(1)));
+        minimizeInterrupted(minimizer, dfa, 20);
+        assertEquals(List.of(), checkpointFiles());
+        
+        assertThrows(IllegalArgumentException.class,
+                () -> new RefinementCheckpoints(directory, Duration.ofSeconds(-1)));
+    }
+    
+    @Test
+    void mappedMinimizerCleansUpCheckpoints() throws IOException {
+        CompactDFA dfa = cycle(200);
+        Path checkpointDirectory = directory.resolve("checkpoints");
+        RefinementCheckpoints checkpoints = new RefinementCheckpoints(checkpointDirectory, Duration.ZERO);
+        try (MappedDFA mapped = MappedDFA.of(dfa, directory.resolve("input"))) {
+            assertEquals(RefinementCheckpoints.contentHash(dfa), RefinementCheckpoints.contentHash(mapped));
+            try (MappedDFA minimized = new MappedMinimizer(directory, checkpoints).minimize(mapped,
+                    directory.resolve("output"))) {
+                assertEquals(200, minimized.getStateCount());
+            }
+        }
+        try (Stream<Path> files = Files.list(checkpointDirectory)) {
+            assertEquals(0, files.count());
+        }
+        assertNotEquals(RefinementCheckpoints.contentHash(cycle(200)), RefinementCheckpoints.contentHash(cycle(201)));
+    }
+}
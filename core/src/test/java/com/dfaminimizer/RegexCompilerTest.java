@@ -0,0 +1,110 @@
+package com.dfaminimizer;
+
+import com.dfaminimizer.algorithm.DFAMinimizer;
+import com.dfaminimizer.model.CharClassMap;
+import com.dfaminimizer.model.CharRange;
+import com.dfaminimizer.model.CompactDFA;
+import com.dfaminimizer.regex.CompiledRegex;
+import com.dfaminimizer.regex.RegexCompiler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the regular expression frontend, using java.util.regex as reference
+ */
+public class RegexCompilerTest {
+    
+    private final RegexCompiler compiler = new RegexCompiler();
+    private final RegexCompiler bytecodeCompiler = new RegexCompiler(new DFAMinimizer(false),
+            RegexCompiler.DEFAULT_CACHE_SIZE, true);
+    
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "", "a", "abc", "a|b", "(a|b)*abb", "a*b+c?", "(ab)*|c", "[a-c]+", "[a-cx-z_]*\\d",
+        "(a|)b", "((a*)*)*", "a(b|c)*(d|e)?", "\\w+@\\w+", "[\\d.]+", "\\(a\\)", "x?x?x?xxx",
+        "[^a]*b", "a.c", ".*\\d", "[^\\s@]+@x", "[a-zA-Z0-9]+", "[\u00e9\u4e00-\u9fff]+x"
+    })
+    void agreesWithJavaRegex(String pattern) {
+        CompiledRegex compiled = compiler.compile(pattern);
+        CompiledRegex generated = bytecodeCompiler.compile(pattern);
+        assertTrue(generated.isBytecodeCompiled(), pattern);
+        Pattern reference = Pattern.compile(pattern);
+        Random random = new Random(pattern.hashCode());
+        String symbols = "abcdexyz_019@.() \n\u00e9\u4e2d\uffff";
+        for (int i = 0; i < 2000; i++) {
+            int length = random.nextInt(8);
+            StringBuilder sb = new StringBuilder();
+            for (int j = 0; j < length; j++) {
+                sb.append(symbols.charAt(random.nextInt(symbols.length())));
+            }
+            String input = sb.toString();
+            assertEquals(reference.matcher(input).matches(), compiled.matches(input),
+                    () -> "'" + pattern + "' on '" + input + "'");
+            assertEquals(compiled.matches(input), generated.matches(input),
+                    () -> "generated '" + pattern + "' on '" + input + "'");
+        }
+    }
+    
+    @Test
+    void producesMinimalDFA() {
+        // The classic example: (a|b)*abb needs four states
+        assertEquals(4, compiler.compile("(a|b)*abb").getCompactDFA().getStateCount());
+        assertEquals(1, compiler.compile("(a|b)*").getCompactDFA().getStateCount());
+    }
+    
+    @Test
+    void cachesByPattern() {
+        CompiledRegex first = compiler.compile("(a|b)*c");
+        assertSame(first, compiler.compile("(a|b)*c"));
+        assertNotSame(first, compiler.compile("(a|b)*d"));
+        
+        RegexCompiler small = new RegexCompiler(new com.dfaminimizer.algorithm.DFAMinimizer(false), 2);
+        for (String pattern : new String[] {"a", "b", "c", "d"}) {
+            small.compile(pattern);
+            assertTrue(small.getCacheSize() <= 2);
+        }
+    }
+    
+    @Test
+    void keepsLargeClassesAsSingleColumns() {
+        // Letters and digits behave the same everywhere, so they share one class beside "everything else"
+        CompactDFA dfa = compiler.compile("[a-zA-Z0-9]+").getCompactDFA();
+        assertEquals(2, dfa.getStateCount());
+        assertEquals(1, dfa.getAlphabetSize());
+        assertEquals(62, dfa.getClassMap().getAlphabetSize());
+        
+        CompactDFA negated = compiler.compile("(a|[^a])*a").getCompactDFA();
+        assertEquals(2, negated.getAlphabetSize());
+        assertEquals(Character.MAX_VALUE + 1, negated.getClassMap().getAlphabetSize());
+        assertTrue(negated.isComplete());
+    }
+    
+    @Test
+    void partitionsOverlappingRanges() {
+        CharClassMap classes = CharClassMap.partition(Arrays.asList(
+                Collections.singletonList(new CharRange('a', 'm')),
+                Arrays.asList(new CharRange('h', 'z'), CharRange.of('0'))));
+        assertEquals(3, classes.getClassCount());
+        assertEquals(classes.classOf('a'), classes.classOf('g'));
+        assertEquals(classes.classOf('h'), classes.classOf('m'));
+        assertEquals(classes.classOf('0'), classes.classOf('z'));
+        assertNotEquals(classes.classOf('g'), classes.classOf('h'));
+        assertEquals(-1, classes.classOf('A'));
+        assertEquals(Arrays.asList(CharRange.of('0'), new CharRange('n', 'z')), classes.getRanges(classes.classOf('z')));
+    }
+    
+    @ParameterizedTest
+    @ValueSource(strings = {"(a", "a)", "*a", "[a-", "[z-a]", "a\\", "a|+", "[^a", "a\\q"})
+    void rejectsMalformedPatterns(String pattern) {
+        assertThrows(PatternSyntaxException.class, () -> compiler.compile(pattern));
+    }
+}
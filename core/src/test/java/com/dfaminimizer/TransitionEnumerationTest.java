@@ -0,0 +1,67 @@
+package com.dfaminimizer;
+
+import com.dfaminimizer.io.DFATextFormat;
+import com.dfaminimizer.model.DFA;
+import com.dfaminimizer.model.FrozenDFA;
+import com.dfaminimizer.model.State;
+import com.dfaminimizer.model.Transition;
+import com.dfaminimizer.testing.RandomDFAs;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for enumerating transitions without Transition objects
+ */
+public class TransitionEnumerationTest {
+    
+    @Test
+    void visitorSeesEveryTransitionOnce() {
+        Random random = new Random(1);
+        for (int i = 0; i < 200; i++) {
+            DFA dfa = RandomDFAs.mixed(random, i, 10, 3);
+            Set<Transition> visited = new HashSet<>();
+            dfa.forEachTransition((from, symbol, to) -> assertTrue(visited.add(new Transition(from, to, symbol))));
+            assertEquals(dfa.getTransitions(), visited);
+            assertEquals(visited.size(), dfa.getTransitionCount());
+            
+            FrozenDFA frozen = dfa.freeze();
+            Set<Transition> indexed = new HashSet<>();
+            frozen.forEachTransition((from, symbol, to) -> indexed.add(new Transition(
+                    dfa.getStateByName(frozen.getStateName(from)), dfa.getStateByName(frozen.getStateName(to)), symbol)));
+            assertEquals(visited, indexed);
+        }
+    }
+    
+    @Test
+    void frozenVisitorIsOrderedBySourceAndSymbol() {
+        DFA dfa = new DFA();
+        State q0 = new State("q0", true, false);
+        State q1 = new State("q1", false, true);
+        dfa.addState(q0);
+        dfa.addState(q1);
+        dfa.addTransition(q1, q0, 'b');
+        dfa.addTransition(q0, q1, 'b');
+        dfa.addTransition(q0, q0, 'a');
+        StringBuilder order = new StringBuilder();
+        dfa.freeze().forEachTransition((from, symbol, to) -> order.append(from).append(symbol).append(to).append(' '));
+        assertEquals("0a0 0b1 1b0 ", order.toString());
+    }
+    
+    @Test
+    void textFormatListsTransitionsSorted() {
+        DFA dfa = new DFA();
+        State q10 = new State("q10", true, false);
+        State q1 = new State("q1", false, true);
+        dfa.addState(q10);
+        dfa.addState(q1);
+        dfa.addTransition(q10, q1, 'b');
+        dfa.addTransition(q10, q10, 'a');
+        dfa.addTransition(q1, q1, 'a');
+        assertEquals("q1,a,q1\nq10,a,q10\nq10,b,q1\n", DFATextFormat.fields(dfa).get(DFATextFormat.TRANSITIONS));
+    }
+}
@@ -0,0 +1,170 @@
+package com.dfaminimizer.testing;
+
+import com.dfaminimizer.model.DFA;
+import com.dfaminimizer.model.State;
+
+import java.util.*;
+
+/**
+ * Reference implementations used to check minimizer results independently of any engine
+ */
+public final class DFAOracle {
+    
+    private DFAOracle() {
+    }
+    
+    /**
+     * Returns a word accepted by exactly one of the two DFAs, or null if they are equivalent.
+     * A missing transition is treated as a move to an implicit rejecting sink.
+     */
+    public static String distinguishingWord(DFA first, DFA second) {
+        Set<Character> alphabet = new TreeSet<>(first.getAlphabet());
+        alphabet.addAll(second.getAlphabet());
+        
+        Map<List<State>, String> visited = new HashMap<>();
+        Deque<List<State>> queue = new ArrayDeque<>();
+        List<State> start = Arrays.asList(first.getStartState(), second.getStartState());
+        visited.put(start, "");
+        queue.add(start);
+        
+        while (!queue.isEmpty()) {
+            List<State> pair = queue.poll();
+            String word = visited.get(pair);
+            if (isFinal(first, pair.get(0)) != isFinal(second, pair.get(1))) {
+                return word;
+            }
+            for (char symbol : alphabet) {
+                List<State> next = Arrays.asList(step(first, pair.get(0), symbol), step(second, pair.get(1), symbol));
+                if (!visited.containsKey(next)) {
+                    visited.put(next, word + symbol);
+                    queue.add(next);
+                }
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Counts Myhill-Nerode classes of the reachable states using the table filling algorithm
+     */
+    public static int nerodeClassCount(DFA dfa) {
+        List<State> states = new ArrayList<>(reachableStates(dfa));
+        List<Character> alphabet = new ArrayList<>(dfa.getAlphabet());
+        int n = states.size();
+        Map<State, Integer> index = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            index.put(states.get(i), i);
+        }
+        
+        boolean[][] distinct = new boolean[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < i; j++) {
+                distinct[i][j] = states.get(i).isFinal() != states.get(j).isFinal();
+            }
+        }
+        
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < i; j++) {
+                    if (distinct[i][j]) {
+                        continue;
+                    }
+                    for (char symbol : alphabet) {
+                        State p = dfa.getNextState(states.get(i), symbol);
+                        State q = dfa.getNextState(states.get(j), symbol);
+                        if ((p == null) != (q == null)) {
+                            distinct[i][j] = true;
+                        } else if (p != null) {
+                            int a = index.get(p);
+                            int b = index.get(q);
+                            distinct[i][j] = a != b && distinct[Math.max(a, b)][Math.min(a, b)];
+                        }
+                        if (distinct[i][j]) {
+                            changed = true;
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+        
+        int classes = 0;
+        for (int i = 0; i < n; i++) {
+            boolean representative = true;
+            for (int j = 0; j < i && representative; j++) {
+                representative = distinct[i][j];
+            }
+            if (representative) {
+                classes++;
+            }
+        }
+        return classes;
+    }
+    
+    /**
+     * Checks whether two DFAs are identical up to renaming of states
+     */
+    public static boolean isomorphic(DFA first, DFA second) {
+        if (first.getStates().size() != second.getStates().size()
+                || !first.getAlphabet().equals(second.getAlphabet())) {
+            return false;
+        }
+        Map<State, State> mapping = new HashMap<>();
+        Deque<State> queue = new ArrayDeque<>();
+        mapping.put(first.getStartState(), second.getStartState());
+        queue.add(first.getStartState());
+        while (!queue.isEmpty()) {
+            State p = queue.poll();
+            State q = mapping.get(p);
+            if (p.isFinal() != q.isFinal()) {
+                return false;
+            }
+            for (char symbol : first.getAlphabet()) {
+                State pNext = first.getNextState(p, symbol);
+                State qNext = second.getNextState(q, symbol);
+                if (pNext == null || qNext == null) {
+                    if (pNext != qNext) {
+                        return false;
+                    }
+                    continue;
+                }
+                State mapped = mapping.get(pNext);
+                if (mapped == null) {
+                    mapping.put(pNext, qNext);
+                    queue.add(pNext);
+                } else if (!mapped.equals(qNext)) {
+                    return false;
+                }
+            }
+        }
+        return new HashSet<>(mapping.values()).size() == mapping.size();
+    }
+    
+    public static Set<State> reachableStates(DFA dfa) {
+        Set<State> reachable = new HashSet<>();
+        Deque<State> queue = new ArrayDeque<>();
+        reachable.add(dfa.getStartState());
+        queue.add(dfa.getStartState());
+        Set<Character> alphabet = dfa.getAlphabet();
+        while (!queue.isEmpty()) {
+            State state = queue.poll();
+            for (char symbol : alphabet) {
+                State next = dfa.getNextState(state, symbol);
+                if (next != null && reachable.add(next)) {
+                    queue.add(next);
+                }
+            }
+        }
+        return reachable;
+    }
+    
+    private static boolean isFinal(DFA dfa, State state) {
+        return state != null && state.isFinal();
+    }
+    
+    private static State step(DFA dfa, State state, char symbol) {
+        return state == null ? null : dfa.getNextState(state, symbol);
+    }
+}
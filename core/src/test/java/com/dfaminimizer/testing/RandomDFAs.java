@@ -0,0 +1,109 @@
+package com.dfaminimizer.testing;
+
+import com.dfaminimizer.model.DFA;
+import com.dfaminimizer.model.State;
+
+import java.util.*;
+
+/**
+ * Generates random DFAs for property based tests
+ */
+public final class RandomDFAs {
+    
+    private RandomDFAs() {
+    }
+    
+    /**
+     * Creates a complete DFA in which every state is reachable from the start state
+     */
+    public static DFA complete(Random random, int maxStates, int alphabetSize) {
+        int stateCount = 1 + random.nextInt(maxStates);
+        int[][] delta = new int[stateCount][alphabetSize];
+        boolean[] accepting = new boolean[stateCount];
+        for (int s = 0; s < stateCount; s++) {
+            accepting[s] = random.nextBoolean();
+            for (int a = 0; a < alphabetSize; a++) {
+                delta[s][a] = random.nextInt(stateCount);
+            }
+        }
+        
+        // Keep only the reachable part so the generated DFA is accessible
+        int[] order = new int[stateCount];
+        Arrays.fill(order, -1);
+        List<Integer> reachable = new ArrayList<>();
+        Deque<Integer> queue = new ArrayDeque<>();
+        order[0] = 0;
+        reachable.add(0);
+        queue.add(0);
+        while (!queue.isEmpty()) {
+            int s = queue.poll();
+            for (int a = 0; a < alphabetSize; a++) {
+                int t = delta[s][a];
+                if (order[t] < 0) {
+                    order[t] = reachable.size();
+                    reachable.add(t);
+                    queue.add(t);
+                }
+            }
+        }
+        
+        DFA dfa = new DFA();
+        State[] states = new State[reachable.size()];
+        for (int i = 0; i < states.length; i++) {
+            states[i] = new State("s" + i, i == 0, accepting[reachable.get(i)]);
+            dfa.addState(states[i]);
+        }
+        for (int i = 0; i < states.length; i++) {
+            int s = reachable.get(i);
+            for (int a = 0; a < alphabetSize; a++) {
+                dfa.addTransition(states[i], states[order[delta[s][a]]], symbol(a));
+            }
+        }
+        return dfa;
+    }
+    
+    /**
+     * Creates a DFA that may have missing transitions and unreachable states
+     */
+    public static DFA partial(Random random, int maxStates, int alphabetSize) {
+        int stateCount = 1 + random.nextInt(maxStates);
+        DFA dfa = new DFA();
+        State[] states = new State[stateCount];
+        for (int i = 0; i < stateCount; i++) {
+            states[i] = new State("p" + i, i == 0, random.nextInt(3) == 0);
+            dfa.addState(states[i]);
+        }
+        for (State from : states) {
+            for (int a = 0; a < alphabetSize; a++) {
+                if (random.nextInt(4) != 0) {
+                    dfa.addTransition(from, states[random.nextInt(stateCount)], symbol(a));
+                }
+            }
+        }
+        return dfa;
+    }
+    
+    /**
+     * Creates the DFA for the index-th sample of a loop: {@link #complete} for even indexes and
+     * {@link #partial} for odd ones, so both shapes are covered equally
+     */
+    public static DFA mixed(Random random, int index, int maxStates, int alphabetSize) {
+        return index % 2 == 0 ? complete(random, maxStates, alphabetSize) : partial(random, maxStates, alphabetSize);
+    }
+    
+    /**
+     * Creates a random word over the first alphabetSize symbols
+     */
+    public static String word(Random random, int alphabetSize, int maxLength) {
+        int length = random.nextInt(maxLength + 1);
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(symbol(random.nextInt(alphabetSize)));
+        }
+        return sb.toString();
+    }
+    
+    public static char symbol(int index) {
+        return (char) ('a' + index);
+    }
+}
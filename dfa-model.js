@@ -135,6 +135,34 @@ class DFA {
         return this.printDFA();
     }
 
+    // Serializes to the JSON schema shared with the Java DFAJsonCodec
+    toJSON() {
+        const names = states => Array.from(states).map(s => s.name).sort();
+        return {
+            states: names(this.states),
+            alphabet: Array.from(this.alphabet).sort(),
+            startState: this.startState ? this.startState.name : null,
+            finalStates: names(this.finalStates),
+            transitions: this.getTransitions().map(t => ({ from: t.from.name, symbol: t.symbol, to: t.to.name }))
+        };
+    }
+
+    // Static method to create DFA from the JSON schema shared with the Java DFAJsonCodec
+    static fromJSON(json) {
+        const dfa = new DFA();
+        const finalNames = new Set(json.finalStates || []);
+        for (const name of json.states || []) {
+            dfa.addState(new State(name, name === json.startState, finalNames.has(name)));
+        }
+        for (const symbol of json.alphabet || []) {
+            dfa.alphabet.add(symbol);
+        }
+        for (const t of json.transitions || []) {
+            dfa.addTransitionByName(t.from, t.to, t.symbol);
+        }
+        return dfa;
+    }
+
     // Static method to create DFA from input data
     static fromInputData(data) {
         const dfa = new DFA();
@@ -3,4 +3,5 @@ echo Running DFA Minimization Tool - Console Version
 echo.
 echo This version works without JavaFX and provides the same functionality.
 echo.
-java -cp src/main/java com.dfaminimizer.ConsoleDFAMinimizer
+call mvn -q -pl cli -am compile
+java -cp core\target\classes;cli\target\classes com.dfaminimizer.cli.ConsoleDFAMinimizer %*
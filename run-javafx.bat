@@ -3,6 +3,7 @@ echo Running DFA Minimization Tool with JavaFX...
 echo.
 echo Note: This requires JavaFX to be installed and configured.
 echo If you get JavaFX errors, use the console version instead:
-echo java -cp src/main/java com.dfaminimizer.ConsoleDFAMinimizer
+echo run-console.bat
 echo.
-mvn javafx:run
+call mvn -q install -DskipTests
+mvn -pl ui javafx:run
@@ -1,9 +0,0 @@
-module dfaminimizer {
-    requires javafx.controls;
-    requires javafx.fxml;
-    requires java.desktop;
-    
-    exports com.dfaminimizer.model;
-    exports com.dfaminimizer.algorithm;
-    exports com.dfaminimizer.ui;
-}
@@ -1,22 +1,36 @@
 package com.dfaminimizer.ui;
 
+import com.dfaminimizer.algorithm.MemoryBudgetExceededException;
 import com.dfaminimizer.model.DFA;
 import com.dfaminimizer.model.State;
+import com.dfaminimizer.regex.CompiledRegex;
+import com.dfaminimizer.regex.RegexCompiler;
 import javafx.geometry.Insets;
+import javafx.geometry.Pos;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
 /**
  * Pane for inputting DFA data
  */
 public class DFAInputPane extends VBox {
     
+    /** Largest alphabet a compiled regex may expand to in the text fields */
+    private static final int MAX_EDITOR_ALPHABET = 256;
+    
     private TextField statesField;
     private TextField alphabetField;
     private TextArea transitionsArea;
     private TextField startStateField;
     private TextField finalStatesField;
     private Button loadExampleButton;
+    private TextField regexField;
+    private Button compileRegexButton;
+    private final RegexCompiler regexCompiler = new RegexCompiler();
     
     public DFAInputPane() {
         initializeComponents();
@@ -42,6 +56,10 @@ public class DFAInputPane extends VBox {
         finalStatesField.setPromptText("e.g., q2");
         
         loadExampleButton = new Button("Load Example DFA");
+        
+        regexField = new TextField();
+        regexField.setPromptText("e.g., (a|b)*abb");
+        compileRegexButton = new Button("Compile Regex");
     }
     
     private void layoutComponents() {
@@ -89,7 +107,12 @@ public class DFAInputPane extends VBox {
         
         // Control buttons
         HBox buttonBox = new HBox(10);
-        buttonBox.getChildren().addAll(loadExampleButton);
+        buttonBox.getChildren().addAll(
+            loadExampleButton,
+            new Label("Regex:"),
+            regexField,
+            compileRegexButton
+        );
         buttonBox.setAlignment(Pos.CENTER);
         
         getChildren().addAll(
@@ -104,6 +127,7 @@ public class DFAInputPane extends VBox {
     
     private void setupEventHandlers() {
         loadExampleButton.setOnAction(e -> loadExampleDFA());
+        compileRegexButton.setOnAction(e -> loadRegex(regexField.getText()));
     }
     
     private void loadExampleDFA() {
@@ -115,6 +139,38 @@ public class DFAInputPane extends VBox {
         finalStatesField.setText("q2");
     }
     
+    /**
+     * Compiles a regular expression to a minimized DFA and fills the input fields with it
+     */
+    private void loadRegex(String pattern) {
+        try {
+            CompiledRegex compiled = regexCompiler.compile(pattern);
+            int alphabetSize = compiled.getCompactDFA().getClassMap().getAlphabetSize();
+            if (alphabetSize > MAX_EDITOR_ALPHABET) {
+                throw new IllegalArgumentException("its alphabet has " + alphabetSize
+                        + " characters, the editor supports at most " + MAX_EDITOR_ALPHABET);
+            }
+            DFA dfa = compiled.toDFA();
+            statesField.setText(dfa.getStates().stream().map(State::getName).sorted().collect(Collectors.joining(",")));
+            alphabetField.setText(dfa.getAlphabet().stream().sorted().map(String::valueOf).collect(Collectors.joining(",")));
+            List<String> transitions = new ArrayList<>(dfa.getTransitionCount());
+            dfa.forEachTransition((from, symbol, to) -> transitions.add(from.getName() + "," + symbol + "," + to.getName()));
+            transitions.sort(null);
+            transitionsArea.setText(String.join("\n", transitions));
+            startStateField.setText(dfa.getStartState() == null ? "" : dfa.getStartState().getName());
+            finalStatesField.setText(dfa.getFinalStates().stream().map(State::getName).sorted().collect(Collectors.joining(",")));
+        } catch (IllegalArgumentException e) {
+            Alert alert = new Alert(Alert.AlertType.ERROR, "Invalid regular expression: " + e.getMessage());
+            alert.setHeaderText(null);
+            alert.showAndWait();
+        } catch (MemoryBudgetExceededException e) {
+            Alert alert = new Alert(Alert.AlertType.ERROR, "Regular expression is too large to determinize: "
+                    + e.getMessage());
+            alert.setHeaderText(null);
+            alert.showAndWait();
+        }
+    }
+    
     public DFA getDFA() {
         try {
             DFA dfa = new DFA();
@@ -133,7 +189,7 @@ public class DFAInputPane extends VBox {
             for (String charStr : alphabetChars) {
                 charStr = charStr.trim();
                 if (!charStr.isEmpty() && charStr.length() == 1) {
-                    dfa.getAlphabet().add(charStr.charAt(0));
+                    dfa.addSymbol(charStr.charAt(0));
                 }
             }
             
@@ -160,7 +216,7 @@ public class DFAInputPane extends VBox {
             if (!startStateName.isEmpty()) {
                 State startState = dfa.getStateByName(startStateName);
                 if (startState != null) {
-                    startState.setStart(true);
+                    dfa.setStartState(startState);
                 }
             }
             
@@ -171,7 +227,7 @@ public class DFAInputPane extends VBox {
                 if (!stateName.isEmpty()) {
                     State finalState = dfa.getStateByName(stateName);
                     if (finalState != null) {
-                        finalState.setFinal(true);
+                        dfa.addFinalState(finalState);
                     }
                 }
             }
@@ -2,7 +2,6 @@ package com.dfaminimizer.ui;
 
 import com.dfaminimizer.model.DFA;
 import com.dfaminimizer.model.State;
-import com.dfaminimizer.model.Transition;
 import javafx.geometry.Point2D;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.layout.Pane;
@@ -12,7 +11,9 @@ import javafx.scene.shape.Line;
 import javafx.scene.text.Text;
 import javafx.scene.text.TextAlignment;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -23,8 +24,8 @@ public class DFAVisualizationPane extends ScrollPane {
     private Pane graphPane;
     private Map<State, Circle> stateCircles;
     private Map<State, Text> stateLabels;
-    private Map<Transition, Line> transitionLines;
-    private Map<Transition, Text> transitionLabels;
+    private List<Line> transitionLines;
+    private List<Text> transitionLabels;
     
     public DFAVisualizationPane() {
         initializeComponents();
@@ -35,8 +36,8 @@ public class DFAVisualizationPane extends ScrollPane {
         graphPane = new Pane();
         stateCircles = new HashMap<>();
         stateLabels = new HashMap<>();
-        transitionLines = new HashMap<>();
-        transitionLabels = new HashMap<>();
+        transitionLines = new ArrayList<>();
+        transitionLabels = new ArrayList<>();
         
         setContent(graphPane);
         setPrefSize(400, 300);
@@ -68,11 +69,8 @@ public class DFAVisualizationPane extends ScrollPane {
         }
         
         // Draw transitions
-        for (Transition transition : dfa.getTransitions()) {
-            Point2D fromPos = statePositions.get(transition.getFrom());
-            Point2D toPos = statePositions.get(transition.getTo());
-            drawTransition(transition, fromPos, toPos);
-        }
+        dfa.forEachTransition((from, symbol, to) ->
+                drawTransition(symbol, statePositions.get(from), statePositions.get(to)));
         
         // Draw start arrow
         if (dfa.getStartState() != null) {
@@ -139,7 +137,7 @@ public class DFAVisualizationPane extends ScrollPane {
         stateLabels.put(state, label);
     }
     
-    private void drawTransition(Transition transition, Point2D fromPos, Point2D toPos) {
+    private void drawTransition(char symbol, Point2D fromPos, Point2D toPos) {
         // Calculate arrow position
         double dx = toPos.getX() - fromPos.getX();
         double dy = toPos.getY() - fromPos.getY();
@@ -161,7 +159,7 @@ public class DFAVisualizationPane extends ScrollPane {
         line.setStrokeWidth(2);
         
         // Create transition label
-        Text label = new Text(String.valueOf(transition.getSymbol()));
+        Text label = new Text(String.valueOf(symbol));
         double labelX = (startX + endX) / 2 - label.getBoundsInLocal().getWidth() / 2;
         double labelY = (startY + endY) / 2 - 5;
         label.setX(labelX);
@@ -171,8 +169,8 @@ public class DFAVisualizationPane extends ScrollPane {
         drawArrowhead(endX, endY, unitX, unitY);
         
         graphPane.getChildren().addAll(line, label);
-        transitionLines.put(transition, line);
-        transitionLabels.put(transition, label);
+        transitionLines.add(line);
+        transitionLabels.add(label);
     }
     
     private void drawArrowhead(double x, double y, double unitX, double unitY) {
@@ -0,0 +1,10 @@
+/**
+ * JavaFX user interface
+ */
+module dfaminimizer.ui {
+    requires dfaminimizer.core;
+    requires javafx.controls;
+    requires javafx.fxml;
+    
+    exports com.dfaminimizer.ui;
+}